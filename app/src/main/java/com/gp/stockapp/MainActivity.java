@@ -5,10 +5,10 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.graphics.Typeface;
 import android.graphics.drawable.GradientDrawable;
-import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.util.TypedValue;
@@ -33,12 +33,16 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 import com.gp.stockapp.api.GLM4Client;
 import com.gp.stockapp.model.MarketAnalysis;
 import com.gp.stockapp.model.MarketIndex;
+import com.gp.stockapp.model.SentimentCycle;
 import com.gp.stockapp.model.StockNews;
 import com.gp.stockapp.model.StrategyRecommendation;
 import com.gp.stockapp.repository.StockRepository;
-import com.gp.stockapp.service.StockDataService;
-import com.gp.stockapp.service.AIRecommendationService;
+import com.gp.stockapp.service.MonitorServices;
+import com.gp.stockapp.service.StrategyGenerator;
+import com.gp.stockapp.service.StrategyReplayer;
 import com.gp.stockapp.utils.TradingDayHelper;
+import com.gp.stockapp.work.BackgroundJobs;
+import com.gp.stockapp.work.HistoryBackfillWorker;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -53,6 +57,8 @@ import java.util.Locale;
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "MainActivity";
     private static final int PERMISSION_REQUEST_CODE = 1001;
+    // 调试菜单中策略回放覆盖的交易日数
+    private static final int REPLAY_TRADING_DAYS = 20;
 
     // 上证指数 UI
     private TextView tvShPoint, tvShChange, tvShPercent, tvShVolume, tvShRange;
@@ -104,9 +110,9 @@ public class MainActivity extends AppCompatActivity {
                 refreshAnalysis();
             } else if (ACTION_STRATEGY_UPDATED.equals(intent.getAction())) {
                 refreshStrategyRecommendations();
-            } else if (StockDataService.ACTION_HISTORY_SYNC_STATUS.equals(intent.getAction())) {
-                boolean running = intent.getBooleanExtra(StockDataService.EXTRA_HISTORY_SYNC_RUNNING, false);
-                String message = intent.getStringExtra(StockDataService.EXTRA_HISTORY_SYNC_MESSAGE);
+            } else if (HistoryBackfillWorker.ACTION_HISTORY_SYNC_STATUS.equals(intent.getAction())) {
+                boolean running = intent.getBooleanExtra(HistoryBackfillWorker.EXTRA_HISTORY_SYNC_RUNNING, false);
+                String message = intent.getStringExtra(HistoryBackfillWorker.EXTRA_HISTORY_SYNC_MESSAGE);
                 updateHistorySyncButtonState(running);
                 if (message != null && !message.isEmpty()) {
                     Toast.makeText(MainActivity.this, message, Toast.LENGTH_SHORT).show();
@@ -145,6 +151,12 @@ public class MainActivity extends AppCompatActivity {
         menu.add(0, 1, 0, "设置")
                 .setIcon(R.drawable.ic_toolbar_settings)
                 .setShowAsAction(MenuItem.SHOW_AS_ACTION_ALWAYS);
+
+        // 策略回放只在调试包中提供（收在溢出菜单里）
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            menu.add(0, 3, 0, "策略回放")
+                    .setShowAsAction(MenuItem.SHOW_AS_ACTION_NEVER);
+        }
                 
         return true;
     }
@@ -157,6 +169,9 @@ public class MainActivity extends AppCompatActivity {
         } else if (item.getItemId() == 2) {
             showSyncHistoryDialog();
             return true;
+        } else if (item.getItemId() == 3) {
+            showStrategyReplayDialog();
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -335,6 +350,13 @@ public class MainActivity extends AppCompatActivity {
             glm4Client.setApiKey(apiKey);
         }
 
+        // 注册盘后采集等周期任务（已注册时保持原计划）
+        BackgroundJobs.schedulePeriodicJobs(this);
+
+        // 恢复监控开关状态
+        isServiceRunning = MonitorServices.isEnabled(this);
+        updateServiceStatus(isServiceRunning);
+
         // 加载已有数据
         refreshMarketData();
         refreshAnalysis();
@@ -354,30 +376,11 @@ public class MainActivity extends AppCompatActivity {
 
         glm4Client.setApiKey(apiKey);
 
-        // 启动数据抓取服务
-        Intent dataIntent = new Intent(this, StockDataService.class);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            startForegroundService(dataIntent);
-        } else {
-            startService(dataIntent);
-        }
+        // 启动数据抓取和AI分析服务，收盘后服务自行停止，之后每个交易日盘前自动拉起
+        MonitorServices.start(this);
 
-        // 启动AI分析服务
-        Intent aiIntent = new Intent(this, AIRecommendationService.class);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            startForegroundService(aiIntent);
-        } else {
-            startService(aiIntent);
-        }
-        
         // 触发板块推荐强制刷新
-        Intent sectorIntent = new Intent(this, AIRecommendationService.class);
-        sectorIntent.setAction(AIRecommendationService.ACTION_FORCE_SECTOR);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            startForegroundService(sectorIntent);
-        } else {
-            startService(sectorIntent);
-        }
+        BackgroundJobs.enqueueStrategy(this, StrategyGenerator.TYPE_SECTOR);
 
         isServiceRunning = true;
         updateServiceStatus(true);
@@ -385,14 +388,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void onStopService(View view) {
-        // 先停止前台服务
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            stopService(new Intent(this, StockDataService.class));
-            stopService(new Intent(this, AIRecommendationService.class));
-        } else {
-            stopService(new Intent(this, StockDataService.class));
-            stopService(new Intent(this, AIRecommendationService.class));
-        }
+        // 停止前台服务，盘前不再自动拉起
+        MonitorServices.stop(this);
 
         isServiceRunning = false;
         updateServiceStatus(false);
@@ -439,15 +436,33 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * 调试用：对最近一段交易日的策略快照提交回放（竞价+尾盘），结果写入 replay_runs/{runId}.jsonl
+     */
+    private void showStrategyReplayDialog() {
+        String[] options = {"初筛基线（本地，最近" + REPLAY_TRADING_DAYS + "个交易日）",
+                "真实模型（" + REPLAY_TRADING_DAYS + "个交易日，消耗API额度）"};
+        new AlertDialog.Builder(this)
+                .setTitle("策略回放")
+                .setItems(options, (dialog, which) -> {
+                    boolean useStub = which == 0;
+                    List<String> days = TradingDayHelper.getRecentTradingDayStrings(REPLAY_TRADING_DAYS);
+                    String fromDate = days.get(days.size() - 1);
+                    String toDate = days.get(0);
+                    String runId = (useStub ? "stub_" : "model_") + fromDate + "_" + toDate;
+                    BackgroundJobs.enqueueStrategyReplay(this, runId, null, fromDate, toDate, useStub,
+                            useStub ? StrategyReplayer.MAX_PARALLELISM : 1);
+                    Toast.makeText(this, "已提交回放 " + runId + "，完成后结果见 replay_runs/" + runId + ".jsonl",
+                            Toast.LENGTH_LONG).show();
+                })
+                .setNegativeButton("取消", null)
+                .show();
+    }
+
     private void triggerHistorySync() {
-        updateHistorySyncButtonState(true);
-        Intent intent = new Intent(this, StockDataService.class);
-        intent.setAction(StockDataService.ACTION_SYNC_HISTORY);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            startForegroundService(intent);
-        } else {
-            startService(intent);
-        }
+        // 补齐在后台任务中执行，开始后通过 ACTION_HISTORY_SYNC_STATUS 广播进度
+        BackgroundJobs.enqueueHistoryBackfill(this);
+        Toast.makeText(this, "已提交历史数据补齐，联网且电量充足时在后台执行", Toast.LENGTH_SHORT).show();
     }
 
     // ===== 数据刷新 =====
@@ -472,6 +487,8 @@ public class MainActivity extends AppCompatActivity {
             }
         }
 
+        refreshSentimentCycle();
+
         // 更新最后刷新时间
         SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss", Locale.CHINA);
         tvLastUpdate.setText("更新: " + sdf.format(new Date()));
@@ -505,19 +522,35 @@ public class MainActivity extends AppCompatActivity {
         tvChange.setTextColor(color);
         tvPercent.setTextColor(color);
         
-        // 振幅（如果提供了TextView）
+        // 振幅（如果提供了TextView），有全市场涨跌家数时一并显示
         if (tvRange != null && index.getHigh() > 0 && index.getLow() > 0 && index.getPreClose() > 0) {
             double range = (index.getHigh() - index.getLow()) / index.getPreClose() * 100;
-            tvRange.setText(String.format(Locale.CHINA, "振幅: %.2f%%", range));
+            String rangeText = String.format(Locale.CHINA, "振幅: %.2f%%", range);
+            if (index.getAdvanceCount() + index.getDeclineCount() > 0) {
+                rangeText += String.format(Locale.CHINA, "  涨%d/跌%d", index.getAdvanceCount(), index.getDeclineCount());
+            }
+            tvRange.setText(rangeText);
         }
     }
 
+    /**
+     * 市场情绪显示本地判定的情绪周期（每次行情刷新都更新），还没有判定结果时显示模型研判
+     */
+    private void refreshSentimentCycle() {
+        SentimentCycle cycle = stockRepository.getSentimentCycle();
+        if (cycle == null) return;
+        tvSentiment.setText(cycle.getStage() + " " + cycle.getScore());
+        tvSentiment.setTextColor(cycle.getStageColor());
+    }
+
     private void refreshAnalysis() {
         MarketAnalysis analysis = stockRepository.getLatestMarketAnalysis();
         if (analysis == null) return;
 
-        tvSentiment.setText(analysis.getSentimentText());
-        tvSentiment.setTextColor(analysis.getSentimentColor());
+        if (stockRepository.getSentimentCycle() == null) {
+            tvSentiment.setText(analysis.getSentimentText());
+            tvSentiment.setTextColor(analysis.getSentimentColor());
+        }
 
         tvTrend.setText(analysis.getTrendText());
         tvRisk.setText(analysis.getRiskText());
@@ -942,9 +975,14 @@ public class MainActivity extends AppCompatActivity {
         filter.addAction(ACTION_DATA_UPDATED);
         filter.addAction(ACTION_ANALYSIS_UPDATED);
         filter.addAction(ACTION_STRATEGY_UPDATED);
-        filter.addAction(StockDataService.ACTION_HISTORY_SYNC_STATUS);
+        filter.addAction(HistoryBackfillWorker.ACTION_HISTORY_SYNC_STATUS);
         LocalBroadcastManager.getInstance(this).registerReceiver(dataReceiver, filter);
 
+        // 已开启监控但盘前任务没能从后台拉起服务时（Android 12 起的限制），打开界面时补上
+        if (isServiceRunning && TradingDayHelper.isPreOpenOrSession() && !getApiKey().isEmpty()) {
+            MonitorServices.start(this);
+        }
+
         // 刷新数据
         refreshMarketData();
         refreshAnalysis();
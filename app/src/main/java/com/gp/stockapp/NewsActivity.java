@@ -2,6 +2,8 @@ package com.gp.stockapp;
 
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.view.inputmethod.EditorInfo;
+import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -12,17 +14,35 @@ import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.gp.stockapp.adapter.NewsAdapter;
+import com.gp.stockapp.db.NewsArchiveEntity;
 import com.gp.stockapp.model.StockNews;
 import com.gp.stockapp.repository.StockRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class NewsActivity extends AppCompatActivity {
 
+    // 每页条数，滑动到距底部不足 LOAD_MORE_THRESHOLD 条时加载下一页
+    private static final int PAGE_SIZE = 30;
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     private RecyclerView recyclerView;
     private SwipeRefreshLayout swipeRefreshLayout;
+    private EditText etSearch;
     private NewsAdapter adapter;
     private StockRepository stockRepository;
+    private final ExecutorService loadExecutor = Executors.newSingleThreadExecutor();
+
+    // 分页状态（仅在主线程读写）
+    private String searchQuery = "";
+    private NewsArchiveEntity lastLoaded;  // 浏览模式游标
+    private int searchOffset = 0;          // 检索模式偏移
+    private boolean isLoading = false;
+    private boolean hasMore = true;
+    private int generation = 0;            // 切换检索词后丢弃旧请求的结果
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,8 +63,28 @@ public class NewsActivity extends AppCompatActivity {
         // 初始化视图
         recyclerView = findViewById(R.id.recycler_view);
         swipeRefreshLayout = findViewById(R.id.swipe_refresh);
+        etSearch = findViewById(R.id.et_search);
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0 || isLoading || !hasMore || adapter == null) return;
+                if (layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        etSearch.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                searchQuery = etSearch.getText().toString().trim();
+                loadNews();
+                return true;
+            }
+            return false;
+        });
 
         // 加载数据
         loadNews();
@@ -53,23 +93,78 @@ public class NewsActivity extends AppCompatActivity {
         swipeRefreshLayout.setOnRefreshListener(this::loadNews);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        loadExecutor.shutdownNow();
+    }
+
+    /**
+     * 从第一页重新加载
+     */
     private void loadNews() {
+        generation++;
+        lastLoaded = null;
+        searchOffset = 0;
+        hasMore = true;
+        adapter = null;
         swipeRefreshLayout.setRefreshing(true);
-        new Thread(() -> {
-            // 获取最新 50 条新闻
-            List<StockNews> newsList = stockRepository.getLatestNews(50);
-            
-            // UI更新
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        isLoading = true;
+        final int requestGeneration = generation;
+        final String query = searchQuery;
+        final NewsArchiveEntity cursor = lastLoaded;
+        final int offset = searchOffset;
+        loadExecutor.execute(() -> {
+            List<NewsArchiveEntity> page = query.isEmpty()
+                    ? stockRepository.getArchivedNewsPage(cursor, PAGE_SIZE)
+                    : stockRepository.searchArchivedNews(query, PAGE_SIZE, offset);
+
+            // 归档为空时（如刚升级）退回最近保存的重大新闻
+            List<StockNews> fallback = null;
+            if (page.isEmpty() && cursor == null && query.isEmpty()) {
+                fallback = stockRepository.getLatestNews(50);
+            }
+            final List<StockNews> fallbackNews = fallback;
+
             runOnUiThread(() -> {
+                if (requestGeneration != generation || isFinishing()) return;
+                isLoading = false;
                 swipeRefreshLayout.setRefreshing(false);
-                if (newsList != null && !newsList.isEmpty()) {
-                    adapter = new NewsAdapter(newsList);
-                    recyclerView.setAdapter(adapter);
-                } else {
-                    Toast.makeText(NewsActivity.this, "暂无新闻数据", Toast.LENGTH_SHORT).show();
-                }
+                onPageLoaded(page, fallbackNews);
             });
-        }).start();
+        });
+    }
+
+    private void onPageLoaded(List<NewsArchiveEntity> page, List<StockNews> fallbackNews) {
+        List<StockNews> newsList = new ArrayList<>(page.size());
+        for (NewsArchiveEntity entity : page) {
+            newsList.add(entity.toStockNews());
+        }
+        if (fallbackNews != null) {
+            newsList = fallbackNews;
+        }
+        hasMore = fallbackNews == null && page.size() >= PAGE_SIZE;
+        if (!page.isEmpty()) {
+            lastLoaded = page.get(page.size() - 1);
+            searchOffset += page.size();
+        }
+
+        if (adapter == null) {
+            if (newsList.isEmpty()) {
+                recyclerView.setAdapter(null);
+                Toast.makeText(NewsActivity.this,
+                        searchQuery.isEmpty() ? "暂无新闻数据" : "未找到相关新闻", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            adapter = new NewsAdapter(newsList);
+            recyclerView.setAdapter(adapter);
+        } else {
+            adapter.appendNews(newsList);
+        }
     }
 
     @Override
@@ -23,8 +23,9 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.gp.stockapp.model.StrategyRecommendation;
 import com.gp.stockapp.repository.StockRepository;
-import com.gp.stockapp.service.AIRecommendationService;
+import com.gp.stockapp.service.StrategyGenerator;
 import com.gp.stockapp.utils.StockAppHelper;
+import com.gp.stockapp.work.BackgroundJobs;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -105,21 +106,19 @@ public class RecommendationActivity extends AppCompatActivity {
     private void loadRecommendation(boolean forceRefresh) {
         swipeRefreshLayout.setRefreshing(true);
         
-        // 如果是强制刷新，发送intent触发AI分析
+        // 如果是强制刷新，提交后台策略任务触发AI分析
         if (forceRefresh) {
-            Intent intent = new Intent(this, AIRecommendationService.class);
             switch (recommendationType) {
                 case "auction":
-                    intent.setAction(AIRecommendationService.ACTION_FORCE_AUCTION);
+                    BackgroundJobs.enqueueStrategy(this, StrategyGenerator.TYPE_AUCTION);
                     break;
                 case "closing":
-                    intent.setAction(AIRecommendationService.ACTION_FORCE_CLOSING);
+                    BackgroundJobs.enqueueStrategy(this, StrategyGenerator.TYPE_CLOSING);
                     break;
                 case "sector":
-                    intent.setAction(AIRecommendationService.ACTION_FORCE_SECTOR);
+                    BackgroundJobs.enqueueStrategy(this, StrategyGenerator.TYPE_SECTOR);
                     break;
             }
-            startService(intent);
             
             // 等待分析完成（延迟加载），给AI分析留出时间
             handler.postDelayed(() -> loadDataFromRepository(), 3000);
@@ -398,6 +397,19 @@ public class RecommendationActivity extends AppCompatActivity {
             row1.addView(tvCode);
         }
 
+        // 生成推荐时的实时价格（行情校验写入）
+        if (hasStockCode && item.getLivePrice() > 0) {
+            TextView tvPrice = new TextView(this);
+            tvPrice.setText(String.format(Locale.CHINA, "%.2f %+.2f%%", item.getLivePrice(), item.getLiveChangePercent()));
+            tvPrice.setTextColor(item.getLiveChangePercent() >= 0 ? 0xFFE53935 : 0xFF43A047);
+            tvPrice.setTextSize(TypedValue.COMPLEX_UNIT_SP, 11);
+            LinearLayout.LayoutParams priceParams = new LinearLayout.LayoutParams(
+                    LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+            priceParams.leftMargin = dpToPx(6);
+            tvPrice.setLayoutParams(priceParams);
+            row1.addView(tvPrice);
+        }
+
         // 弹簧占位
         View spacer = new View(this);
         spacer.setLayoutParams(new LinearLayout.LayoutParams(0, 0, 1f));
@@ -462,6 +474,20 @@ public class RecommendationActivity extends AppCompatActivity {
             card.addView(hlFlow);
         }
 
+        // === 行情校验提示 ===
+        if (item.getValidationNote() != null && !item.getValidationNote().isEmpty()) {
+            TextView tvNote = new TextView(this);
+            tvNote.setText("\u26a0 " + item.getValidationNote());
+            tvNote.setTextColor(0xFFFF6D00);
+            tvNote.setTextSize(TypedValue.COMPLEX_UNIT_SP, 11);
+            LinearLayout.LayoutParams noteParams = new LinearLayout.LayoutParams(
+                    LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+            noteParams.topMargin = dpToPx(4);
+            noteParams.leftMargin = dpToPx(32);
+            tvNote.setLayoutParams(noteParams);
+            card.addView(tvNote);
+        }
+
         // === 推荐理由 ===
         if (item.getReason() != null && !item.getReason().isEmpty()) {
             TextView tvReason = new TextView(this);
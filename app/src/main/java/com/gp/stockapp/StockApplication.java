@@ -0,0 +1,18 @@
+package com.gp.stockapp;
+
+import android.app.Application;
+
+import com.gp.stockapp.utils.TradingCalendarLoader;
+
+/**
+ * 应用入口
+ * 在任何组件（界面、服务、后台任务）启动前加载交易日历，保证调度判断使用完整的节假日数据
+ */
+public class StockApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        TradingCalendarLoader.install(this);
+    }
+}
@@ -20,6 +20,7 @@ import com.gp.stockapp.R;
 import com.gp.stockapp.utils.StockAppHelper;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -32,10 +33,20 @@ public class NewsAdapter extends RecyclerView.Adapter<NewsAdapter.NewsViewHolder
     private final SimpleDateFormat sdf;
 
     public NewsAdapter(List<StockNews> newsList) {
-        this.newsList = newsList;
+        this.newsList = new ArrayList<>(newsList);
         this.sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.CHINA);
     }
 
+    /**
+     * 追加一页新闻（分页加载）
+     */
+    public void appendNews(List<StockNews> more) {
+        if (more == null || more.isEmpty()) return;
+        int start = newsList.size();
+        newsList.addAll(more);
+        notifyItemRangeInserted(start, more.size());
+    }
+
     @NonNull
     @Override
     public NewsViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
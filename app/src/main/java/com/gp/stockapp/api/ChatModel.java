@@ -0,0 +1,27 @@
+package com.gp.stockapp.api;
+
+import com.gp.stockapp.model.StrategySnapshot;
+
+/**
+ * 策略推荐使用的对话模型
+ * 线上为 {@link GLM4Client}；策略回放时可换成本地确定性实现 {@link ScreenerStubModel}
+ */
+public interface ChatModel {
+
+    /**
+     * 高精度分析（阻塞），失败时返回null
+     */
+    String analyzePremium(ChatPrompt prompt);
+
+    /**
+     * 策略回放：按快照生成推荐（阻塞），默认把回放Prompt交给 {@link #analyzePremium(ChatPrompt)}
+     */
+    default String analyzeReplay(StrategySnapshot snapshot, ChatPrompt prompt) {
+        return analyzePremium(prompt);
+    }
+
+    /**
+     * 高精度分析使用的模型名（推荐台账/回放结果记录用）
+     */
+    String getPremiumModel();
+}
@@ -0,0 +1,43 @@
+package com.gp.stockapp.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多段式请求内容
+ * system 为固定的策略说明（跨请求保持完全一致，便于命中服务端前缀缓存），
+ * userParts 为每次变化的行情/新闻等数据段，按顺序放在 system 之后
+ */
+public class ChatPrompt {
+
+    private final String system;
+    private final List<String> userParts = new ArrayList<>();
+
+    public ChatPrompt(String system) {
+        this.system = system;
+    }
+
+    /**
+     * 单段用户消息（无system），兼容旧的整段prompt调用方式
+     */
+    public static ChatPrompt of(String prompt) {
+        return new ChatPrompt(null).addUserPart(prompt);
+    }
+
+    /**
+     * 追加一段数据消息，空内容忽略
+     */
+    public ChatPrompt addUserPart(CharSequence part) {
+        if (part != null && part.length() > 0) {
+            userParts.add(part.toString());
+        }
+        return this;
+    }
+
+    public String getSystem() { return system; }
+
+    public boolean hasSystem() { return system != null && !system.isEmpty(); }
+
+    public List<String> getUserParts() { return Collections.unmodifiableList(userParts); }
+}
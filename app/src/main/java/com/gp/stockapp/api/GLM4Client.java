@@ -2,24 +2,46 @@ package com.gp.stockapp.api;
 
 import android.util.Log;
 
+import com.gp.stockapp.utils.CircuitBreaker;
 import com.gp.stockapp.utils.HttpClient;
+import com.gp.stockapp.utils.LatencyTracker;
 
 import okhttp3.*;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * GLM API客户端（双模型架构）
  * 竞价推荐/尾盘推荐使用GLM-5（高精度）
  * 大盘分析/板块推荐/新闻推荐等使用GLM-4.7（轻量快速）
  * 两个模型各自独立并发限制，互不影响
+ *
+ * 容错：每个模型单独一个熔断器，某个模型持续异常时只让该模型快速失败，避免定时任务堆积；
+ * 高精度模型（竞价/尾盘推荐，时间窗口短）开启对冲请求，首个请求超过历史P90耗时仍未返回时再发一个，取先返回者
+ *
+ * 提示词缓存：支持 system + 多段数据的请求格式，固定说明在前、变化数据在后，
+ * 并根据响应中的usage统计服务端前缀缓存命中率
  */
-public class GLM4Client {
+public class GLM4Client implements ChatModel {
     private static final String TAG = "GLM4Client";
     private static volatile GLM4Client instance;
     
-    private static final String API_URL = "https://open.bigmodel.cn/api/anthropic/v1/messages";
+    private static final String DEFAULT_API_URL = "https://open.bigmodel.cn/api/anthropic/v1/messages";
     
     // 双模型配置
     private static final String MODEL_PREMIUM = "glm-5";     // 高精度模型：竞价推荐、尾盘推荐
@@ -27,21 +49,48 @@ public class GLM4Client {
     
     private final OkHttpClient client;
     private volatile String apiKey = ""; // 需要设置API密钥
+    private volatile String apiUrl = DEFAULT_API_URL;
     
     // 重试配置
     private static final int MAX_RETRY_COUNT = 2;
     private static final long RETRY_DELAY_MS = 1000;
     
-    private GLM4Client() {
-        // 使用统一的HttpClient单例（长时间超时版本）
-        client = HttpClient.getLongTimeoutInstance();
+    // 熔断配置：最近10次调用中失败率>=50%（至少4次）则熔断60秒，之后放行1个探测请求
+    private static final int BREAKER_WINDOW_SIZE = 10;
+    private static final int BREAKER_MINIMUM_CALLS = 4;
+    private static final double BREAKER_FAILURE_RATE = 0.5;
+    private static final long BREAKER_OPEN_DURATION_MS = 60_000;
+    private static final int BREAKER_HALF_OPEN_PERMITS = 1;
+    
+    // 对冲配置：首个请求超过P90耗时（且不少于3秒）未返回时发出第二个请求
+    private static final int LATENCY_WINDOW_SIZE = 50;
+    private static final int HEDGE_MIN_SAMPLES = 5;
+    private static final double HEDGE_PERCENTILE = 90;
+    private static final long HEDGE_MIN_DELAY_MS = 3000;
+    
+    // 开启对冲的模型：竞价/尾盘推荐必须在几分钟内出结果，多一次请求的成本可以接受
+    private static final Set<String> HEDGED_MODELS = Collections.singleton(MODEL_PREMIUM);
+    
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor;
+    
+    // 前缀缓存统计（按服务端返回的usage累计）
+    private final AtomicLong totalPromptTokens = new AtomicLong();
+    private final AtomicLong cachedPromptTokens = new AtomicLong();
+    private final AtomicLong cacheWriteTokens = new AtomicLong();
+    
+    GLM4Client(OkHttpClient client) {
+        this.client = client;
+        hedgeExecutor = Executors.newCachedThreadPool();
     }
     
     public static GLM4Client getInstance() {
         if (instance == null) {
             synchronized (GLM4Client.class) {
                 if (instance == null) {
-                    instance = new GLM4Client();
+                    // 使用统一的HttpClient单例（长时间超时版本）
+                    instance = new GLM4Client(HttpClient.getLongTimeoutInstance());
                 }
             }
         }
@@ -56,60 +105,189 @@ public class GLM4Client {
         Log.d(TAG, "API Key set");
     }
     
+    /**
+     * 设置API地址（调试用，可指向本地模拟服务验证熔断/对冲行为）
+     */
+    public void setApiUrl(String apiUrl) {
+        this.apiUrl = (apiUrl == null || apiUrl.isEmpty()) ? DEFAULT_API_URL : apiUrl;
+        Log.d(TAG, "API URL set: " + this.apiUrl);
+    }
+    
+    /**
+     * 获取某个模型当前的熔断器状态
+     */
+    public CircuitBreaker.State getCircuitState(String model) {
+        return getCircuitBreaker(model).getState();
+    }
+    
     /**
      * 高精度分析（竞价推荐、尾盘推荐）
      * 使用GLM-5模型，精度更高
      */
     public String analyzePremium(String prompt) {
+        return analyzePremium(ChatPrompt.of(prompt));
+    }
+    
+    /**
+     * 高精度分析（system + 数据段）
+     * 固定的策略说明放在system中，跨请求前缀一致，可命中服务端前缀缓存
+     */
+    @Override
+    public String analyzePremium(ChatPrompt prompt) {
         Log.d(TAG, "[Premium] Using model: " + MODEL_PREMIUM);
         return doAnalyzeWithRetry(prompt, MODEL_PREMIUM);
     }
 
+    /**
+     * 高精度分析使用的模型名（推荐台账记录用）
+     */
+    @Override
+    public String getPremiumModel() {
+        return MODEL_PREMIUM;
+    }
+
     /**
      * 标准分析（大盘分析、板块推荐、新闻推荐等）
      * 使用GLM-4.7模型，轻量快速
      */
     public String analyze(String prompt) {
+        return analyze(ChatPrompt.of(prompt));
+    }
+    
+    /**
+     * 标准分析（system + 数据段）
+     */
+    public String analyze(ChatPrompt prompt) {
         Log.d(TAG, "[Standard] Using model: " + MODEL_STANDARD);
         return doAnalyzeWithRetry(prompt, MODEL_STANDARD);
     }
     
     /**
      * 带重试机制的分析
+     * 每次尝试前检查该模型的熔断器，熔断打开时直接返回null，不再等待超时
      */
-    private String doAnalyzeWithRetry(String prompt, String model) {
-        Exception lastException = null;
+    private String doAnalyzeWithRetry(ChatPrompt prompt, String model) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            Log.e(TAG, "API Key is not set");
+            return null;
+        }
+        
+        CircuitBreaker circuitBreaker = getCircuitBreaker(model);
+        boolean hedged = HEDGED_MODELS.contains(model);
         for (int i = 0; i <= MAX_RETRY_COUNT; i++) {
-            try {
-                String result = doAnalyze(prompt, model);
-                if (result != null && !result.isEmpty()) {
-                    return result;
-                }
-            } catch (Exception e) {
-                lastException = e;
-                Log.w(TAG, "API call attempt " + (i + 1) + " failed: " + e.getMessage());
+            if (!circuitBreaker.allowRequest()) {
+                Log.w(TAG, "[" + model + "] Circuit open, fail fast (remaining "
+                        + circuitBreaker.getRemainingOpenMs() / 1000 + "s)");
+                return null;
+            }
+            
+            String result = hedged
+                    ? doAnalyzeHedged(prompt, model)
+                    : doAnalyzeTimed(prompt, model, null);
+            if (result != null && !result.isEmpty()) {
+                circuitBreaker.recordSuccess();
+                return result;
             }
+            circuitBreaker.recordFailure();
+            Log.w(TAG, "API call attempt " + (i + 1) + " failed");
             
             // 如果还有重试机会，等待后重试
             if (i < MAX_RETRY_COUNT) {
                 try {
                     Thread.sleep(RETRY_DELAY_MS * (i + 1));
-                } catch (InterruptedException ignored) {}
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
             }
         }
-        Log.e(TAG, "All retry attempts failed", lastException);
+        Log.e(TAG, "All retry attempts failed");
         return null;
     }
-
+    
     /**
-     * 实际执行API调用
+     * 对冲请求：首个请求超过历史分位耗时仍未返回，则再发一个相同请求，取先成功者
+     * 样本不足时退化为普通请求
      */
-    private String doAnalyze(String prompt, String model) {
-        if (apiKey == null || apiKey.isEmpty()) {
-            Log.e(TAG, "API Key is not set");
-            return null;
+    private String doAnalyzeHedged(ChatPrompt prompt, String model) {
+        LatencyTracker tracker = getLatencyTracker(model);
+        if (tracker.getSampleCount() < HEDGE_MIN_SAMPLES) {
+            return doAnalyzeTimed(prompt, model, null);
         }
+        long hedgeDelayMs = Math.max(HEDGE_MIN_DELAY_MS, tracker.getPercentile(HEDGE_PERCENTILE));
         
+        List<Call> inFlight = Collections.synchronizedList(new ArrayList<>());
+        List<Future<String>> futures = new ArrayList<>();
+        CompletionService<String> completionService = new ExecutorCompletionService<>(hedgeExecutor);
+        try {
+            futures.add(completionService.submit(() -> doAnalyzeTimed(prompt, model, inFlight)));
+            Future<String> first = completionService.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            if (first != null) {
+                // 首个请求在阈值内返回（无论成败），不再对冲，失败交给外层重试
+                return getQuietly(first);
+            }
+            
+            Log.d(TAG, "[" + model + "] No response after " + hedgeDelayMs + "ms, sending hedged request");
+            futures.add(completionService.submit(() -> doAnalyzeTimed(prompt, model, inFlight)));
+            for (int remaining = futures.size(); remaining > 0; remaining--) {
+                String result = getQuietly(completionService.take());
+                if (result != null && !result.isEmpty()) {
+                    return result;
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            // 取消仍在进行中的请求（已完成的请求调用cancel无副作用）
+            synchronized (inFlight) {
+                for (Call call : inFlight) {
+                    call.cancel();
+                }
+            }
+            for (Future<String> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+    
+    private String getQuietly(Future<String> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Hedged request failed", e.getCause());
+            return null;
+        }
+    }
+    
+    private CircuitBreaker getCircuitBreaker(String model) {
+        return circuitBreakers.computeIfAbsent(model, k -> new CircuitBreaker("GLM/" + k, BREAKER_WINDOW_SIZE,
+                BREAKER_MINIMUM_CALLS, BREAKER_FAILURE_RATE, BREAKER_OPEN_DURATION_MS, BREAKER_HALF_OPEN_PERMITS));
+    }
+    
+    private LatencyTracker getLatencyTracker(String model) {
+        return latencyTrackers.computeIfAbsent(model, k -> new LatencyTracker(LATENCY_WINDOW_SIZE));
+    }
+    
+    /**
+     * 执行API调用并记录成功请求的耗时
+     */
+    private String doAnalyzeTimed(ChatPrompt prompt, String model, List<Call> inFlight) {
+        long start = System.nanoTime();
+        String result = doAnalyze(prompt, model, inFlight);
+        if (result != null && !result.isEmpty()) {
+            getLatencyTracker(model).record((System.nanoTime() - start) / 1_000_000L);
+        }
+        return result;
+    }
+
+    /**
+     * 实际执行API调用
+     * @param inFlight 非空时登记本次Call，便于对冲结束后取消落后的请求
+     */
+    private String doAnalyze(ChatPrompt prompt, String model, List<Call> inFlight) {
+        Call call = null;
         try {
             // 构建请求体
             JSONObject requestBody = new JSONObject();
@@ -124,12 +302,11 @@ public class GLM4Client {
             thinkingConfig.put("type", "disabled");
             requestBody.put("thinking", thinkingConfig);
             
-            // 构建消息
-            JSONObject message = new JSONObject();
-            message.put("role", "user");
-            message.put("content", prompt);
-            
-            requestBody.put("messages", new org.json.JSONArray().put(message));
+            // 构建消息：固定说明放system，数据段依次作为用户消息的内容块
+            if (prompt.hasSystem()) {
+                requestBody.put("system", prompt.getSystem());
+            }
+            requestBody.put("messages", new JSONArray().put(buildUserMessage(prompt)));
             
             // 构建请求
             RequestBody body = RequestBody.create(
@@ -138,38 +315,126 @@ public class GLM4Client {
             );
             
             Request request = new Request.Builder()
-                .url(API_URL)
+                .url(apiUrl)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .addHeader("Content-Type", "application/json")
                 .post(body)
                 .build();
             
             // 发送请求
-            Response response = client.newCall(request).execute();
-            
-            if (response.isSuccessful() && response.body() != null) {
-                String responseBody = response.body().string();
-                Log.d(TAG, "API Response received");
-                
-                // 解析响应
-                return parseResponse(responseBody);
-            } else {
-                Log.e(TAG, "API request failed: " + response.code());
-                return null;
+            call = client.newCall(request);
+            if (inFlight != null) {
+                inFlight.add(call);
+            }
+            try (Response response = call.execute()) {
+                if (response.isSuccessful() && response.body() != null) {
+                    String responseBody = response.body().string();
+                    Log.d(TAG, "API Response received");
+                    
+                    // 解析响应
+                    return parseResponse(responseBody, model);
+                } else {
+                    Log.e(TAG, "API request failed: " + response.code());
+                    return null;
+                }
             }
             
         } catch (Exception e) {
-            Log.e(TAG, "Error calling GLM API", e);
+            if (call != null && call.isCanceled()) {
+                Log.d(TAG, "GLM API call cancelled (hedged request lost the race)");
+            } else {
+                Log.e(TAG, "Error calling GLM API", e);
+            }
             return null;
         }
     }
     
+    /**
+     * 构建用户消息
+     * 只有一段时直接使用字符串内容（与原请求格式一致），多段时拆成多个text内容块
+     */
+    private JSONObject buildUserMessage(ChatPrompt prompt) throws org.json.JSONException {
+        JSONObject message = new JSONObject();
+        message.put("role", "user");
+        List<String> parts = prompt.getUserParts();
+        if (parts.size() == 1) {
+            message.put("content", parts.get(0));
+        } else {
+            JSONArray content = new JSONArray();
+            for (String part : parts) {
+                JSONObject block = new JSONObject();
+                block.put("type", "text");
+                block.put("text", part);
+                content.put(block);
+            }
+            message.put("content", content);
+        }
+        return message;
+    }
+    
+    /**
+     * 记录前缀缓存命中情况
+     * Anthropic格式：input_tokens 为未命中部分，cache_read_input_tokens / cache_creation_input_tokens 单独计
+     * OpenAI格式：prompt_tokens 为总数，prompt_tokens_details.cached_tokens 为命中部分
+     */
+    private void recordUsage(JSONObject usage, String model) {
+        if (usage == null) return;
+        long total;
+        long cached;
+        long written = usage.optLong("cache_creation_input_tokens", 0);
+        if (usage.has("prompt_tokens")) {
+            total = usage.optLong("prompt_tokens", 0);
+            JSONObject details = usage.optJSONObject("prompt_tokens_details");
+            cached = details != null ? details.optLong("cached_tokens", 0) : 0;
+        } else {
+            cached = usage.optLong("cache_read_input_tokens", 0);
+            total = usage.optLong("input_tokens", 0) + cached + written;
+        }
+        if (total <= 0) return;
+        
+        totalPromptTokens.addAndGet(total);
+        cachedPromptTokens.addAndGet(cached);
+        cacheWriteTokens.addAndGet(written);
+        Log.d(TAG, String.format("[%s] Prompt tokens %d, cache hit %d (%.0f%%), cache write %d; overall hit %.0f%%",
+                model, total, cached, cached * 100.0 / total, written, getPromptCacheHitRate() * 100));
+    }
+    
+    /**
+     * 累计的前缀缓存命中率(0-1)，无数据时为0
+     */
+    public double getPromptCacheHitRate() {
+        long total = totalPromptTokens.get();
+        return total == 0 ? 0 : (double) cachedPromptTokens.get() / total;
+    }
+    
+    /**
+     * 累计输入token数
+     */
+    public long getTotalPromptTokens() {
+        return totalPromptTokens.get();
+    }
+    
+    /**
+     * 累计命中前缀缓存的输入token数
+     */
+    public long getCachedPromptTokens() {
+        return cachedPromptTokens.get();
+    }
+    
+    /**
+     * 累计写入缓存的输入token数
+     */
+    public long getCacheWriteTokens() {
+        return cacheWriteTokens.get();
+    }
+    
     /**
      * 解析API响应
      */
-    private String parseResponse(String responseBody) {
+    private String parseResponse(String responseBody, String model) {
         try {
             JSONObject jsonResponse = new JSONObject(responseBody);
+            recordUsage(jsonResponse.optJSONObject("usage"), model);
             
             // 兼容 OpenAI 格式 ("choices" -> [0] -> "message" -> "content")
             org.json.JSONArray choices = jsonResponse.optJSONArray("choices");
@@ -3,18 +3,24 @@ package com.gp.stockapp.api;
 import android.util.Log;
 
 import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.KlineBar;
+import com.gp.stockapp.model.StockQuote;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 
 import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
@@ -31,6 +37,7 @@ public class HotStockApi {
     private static HotStockApi instance;
 
     private OkHttpClient client;
+    private OkHttpClient quoteClient;
 
     // ===== 东方财富数据接口 =====
 
@@ -39,7 +46,7 @@ public class HotStockApi {
     private static final String EASTMONEY_LHB_API =
             "https://push2.eastmoney.com/api/qt/clist/get?" +
             "fid=f184&po=1&pz=100&pn=1&np=1&ut=bd1d9ddb04089700cf9c27f6f7426281" +
-            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f62,f184,f66,f69,f72,f75,f78,f81,f84,f87,f124,f128,f136" +
+            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f62,f184,f66,f69,f72,f75,f78,f81,f84,f87,f100,f124,f128,f136" +
             "&rt=%d";  // 时间戳防缓存
 
     // 涨停板 - 涨停股池 (东方财富涨停板数据)
@@ -47,7 +54,7 @@ public class HotStockApi {
     private static final String EASTMONEY_LIMIT_UP_API =
             "https://push2.eastmoney.com/api/qt/clist/get?" +
             "fid=f3&po=1&pz=100&pn=1&np=1&ut=bd1d9ddb04089700cf9c27f6f7426281" +
-            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f8,f128" +
+            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f8,f100,f128" +
             "&rt=%d";
 
     // 连板股数据 (东方财富连板天梯)
@@ -55,7 +62,7 @@ public class HotStockApi {
     private static final String EASTMONEY_CONTINUOUS_LIMIT_API =
             "https://push2.eastmoney.com/api/qt/clist/get?" +
             "fid=f75&po=1&pz=100&pn=1&np=1&ut=bd1d9ddb04089700cf9c27f6f7426281" +
-            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f75,f8,f128" +
+            "&fs=m:1+t:2,m:1+t:23&fields=f12,f14,f2,f3,f75,f8,f100,f128" +
             "&rt=%d";
 
     // 活跃股 - A股主板活跃股（按成交额降序排列, 取前30）
@@ -64,18 +71,37 @@ public class HotStockApi {
             "https://push2.eastmoney.com/api/qt/clist/get" +
             "?pn=1&pz=30&po=1&np=1&ut=bd1d9ddb04089700cf9c27f6f7426281" +
             "&fltt=2&invt=2&fid=f6&fs=m:0+t:6,m:1+t:2" +
-            "&fields=f2,f3,f4,f5,f6,f7,f8,f9,f10,f12,f14,f15,f16,f17,f18,f20,f21" +
+            "&fields=f2,f3,f4,f5,f6,f7,f8,f9,f10,f12,f14,f15,f16,f17,f18,f20,f21,f100" +
             "&_=";
 
+        private static final int HISTORY_LHB_PAGE_SIZE = 500;
+        private static final int HISTORY_LHB_MAX_PAGES = 20;
+
         private static final String EASTMONEY_HISTORY_LHB_API =
             "https://datacenter-web.eastmoney.com/api/data/v1/get?reportName=RPT_BILLBOARD_DAILYDETAILS" +
-            "&columns=ALL&source=WEB&client=WEB&pageNumber=1&pageSize=500" +
+            "&columns=ALL&source=WEB&client=WEB&pageNumber=%d&pageSize=" + HISTORY_LHB_PAGE_SIZE +
             "&sortColumns=BILLBOARD_NET_AMT,SECURITY_CODE&sortTypes=-1,1&filter=(TRADE_DATE='%s')";
 
         private static final String EASTMONEY_HISTORY_LIMIT_UP_POOL_API =
             "https://push2ex.eastmoney.com/getTopicZTPool?ut=7eea3edcaed734bea9cbfc24409ed989" +
             "&dpt=wz.ztzt&Pageindex=0&pagesize=200&sort=fbt:asc&date=%s&_=%d";
 
+        // 个股日K线（前复权），secid: 1.=上交所 0.=深交所
+        // 返回 klines 字符串数组："日期,开盘,收盘,最高,最低,成交量(手),成交额(元)"
+        private static final String EASTMONEY_KLINE_API =
+            "https://push2his.eastmoney.com/api/qt/stock/kline/get?secid=%s" +
+            "&ut=fa5fd1943c7b386f172d6893dbfba10b&fields1=f1,f2,f3&fields2=f51,f52,f53,f54,f55,f56,f57" +
+            "&klt=101&fqt=1&end=20500101&lmt=%d&_=%d";
+
+        // 批量实时行情（一次请求多只），secids 逗号分隔；不存在的代码不会出现在返回中
+        // f2=最新价 f3=涨跌幅 f12=代码 f14=名称 f18=昨收 f21=流通市值(元) f51=涨停价 f292=交易状态(5为停牌)
+        private static final String EASTMONEY_QUOTES_API =
+            "https://push2.eastmoney.com/api/qt/ulist.np/get?fltt=2&invt=2" +
+            "&ut=bd1d9ddb04089700cf9c27f6f7426281&fields=f2,f3,f12,f14,f18,f21,f51,f292&secids=%s&_=%d";
+
+        // 推荐校验在策略生成链路上同步执行，行情请求单独限时
+        private static final long QUOTE_CALL_TIMEOUT_MS = 800;
+
         private static final SimpleDateFormat API_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd", Locale.CHINA);
 
     private HotStockApi() {
@@ -92,6 +118,9 @@ public class HotStockApi {
                     return chain.proceed(request);
                 })
                 .build();
+        quoteClient = client.newBuilder()
+                .callTimeout(QUOTE_CALL_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
     }
 
     public static synchronized HotStockApi getInstance() {
@@ -243,6 +272,8 @@ public class HotStockApi {
                     lhb.setMarketCap(getJsonDouble(item, "f128") / 100000000.0); // 元->亿
                     // 上榜原因 - 这个API没有提供
                     lhb.setReason("");
+                    // 所属行业 - f100
+                    lhb.setConcept(getJsonString(item, "f100"));
 
                     // 仅保留主板(600xxx/000xxx)，过滤创业板/科创板/北交所，且涨幅<9%
                     String code = lhb.getCode();
@@ -310,7 +341,7 @@ public class HotStockApi {
                         lu.setTurnoverRate(getJsonDouble(item, "f8"));
                         lu.setMarketCap(getJsonDouble(item, "f128") / 100000000.0);
                         lu.setLimitUpType("涨停");
-                        lu.setConcept("");
+                        lu.setConcept(getJsonString(item, "f100")); // 所属行业
                         
                         // 仅保留主板
                         if (code != null && (code.startsWith("600") || code.startsWith("601") 
@@ -372,7 +403,7 @@ public class HotStockApi {
                     cl.setChangePercent(getJsonDouble(item, "f3"));
                     cl.setTurnoverRate(getJsonDouble(item, "f8"));
                     cl.setMarketCap(getJsonDouble(item, "f128") / 100000000.0);
-                    cl.setConcept("");
+                    cl.setConcept(getJsonString(item, "f100")); // 所属行业
 
                     // 只保留连板数>=2的
                     if (cl.getContinuousCount() >= 2 && code != null && 
@@ -432,6 +463,7 @@ public class HotStockApi {
                     gainer.setTurnoverRate(getJsonDouble(item, "f8")); // 换手率
                     gainer.setAmount(getJsonDouble(item, "f6") / 10000.0); // 成交额 元->万
                     gainer.setMarketCap(getJsonDouble(item, "f21") / 100000000.0); // 流通市值 元->亿
+                    gainer.setConcept(getJsonString(item, "f100")); // 所属行业
 
                     // 仅保留主板(600xxx/000xxx)，过滤创业板/科创板/北交所/ST，且涨幅<9%
                     String name = gainer.getName();
@@ -452,38 +484,29 @@ public class HotStockApi {
         return result;
     }
 
-    private List<HotStockData.DragonTigerItem> fetchHistoricalDragonTigerList(String dateStr) throws IOException {
+    /**
+     * 抓取历史龙虎榜（datacenter 报表，按页抓取直到最后一页）
+     * 请求失败时抛出 IOException，便于调用方区分"失败"和"当天无数据"
+     */
+    public List<HotStockData.DragonTigerItem> fetchHistoricalDragonTigerList(String dateStr) throws IOException {
         List<HotStockData.DragonTigerItem> result = new ArrayList<>();
         String apiDate = toEastMoneyTradeDate(dateStr);
-        String url = String.format(Locale.US, EASTMONEY_HISTORY_LHB_API, apiDate);
-
-        Request request = new Request.Builder()
-                .url(url)
-                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                .header("Referer", "https://data.eastmoney.com/")
-                .get()
-                .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful() || response.body() == null) {
-                Log.w(TAG, "历史龙虎榜请求失败: " + response.code() + ", date=" + dateStr);
-                return result;
+        int pages = 1;
+        for (int page = 1; page <= pages && page <= HISTORY_LHB_MAX_PAGES; page++) {
+            JsonObject resultObj = fetchHistoricalDragonTigerPage(apiDate, page, dateStr);
+            if (resultObj == null) {
+                break;
             }
-
-            String body = response.body().string();
-            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
-            if (!json.has("result") || json.get("result").isJsonNull()) {
-                return result;
+            if (resultObj.has("pages") && !resultObj.get("pages").isJsonNull()) {
+                pages = resultObj.get("pages").getAsInt();
             }
 
-            JsonObject resultObj = json.getAsJsonObject("result");
             if (!resultObj.has("data") || resultObj.get("data").isJsonNull()) {
-                return result;
+                break;
             }
-
             JsonArray dataArray = resultObj.getAsJsonArray("data");
-            if (dataArray == null) {
-                return result;
+            if (dataArray == null || dataArray.size() == 0) {
+                break;
             }
 
             for (JsonElement element : dataArray) {
@@ -514,8 +537,101 @@ public class HotStockApi {
         return result;
     }
 
-    private List<HotStockData.ContinuousLimitItem> fetchHistoricalContinuousLimitList(String dateStr) throws IOException {
+    /**
+     * 抓取历史龙虎榜的一页，返回 result 对象（当天无数据时为null）
+     */
+    private JsonObject fetchHistoricalDragonTigerPage(String apiDate, int page, String dateStr) throws IOException {
+        String url = String.format(Locale.US, EASTMONEY_HISTORY_LHB_API, page, apiDate);
+
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                .header("Referer", "https://data.eastmoney.com/")
+                .get()
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("历史龙虎榜请求失败: " + response.code() + ", date=" + dateStr + ", page=" + page);
+            }
+
+            String body = response.body().string();
+            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+            if (!json.has("result") || json.get("result").isJsonNull()) {
+                return null;
+            }
+            return json.getAsJsonObject("result");
+        }
+    }
+
+    /**
+     * 抓取历史连板股（涨停池中连板数>=2的主板股票）
+     * 请求失败时抛出 IOException
+     */
+    public List<HotStockData.ContinuousLimitItem> fetchHistoricalContinuousLimitList(String dateStr) throws IOException {
         List<HotStockData.ContinuousLimitItem> result = new ArrayList<>();
+        JsonArray pool = fetchLimitUpPool(dateStr);
+        if (pool == null) {
+            return result;
+        }
+
+        for (JsonElement element : pool) {
+            try {
+                JsonObject item = element.getAsJsonObject();
+                HotStockData.ContinuousLimitItem cl = new HotStockData.ContinuousLimitItem();
+                String code = getJsonStringByKeys(item, "c", "code");
+                cl.setCode(code);
+                cl.setName(getJsonStringByKeys(item, "n", "name"));
+                cl.setChangePercent(getJsonDoubleByKeys(item, "zdp", "changePercent"));
+                cl.setTurnoverRate(getJsonDoubleByKeys(item, "hs", "turnoverRate"));
+                cl.setMarketCap(getJsonDoubleByKeys(item, "ltsz", "marketCap") / 100000000.0);
+                cl.setConcept(getJsonStringByKeys(item, "hybk", "gn", "concept"));
+
+                int continuousCount = getJsonIntByKeys(item, "lbc", "continuousCount");
+                if (continuousCount <= 0 && item.has("zttj") && item.get("zttj").isJsonObject()) {
+                    JsonObject zttj = item.getAsJsonObject("zttj");
+                    continuousCount = getJsonIntByKeys(zttj, "ct", "days");
+                }
+                cl.setContinuousCount(continuousCount);
+
+                if (continuousCount >= 2 && isMainBoardCode(code)) {
+                    result.add(cl);
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "解析历史连板股条目失败: " + dateStr, e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 抓取某交易日涨停池的沪深非ST股票代码（不限主板，情绪周期统计昨日涨停股今日表现用）
+     * 请求失败时抛出 IOException
+     */
+    public List<String> fetchLimitUpPoolCodes(String dateStr) throws IOException {
+        List<String> codes = new ArrayList<>();
+        JsonArray pool = fetchLimitUpPool(dateStr);
+        if (pool == null) {
+            return codes;
+        }
+        for (JsonElement element : pool) {
+            if (!element.isJsonObject()) continue;
+            JsonObject item = element.getAsJsonObject();
+            String code = getJsonStringByKeys(item, "c", "code");
+            String name = getJsonStringByKeys(item, "n", "name");
+            if (code != null && code.matches("[036]\\d{5}") && (name == null || !name.contains("ST"))) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * 请求某交易日的涨停池
+     * @return pool 数组，没有数据时返回null；请求失败时抛出 IOException
+     */
+    private JsonArray fetchLimitUpPool(String dateStr) throws IOException {
         String url = String.format(Locale.US, EASTMONEY_HISTORY_LIMIT_UP_POOL_API, dateStr, System.currentTimeMillis());
 
         Request request = new Request.Builder()
@@ -527,57 +643,133 @@ public class HotStockApi {
 
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful() || response.body() == null) {
-                Log.w(TAG, "历史连板股请求失败: " + response.code() + ", date=" + dateStr);
-                return result;
+                throw new IOException("涨停池请求失败: " + response.code() + ", date=" + dateStr);
             }
 
             String body = response.body().string();
             JsonObject json = JsonParser.parseString(body).getAsJsonObject();
             if (!json.has("data") || json.get("data").isJsonNull()) {
-                return result;
+                return null;
             }
-
             JsonObject dataObj = json.getAsJsonObject("data");
             if (!dataObj.has("pool") || dataObj.get("pool").isJsonNull()) {
-                return result;
+                return null;
             }
+            return dataObj.getAsJsonArray("pool");
+        }
+    }
 
-            JsonArray pool = dataObj.getAsJsonArray("pool");
-            if (pool == null) {
+    /**
+     * 抓取个股最近 limit 根日K线（前复权，按日期升序；盘中最后一根为当天实时K线）
+     * 请求失败时抛出 IOException
+     */
+    public List<KlineBar> fetchDailyKlines(String code, int limit) throws IOException {
+        List<KlineBar> result = new ArrayList<>();
+        String url = String.format(Locale.US, EASTMONEY_KLINE_API, toSecId(code), limit, System.currentTimeMillis());
+        Request request = new Request.Builder().url(url).get().build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("K线请求失败: " + code + " HTTP " + response.code());
+            }
+            String body = response.body().string();
+            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+            if (!json.has("data") || !json.get("data").isJsonObject()) {
+                Log.w(TAG, "K线无data数据: " + code);
                 return result;
             }
-
-            for (JsonElement element : pool) {
-                try {
-                    JsonObject item = element.getAsJsonObject();
-                    HotStockData.ContinuousLimitItem cl = new HotStockData.ContinuousLimitItem();
-                    String code = getJsonStringByKeys(item, "c", "code");
-                    cl.setCode(code);
-                    cl.setName(getJsonStringByKeys(item, "n", "name"));
-                    cl.setChangePercent(getJsonDoubleByKeys(item, "zdp", "changePercent"));
-                    cl.setTurnoverRate(getJsonDoubleByKeys(item, "hs", "turnoverRate"));
-                    cl.setMarketCap(getJsonDoubleByKeys(item, "ltsz", "marketCap") / 100000000.0);
-                    cl.setConcept(getJsonStringByKeys(item, "hybk", "gn", "concept"));
-
-                    int continuousCount = getJsonIntByKeys(item, "lbc", "continuousCount");
-                    if (continuousCount <= 0 && item.has("zttj") && item.get("zttj").isJsonObject()) {
-                        JsonObject zttj = item.getAsJsonObject("zttj");
-                        continuousCount = getJsonIntByKeys(zttj, "ct", "days");
-                    }
-                    cl.setContinuousCount(continuousCount);
-
-                    if (continuousCount >= 2 && isMainBoardCode(code)) {
-                        result.add(cl);
-                    }
-                } catch (Exception e) {
-                    Log.w(TAG, "解析历史连板股条目失败: " + dateStr, e);
+            JsonObject data = json.getAsJsonObject("data");
+            if (!data.has("klines") || !data.get("klines").isJsonArray()) {
+                return result;
+            }
+            for (JsonElement elem : data.getAsJsonArray("klines")) {
+                KlineBar bar = parseKline(elem.getAsString());
+                if (bar != null) {
+                    result.add(bar);
                 }
             }
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("解析K线JSON失败: " + code, e);
         }
+        return result;
+    }
 
+    /**
+     * 一次请求批量抓取实时行情（整个请求限时 QUOTE_CALL_TIMEOUT_MS）
+     * @return 代码 -> 行情，不存在的代码不在结果中；请求失败或超时抛出 IOException
+     */
+    public Map<String, StockQuote> fetchQuotes(Collection<String> codes) throws IOException {
+        Map<String, StockQuote> result = new LinkedHashMap<>();
+        if (codes.isEmpty()) {
+            return result;
+        }
+        StringBuilder secIds = new StringBuilder();
+        for (String code : codes) {
+            if (secIds.length() > 0) secIds.append(',');
+            secIds.append(toSecId(code));
+        }
+        long now = System.currentTimeMillis();
+        String url = String.format(Locale.US, EASTMONEY_QUOTES_API, secIds, now);
+        Request request = new Request.Builder().url(url).get().build();
+        try (Response response = quoteClient.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("行情请求失败: HTTP " + response.code());
+            }
+            JsonObject json = JsonParser.parseString(response.body().string()).getAsJsonObject();
+            if (!json.has("data") || !json.get("data").isJsonObject()) {
+                return result;
+            }
+            JsonObject data = json.getAsJsonObject("data");
+            if (!data.has("diff") || !data.get("diff").isJsonArray()) {
+                return result;
+            }
+            for (JsonElement elem : data.getAsJsonArray("diff")) {
+                JsonObject item = elem.getAsJsonObject();
+                String code = getJsonString(item, "f12");
+                if (code == null) continue;
+                StockQuote quote = new StockQuote();
+                quote.setCode(code);
+                quote.setName(getJsonString(item, "f14"));
+                quote.setPrice(getJsonDouble(item, "f2"));   // 停牌时为"-"，解析为0
+                quote.setChangePercent(getJsonDouble(item, "f3"));
+                quote.setPrevClose(getJsonDouble(item, "f18"));
+                quote.setMarketCap(getJsonDouble(item, "f21") / 100000000.0); // 元->亿
+                quote.setLimitUpPrice(getJsonDouble(item, "f51"));
+                quote.setTradeStatus(getJsonInt(item, "f292"));
+                quote.setTimestamp(now);
+                result.put(code, quote);
+            }
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("解析行情JSON失败", e);
+        }
         return result;
     }
 
+    /**
+     * 解析一条K线："2025-01-02,10.50,10.80,10.95,10.40,123456,1.3E8"
+     */
+    private KlineBar parseKline(String line) {
+        String[] parts = line.split(",");
+        if (parts.length < 7) {
+            return null;
+        }
+        try {
+            int tradeDate = Integer.parseInt(parts[0].replace("-", ""));
+            return new KlineBar(tradeDate, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                    Double.parseDouble(parts[3]), Double.parseDouble(parts[4]),
+                    (long) Double.parseDouble(parts[5]), Double.parseDouble(parts[6]));
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "解析K线条目失败: " + line);
+            return null;
+        }
+    }
+
+    /**
+     * 股票代码转东方财富 secid（6/9开头为上交所，其余为深交所）
+     */
+    private String toSecId(String code) {
+        return (code.startsWith("6") || code.startsWith("9") ? "1." : "0.") + code;
+    }
+
     // ===== JSON工具方法 =====
 
     private String getJsonStringByKeys(JsonObject obj, String... keys) {
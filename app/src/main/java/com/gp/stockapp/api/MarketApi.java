@@ -2,9 +2,12 @@ package com.gp.stockapp.api;
 
 import android.util.Log;
 
+import com.gp.stockapp.model.MarketBreadth;
 import com.gp.stockapp.model.MarketIndex;
 import com.gp.stockapp.model.StockNews;
 import com.gp.stockapp.utils.HttpClient;
+import com.gp.stockapp.utils.NewsClassifier;
+import com.gp.stockapp.utils.NewsDeduplicator;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -14,9 +17,29 @@ import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -24,18 +47,28 @@ import okhttp3.Response;
 
 /**
  * 大盘指数数据API客户端
- * 抓取三大指数（上证/深证/创业板）实时数据和市场新闻
+ * 抓取三大指数（上证/深证/创业板）实时数据、全市场涨跌宽度和市场新闻
+ * 新闻源并发抓取，按源记录高水位，支持只取新增新闻
  */
 public class MarketApi {
     private static final String TAG = "MarketApi";
     private static volatile MarketApi instance;
 
     private final OkHttpClient client;
+    private final OkHttpClient newsClient;
     private final Gson gson;
+    private final ExecutorService newsExecutor;
+    private final Map<String, NewsCursor> newsCursors = new ConcurrentHashMap<>();
+    private final NewsDeduplicator recentNewsIndex = new NewsDeduplicator();
 
     // 新浪财经实时行情API
     private static final String SINA_API = "https://hq.sinajs.cn/list=";
 
+    // 东方财富全市场涨跌分布：fenbu 为 [{"-11":家数}, ..., {"0":家数}, ..., {"11":家数}]，
+    // 11/-11 为涨停/跌停，0 为平盘，1~10 为涨幅 (k-1, k]%，-1~-10 为跌幅 [-k, -k+1)%
+    private static final String EASTMONEY_BREADTH_API =
+            "https://push2ex.eastmoney.com/getTopicZDFenBu?ut=7eea3edcaed734bea9cbfc24409ed989&dpt=wz.ztzt&_=%d";
+
     // ===== 新闻源 =====
     // 新浪财经滚动新闻（股市要闻）
     private static final String SINA_NEWS_API = "https://feed.mix.sina.com.cn/api/roll/get?pageid=153&lid=2516&k=&num=%d&page=1&r=0.1&callback=";
@@ -44,6 +77,18 @@ public class MarketApi {
     // 新浪财经全球要闻
     private static final String SINA_GLOBAL_NEWS_API = "https://feed.mix.sina.com.cn/api/roll/get?pageid=155&lid=2520&k=&num=%d&page=1&r=0.1&callback=";
 
+    // 新闻源标识（同时作为高水位的key）
+    private static final String SOURCE_SINA = "新浪财经";
+    private static final String SOURCE_SINA_GLOBAL = "新浪全球";
+    private static final String SOURCE_EASTMONEY = "东方财富";
+
+    // 并发抓取配置：每个源单独限时5秒，整轮最多等待6秒
+    private static final long NEWS_SOURCE_TIMEOUT_MS = 5000;
+    private static final long NEWS_FETCH_DEADLINE_MS = 6000;
+    // 高水位容差：新浪时间只精确到分钟，且快讯偶有补发，允许比高水位早10分钟的未见新闻
+    private static final long HIGH_WATER_MARK_TOLERANCE_MS = 10 * 60 * 1000;
+    private static final int MAX_SEEN_NEWS_KEYS = 500;
+
     // 三大指数代码
     private static final String[] INDEX_CODES = {
             "sh000001",   // 上证指数
@@ -63,7 +108,12 @@ public class MarketApi {
                     return chain.proceed(request);
                 })
                 .build();
+        // 新闻抓取单独限时，慢源不拖累整轮
+        newsClient = client.newBuilder()
+                .callTimeout(NEWS_SOURCE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
         gson = new Gson();
+        newsExecutor = Executors.newFixedThreadPool(3);
     }
 
     public static MarketApi getInstance() {
@@ -120,7 +170,7 @@ public class MarketApi {
      *
      * 字段顺序（指数）：
      * 0-名称, 1-今开, 2-昨收, 3-当前点位, 4-最高, 5-最低,
-     * 6-买入(无), 7-卖出(无), 8-成交量(手), 9-成交额(元), ...
+     * 6-买入(无), 7-卖出(无), 8-成交量(手), 9-成交额(元), ..., 30-日期, 31-时间
      */
     private List<MarketIndex> parseSinaResponse(String response) {
         List<MarketIndex> indices = new ArrayList<>();
@@ -175,7 +225,9 @@ public class MarketApi {
                     index.setChangePercent((index.getCurrentPoint() - preClose) / preClose * 100);
                 }
 
-                index.setTimestamp(System.currentTimeMillis());
+                // 用行情自身的时间，接口未更新时时间戳不变，分时存储据此去重
+                long quoteTime = fields.length > 31 ? parseQuoteTime(fields[30], fields[31]) : 0;
+                index.setTimestamp(quoteTime > 0 ? quoteTime : System.currentTimeMillis());
                 indices.add(index);
 
                 Log.d(TAG, "Parsed index: " + index.getIndexName()
@@ -190,6 +242,104 @@ public class MarketApi {
         return indices;
     }
 
+    /**
+     * 解析新浪行情的日期和时间（yyyy-MM-dd, HH:mm:ss）
+     * @return 毫秒时间，格式不符时返回0
+     */
+    static long parseQuoteTime(String date, String time) {
+        try {
+            return LocalDateTime.of(LocalDate.parse(date.trim()), LocalTime.parse(time.trim()))
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 抓取全市场涨跌宽度（一次请求）
+     * @return 请求失败或数据为空时返回null
+     */
+    public MarketBreadth fetchMarketBreadth() {
+        Request request = new Request.Builder()
+                .url(String.format(EASTMONEY_BREADTH_API, System.currentTimeMillis()))
+                .header("Referer", "https://quote.eastmoney.com/ztb/")
+                .get()
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                Log.w(TAG, "涨跌分布请求失败，状态码: " + response.code());
+                return null;
+            }
+            MarketBreadth breadth = parseBreadthResponse(response.body().string());
+            if (breadth != null) {
+                Log.d(TAG, "全市场宽度: 上涨 " + breadth.getAdvanceCount() + " / 下跌 " + breadth.getDeclineCount()
+                        + ", 涨停 " + breadth.getLimitUpCount() + " / 跌停 " + breadth.getLimitDownCount());
+            }
+            return breadth;
+        } catch (Exception e) {
+            Log.e(TAG, "抓取全市场涨跌分布失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析涨跌分布，按 {@link MarketBreadth#BUCKET_LABELS} 分档汇总
+     */
+    static MarketBreadth parseBreadthResponse(String body) {
+        JsonObject root = JsonParser.parseString(body).getAsJsonObject();
+        JsonElement dataElem = root.get("data");
+        if (dataElem == null || !dataElem.isJsonObject()) return null;
+        JsonElement fenbuElem = dataElem.getAsJsonObject().get("fenbu");
+        if (fenbuElem == null || !fenbuElem.isJsonArray()) return null;
+
+        Integer[] buckets = new Integer[MarketBreadth.BUCKET_LABELS.length];
+        Arrays.fill(buckets, 0);
+        MarketBreadth breadth = new MarketBreadth();
+        for (JsonElement element : fenbuElem.getAsJsonArray()) {
+            if (!element.isJsonObject()) continue;
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                int key;
+                try {
+                    key = Integer.parseInt(entry.getKey().trim());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                int count = entry.getValue().getAsInt();
+                int bucket = bucketOf(key);
+                buckets[bucket] += count;
+                if (key > 0) {
+                    breadth.setAdvanceCount(breadth.getAdvanceCount() + count);
+                } else if (key < 0) {
+                    breadth.setDeclineCount(breadth.getDeclineCount() + count);
+                } else {
+                    breadth.setFlatCount(breadth.getFlatCount() + count);
+                }
+            }
+        }
+        breadth.setLimitUpCount(buckets[buckets.length - 1]);
+        breadth.setLimitDownCount(buckets[0]);
+        breadth.setDistribution(new ArrayList<>(Arrays.asList(buckets)));
+        breadth.setTimestamp(System.currentTimeMillis());
+        return breadth.isValid() ? breadth : null;
+    }
+
+    /**
+     * 涨跌分布的key对应的分档下标
+     */
+    private static int bucketOf(int key) {
+        if (key >= 11) return 10;
+        if (key >= 8) return 9;
+        if (key >= 6) return 8;
+        if (key >= 4) return 7;
+        if (key >= 1) return 6;
+        if (key == 0) return 5;
+        if (key >= -3) return 4;
+        if (key >= -5) return 3;
+        if (key >= -7) return 2;
+        if (key >= -10) return 1;
+        return 0;
+    }
+
     /**
      * 抓取市场新闻（综合国内外新闻源）
      */
@@ -199,54 +349,172 @@ public class MarketApi {
 
     /**
      * 抓取指定数量的市场新闻
-     * 从多个来源获取，合并去重后返回
+     * 从多个来源并发获取，合并去重后返回（完整快照，不受高水位影响）
      */
     public List<StockNews> fetchMarketNews(int limit) {
-        List<StockNews> allNews = new ArrayList<>();
+        return collectMarketNews(limit, false);
+    }
 
-        // 1. 从新浪财经抓取国内股市要闻
-        try {
-            List<StockNews> sinaNews = fetchSinaNews(limit);
-            allNews.addAll(sinaNews);
-            Log.d(TAG, "Fetched " + sinaNews.size() + " news from Sina Finance");
-        } catch (Exception e) {
-            Log.e(TAG, "Error fetching Sina news", e);
-        }
+    /**
+     * 增量抓取市场新闻
+     * 每个新闻源记录已处理的最新发布时间（高水位）和已见过的新闻ID，
+     * 只返回本次新出现的新闻，已处理过的新闻不会再次进入下游（AI分析等）
+     * 新增新闻全部返回、不按limit截断（limit只控制每个源的抓取条数），
+     * 高水位和相似度索引只记录实际返回的新闻，被过滤掉的不会被当成已处理
+     */
+    public List<StockNews> fetchNewMarketNews(int limit) {
+        return collectMarketNews(limit, true);
+    }
 
-        // 2. 从新浪抓取全球财经要闻
-        try {
-            List<StockNews> globalNews = fetchSinaGlobalNews(limit / 2);
-            allNews.addAll(globalNews);
-            Log.d(TAG, "Fetched " + globalNews.size() + " global news from Sina");
-        } catch (Exception e) {
-            Log.e(TAG, "Error fetching Sina global news", e);
+    /**
+     * 并发抓取所有新闻源
+     * 每个源单独限时（callTimeout），整体截止时间内按到达顺序合并，
+     * 到达一个源就立即做高水位过滤和近似去重（跨新闻源），超时未返回的源本轮放弃
+     * 增量模式下先只读地筛选，过滤、排序完成后再把返回的新闻记入高水位和相似度索引
+     */
+    private List<StockNews> collectMarketNews(int limit, boolean incremental) {
+        Map<String, Callable<List<StockNews>>> sources = new LinkedHashMap<>();
+        sources.put(SOURCE_SINA, () -> fetchSinaNews(limit));              // 新浪财经国内股市要闻
+        sources.put(SOURCE_SINA_GLOBAL, () -> fetchSinaGlobalNews(limit / 2)); // 新浪全球财经要闻
+        sources.put(SOURCE_EASTMONEY, () -> fetchEastMoneyNews(limit));     // 东方财富快讯
+
+        CompletionService<SourceResult> completionService = new ExecutorCompletionService<>(newsExecutor);
+        List<Future<SourceResult>> futures = new ArrayList<>();
+        for (Map.Entry<String, Callable<List<StockNews>>> source : sources.entrySet()) {
+            String name = source.getKey();
+            Callable<List<StockNews>> fetcher = source.getValue();
+            futures.add(completionService.submit(() -> new SourceResult(name, fetcher.call())));
         }
 
-        // 3. 从东方财富抓取快讯
+        // 本轮内跨新闻源去重；增量模式另外查跨轮次的相似度索引，已处理过的改写标题也会被识别
+        NewsDeduplicator deduplicator = new NewsDeduplicator();
+        List<StockNews> uniqueNews = new ArrayList<>();
+        Map<StockNews, String> sourceOf = new IdentityHashMap<>();
+        int received = 0;
+        long deadline = System.currentTimeMillis() + NEWS_FETCH_DEADLINE_MS;
         try {
-            List<StockNews> eastmoneyNews = fetchEastMoneyNews(limit);
-            allNews.addAll(eastmoneyNews);
-            Log.d(TAG, "Fetched " + eastmoneyNews.size() + " news from EastMoney");
-        } catch (Exception e) {
-            Log.e(TAG, "Error fetching EastMoney news", e);
+            for (int remaining = futures.size(); remaining > 0; remaining--) {
+                long waitMs = deadline - System.currentTimeMillis();
+                Future<SourceResult> done = waitMs > 0
+                        ? completionService.poll(waitMs, TimeUnit.MILLISECONDS) : null;
+                if (done == null) {
+                    Log.w(TAG, "新闻抓取超过截止时间，放弃 " + remaining + " 个未返回的新闻源");
+                    break;
+                }
+                SourceResult result;
+                try {
+                    result = done.get();
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "Error fetching news source", e.getCause());
+                    continue;
+                }
+
+                List<StockNews> items = result.news;
+                if (incremental) {
+                    items = getNewsCursor(result.source).selectNew(items);
+                }
+                received += items.size();
+                for (StockNews news : items) {
+                    if (incremental && recentNewsIndex.isDuplicate(news.getTitle())) {
+                        continue;
+                    }
+                    if (deduplicator.addIfNovel(news.getTitle())) {
+                        uniqueNews.add(news);
+                        sourceOf.put(news, result.source);
+                    }
+                }
+                Log.d(TAG, "Fetched " + result.news.size() + " news from " + result.source
+                        + (incremental ? " (new: " + items.size() + ")" : ""));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<SourceResult> future : futures) {
+                future.cancel(true);
+            }
         }
 
-        // 去重（按标题）并按时间降序排序
-        List<StockNews> uniqueNews = deduplicateNews(allNews);
-        
         // 过滤个股新闻，只保留影响大盘的宏观/政策/国际新闻
         List<StockNews> filteredNews = filterMarketWideNews(uniqueNews);
         filteredNews.sort((a, b) -> Long.compare(b.getPublishTime(), a.getPublishTime()));
 
-        // 限制返回数量
-        if (filteredNews.size() > limit) {
+        if (incremental) {
+            // 只有实际交给下游的新闻才算已处理
+            for (StockNews news : filteredNews) {
+                getNewsCursor(sourceOf.get(news)).markProcessed(news);
+                recentNewsIndex.add(news.getTitle());
+            }
+        } else if (filteredNews.size() > limit) {
+            // 限制返回数量
             filteredNews = filteredNews.subList(0, limit);
         }
 
-        Log.d(TAG, "Total filtered market-wide news: " + filteredNews.size() + " (before filter: " + uniqueNews.size() + ")");
+        Log.d(TAG, "Total filtered market-wide news: " + filteredNews.size()
+                + " (unique: " + uniqueNews.size() + ", received: " + received + ")");
         return filteredNews;
     }
 
+    private NewsCursor getNewsCursor(String source) {
+        return newsCursors.computeIfAbsent(source, k -> new NewsCursor());
+    }
+
+    /**
+     * 单个新闻源的抓取结果
+     */
+    private static final class SourceResult {
+        final String source;
+        final List<StockNews> news;
+
+        SourceResult(String source, List<StockNews> news) {
+            this.source = source;
+            this.news = news != null ? news : new ArrayList<>();
+        }
+    }
+
+    /**
+     * 新闻源高水位
+     * 记录已处理的最新发布时间和最近见过的新闻ID（有界），
+     * 发布时间早于高水位一定容差、或ID已见过的新闻视为已处理
+     */
+    private static final class NewsCursor {
+        private long highWaterMark = 0;
+        private final Set<String> seenKeys = new LinkedHashSet<>();
+
+        /**
+         * 筛选未处理过的新闻（只读，不改变高水位）
+         */
+        synchronized List<StockNews> selectNew(List<StockNews> items) {
+            List<StockNews> fresh = new ArrayList<>();
+            long threshold = highWaterMark - HIGH_WATER_MARK_TOLERANCE_MS;
+            for (StockNews news : items) {
+                if (seenKeys.contains(keyOf(news)) || news.getPublishTime() < threshold) {
+                    continue;
+                }
+                fresh.add(news);
+            }
+            return fresh;
+        }
+
+        /**
+         * 记录一条已交给下游的新闻，推进高水位
+         */
+        synchronized void markProcessed(StockNews news) {
+            seenKeys.add(keyOf(news));
+            highWaterMark = Math.max(highWaterMark, news.getPublishTime());
+
+            // 只保留最近的ID，超出容差窗口的旧新闻本来就会被时间过滤
+            Iterator<String> it = seenKeys.iterator();
+            while (seenKeys.size() > MAX_SEEN_NEWS_KEYS && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        private static String keyOf(StockNews news) {
+            return news.getNewsId() + "|" + news.getTitle();
+        }
+    }
+
     /**
      * 从新浪财经滚动新闻API抓取国内股市要闻
      *
@@ -268,7 +536,7 @@ public class MarketApi {
                 .get()
                 .build();
 
-        Response response = client.newCall(request).execute();
+        Response response = newsClient.newCall(request).execute();
         if (!response.isSuccessful() || response.body() == null) {
             Log.w(TAG, "新浪国内新闻请求失败，状态码: " + (response != null ? response.code() : "unknown"));
             return newsList;
@@ -380,7 +648,7 @@ public class MarketApi {
                 .get()
                 .build();
 
-        Response response = client.newCall(request).execute();
+        Response response = newsClient.newCall(request).execute();
         if (!response.isSuccessful() || response.body() == null) {
             Log.w(TAG, "新浪全球新闻请求失败，状态码: " + (response != null ? response.code() : "unknown"));
             return newsList;
@@ -491,7 +759,7 @@ public class MarketApi {
                 .get()
                 .build();
 
-        Response response = client.newCall(request).execute();
+        Response response = newsClient.newCall(request).execute();
         if (!response.isSuccessful() || response.body() == null) {
             Log.w(TAG, "东方财富快讯请求失败，状态码: " + (response != null ? response.code() : "unknown"));
             return newsList;
@@ -565,93 +833,8 @@ public class MarketApi {
         return newsList;
     }
 
-    /**
-     * 新闻去重（按标题相似度）
-     */
-    private List<StockNews> deduplicateNews(List<StockNews> newsList) {
-        List<StockNews> unique = new ArrayList<>();
-        for (StockNews news : newsList) {
-            if (news.getTitle() == null || news.getTitle().isEmpty()) continue;
-            boolean duplicate = false;
-            for (StockNews existing : unique) {
-                if (isSimilarTitle(news.getTitle(), existing.getTitle())) {
-                    duplicate = true;
-                    break;
-                }
-            }
-            if (!duplicate) {
-                unique.add(news);
-            }
-        }
-        return unique;
-    }
-
-    /**
-     * 判断两个标题是否相似（简单判断：前20个字是否相同）
-     */
-    private boolean isSimilarTitle(String title1, String title2) {
-        if (title1.equals(title2)) return true;
-        String s1 = title1.length() > 20 ? title1.substring(0, 20) : title1;
-        String s2 = title2.length() > 20 ? title2.substring(0, 20) : title2;
-        return s1.equals(s2);
-    }
-
     // ===== 新闻过滤：只保留影响大盘的宏观新闻 =====
 
-    // 个股新闻关键词（排除）
-    private static final String[] INDIVIDUAL_STOCK_KEYWORDS = {
-            "涨停", "跌停", "龙虎榜", "大宗交易",
-            "年报", "季报", "半年报", "业绩预告", "业绩快报",
-            "公告", "增持", "减持", "回购", "质押",
-            "定增", "配股", "分红", "送转", "除权", "除息",
-            "股东大会", "董事会", "监事会",
-            "解禁", "限售股", "实控人", "控股股东",
-            "研报", "评级", "目标价",
-            "收购", "并购", "重组", "借壳", "上市申请",
-            "IPO申购", "中签", "新股发行"
-    };
-
-    // 宏观/大盘新闻关键词（保留）
-    private static final String[] MARKET_WIDE_KEYWORDS = {
-            // 宏观政策
-            "央行", "货币政策", "降准", "降息", "加息", "MLF", "LPR", "逆回购",
-            "国务院", "证监会", "银保监", "财政部", "发改委", "商务部",
-            "政策", "监管", "法规", "改革",
-            // 大盘相关
-            "大盘", "A股", "股市", "沪深", "沪指", "深指", "创业板",
-            "上证", "深证", "北证", "科创板",
-            "三大指数", "两市", "成交额", "成交量",
-            "牛市", "熊市", "震荡", "反弹", "回调",
-            "放量", "缩量", "突破", "支撑", "压力",
-            // 板块/行业整体
-            "板块", "行业", "赛道", "概念股", "题材",
-            "半导体行业", "新能源行业", "人工智能行业",
-            // 资金面
-            "北向资金", "外资", "融资融券", "杠杆资金",
-            "公募基金", "私募基金", "社保基金", "险资",
-            "资金流入", "资金流出", "净流入", "净流出",
-            // 国际
-            "美联储", "美股", "纳斯达克", "道琼斯", "标普",
-            "港股", "恒生", "日经", "欧股",
-            "美元", "人民币", "汇率",
-            "关税", "贸易战", "贸易摩擦", "制裁",
-            "原油", "黄金", "大宗商品",
-            "地缘", "战争", "冲突",
-            // 宏观经济数据
-            "GDP", "CPI", "PPI", "PMI", "社融",
-            "就业", "失业率", "通胀", "通缩",
-            "进出口", "贸易数据", "外贸",
-            "房地产", "楼市",
-            // 重大事件
-            "两会", "中央经济工作会议", "政治局会议",
-            "达沃斯", "G20", "APEC"
-    };
-
-    // 个股代码正则（6位数字代码如 600519、000858、300750）
-    private static final Pattern STOCK_CODE_PATTERN = Pattern.compile(
-            "\\b[036]\\d{5}\\b|\\(\\d{6}\\)|（\\d{6}）|SH\\d{6}|SZ\\d{6}|sh\\d{6}|sz\\d{6}"
-    );
-
     /**
      * 过滤新闻，只保留影响大盘的宏观/政策/国际新闻
      * 过滤逻辑：
@@ -673,34 +856,22 @@ public class MarketApi {
 
     /**
      * 判断是否为影响大盘的宏观类新闻
+     * 关键词和个股代码由 NewsClassifier 单次扫描得到
      */
     private boolean isMarketWideNews(StockNews news) {
         String title = news.getTitle();
-        String summary = news.getSummary();
         if (title == null) return false;
 
-        String combined = title + (summary != null ? summary : "");
+        NewsClassifier.Result categories = NewsClassifier.classify(title, news.getSummary());
 
         // 1. 检查是否包含宏观关键词（优先保留）
-        boolean hasMarketKeyword = false;
-        for (String keyword : MARKET_WIDE_KEYWORDS) {
-            if (combined.contains(keyword)) {
-                hasMarketKeyword = true;
-                break;
-            }
-        }
+        boolean hasMarketKeyword = categories.hasMarketKeyword();
 
         // 2. 检查是否包含个股代码
-        boolean hasStockCode = STOCK_CODE_PATTERN.matcher(combined).find();
-
-        // 3. 检查是否包含个股关键词
-        boolean hasIndividualKeyword = false;
-        for (String keyword : INDIVIDUAL_STOCK_KEYWORDS) {
-            if (title.contains(keyword)) {
-                hasIndividualKeyword = true;
-                break;
-            }
-        }
+        boolean hasStockCode = categories.has(NewsClassifier.Category.STOCK_CODE);
+
+        // 3. 检查标题是否包含个股关键词
+        boolean hasIndividualKeyword = categories.hasInTitle(NewsClassifier.Category.INDIVIDUAL_STOCK);
 
         // 判断逻辑：
         // - 有宏观关键词：保留（即使提到个股代码，如"央行降准利好银行板块"）
@@ -0,0 +1,63 @@
+package com.gp.stockapp.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.gp.stockapp.model.StrategySnapshot;
+import com.gp.stockapp.utils.CandidateScreener;
+
+/**
+ * 本地确定性模型（策略回放用）
+ * 不调用任何接口，直接对快照中的热门数据跑本地初筛 {@link CandidateScreener#screen}，按评分取前几只作为推荐，
+ * 同一份快照永远得到同样的结果，可作为"只用初筛评分"的基线，与真实模型的回放结果对比
+ */
+public class ScreenerStubModel implements ChatModel {
+
+    public static final String MODEL_NAME = "screener-stub";
+
+    private static final int DEFAULT_PICKS = 5;
+
+    private final int picks;
+    private final Gson gson = new Gson();
+
+    public ScreenerStubModel() {
+        this(DEFAULT_PICKS);
+    }
+
+    public ScreenerStubModel(int picks) {
+        this.picks = picks;
+    }
+
+    /**
+     * 只用于回放，没有快照时不做推荐
+     */
+    @Override
+    public String analyzePremium(ChatPrompt prompt) {
+        return null;
+    }
+
+    @Override
+    public String analyzeReplay(StrategySnapshot snapshot, ChatPrompt prompt) {
+        JsonArray items = new JsonArray();
+        for (CandidateScreener.Candidate candidate : CandidateScreener.screen(snapshot.getHotData(), picks)) {
+            JsonObject item = new JsonObject();
+            item.addProperty("name", candidate.getName());
+            item.addProperty("code", candidate.getCode());
+            item.addProperty("score", Math.round(candidate.getScore()));
+            item.addProperty("reason", "本地初筛评分第" + (items.size() + 1));
+            items.add(item);
+        }
+        JsonObject result = new JsonObject();
+        result.addProperty("title", "初筛基线");
+        result.addProperty("summary", "按本地初筛评分取前" + items.size() + "只");
+        result.addProperty("confidence", 50);
+        result.addProperty("risk_level", "medium");
+        result.add("items", items);
+        return gson.toJson(result);
+    }
+
+    @Override
+    public String getPremiumModel() {
+        return MODEL_NAME;
+    }
+}
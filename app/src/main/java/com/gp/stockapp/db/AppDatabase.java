@@ -2,21 +2,170 @@ package com.gp.stockapp.db;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 /**
  * Room数据库
+ * 版本变更必须提供 Migration，不再清库重建（只有最早的 v1 仍按破坏性迁移处理）
  */
-@Database(entities = {DragonTigerEntity.class, ContinuousLimitEntity.class}, version = 2, exportSchema = false)
+@Database(entities = {DragonTigerEntity.class, ContinuousLimitEntity.class,
+        NewsArchiveEntity.class, NewsFtsEntity.class, HistoryDaySummaryEntity.class,
+        StockMonthlyStatsEntity.class, BackfillCheckpointEntity.class, RecommendationLedgerEntity.class,
+        SectorDayStatsEntity.class},
+        version = 8, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
-    
+
     private static volatile AppDatabase INSTANCE;
-    
+
     public abstract DragonTigerDao dragonTigerDao();
     public abstract ContinuousLimitDao continuousLimitDao();
-    
+    public abstract NewsArchiveDao newsArchiveDao();
+    public abstract HistoryDaySummaryDao historyDaySummaryDao();
+    public abstract StockMonthlyStatsDao stockMonthlyStatsDao();
+    public abstract BackfillCheckpointDao backfillCheckpointDao();
+    public abstract RecommendationLedgerDao recommendationLedgerDao();
+    public abstract SectorDayStatsDao sectorDayStatsDao();
+
+    /**
+     * v2 → v3：新增新闻归档表和全文索引
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `news_archive` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `newsId` TEXT, `title` TEXT, " +
+                    "`summary` TEXT, `source` TEXT, `newsType` TEXT, `publishTime` INTEGER NOT NULL, " +
+                    "`importance` INTEGER NOT NULL, `recommendedStocks` TEXT, `archivedAt` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_news_archive_newsId` " +
+                    "ON `news_archive` (`newsId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_news_archive_publishTime` " +
+                    "ON `news_archive` (`publishTime`)");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `news_fts` " +
+                    "USING FTS4(`title` TEXT, `summary` TEXT, `recommendedStocks` TEXT)");
+        }
+    };
+
+    /**
+     * v3 → v4：龙虎榜改为 (tradeDate, code) 主键，增加个股历史索引和每日汇总表
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // 1. 龙虎榜：重建表，去掉自增id（同一天同一股票只保留最后写入的一条）
+            db.execSQL("CREATE TABLE IF NOT EXISTS `dragon_tiger_history_new` (" +
+                    "`tradeDate` TEXT NOT NULL, `code` TEXT NOT NULL, `name` TEXT, " +
+                    "`closePrice` REAL NOT NULL, `changePercent` REAL NOT NULL, `turnoverRate` REAL NOT NULL, " +
+                    "`netBuy` REAL NOT NULL, `buyAmount` REAL NOT NULL, `sellAmount` REAL NOT NULL, " +
+                    "`reason` TEXT, `marketCap` REAL NOT NULL, `fetchTime` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`tradeDate`, `code`))");
+            db.execSQL("INSERT OR REPLACE INTO `dragon_tiger_history_new` " +
+                    "(tradeDate, code, name, closePrice, changePercent, turnoverRate, netBuy, " +
+                    "buyAmount, sellAmount, reason, marketCap, fetchTime) " +
+                    "SELECT tradeDate, code, name, closePrice, changePercent, turnoverRate, netBuy, " +
+                    "buyAmount, sellAmount, reason, marketCap, fetchTime FROM `dragon_tiger_history` " +
+                    "WHERE tradeDate IS NOT NULL AND code IS NOT NULL ORDER BY id");
+            db.execSQL("DROP TABLE `dragon_tiger_history`");
+            db.execSQL("ALTER TABLE `dragon_tiger_history_new` RENAME TO `dragon_tiger_history`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_dragon_tiger_history_code_tradeDate` " +
+                    "ON `dragon_tiger_history` (`code`, `tradeDate`)");
+
+            // 2. 连板股：主键已是 (tradeDate, code)，去掉重复的唯一索引，增加个股历史索引
+            db.execSQL("DROP INDEX IF EXISTS `index_continuous_limit_history_tradeDate_code`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_continuous_limit_history_code_tradeDate` " +
+                    "ON `continuous_limit_history` (`code`, `tradeDate`)");
+
+            // 3. 每日汇总表，按现有明细一次性生成
+            db.execSQL("CREATE TABLE IF NOT EXISTS `history_day_summary` (" +
+                    "`tradeDate` TEXT NOT NULL, `dragonTigerCount` INTEGER NOT NULL, " +
+                    "`dragonTigerNetBuy` REAL NOT NULL, `continuousLimitCount` INTEGER NOT NULL, " +
+                    "`maxContinuousCount` INTEGER NOT NULL, `updatedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`tradeDate`))");
+            db.execSQL("INSERT OR REPLACE INTO `history_day_summary` " +
+                    "(tradeDate, dragonTigerCount, dragonTigerNetBuy, continuousLimitCount, maxContinuousCount, updatedAt) " +
+                    "SELECT tradeDate, SUM(dtCount), SUM(dtNetBuy), SUM(clCount), MAX(clMax), " +
+                    System.currentTimeMillis() + " FROM (" +
+                    "SELECT tradeDate, COUNT(*) AS dtCount, IFNULL(SUM(netBuy), 0) AS dtNetBuy, " +
+                    "0 AS clCount, 0 AS clMax FROM `dragon_tiger_history` GROUP BY tradeDate " +
+                    "UNION ALL " +
+                    "SELECT tradeDate, 0, 0, COUNT(*), MAX(continuousCount) " +
+                    "FROM `continuous_limit_history` GROUP BY tradeDate" +
+                    ") GROUP BY tradeDate");
+        }
+    };
+
+    /**
+     * v4 → v5：每日汇总增加归档标记，新增个股月度汇总表
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `history_day_summary` ADD COLUMN `archived` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `stock_monthly_stats` (" +
+                    "`month` TEXT NOT NULL, `code` TEXT NOT NULL, `name` TEXT, " +
+                    "`dragonTigerDays` INTEGER NOT NULL, `dragonTigerNetBuy` REAL NOT NULL, " +
+                    "`continuousLimitDays` INTEGER NOT NULL, `maxContinuousCount` INTEGER NOT NULL, " +
+                    "`lastTradeDate` TEXT, PRIMARY KEY(`month`, `code`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_stock_monthly_stats_code_month` " +
+                    "ON `stock_monthly_stats` (`code`, `month`)");
+        }
+    };
+
+    /**
+     * v5 → v6：新增历史补齐进度表
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `history_backfill_checkpoint` (" +
+                    "`tradeDate` TEXT NOT NULL, `dragonTigerDone` INTEGER NOT NULL, " +
+                    "`continuousLimitDone` INTEGER NOT NULL, `dragonTigerRows` INTEGER NOT NULL, " +
+                    "`continuousLimitRows` INTEGER NOT NULL, `failures` INTEGER NOT NULL, " +
+                    "`lastError` TEXT, `updatedAt` INTEGER NOT NULL, PRIMARY KEY(`tradeDate`))");
+        }
+    };
+
+    /**
+     * v6 → v7：新增推荐台账
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recommendation_ledger` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `recTime` INTEGER NOT NULL, " +
+                    "`strategyType` TEXT NOT NULL, `model` TEXT, `promptVersion` TEXT, `code` TEXT NOT NULL, " +
+                    "`name` TEXT, `rank` INTEGER NOT NULL, `score` REAL NOT NULL, `refPrice` REAL NOT NULL, " +
+                    "`signalDate` TEXT, `status` INTEGER NOT NULL, `evalDate` TEXT, `entryPrice` REAL NOT NULL, " +
+                    "`nextOpenReturn` REAL NOT NULL, `nextCloseReturn` REAL NOT NULL, " +
+                    "`maxAdverseReturn` REAL NOT NULL, `evaluatedAt` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_recommendation_ledger_strategyType_recTime_code` " +
+                    "ON `recommendation_ledger` (`strategyType`, `recTime`, `code`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_recommendation_ledger_status_signalDate` " +
+                    "ON `recommendation_ledger` (`status`, `signalDate`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_recommendation_ledger_strategyType_model_promptVersion_signalDate` " +
+                    "ON `recommendation_ledger` (`strategyType`, `model`, `promptVersion`, `signalDate`)");
+        }
+    };
+
+    /**
+     * v7 → v8：新增板块每日强度统计
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sector_day_stats` (" +
+                    "`tradeDate` TEXT NOT NULL, `sector` TEXT NOT NULL, `rank` INTEGER NOT NULL, " +
+                    "`score` REAL NOT NULL, `limitUpCount` INTEGER NOT NULL, `continuousCount` INTEGER NOT NULL, " +
+                    "`ladderHeight` INTEGER NOT NULL, `dragonTigerCount` INTEGER NOT NULL, `netBuy` REAL NOT NULL, " +
+                    "`amountShare` REAL NOT NULL, `updatedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`tradeDate`, `sector`))");
+        }
+    };
+
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
@@ -26,7 +175,8 @@ public abstract class AppDatabase extends RoomDatabase {
                             AppDatabase.class,
                             "gp_stock_db"
                     )
-                    .fallbackToDestructiveMigration()
+                    .addMigrations(MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8)
+                    .fallbackToDestructiveMigrationFrom(1)
                     .build();
                 }
             }
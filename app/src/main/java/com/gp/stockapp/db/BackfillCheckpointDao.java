@@ -0,0 +1,46 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * 历史数据补齐进度访问对象
+ * 龙虎榜和连板股由不同线程并行补齐，这里都用单条 UPDATE 修改各自的列，互不覆盖
+ */
+@Dao
+public interface BackfillCheckpointDao {
+
+    /**
+     * 确保有该交易日的进度行
+     */
+    @Query("INSERT OR IGNORE INTO history_backfill_checkpoint " +
+            "(tradeDate, dragonTigerDone, continuousLimitDone, dragonTigerRows, continuousLimitRows, " +
+            "failures, lastError, updatedAt) VALUES (:tradeDate, 0, 0, 0, 0, 0, NULL, :now)")
+    void ensure(String tradeDate, long now);
+
+    @Query("UPDATE history_backfill_checkpoint SET dragonTigerDone = 1, dragonTigerRows = :rows, " +
+            "updatedAt = :now WHERE tradeDate = :tradeDate")
+    void markDragonTigerDone(String tradeDate, int rows, long now);
+
+    @Query("UPDATE history_backfill_checkpoint SET continuousLimitDone = 1, continuousLimitRows = :rows, " +
+            "updatedAt = :now WHERE tradeDate = :tradeDate")
+    void markContinuousLimitDone(String tradeDate, int rows, long now);
+
+    @Query("UPDATE history_backfill_checkpoint SET failures = failures + 1, lastError = :error, " +
+            "updatedAt = :now WHERE tradeDate = :tradeDate")
+    void recordFailure(String tradeDate, String error, long now);
+
+    /**
+     * 获取指定日期之后的进度
+     */
+    @Query("SELECT * FROM history_backfill_checkpoint WHERE tradeDate >= :startDate")
+    List<BackfillCheckpointEntity> getSince(String startDate);
+
+    /**
+     * 删除指定日期之前的进度
+     */
+    @Query("DELETE FROM history_backfill_checkpoint WHERE tradeDate < :beforeDate")
+    void deleteBeforeDate(String beforeDate);
+}
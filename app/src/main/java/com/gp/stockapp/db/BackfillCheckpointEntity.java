@@ -0,0 +1,59 @@
+package com.gp.stockapp.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 历史数据补齐进度（每个交易日一行）
+ * 龙虎榜和连板股分别记录是否已完成，补齐中断后重启只抓未完成的部分；
+ * 接口返回空数据也算完成（当天确实没有数据），请求失败则累计失败次数
+ */
+@Entity(tableName = "history_backfill_checkpoint")
+public class BackfillCheckpointEntity {
+
+    /** 交易日期 yyyyMMdd */
+    @NonNull
+    @PrimaryKey
+    private String tradeDate;
+
+    /** 龙虎榜是否已补齐 */
+    private boolean dragonTigerDone;
+
+    /** 连板股是否已补齐 */
+    private boolean continuousLimitDone;
+
+    /** 补齐的龙虎榜条数 */
+    private int dragonTigerRows;
+
+    /** 补齐的连板股条数 */
+    private int continuousLimitRows;
+
+    /** 累计失败次数（含重试） */
+    private int failures;
+
+    /** 最近一次失败原因 */
+    private String lastError;
+
+    /** 最后更新时间 */
+    private long updatedAt;
+
+    // Getters & Setters
+    @NonNull
+    public String getTradeDate() { return tradeDate; }
+    public void setTradeDate(@NonNull String tradeDate) { this.tradeDate = tradeDate; }
+    public boolean isDragonTigerDone() { return dragonTigerDone; }
+    public void setDragonTigerDone(boolean dragonTigerDone) { this.dragonTigerDone = dragonTigerDone; }
+    public boolean isContinuousLimitDone() { return continuousLimitDone; }
+    public void setContinuousLimitDone(boolean continuousLimitDone) { this.continuousLimitDone = continuousLimitDone; }
+    public int getDragonTigerRows() { return dragonTigerRows; }
+    public void setDragonTigerRows(int dragonTigerRows) { this.dragonTigerRows = dragonTigerRows; }
+    public int getContinuousLimitRows() { return continuousLimitRows; }
+    public void setContinuousLimitRows(int continuousLimitRows) { this.continuousLimitRows = continuousLimitRows; }
+    public int getFailures() { return failures; }
+    public void setFailures(int failures) { this.failures = failures; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -4,8 +4,14 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 连板股数据访问对象
@@ -25,6 +31,86 @@ public interface ContinuousLimitDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(ContinuousLimitEntity item);
     
+    /**
+     * 批量更新（按主键）
+     */
+    @Update
+    void updateAll(List<ContinuousLimitEntity> items);
+    
+    /**
+     * 增量写入某一交易日的数据：按 (tradeDate, code) 与库中已有行比较，
+     * 只插入新股票、更新内容有变化的行，未变化的行不写库
+     * 同一股票在列表中出现多次时以最后一条为准（与 REPLACE 语义一致）
+     * 已归档（明细已转入月度汇总）的交易日不再写入，避免重复计入汇总
+     */
+    @Transaction
+    default UpsertResult upsertChanged(String tradeDate, List<ContinuousLimitEntity> items) {
+        UpsertResult result = new UpsertResult();
+        if (isDayArchived(tradeDate)) {
+            result.addSkipped(items.size());
+            return result;
+        }
+        
+        Map<String, ContinuousLimitEntity> existing = new HashMap<>();
+        for (ContinuousLimitEntity row : getByDate(tradeDate)) {
+            existing.put(row.getCode(), row);
+        }
+        Map<String, ContinuousLimitEntity> incoming = new LinkedHashMap<>();
+        for (ContinuousLimitEntity item : items) {
+            incoming.put(item.getCode(), item);
+        }
+        
+        List<ContinuousLimitEntity> toInsert = new ArrayList<>();
+        List<ContinuousLimitEntity> toUpdate = new ArrayList<>();
+        for (ContinuousLimitEntity item : incoming.values()) {
+            ContinuousLimitEntity old = existing.get(item.getCode());
+            if (old == null) {
+                toInsert.add(item);
+            } else if (!old.hasSameContent(item)) {
+                toUpdate.add(item);
+            } else {
+                result.addSkipped(1);
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            insertAll(toInsert);
+            result.addInserted(toInsert.size());
+        }
+        if (!toUpdate.isEmpty()) {
+            updateAll(toUpdate);
+            result.addUpdated(toUpdate.size());
+        }
+        if (result.hasChanges()) {
+            long now = System.currentTimeMillis();
+            ensureDaySummary(tradeDate, now);
+            refreshDaySummary(tradeDate, now);
+        }
+        return result;
+    }
+    
+    /**
+     * 该交易日是否已归档
+     */
+    @Query("SELECT EXISTS(SELECT 1 FROM history_day_summary WHERE tradeDate = :tradeDate AND archived = 1)")
+    boolean isDayArchived(String tradeDate);
+    
+    /**
+     * 确保汇总表中有该交易日的行
+     */
+    @Query("INSERT OR IGNORE INTO history_day_summary " +
+            "(tradeDate, dragonTigerCount, dragonTigerNetBuy, continuousLimitCount, maxContinuousCount, updatedAt) " +
+            "VALUES (:tradeDate, 0, 0, 0, 0, :now)")
+    void ensureDaySummary(String tradeDate, long now);
+    
+    /**
+     * 按明细重新统计该交易日的连板股汇总（主键范围扫描）
+     */
+    @Query("UPDATE history_day_summary SET " +
+            "continuousLimitCount = (SELECT COUNT(*) FROM continuous_limit_history WHERE tradeDate = :tradeDate), " +
+            "maxContinuousCount = (SELECT IFNULL(MAX(continuousCount), 0) FROM continuous_limit_history WHERE tradeDate = :tradeDate), " +
+            "updatedAt = :now WHERE tradeDate = :tradeDate")
+    void refreshDaySummary(String tradeDate, long now);
+    
     /**
      * 获取指定日期的连板股数据
      */
@@ -44,9 +130,9 @@ public interface ContinuousLimitDao {
     List<ContinuousLimitEntity> getByCode(String code);
     
     /**
-     * 获取所有交易日列表
+     * 获取所有有明细数据的交易日列表（查汇总表，不含已归档的交易日）
      */
-    @Query("SELECT DISTINCT tradeDate FROM continuous_limit_history ORDER BY tradeDate DESC")
+    @Query("SELECT tradeDate FROM history_day_summary WHERE archived = 0 AND continuousLimitCount > 0 ORDER BY tradeDate DESC")
     List<String> getAllTradeDates();
     
     /**
@@ -55,12 +141,36 @@ public interface ContinuousLimitDao {
     @Query("SELECT MAX(tradeDate) FROM continuous_limit_history")
     String getLatestTradeDate();
     
+    /**
+     * 某交易日的最高连板数（没有数据时为0）
+     */
+    @Query("SELECT IFNULL(MAX(continuousCount), 0) FROM continuous_limit_history WHERE tradeDate = :tradeDate")
+    int getMaxContinuousCount(String tradeDate);
+    
+    /**
+     * 库中早于指定日期的交易日（升序，走主键索引）
+     */
+    @Query("SELECT DISTINCT tradeDate FROM continuous_limit_history WHERE tradeDate < :beforeDate ORDER BY tradeDate")
+    List<String> getTradeDatesBefore(String beforeDate);
+    
+    /**
+     * 删除指定日期的数据
+     */
+    @Query("DELETE FROM continuous_limit_history WHERE tradeDate = :tradeDate")
+    void deleteByDate(String tradeDate);
+    
     /**
      * 删除指定日期之前的数据
      */
     @Query("DELETE FROM continuous_limit_history WHERE tradeDate < :beforeDate")
     void deleteBeforeDate(String beforeDate);
     
+    /**
+     * 获取某日期（含）以来出现过的股票代码
+     */
+    @Query("SELECT DISTINCT code FROM continuous_limit_history WHERE tradeDate >= :startDate")
+    List<String> getCodesSince(String startDate);
+    
     /**
      * 获取数据总条数
      */
@@ -4,12 +4,17 @@ import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Index;
 
+import com.gp.stockapp.model.HotStockData;
+
+import java.util.Objects;
+
 /**
  * 连板股历史数据实体
+ * (tradeDate, code) 主键本身即唯一索引；(code, tradeDate) 索引用于个股历史查询
  */
 @Entity(tableName = "continuous_limit_history", 
         primaryKeys = {"tradeDate", "code"},
-        indices = {@Index(value = {"tradeDate", "code"}, unique = true)})
+        indices = {@Index(value = {"code", "tradeDate"})})
 public class ContinuousLimitEntity {
     @NonNull
     private String tradeDate;       // 交易日期 yyyyMMdd
@@ -23,6 +28,23 @@ public class ContinuousLimitEntity {
     private String concept;         // 所属概念
     private long fetchTime;         // 抓取时间戳
 
+    /**
+     * 从抓取结果创建
+     */
+    public static ContinuousLimitEntity fromItem(HotStockData.ContinuousLimitItem item, String tradeDate, long fetchTime) {
+        ContinuousLimitEntity entity = new ContinuousLimitEntity();
+        entity.setTradeDate(tradeDate);
+        entity.setCode(item.getCode());
+        entity.setName(item.getName());
+        entity.setContinuousCount(item.getContinuousCount());
+        entity.setChangePercent(item.getChangePercent());
+        entity.setTurnoverRate(item.getTurnoverRate());
+        entity.setMarketCap(item.getMarketCap());
+        entity.setConcept(item.getConcept());
+        entity.setFetchTime(fetchTime);
+        return entity;
+    }
+
     // Getters & Setters
     public String getTradeDate() { return tradeDate; }
     public void setTradeDate(String tradeDate) { this.tradeDate = tradeDate; }
@@ -42,4 +64,17 @@ public class ContinuousLimitEntity {
     public void setConcept(String concept) { this.concept = concept; }
     public long getFetchTime() { return fetchTime; }
     public void setFetchTime(long fetchTime) { this.fetchTime = fetchTime; }
+
+    /**
+     * 业务字段是否与另一条一致（不比较抓取时间），用于增量写入时跳过未变化的行
+     */
+    public boolean hasSameContent(ContinuousLimitEntity other) {
+        return other != null
+                && Objects.equals(name, other.name)
+                && continuousCount == other.continuousCount
+                && Double.compare(changePercent, other.changePercent) == 0
+                && Double.compare(turnoverRate, other.turnoverRate) == 0
+                && Double.compare(marketCap, other.marketCap) == 0
+                && Objects.equals(concept, other.concept);
+    }
 }
@@ -4,8 +4,14 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 龙虎榜数据访问对象
@@ -25,6 +31,86 @@ public interface DragonTigerDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(DragonTigerEntity item);
     
+    /**
+     * 批量更新（按主键）
+     */
+    @Update
+    void updateAll(List<DragonTigerEntity> items);
+    
+    /**
+     * 增量写入某一交易日的数据：按 (tradeDate, code) 与库中已有行比较，
+     * 只插入新股票、更新内容有变化的行，未变化的行不写库
+     * 同一股票在列表中出现多次时以最后一条为准（与 REPLACE 语义一致）
+     * 已归档（明细已转入月度汇总）的交易日不再写入，避免重复计入汇总
+     */
+    @Transaction
+    default UpsertResult upsertChanged(String tradeDate, List<DragonTigerEntity> items) {
+        UpsertResult result = new UpsertResult();
+        if (isDayArchived(tradeDate)) {
+            result.addSkipped(items.size());
+            return result;
+        }
+        
+        Map<String, DragonTigerEntity> existing = new HashMap<>();
+        for (DragonTigerEntity row : getByDate(tradeDate)) {
+            existing.put(row.getCode(), row);
+        }
+        Map<String, DragonTigerEntity> incoming = new LinkedHashMap<>();
+        for (DragonTigerEntity item : items) {
+            incoming.put(item.getCode(), item);
+        }
+        
+        List<DragonTigerEntity> toInsert = new ArrayList<>();
+        List<DragonTigerEntity> toUpdate = new ArrayList<>();
+        for (DragonTigerEntity item : incoming.values()) {
+            DragonTigerEntity old = existing.get(item.getCode());
+            if (old == null) {
+                toInsert.add(item);
+            } else if (!old.hasSameContent(item)) {
+                toUpdate.add(item);
+            } else {
+                result.addSkipped(1);
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            insertAll(toInsert);
+            result.addInserted(toInsert.size());
+        }
+        if (!toUpdate.isEmpty()) {
+            updateAll(toUpdate);
+            result.addUpdated(toUpdate.size());
+        }
+        if (result.hasChanges()) {
+            long now = System.currentTimeMillis();
+            ensureDaySummary(tradeDate, now);
+            refreshDaySummary(tradeDate, now);
+        }
+        return result;
+    }
+    
+    /**
+     * 该交易日是否已归档
+     */
+    @Query("SELECT EXISTS(SELECT 1 FROM history_day_summary WHERE tradeDate = :tradeDate AND archived = 1)")
+    boolean isDayArchived(String tradeDate);
+    
+    /**
+     * 确保汇总表中有该交易日的行
+     */
+    @Query("INSERT OR IGNORE INTO history_day_summary " +
+            "(tradeDate, dragonTigerCount, dragonTigerNetBuy, continuousLimitCount, maxContinuousCount, updatedAt) " +
+            "VALUES (:tradeDate, 0, 0, 0, 0, :now)")
+    void ensureDaySummary(String tradeDate, long now);
+    
+    /**
+     * 按明细重新统计该交易日的龙虎榜汇总（主键范围扫描）
+     */
+    @Query("UPDATE history_day_summary SET " +
+            "dragonTigerCount = (SELECT COUNT(*) FROM dragon_tiger_history WHERE tradeDate = :tradeDate), " +
+            "dragonTigerNetBuy = (SELECT IFNULL(SUM(netBuy), 0) FROM dragon_tiger_history WHERE tradeDate = :tradeDate), " +
+            "updatedAt = :now WHERE tradeDate = :tradeDate")
+    void refreshDaySummary(String tradeDate, long now);
+    
     /**
      * 获取指定日期的龙虎榜数据
      */
@@ -44,9 +130,9 @@ public interface DragonTigerDao {
     List<DragonTigerEntity> getByCode(String code);
     
     /**
-     * 获取所有交易日列表
+     * 获取所有有明细数据的交易日列表（查汇总表，不含已归档的交易日）
      */
-    @Query("SELECT DISTINCT tradeDate FROM dragon_tiger_history ORDER BY tradeDate DESC")
+    @Query("SELECT tradeDate FROM history_day_summary WHERE archived = 0 AND dragonTigerCount > 0 ORDER BY tradeDate DESC")
     List<String> getAllTradeDates();
     
     /**
@@ -55,12 +141,30 @@ public interface DragonTigerDao {
     @Query("SELECT MAX(tradeDate) FROM dragon_tiger_history")
     String getLatestTradeDate();
     
+    /**
+     * 库中早于指定日期的交易日（升序，走主键索引）
+     */
+    @Query("SELECT DISTINCT tradeDate FROM dragon_tiger_history WHERE tradeDate < :beforeDate ORDER BY tradeDate")
+    List<String> getTradeDatesBefore(String beforeDate);
+    
+    /**
+     * 删除指定日期的数据
+     */
+    @Query("DELETE FROM dragon_tiger_history WHERE tradeDate = :tradeDate")
+    void deleteByDate(String tradeDate);
+    
     /**
      * 删除指定日期之前的数据
      */
     @Query("DELETE FROM dragon_tiger_history WHERE tradeDate < :beforeDate")
     void deleteBeforeDate(String beforeDate);
     
+    /**
+     * 获取某日期（含）以来出现过的股票代码
+     */
+    @Query("SELECT DISTINCT code FROM dragon_tiger_history WHERE tradeDate >= :startDate")
+    List<String> getCodesSince(String startDate);
+    
     /**
      * 获取数据总条数
      */
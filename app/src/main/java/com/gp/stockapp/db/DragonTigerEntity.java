@@ -1,24 +1,29 @@
 package com.gp.stockapp.db;
 
+import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Index;
-import androidx.room.PrimaryKey;
+
+import com.gp.stockapp.model.HotStockData;
+
+import java.util.Objects;
 
 /**
  * 龙虎榜历史数据实体
  * 用于存储每日龙虎榜数据，支持历史查询
+ * 以 (tradeDate, code) 为主键，按日期查询直接走主键；(code, tradeDate) 索引用于个股历史查询
  */
 @Entity(tableName = "dragon_tiger_history", 
-        indices = {@Index(value = {"tradeDate", "code"}, unique = true)})
+        primaryKeys = {"tradeDate", "code"},
+        indices = {@Index(value = {"code", "tradeDate"})})
 public class DragonTigerEntity {
     
-    @PrimaryKey(autoGenerate = true)
-    private long id;
-    
-    /** 交易日期 yyyy-MM-dd */
+    /** 交易日期 yyyyMMdd */
+    @NonNull
     private String tradeDate;
     
     /** 股票代码 */
+    @NonNull
     private String code;
     
     /** 股票名称 */
@@ -51,15 +56,27 @@ public class DragonTigerEntity {
     /** 数据抓取时间 */
     private long fetchTime;
 
-    // Getters and Setters
-    public long getId() {
-        return id;
-    }
-
-    public void setId(long id) {
-        this.id = id;
+    /**
+     * 从抓取结果创建
+     */
+    public static DragonTigerEntity fromItem(HotStockData.DragonTigerItem item, String tradeDate, long fetchTime) {
+        DragonTigerEntity entity = new DragonTigerEntity();
+        entity.setTradeDate(tradeDate);
+        entity.setCode(item.getCode());
+        entity.setName(item.getName());
+        entity.setClosePrice(item.getClose());
+        entity.setChangePercent(item.getChangePercent());
+        entity.setTurnoverRate(item.getTurnoverRate());
+        entity.setNetBuy(item.getNetBuy());
+        entity.setBuyAmount(item.getBuyAmount());
+        entity.setSellAmount(item.getSellAmount());
+        entity.setReason(item.getReason());
+        entity.setMarketCap(item.getMarketCap());
+        entity.setFetchTime(fetchTime);
+        return entity;
     }
 
+    // Getters and Setters
     public String getTradeDate() {
         return tradeDate;
     }
@@ -155,4 +172,20 @@ public class DragonTigerEntity {
     public void setFetchTime(long fetchTime) {
         this.fetchTime = fetchTime;
     }
+
+    /**
+     * 业务字段是否与另一条一致（不比较抓取时间），用于增量写入时跳过未变化的行
+     */
+    public boolean hasSameContent(DragonTigerEntity other) {
+        return other != null
+                && Objects.equals(name, other.name)
+                && Double.compare(closePrice, other.closePrice) == 0
+                && Double.compare(changePercent, other.changePercent) == 0
+                && Double.compare(turnoverRate, other.turnoverRate) == 0
+                && Double.compare(netBuy, other.netBuy) == 0
+                && Double.compare(buyAmount, other.buyAmount) == 0
+                && Double.compare(sellAmount, other.sellAmount) == 0
+                && Objects.equals(reason, other.reason)
+                && Double.compare(marketCap, other.marketCap) == 0;
+    }
 }
@@ -0,0 +1,198 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 历史明细冷存档
+ * 每月一个 gzip 文件（history_archive/yyyyMM.jsonl.gz），每个交易日的明细作为一行JSON追加一个gzip分段，
+ * 读取时 GZIPInputStream 会依次解压所有分段。同一交易日再次写入时替换原记录，文件里只保留一份
+ */
+public class HistoryColdArchive {
+    private static final String TAG = "HistoryColdArchive";
+    private static final String DIR_NAME = "history_archive";
+    private static final String SUFFIX = ".jsonl.gz";
+
+    /**
+     * 一个交易日的明细
+     */
+    public static class DayRecord {
+        @SerializedName("trade_date")
+        private String tradeDate;
+        @SerializedName("dragon_tiger")
+        private List<DragonTigerEntity> dragonTigerList;
+        @SerializedName("continuous_limit")
+        private List<ContinuousLimitEntity> continuousLimitList;
+
+        public DayRecord(String tradeDate, List<DragonTigerEntity> dragonTigerList,
+                         List<ContinuousLimitEntity> continuousLimitList) {
+            this.tradeDate = tradeDate;
+            this.dragonTigerList = dragonTigerList;
+            this.continuousLimitList = continuousLimitList;
+        }
+
+        public String getTradeDate() { return tradeDate; }
+        public List<DragonTigerEntity> getDragonTigerList() {
+            return dragonTigerList != null ? dragonTigerList : new ArrayList<>();
+        }
+        public List<ContinuousLimitEntity> getContinuousLimitList() {
+            return continuousLimitList != null ? continuousLimitList : new ArrayList<>();
+        }
+    }
+
+    private final File dir;
+    private final Gson gson = new Gson();
+
+    public HistoryColdArchive(File filesDir) {
+        this.dir = new File(filesDir, DIR_NAME);
+    }
+
+    /**
+     * 写入一个交易日的明细到当月文件
+     * 当月还没有该交易日时直接追加一个分段；已存档过（如上次归档后事务失败重试）则整月重写，
+     * 用新记录替换旧记录，保证每个交易日在文件里只有一份
+     */
+    public synchronized void writeDay(DayRecord record) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建存档目录: " + dir);
+        }
+        String month = StockMonthlyStatsEntity.monthOf(record.getTradeDate());
+        List<DayRecord> days = readMonth(month);
+        boolean replaced = false;
+        for (int i = 0; i < days.size(); i++) {
+            if (record.getTradeDate().equals(days.get(i).getTradeDate())) {
+                days.set(i, record);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            writeRecords(monthFile(month), Collections.singletonList(record), true);
+            return;
+        }
+        // 先写临时文件再替换，重写过程中被杀不会丢掉整月存档
+        File tmp = new File(dir, month + SUFFIX + ".tmp");
+        writeRecords(tmp, days, false);
+        if (!tmp.renameTo(monthFile(month))) {
+            tmp.delete();
+            throw new IOException("替换存档文件失败: " + monthFile(month));
+        }
+        Log.d(TAG, "替换已存档的交易日: " + record.getTradeDate());
+    }
+
+    private void writeRecords(File file, List<DayRecord> records, boolean append) throws IOException {
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, append)), StandardCharsets.UTF_8)) {
+            for (DayRecord record : records) {
+                writer.write(gson.toJson(record));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 读取某月的全部交易日明细（按写入顺序，同一交易日取最后一次）
+     * 文件末尾不完整（如写入时进程被杀）时返回已读出的部分
+     */
+    public synchronized List<DayRecord> readMonth(String month) {
+        Map<String, DayRecord> days = new LinkedHashMap<>();
+        File file = monthFile(month);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                DayRecord record = gson.fromJson(line, DayRecord.class);
+                if (record != null && record.getTradeDate() != null) {
+                    days.remove(record.getTradeDate());
+                    days.put(record.getTradeDate(), record);
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "读取存档不完整: " + file.getName() + ", 已读 " + days.size() + " 天", e);
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    /**
+     * 读取某个交易日的明细，没有则返回null
+     */
+    public DayRecord readDay(String tradeDate) {
+        for (DayRecord record : readMonth(StockMonthlyStatsEntity.monthOf(tradeDate))) {
+            if (tradeDate.equals(record.getTradeDate())) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 已存档的月份（升序）
+     */
+    public synchronized List<String> getMonths() {
+        List<String> months = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) return months;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(SUFFIX)) {
+                months.add(name.substring(0, name.length() - SUFFIX.length()));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * 删除指定月份之前的存档文件
+     * @return 删除的文件数
+     */
+    public synchronized int deleteBeforeMonth(String beforeMonth) {
+        int deleted = 0;
+        for (String month : getMonths()) {
+            if (month.compareTo(beforeMonth) < 0 && monthFile(month).delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 存档总大小（字节）
+     */
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private File monthFile(String month) {
+        return new File(dir, month + SUFFIX);
+    }
+}
@@ -0,0 +1,45 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * 每日历史数据汇总访问对象
+ * 汇总行由 DragonTigerDao / ContinuousLimitDao 的 upsertChanged 维护，归档时由 HistoryWarehouse 标记
+ */
+@Dao
+public interface HistoryDaySummaryDao {
+
+    /**
+     * 获取指定日期的汇总
+     */
+    @Query("SELECT * FROM history_day_summary WHERE tradeDate = :tradeDate")
+    HistoryDaySummaryEntity getByDate(String tradeDate);
+
+    /**
+     * 获取指定日期之后的汇总（倒序）
+     */
+    @Query("SELECT * FROM history_day_summary WHERE tradeDate >= :startDate ORDER BY tradeDate DESC")
+    List<HistoryDaySummaryEntity> getRecentDays(String startDate);
+
+    /**
+     * 龙虎榜和连板股都已入库（或已归档）的交易日
+     */
+    @Query("SELECT tradeDate FROM history_day_summary " +
+            "WHERE archived = 1 OR (dragonTigerCount > 0 AND continuousLimitCount > 0) ORDER BY tradeDate DESC")
+    List<String> getCompleteTradeDates();
+
+    /**
+     * 标记交易日已归档
+     */
+    @Query("UPDATE history_day_summary SET archived = 1, updatedAt = :now WHERE tradeDate = :tradeDate")
+    void markArchived(String tradeDate, long now);
+
+    /**
+     * 删除指定日期之前的汇总
+     */
+    @Query("DELETE FROM history_day_summary WHERE tradeDate < :beforeDate")
+    void deleteBeforeDate(String beforeDate);
+}
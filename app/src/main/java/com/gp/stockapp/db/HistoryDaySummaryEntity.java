@@ -0,0 +1,57 @@
+package com.gp.stockapp.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 每日历史数据汇总
+ * 每个交易日一行，记录龙虎榜和连板股的条数等，由两个DAO的增量写入在同一事务中维护。
+ * 交易日列表、缺失日期检查直接查这张小表，不再对明细表做 DISTINCT
+ * 明细超过保留期归档后汇总行仍保留（archived=1），作为长周期的每日统计
+ */
+@Entity(tableName = "history_day_summary")
+public class HistoryDaySummaryEntity {
+
+    /** 交易日期 */
+    @NonNull
+    @PrimaryKey
+    private String tradeDate;
+
+    /** 龙虎榜条数 */
+    private int dragonTigerCount;
+
+    /** 龙虎榜净买合计(万) */
+    private double dragonTigerNetBuy;
+
+    /** 连板股条数 */
+    private int continuousLimitCount;
+
+    /** 最高连板数 */
+    private int maxContinuousCount;
+
+    /** 最后更新时间 */
+    private long updatedAt;
+
+    /** 明细是否已归档（转入月度汇总和冷存档，库中不再有明细） */
+    @ColumnInfo(defaultValue = "0")
+    private boolean archived;
+
+    // Getters & Setters
+    @NonNull
+    public String getTradeDate() { return tradeDate; }
+    public void setTradeDate(@NonNull String tradeDate) { this.tradeDate = tradeDate; }
+    public int getDragonTigerCount() { return dragonTigerCount; }
+    public void setDragonTigerCount(int dragonTigerCount) { this.dragonTigerCount = dragonTigerCount; }
+    public double getDragonTigerNetBuy() { return dragonTigerNetBuy; }
+    public void setDragonTigerNetBuy(double dragonTigerNetBuy) { this.dragonTigerNetBuy = dragonTigerNetBuy; }
+    public int getContinuousLimitCount() { return continuousLimitCount; }
+    public void setContinuousLimitCount(int continuousLimitCount) { this.continuousLimitCount = continuousLimitCount; }
+    public int getMaxContinuousCount() { return maxContinuousCount; }
+    public void setMaxContinuousCount(int maxContinuousCount) { this.maxContinuousCount = maxContinuousCount; }
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+}
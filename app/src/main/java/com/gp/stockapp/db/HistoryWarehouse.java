@@ -0,0 +1,189 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 分层历史数据仓库
+ *
+ * 热数据：龙虎榜/连板股明细表，只保留最近几个交易日（由调用方决定截止日期）
+ * 温数据：每日汇总（history_day_summary）+ 个股月度汇总（stock_monthly_stats），保留 retentionMonths 个月
+ * 冷数据：超过保留期的明细按月写入 gzip 存档文件，与月度汇总同样保留 retentionMonths 个月
+ *
+ * 明细过期时逐日归档：先写冷存档，再在一个事务中累加月度汇总、标记该日已归档并删除明细，
+ * 已归档的交易日不再接受写入，因此汇总不会重复累加；事务失败后重试时冷存档按交易日替换，不会重复追加
+ */
+public class HistoryWarehouse {
+    private static final String TAG = "HistoryWarehouse";
+
+    public static final int DEFAULT_RETENTION_MONTHS = 24;
+
+    private final AppDatabase appDatabase;
+    private final DragonTigerDao dragonTigerDao;
+    private final ContinuousLimitDao continuousLimitDao;
+    private final HistoryDaySummaryDao historyDaySummaryDao;
+    private final StockMonthlyStatsDao stockMonthlyStatsDao;
+    private final HistoryColdArchive coldArchive;
+
+    public HistoryWarehouse(AppDatabase appDatabase, File filesDir) {
+        this.appDatabase = appDatabase;
+        this.dragonTigerDao = appDatabase.dragonTigerDao();
+        this.continuousLimitDao = appDatabase.continuousLimitDao();
+        this.historyDaySummaryDao = appDatabase.historyDaySummaryDao();
+        this.stockMonthlyStatsDao = appDatabase.stockMonthlyStatsDao();
+        this.coldArchive = new HistoryColdArchive(filesDir);
+    }
+
+    /**
+     * 把早于截止日期的明细逐日归档
+     * @return 归档的交易日数
+     */
+    public synchronized int rollUpBefore(String cutoffDate) {
+        TreeSet<String> dates = new TreeSet<>(dragonTigerDao.getTradeDatesBefore(cutoffDate));
+        dates.addAll(continuousLimitDao.getTradeDatesBefore(cutoffDate));
+        int rolled = 0;
+        for (String date : dates) {
+            if (rollUpDay(date)) {
+                rolled++;
+            }
+        }
+        if (rolled > 0) {
+            Log.d(TAG, "归档 " + rolled + " 个交易日的明细 (截止 " + cutoffDate + ")");
+        }
+        return rolled;
+    }
+
+    /**
+     * 归档一个交易日：写冷存档失败时保留明细，下次再试
+     */
+    private boolean rollUpDay(String tradeDate) {
+        List<DragonTigerEntity> dragonTigerList = dragonTigerDao.getByDate(tradeDate);
+        List<ContinuousLimitEntity> continuousLimitList = continuousLimitDao.getByDate(tradeDate);
+        try {
+            coldArchive.writeDay(new HistoryColdArchive.DayRecord(tradeDate, dragonTigerList, continuousLimitList));
+        } catch (IOException e) {
+            Log.e(TAG, "写入冷存档失败: " + tradeDate, e);
+            return false;
+        }
+
+        String month = StockMonthlyStatsEntity.monthOf(tradeDate);
+        Map<String, StockMonthlyStatsEntity> dayStats = aggregate(month, dragonTigerList, continuousLimitList);
+        appDatabase.runInTransaction(() -> {
+            if (dragonTigerDao.isDayArchived(tradeDate)) {
+                // 理论上不会发生（已归档的日期不再写入明细），防御性地只删明细
+                dragonTigerDao.deleteByDate(tradeDate);
+                continuousLimitDao.deleteByDate(tradeDate);
+                return;
+            }
+            if (!dayStats.isEmpty()) {
+                List<String> codes = new ArrayList<>(dayStats.keySet());
+                for (StockMonthlyStatsEntity existing : stockMonthlyStatsDao.getByMonthAndCodes(month, codes)) {
+                    StockMonthlyStatsEntity stats = dayStats.get(existing.getCode());
+                    existing.merge(stats);
+                    dayStats.put(existing.getCode(), existing);
+                }
+                stockMonthlyStatsDao.insertAll(new ArrayList<>(dayStats.values()));
+            }
+
+            long now = System.currentTimeMillis();
+            dragonTigerDao.ensureDaySummary(tradeDate, now);
+            dragonTigerDao.refreshDaySummary(tradeDate, now);
+            continuousLimitDao.refreshDaySummary(tradeDate, now);
+            historyDaySummaryDao.markArchived(tradeDate, now);
+            dragonTigerDao.deleteByDate(tradeDate);
+            continuousLimitDao.deleteByDate(tradeDate);
+        });
+        return true;
+    }
+
+    /**
+     * 删除超过保留期的汇总、冷存档和补齐进度
+     */
+    public synchronized void pruneOlderThan(int retentionMonths) {
+        String beforeMonth = monthsAgo(retentionMonths);
+        stockMonthlyStatsDao.deleteBeforeMonth(beforeMonth);
+        historyDaySummaryDao.deleteBeforeDate(beforeMonth + "01");
+        appDatabase.backfillCheckpointDao().deleteBeforeDate(beforeMonth + "01");
+        int deletedFiles = coldArchive.deleteBeforeMonth(beforeMonth);
+        if (deletedFiles > 0) {
+            Log.d(TAG, "删除 " + deletedFiles + " 个过期存档文件 (早于 " + beforeMonth + ")");
+        }
+    }
+
+    /**
+     * 个股按月统计（从 fromMonth 起，倒序）
+     * 已归档月份取月度汇总，尚在明细表中的交易日实时统计后合并
+     */
+    public List<StockMonthlyStatsEntity> getStockMonthlyStats(String code, String fromMonth) {
+        TreeMap<String, StockMonthlyStatsEntity> byMonth = new TreeMap<>();
+        for (StockMonthlyStatsEntity stats : stockMonthlyStatsDao.getByCode(code, fromMonth)) {
+            byMonth.put(stats.getMonth(), stats);
+        }
+        for (DragonTigerEntity item : dragonTigerDao.getByCode(code)) {
+            String month = StockMonthlyStatsEntity.monthOf(item.getTradeDate());
+            if (month.compareTo(fromMonth) < 0) continue;
+            byMonth.computeIfAbsent(month, m -> new StockMonthlyStatsEntity(m, code)).addDragonTiger(item);
+        }
+        for (ContinuousLimitEntity item : continuousLimitDao.getByCode(code)) {
+            String month = StockMonthlyStatsEntity.monthOf(item.getTradeDate());
+            if (month.compareTo(fromMonth) < 0) continue;
+            byMonth.computeIfAbsent(month, m -> new StockMonthlyStatsEntity(m, code)).addContinuousLimit(item);
+        }
+        return new ArrayList<>(byMonth.descendingMap().values());
+    }
+
+    /**
+     * 某月上榜最多的股票（仅已归档部分）
+     */
+    public List<StockMonthlyStatsEntity> getMonthlyLeaders(String month, int limit) {
+        return stockMonthlyStatsDao.getByMonth(month, limit);
+    }
+
+    /**
+     * 从冷存档读取某个已归档交易日的明细，没有则返回null
+     */
+    public HistoryColdArchive.DayRecord getArchivedDay(String tradeDate) {
+        return coldArchive.readDay(tradeDate);
+    }
+
+    /**
+     * 冷存档占用空间（字节）
+     */
+    public long getColdArchiveBytes() {
+        return coldArchive.getTotalBytes();
+    }
+
+    private static Map<String, StockMonthlyStatsEntity> aggregate(String month,
+                                                                  List<DragonTigerEntity> dragonTigerList,
+                                                                  List<ContinuousLimitEntity> continuousLimitList) {
+        Map<String, StockMonthlyStatsEntity> stats = new HashMap<>();
+        for (DragonTigerEntity item : dragonTigerList) {
+            stats.computeIfAbsent(item.getCode(), code -> new StockMonthlyStatsEntity(month, code))
+                    .addDragonTiger(item);
+        }
+        for (ContinuousLimitEntity item : continuousLimitList) {
+            stats.computeIfAbsent(item.getCode(), code -> new StockMonthlyStatsEntity(month, code))
+                    .addContinuousLimit(item);
+        }
+        return stats;
+    }
+
+    /**
+     * N个月前的月份 yyyyMM
+     */
+    static String monthsAgo(int months) {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.MONTH, -months);
+        return String.format(Locale.US, "%04d%02d", cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1);
+    }
+}
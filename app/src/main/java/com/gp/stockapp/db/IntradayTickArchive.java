@@ -0,0 +1,243 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.gp.stockapp.utils.IntradaySeries;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分时数据磁盘存档（按交易日分区的定长二进制文件）
+ *
+ * 每个交易日一个目录，每个指数一个文件：intraday/yyyyMMdd/{indexCode}.bin
+ * 文件头 16 字节：魔数(int) + 交易日(int, yyyyMMdd) + 基准时间(long, 当天0点毫秒)
+ * 每条采样 28 字节：相对基准时间的毫秒偏移(int) + 点位(double) + 成交额(double) + 成交量(long)
+ *
+ * 当天的文件保持打开，追加时复用同一个缓冲区；进程被杀留下的半条记录在下次打开时截掉
+ */
+public class IntradayTickArchive {
+    private static final String TAG = "IntradayTickArchive";
+    private static final String DIR_NAME = "intraday";
+    private static final String SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x49544b31; // "ITK1"
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 28;
+
+    /**
+     * 当天已打开的文件
+     */
+    private static class OpenFile {
+        final FileChannel channel;
+        final long baseMillis;
+
+        OpenFile(FileChannel channel, long baseMillis) {
+            this.channel = channel;
+            this.baseMillis = baseMillis;
+        }
+    }
+
+    private final File dir;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BYTES);
+    private final Map<String, OpenFile> openFiles = new HashMap<>();
+    private String openDate;
+
+    public IntradayTickArchive(File filesDir) {
+        this.dir = new File(filesDir, DIR_NAME);
+    }
+
+    /**
+     * 追加一条采样
+     * @param baseMillis 该交易日0点的毫秒时间（仅在新建文件时写入文件头，已有文件沿用文件头中的值）
+     */
+    public synchronized void append(String tradeDate, String indexCode, long baseMillis,
+                                    long timestamp, double point, double amount, long volume) throws IOException {
+        if (!tradeDate.equals(openDate)) {
+            closeAll();
+            openDate = tradeDate;
+        }
+        OpenFile file = openFiles.get(indexCode);
+        if (file == null) {
+            file = open(tradeDate, indexCode, baseMillis);
+            openFiles.put(indexCode, file);
+        }
+        long offset = timestamp - file.baseMillis;
+        if (offset < 0 || offset > Integer.MAX_VALUE) {
+            Log.w(TAG, "采样时间不属于交易日 " + tradeDate + ": " + timestamp);
+            return;
+        }
+        recordBuffer.clear();
+        recordBuffer.putInt((int) offset).putDouble(point).putDouble(amount).putLong(volume);
+        recordBuffer.flip();
+        while (recordBuffer.hasRemaining()) {
+            file.channel.write(recordBuffer);
+        }
+    }
+
+    /**
+     * 读取某个交易日某个指数的全部采样，文件不存在或已损坏时返回空序列
+     */
+    public synchronized IntradaySeries readDay(String tradeDate, String indexCode) {
+        File file = dayFile(tradeDate, indexCode);
+        if (!file.exists() || file.length() < HEADER_BYTES) {
+            return IntradaySeries.EMPTY;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                Log.w(TAG, "分时文件格式错误: " + file);
+                return IntradaySeries.EMPTY;
+            }
+            buffer.getInt();
+            long baseMillis = buffer.getLong();
+            int count = buffer.remaining() / RECORD_BYTES;
+            long[] timestamps = new long[count];
+            double[] points = new double[count];
+            double[] amounts = new double[count];
+            long[] volumes = new long[count];
+            for (int i = 0; i < count; i++) {
+                timestamps[i] = baseMillis + buffer.getInt();
+                points[i] = buffer.getDouble();
+                amounts[i] = buffer.getDouble();
+                volumes[i] = buffer.getLong();
+            }
+            return new IntradaySeries(timestamps, points, amounts, volumes, count);
+        } catch (IOException e) {
+            Log.e(TAG, "读取分时文件失败: " + file, e);
+            return IntradaySeries.EMPTY;
+        }
+    }
+
+    /**
+     * 已存档的交易日（升序）
+     */
+    public synchronized List<String> getDays() {
+        List<String> days = new ArrayList<>();
+        File[] files = dir.listFiles(File::isDirectory);
+        if (files == null) return days;
+        for (File file : files) {
+            days.add(file.getName());
+        }
+        days.sort(null);
+        return days;
+    }
+
+    /**
+     * 删除指定交易日之前的分区
+     * @return 删除的交易日数
+     */
+    public synchronized int deleteBeforeDay(String beforeDate) {
+        int deleted = 0;
+        for (String day : getDays()) {
+            if (day.compareTo(beforeDate) >= 0) continue;
+            if (day.equals(openDate)) {
+                closeAll();
+            }
+            File dayDir = new File(dir, day);
+            File[] files = dayDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            if (dayDir.delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 存档总大小（字节）
+     */
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        for (String day : getDays()) {
+            File[] files = new File(dir, day).listFiles();
+            if (files == null) continue;
+            for (File file : files) {
+                total += file.length();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 关闭当天打开的文件（下次追加时重新打开）
+     */
+    public synchronized void closeAll() {
+        for (OpenFile file : openFiles.values()) {
+            try {
+                file.channel.close();
+            } catch (IOException e) {
+                Log.w(TAG, "关闭分时文件失败", e);
+            }
+        }
+        openFiles.clear();
+        openDate = null;
+    }
+
+    /**
+     * 打开（必要时创建）追加用的文件：文件头无效时重建，末尾不完整的记录截掉
+     */
+    private OpenFile open(String tradeDate, String indexCode, long baseMillis) throws IOException {
+        File dayDir = new File(dir, tradeDate);
+        if (!dayDir.exists() && !dayDir.mkdirs()) {
+            throw new IOException("无法创建分时目录: " + dayDir);
+        }
+        FileChannel channel = new RandomAccessFile(dayFile(tradeDate, indexCode), "rw").getChannel();
+        try {
+            long size = channel.size();
+            long fileBaseMillis = baseMillis;
+            boolean valid = false;
+            if (size >= HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() == MAGIC) {
+                    header.getInt();
+                    fileBaseMillis = header.getLong();
+                    valid = true;
+                }
+            }
+            if (!valid) {
+                if (size > 0) {
+                    Log.w(TAG, "分时文件头无效，重建: " + tradeDate + "/" + indexCode);
+                }
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(Integer.parseInt(tradeDate)).putLong(baseMillis);
+                header.flip();
+                channel.write(header, 0);
+                size = HEADER_BYTES;
+            }
+            long complete = HEADER_BYTES + (size - HEADER_BYTES) / RECORD_BYTES * RECORD_BYTES;
+            if (complete < size) {
+                Log.w(TAG, "截掉不完整的分时记录: " + tradeDate + "/" + indexCode);
+                channel.truncate(complete);
+            }
+            channel.position(complete);
+            return new OpenFile(channel, fileBaseMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private File dayFile(String tradeDate, String indexCode) {
+        return new File(new File(dir, tradeDate), indexCode + SUFFIX);
+    }
+}
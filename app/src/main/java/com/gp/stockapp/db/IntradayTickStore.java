@@ -0,0 +1,162 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.gp.stockapp.model.MarketIndex;
+import com.gp.stockapp.utils.IntradayRingBuffer;
+import com.gp.stockapp.utils.IntradaySeries;
+import com.gp.stockapp.utils.TradingCalendar;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 指数分时数据存储
+ *
+ * 内存层：每个指数一个 {@link IntradayRingBuffer}，只保存当前交易日，盘中查询（分时形态、短时动量、尾盘走势）直接读内存
+ * 磁盘层：{@link IntradayTickArchive} 按交易日分区追加写入；进程重启后首次访问某指数时从当天文件恢复内存层，
+ * 更早的交易日直接读文件
+ */
+public class IntradayTickStore {
+    private static final String TAG = "IntradayTickStore";
+
+    // 1分钟一次约240个采样/天，留足余量以支持更密的采样频率
+    public static final int DEFAULT_RING_CAPACITY = 4096;
+
+    private final IntradayTickArchive archive;
+    private final int ringCapacity;
+    private final Map<String, IntradayRingBuffer> buffers = new HashMap<>();
+    private String currentDate;
+
+    public IntradayTickStore(File filesDir) {
+        this(filesDir, DEFAULT_RING_CAPACITY);
+    }
+
+    public IntradayTickStore(File filesDir, int ringCapacity) {
+        this.archive = new IntradayTickArchive(filesDir);
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * 记录一次指数快照（写内存并追加到当天文件），跨交易日时自动切换分区
+     * 接口未更新的快照不重复记录：行情时间不晚于最后一条采样，或点位/成交额/成交量与最后一条完全相同
+     * @param tradeDate 快照所属交易日 (yyyyMMdd)
+     * @return 实际记录的指数个数
+     */
+    public synchronized int record(String tradeDate, List<MarketIndex> indices) {
+        if (currentDate != null && tradeDate.compareTo(currentDate) < 0) {
+            Log.w(TAG, "忽略早于当前交易日的快照: " + tradeDate);
+            return 0;
+        }
+        long baseMillis = dayStartMillis(tradeDate);
+        int recorded = 0;
+        for (MarketIndex index : indices) {
+            String code = index.getIndexCode();
+            if (code == null || index.getCurrentPoint() <= 0) continue;
+            long timestamp = index.getTimestamp() > 0 ? index.getTimestamp() : System.currentTimeMillis();
+            IntradayRingBuffer buffer = liveBuffer(tradeDate, code);
+            if (buffer.isSameAsLast(index.getCurrentPoint(), index.getAmount(), index.getVolume())
+                    || !buffer.append(timestamp, index.getCurrentPoint(), index.getAmount(), index.getVolume())) {
+                continue;
+            }
+            recorded++;
+            try {
+                archive.append(tradeDate, code, baseMillis, timestamp,
+                        index.getCurrentPoint(), index.getAmount(), index.getVolume());
+            } catch (IOException e) {
+                Log.e(TAG, "写入分时文件失败: " + tradeDate + "/" + code, e);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * 某交易日某指数在 [fromMillis, toMillis] 内的采样
+     * 正在记录的交易日读内存层，其他交易日直接读文件；读取不会切换内存层的交易日
+     */
+    public IntradaySeries getSeries(String tradeDate, String indexCode, long fromMillis, long toMillis) {
+        IntradayRingBuffer buffer = null;
+        synchronized (this) {
+            if (tradeDate.equals(currentDate)) {
+                buffer = liveBuffer(tradeDate, indexCode);
+            }
+        }
+        if (buffer != null) {
+            return buffer.range(fromMillis, toMillis);
+        }
+        return archive.readDay(tradeDate, indexCode).range(fromMillis, toMillis);
+    }
+
+    /**
+     * 某交易日某指数的全部采样
+     */
+    public IntradaySeries getDaySeries(String tradeDate, String indexCode) {
+        return getSeries(tradeDate, indexCode, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * 某交易日某指数在 [fromMillis, toMillis] 内按 bucketMillis 降采样的序列（桶按当天0点对齐）
+     */
+    public IntradaySeries getDownsampled(String tradeDate, String indexCode,
+                                         long fromMillis, long toMillis, long bucketMillis) {
+        return getSeries(tradeDate, indexCode, fromMillis, toMillis)
+                .downsample(dayStartMillis(tradeDate), bucketMillis);
+    }
+
+    /**
+     * 删除指定交易日之前的分时文件
+     */
+    public int deleteBeforeDay(String beforeDate) {
+        int deleted = archive.deleteBeforeDay(beforeDate);
+        if (deleted > 0) {
+            Log.d(TAG, "删除 " + deleted + " 个交易日的分时文件 (截止 " + beforeDate + ")");
+        }
+        return deleted;
+    }
+
+    public long getArchiveBytes() {
+        return archive.getTotalBytes();
+    }
+
+    /**
+     * 关闭追加用的文件（收盘后或服务停止时调用），内存层保留，下次记录时重新打开
+     */
+    public void closeFiles() {
+        archive.closeAll();
+    }
+
+    /**
+     * 当天0点的毫秒时间
+     */
+    public static long dayStartMillis(String tradeDate) {
+        return TradingCalendar.toLocalDate(Integer.parseInt(tradeDate))
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 取正在记录的交易日某指数的内存缓冲区：交易日变化时清空内存层，首次访问的指数从当天文件恢复
+     */
+    private IntradayRingBuffer liveBuffer(String tradeDate, String indexCode) {
+        if (!tradeDate.equals(currentDate)) {
+            buffers.clear();
+            currentDate = tradeDate;
+        }
+        IntradayRingBuffer buffer = buffers.get(indexCode);
+        if (buffer == null) {
+            buffer = new IntradayRingBuffer(ringCapacity);
+            IntradaySeries saved = archive.readDay(tradeDate, indexCode);
+            for (int i = 0; i < saved.size(); i++) {
+                buffer.append(saved.getTimestamp(i), saved.getPoint(i), saved.getAmount(i), saved.getVolume(i));
+            }
+            if (!saved.isEmpty()) {
+                Log.d(TAG, "从文件恢复分时 " + tradeDate + "/" + indexCode + ": " + saved.size() + " 条");
+            }
+            buffers.put(indexCode, buffer);
+        }
+        return buffer;
+    }
+}
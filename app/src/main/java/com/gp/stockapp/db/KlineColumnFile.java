@@ -0,0 +1,256 @@
+package com.gp.stockapp.db;
+
+import com.gp.stockapp.model.KlineBar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单只股票的日K线列式文件
+ *
+ * 文件头 32 字节：魔数(int) + 格式版本(int) + 容量(int) + 已写条数(int) + 更新时间(long) + 保留(long)
+ * 之后按列依次存放，每列预留"容量"个槽位：交易日(int) | 开盘 | 收盘 | 最高 | 最低 (double) | 成交量(long) | 成交额(double)
+ * 同一列连续存放，扫描某一列（如全部收盘价）时顺序读取映射内存即可。
+ *
+ * 追加时先写各列的新槽位，最后更新文件头中的条数，写到一半被杀时新数据不可见；
+ * 容量不够时由调用方整体重写（先写临时文件再改名）
+ */
+public final class KlineColumnFile {
+
+    private static final int MAGIC = 0x4b4c4331; // "KLC1"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 12;
+    private static final int UPDATE_TIME_OFFSET = 16;
+
+    // 列宽：交易日 + 开/收/高/低 + 成交量 + 成交额
+    private static final int[] COLUMN_WIDTHS = {4, 8, 8, 8, 8, 8, 8};
+    private static final int COL_DATE = 0;
+    private static final int COL_OPEN = 1;
+    private static final int COL_CLOSE = 2;
+    private static final int COL_HIGH = 3;
+    private static final int COL_LOW = 4;
+    private static final int COL_VOLUME = 5;
+    private static final int COL_AMOUNT = 6;
+    private static final int BYTES_PER_BAR = 52;
+
+    private KlineColumnFile() {
+    }
+
+    /**
+     * 只读映射后的列视图（不可变：条数为映射时的快照）
+     */
+    public static final class Columns {
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final int size;
+        private final long updateTime;
+
+        Columns(ByteBuffer buffer, int capacity, int size, long updateTime) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.size = size;
+            this.updateTime = updateTime;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public long getUpdateTime() {
+            return updateTime;
+        }
+
+        public int getDate(int i) {
+            return buffer.getInt(offset(capacity, COL_DATE, i));
+        }
+
+        public double getOpen(int i) {
+            return buffer.getDouble(offset(capacity, COL_OPEN, i));
+        }
+
+        public double getClose(int i) {
+            return buffer.getDouble(offset(capacity, COL_CLOSE, i));
+        }
+
+        public double getHigh(int i) {
+            return buffer.getDouble(offset(capacity, COL_HIGH, i));
+        }
+
+        public double getLow(int i) {
+            return buffer.getDouble(offset(capacity, COL_LOW, i));
+        }
+
+        public long getVolume(int i) {
+            return buffer.getLong(offset(capacity, COL_VOLUME, i));
+        }
+
+        public double getAmount(int i) {
+            return buffer.getDouble(offset(capacity, COL_AMOUNT, i));
+        }
+
+        /**
+         * 最后一根K线的交易日，没有数据时返回 0
+         */
+        public int getLastDate() {
+            return size > 0 ? getDate(size - 1) : 0;
+        }
+
+        /**
+         * 交易日所在下标，不存在时返回 -1
+         */
+        public int indexOfDate(int tradeDate) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int date = getDate(mid);
+                if (date < tradeDate) {
+                    low = mid + 1;
+                } else if (date > tradeDate) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        public KlineBar getBar(int i) {
+            return new KlineBar(getDate(i), getOpen(i), getClose(i), getHigh(i), getLow(i), getVolume(i), getAmount(i));
+        }
+
+        /**
+         * 拷贝出最近 count 根K线（日期升序）
+         */
+        public List<KlineBar> toBars(int count) {
+            List<KlineBar> bars = new ArrayList<>();
+            for (int i = Math.max(0, size - count); i < size; i++) {
+                bars.add(getBar(i));
+            }
+            return bars;
+        }
+    }
+
+    /**
+     * 只读映射整个文件
+     * @throws IOException 文件不存在、格式错误或版本不符
+     */
+    public static Columns map(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("K线文件过短: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("K线文件格式不符: " + file);
+            }
+            int capacity = buffer.getInt(8);
+            int count = buffer.getInt(COUNT_OFFSET);
+            if (capacity < 0 || count < 0 || count > capacity
+                    || length < HEADER_BYTES + (long) capacity * BYTES_PER_BAR) {
+                throw new IOException("K线文件已损坏: " + file);
+            }
+            return new Columns(buffer, capacity, count, buffer.getLong(UPDATE_TIME_OFFSET));
+        }
+    }
+
+    /**
+     * 整体写入（先写临时文件再改名）
+     * @param capacity 预留的槽位数（不小于K线数）
+     */
+    public static void write(File file, List<KlineBar> bars, int capacity) throws IOException {
+        int size = bars.size();
+        if (capacity < size) {
+            throw new IllegalArgumentException("capacity " + capacity + " < size " + size);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + capacity * BYTES_PER_BAR);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, capacity).putInt(COUNT_OFFSET, size)
+                .putLong(UPDATE_TIME_OFFSET, System.currentTimeMillis());
+        for (int i = 0; i < size; i++) {
+            putBar(buffer, capacity, i, bars.get(i));
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw"); FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("重命名失败: " + temp);
+        }
+    }
+
+    /**
+     * 在文件末尾追加K线（调用方保证日期晚于已有数据）
+     * @return 是否追加成功；容量不足时返回false，不修改文件
+     */
+    public static boolean append(File file, List<KlineBar> tail) throws IOException {
+        if (tail.isEmpty()) {
+            return true;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("K线文件格式不符: " + file);
+            }
+            int capacity = header.getInt(8);
+            int count = header.getInt(COUNT_OFFSET);
+            if (count + tail.size() > capacity) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) capacity * BYTES_PER_BAR);
+            for (int i = 0; i < tail.size(); i++) {
+                putBar(buffer, capacity, count + i, tail.get(i));
+            }
+            buffer.force();
+            // 数据落盘后再更新条数
+            buffer.putLong(UPDATE_TIME_OFFSET, System.currentTimeMillis());
+            buffer.putInt(COUNT_OFFSET, count + tail.size());
+            buffer.force();
+            return true;
+        }
+    }
+
+    /**
+     * 为 size 根K线预留容量：额外留出约一年的交易日，按256对齐
+     */
+    public static int capacityFor(int size) {
+        return (size + 250 + 255) / 256 * 256;
+    }
+
+    private static void putBar(ByteBuffer buffer, int capacity, int index, KlineBar bar) {
+        buffer.putInt(offset(capacity, COL_DATE, index), bar.getTradeDate());
+        buffer.putDouble(offset(capacity, COL_OPEN, index), bar.getOpen());
+        buffer.putDouble(offset(capacity, COL_CLOSE, index), bar.getClose());
+        buffer.putDouble(offset(capacity, COL_HIGH, index), bar.getHigh());
+        buffer.putDouble(offset(capacity, COL_LOW, index), bar.getLow());
+        buffer.putLong(offset(capacity, COL_VOLUME, index), bar.getVolume());
+        buffer.putDouble(offset(capacity, COL_AMOUNT, index), bar.getAmount());
+    }
+
+    private static int offset(int capacity, int column, int index) {
+        int start = HEADER_BYTES;
+        for (int c = 0; c < column; c++) {
+            start += COLUMN_WIDTHS[c] * capacity;
+        }
+        return start + COLUMN_WIDTHS[column] * index;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.gp.stockapp.model.KlineBar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日K线本地存储
+ * 每只股票一个列式文件 klines/{code}.bin（见 {@link KlineColumnFile}），
+ * 最近访问的 maxHotCodes 只股票保留映射视图（LRU），其余按需重新映射
+ */
+public class KlineStore {
+    private static final String TAG = "KlineStore";
+    private static final String DIR_NAME = "klines";
+    private static final String SUFFIX = ".bin";
+
+    public static final int DEFAULT_MAX_HOT_CODES = 128;
+
+    private final File dir;
+    private final Map<String, KlineColumnFile.Columns> hot;
+
+    public KlineStore(File filesDir) {
+        this(filesDir, DEFAULT_MAX_HOT_CODES);
+    }
+
+    public KlineStore(File filesDir, final int maxHotCodes) {
+        this.dir = new File(filesDir, DIR_NAME);
+        this.hot = new LinkedHashMap<String, KlineColumnFile.Columns>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KlineColumnFile.Columns> eldest) {
+                return size() > maxHotCodes;
+            }
+        };
+    }
+
+    /**
+     * 某只股票的全部K线，没有本地数据（或文件损坏）时返回null
+     */
+    public synchronized KlineColumnFile.Columns get(String code) {
+        KlineColumnFile.Columns columns = hot.get(code);
+        if (columns != null) {
+            return columns;
+        }
+        File file = codeFile(code);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            columns = KlineColumnFile.map(file);
+            hot.put(code, columns);
+            return columns;
+        } catch (IOException e) {
+            Log.w(TAG, "K线文件无效，删除后重新抓取: " + code + ", " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * 用完整K线替换本地数据（首次抓取或复权因子变化后重抓）
+     */
+    public synchronized void replace(String code, List<KlineBar> bars) throws IOException {
+        ensureDir();
+        hot.remove(code);
+        KlineColumnFile.write(codeFile(code), bars, KlineColumnFile.capacityFor(bars.size()));
+    }
+
+    /**
+     * 追加新的K线（日期须晚于本地最后一根），容量不足时自动扩容重写
+     */
+    public synchronized void append(String code, List<KlineBar> tail) throws IOException {
+        if (tail.isEmpty()) {
+            return;
+        }
+        File file = codeFile(code);
+        if (!file.exists()) {
+            replace(code, tail);
+            return;
+        }
+        hot.remove(code);
+        if (!KlineColumnFile.append(file, tail)) {
+            List<KlineBar> bars = new ArrayList<>();
+            KlineColumnFile.Columns existing = KlineColumnFile.map(file);
+            for (int i = 0; i < existing.size(); i++) {
+                bars.add(existing.getBar(i));
+            }
+            bars.addAll(tail);
+            replace(code, bars);
+            Log.d(TAG, "K线文件扩容: " + code + " -> " + bars.size() + " 根");
+        }
+    }
+
+    /**
+     * 本地K线文件总大小（字节）
+     */
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private void ensureDir() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建K线目录: " + dir);
+        }
+    }
+
+    private File codeFile(String code) {
+        return new File(dir, code + SUFFIX);
+    }
+}
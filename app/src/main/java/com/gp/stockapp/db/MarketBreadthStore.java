@@ -0,0 +1,142 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.gp.stockapp.model.MarketBreadth;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全市场涨跌宽度分时存储
+ * 每个交易日一个文件（market_breadth/yyyyMMdd.jsonl），每次采样追加一行JSON；
+ * 当天的序列同时保存在内存中，进程重启后首次记录时从当天文件恢复；查询不改变内存序列，其他交易日直接读文件
+ */
+public class MarketBreadthStore {
+    private static final String TAG = "MarketBreadthStore";
+    private static final String DIR_NAME = "market_breadth";
+    private static final String SUFFIX = ".jsonl";
+
+    private final File dir;
+    private final Gson gson = new Gson();
+    private final List<MarketBreadth> currentSeries = new ArrayList<>();
+    private String currentDate;
+
+    public MarketBreadthStore(File filesDir) {
+        this.dir = new File(filesDir, DIR_NAME);
+    }
+
+    /**
+     * 记录一次采样（写内存并追加到当天文件），跨交易日时自动切换
+     * 时间戳不晚于最后一个采样的不重复记录
+     * @return 是否记录
+     */
+    public synchronized boolean record(String tradeDate, MarketBreadth breadth) {
+        if (currentDate != null && tradeDate.compareTo(currentDate) < 0) {
+            Log.w(TAG, "忽略早于当前交易日的宽度采样: " + tradeDate);
+            return false;
+        }
+        List<MarketBreadth> series = seriesFor(tradeDate);
+        if (!series.isEmpty() && breadth.getTimestamp() <= series.get(series.size() - 1).getTimestamp()) {
+            return false;
+        }
+        series.add(breadth);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.e(TAG, "无法创建宽度目录: " + dir);
+            return true;
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(dayFile(tradeDate), true),
+                StandardCharsets.UTF_8)) {
+            writer.write(gson.toJson(breadth));
+            writer.write('\n');
+        } catch (IOException e) {
+            Log.e(TAG, "写入宽度文件失败: " + tradeDate, e);
+        }
+        return true;
+    }
+
+    /**
+     * 某交易日的全部采样（按时间顺序）
+     * 只读：当天的序列从内存返回，其他交易日（包括重启后还没有采样时的当天）直接读文件，不切换内存序列
+     */
+    public synchronized List<MarketBreadth> getDaySeries(String tradeDate) {
+        if (tradeDate.equals(currentDate)) {
+            return new ArrayList<>(currentSeries);
+        }
+        return readDay(tradeDate);
+    }
+
+    /**
+     * 删除指定交易日之前的宽度文件
+     * @return 删除的文件数
+     */
+    public synchronized int deleteBeforeDay(String beforeDate) {
+        File[] files = dir.listFiles();
+        if (files == null) return 0;
+        int deleted = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(SUFFIX) && name.substring(0, name.length() - SUFFIX.length()).compareTo(beforeDate) < 0
+                    && file.delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            Log.d(TAG, "删除 " + deleted + " 个交易日的宽度文件 (截止 " + beforeDate + ")");
+        }
+        return deleted;
+    }
+
+    /**
+     * 当天的内存序列：交易日变化时清空，首次访问时从当天文件恢复（只由 record 调用）
+     */
+    private List<MarketBreadth> seriesFor(String tradeDate) {
+        if (!tradeDate.equals(currentDate)) {
+            currentSeries.clear();
+            currentSeries.addAll(readDay(tradeDate));
+            currentDate = tradeDate;
+        }
+        return currentSeries;
+    }
+
+    /**
+     * 读取某交易日文件，末尾不完整的行（如写入时进程被杀）跳过
+     */
+    private List<MarketBreadth> readDay(String tradeDate) {
+        List<MarketBreadth> series = new ArrayList<>();
+        File file = dayFile(tradeDate);
+        if (!file.exists()) {
+            return series;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    MarketBreadth breadth = gson.fromJson(line, MarketBreadth.class);
+                    if (breadth != null) series.add(breadth);
+                } catch (Exception e) {
+                    Log.w(TAG, "跳过损坏的宽度记录: " + file.getName());
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "读取宽度文件失败: " + file.getName(), e);
+        }
+        return series;
+    }
+
+    private File dayFile(String tradeDate) {
+        return new File(dir, tradeDate + SUFFIX);
+    }
+}
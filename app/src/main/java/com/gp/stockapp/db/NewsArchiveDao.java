@@ -0,0 +1,95 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 新闻归档数据访问对象
+ */
+@Dao
+public interface NewsArchiveDao {
+
+    /**
+     * 插入归档新闻（newsId已存在则忽略，对应位置返回-1）
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertArchive(List<NewsArchiveEntity> items);
+
+    /**
+     * 插入全文索引行
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertFts(List<NewsFtsEntity> items);
+
+    /**
+     * 批量归档：新闻和全文索引在同一个事务中写入
+     * @return 实际新增的条数
+     */
+    @Transaction
+    default int insertBatch(List<NewsArchiveEntity> items) {
+        long[] ids = insertArchive(items);
+        List<NewsFtsEntity> ftsRows = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                NewsArchiveEntity item = items.get(i);
+                item.setId(ids[i]);
+                ftsRows.add(NewsFtsEntity.fromArchive(item));
+            }
+        }
+        if (!ftsRows.isEmpty()) {
+            insertFts(ftsRows);
+        }
+        return ftsRows.size();
+    }
+
+    /**
+     * 最新一页新闻
+     */
+    @Query("SELECT * FROM news_archive ORDER BY publishTime DESC, id DESC LIMIT :limit")
+    List<NewsArchiveEntity> getLatest(int limit);
+
+    /**
+     * 指定位置之后的一页新闻（按发布时间倒序，以上一页最后一条为游标）
+     */
+    @Query("SELECT * FROM news_archive WHERE publishTime < :beforeTime " +
+            "OR (publishTime = :beforeTime AND id < :beforeId) " +
+            "ORDER BY publishTime DESC, id DESC LIMIT :limit")
+    List<NewsArchiveEntity> getPageBefore(long beforeTime, long beforeId, int limit);
+
+    /**
+     * 全文检索（matchQuery 由 NewsFtsEntity.buildMatchQuery 生成）
+     */
+    @Query("SELECT news_archive.* FROM news_archive " +
+            "JOIN news_fts ON news_archive.id = news_fts.rowid " +
+            "WHERE news_fts MATCH :matchQuery " +
+            "ORDER BY news_archive.publishTime DESC LIMIT :limit OFFSET :offset")
+    List<NewsArchiveEntity> search(String matchQuery, int limit, int offset);
+
+    @Query("DELETE FROM news_fts WHERE rowid IN (SELECT id FROM news_archive WHERE publishTime < :beforeTime)")
+    void deleteFtsBefore(long beforeTime);
+
+    @Query("DELETE FROM news_archive WHERE publishTime < :beforeTime")
+    int deleteArchiveBefore(long beforeTime);
+
+    /**
+     * 删除指定时间之前的新闻及其索引
+     * @return 删除的条数
+     */
+    @Transaction
+    default int deleteBefore(long beforeTime) {
+        deleteFtsBefore(beforeTime);
+        return deleteArchiveBefore(beforeTime);
+    }
+
+    /**
+     * 获取归档总条数
+     */
+    @Query("SELECT COUNT(*) FROM news_archive")
+    int getCount();
+}
@@ -0,0 +1,161 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.gp.stockapp.model.StockNews;
+
+/**
+ * 新闻归档实体
+ * 保存每轮抓取到的全部新闻（含AI评估的重要性和推荐股票），用于历史翻页和全文检索
+ */
+@Entity(tableName = "news_archive",
+        indices = {@Index(value = {"newsId"}, unique = true),
+                   @Index(value = {"publishTime"})})
+public class NewsArchiveEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    /** 新闻源ID，如 sina_xxx、em_xxx */
+    private String newsId;
+
+    /** 标题 */
+    private String title;
+
+    /** 摘要 */
+    private String summary;
+
+    /** 来源 */
+    private String source;
+
+    /** 新闻类型：国内财经/全球财经/财经快讯 */
+    private String newsType;
+
+    /** 发布时间 */
+    private long publishTime;
+
+    /** AI评估的重要性(1-5)，0表示未评估 */
+    private int importance;
+
+    /** AI推荐的相关股票 */
+    private String recommendedStocks;
+
+    /** 归档时间 */
+    private long archivedAt;
+
+    /**
+     * 从新闻模型创建
+     */
+    public static NewsArchiveEntity fromStockNews(StockNews news) {
+        NewsArchiveEntity entity = new NewsArchiveEntity();
+        entity.setNewsId(news.getNewsId() != null ? news.getNewsId() : news.getSource() + "_" + news.getTitle());
+        entity.setTitle(news.getTitle());
+        entity.setSummary(news.getSummary());
+        entity.setSource(news.getSource());
+        entity.setNewsType(news.getNewsType());
+        entity.setPublishTime(news.getPublishTime());
+        entity.setImportance(news.getImportance());
+        entity.setRecommendedStocks(news.getRecommendedStocks());
+        entity.setArchivedAt(System.currentTimeMillis());
+        return entity;
+    }
+
+    /**
+     * 转换为新闻模型（列表展示用）
+     */
+    public StockNews toStockNews() {
+        StockNews news = new StockNews();
+        news.setNewsId(newsId);
+        news.setTitle(title);
+        news.setSummary(summary);
+        news.setSource(source);
+        news.setNewsType(newsType);
+        news.setPublishTime(publishTime);
+        news.setImportance(importance);
+        news.setRecommendedStocks(recommendedStocks);
+        return news;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getNewsId() {
+        return newsId;
+    }
+
+    public void setNewsId(String newsId) {
+        this.newsId = newsId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getNewsType() {
+        return newsType;
+    }
+
+    public void setNewsType(String newsType) {
+        this.newsType = newsType;
+    }
+
+    public long getPublishTime() {
+        return publishTime;
+    }
+
+    public void setPublishTime(long publishTime) {
+        this.publishTime = publishTime;
+    }
+
+    public int getImportance() {
+        return importance;
+    }
+
+    public void setImportance(int importance) {
+        this.importance = importance;
+    }
+
+    public String getRecommendedStocks() {
+        return recommendedStocks;
+    }
+
+    public void setRecommendedStocks(String recommendedStocks) {
+        this.recommendedStocks = recommendedStocks;
+    }
+
+    public long getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(long archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
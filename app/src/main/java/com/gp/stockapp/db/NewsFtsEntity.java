@@ -0,0 +1,145 @@
+package com.gp.stockapp.db;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 新闻全文索引（FTS4虚拟表）
+ * rowid 与 news_archive.id 一致。
+ * SQLite自带分词器不切分中文，入库前先把文本转成空格分隔的词元：
+ * 连续汉字切成重叠的2字词（"央行降准" → "央行 行降 降准"），字母数字串整体作为一个词（如股票代码600519），
+ * 查询时用同样的方式把关键词转成短语查询
+ */
+@Fts4
+@Entity(tableName = "news_fts")
+public class NewsFtsEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long rowid;
+
+    private String title;
+
+    private String summary;
+
+    private String recommendedStocks;
+
+    /**
+     * 根据归档记录生成索引行
+     */
+    public static NewsFtsEntity fromArchive(NewsArchiveEntity archive) {
+        NewsFtsEntity entity = new NewsFtsEntity();
+        entity.setRowid(archive.getId());
+        entity.setTitle(tokenize(archive.getTitle()));
+        entity.setSummary(tokenize(archive.getSummary()));
+        entity.setRecommendedStocks(tokenize(archive.getRecommendedStocks()));
+        return entity;
+    }
+
+    /**
+     * 文本转索引词元（空格分隔）
+     */
+    public static String tokenize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        for (String token : tokens(text)) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(token);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 用户输入转 FTS MATCH 表达式
+     * 空格分隔的多个关键词之间为"与"关系；单个汉字使用前缀匹配
+     * @return 无有效关键词时返回null
+     */
+    public static String buildMatchQuery(String input) {
+        if (input == null) return null;
+        StringBuilder query = new StringBuilder();
+        for (String term : input.trim().split("\\s+")) {
+            List<String> tokens = tokens(term);
+            if (tokens.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            if (tokens.size() == 1 && isSingleCjk(tokens.get(0))) {
+                query.append(tokens.get(0)).append('*');
+            } else {
+                query.append('"').append(String.join(" ", tokens)).append('"');
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < n && isCjk(text.charAt(i))) i++;
+                if (i - start == 1) {
+                    tokens.add(text.substring(start, i));
+                } else {
+                    for (int j = start; j + 1 < i; j++) {
+                        tokens.add(text.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(text.charAt(i)) && !isCjk(text.charAt(i))) i++;
+                tokens.add(text.substring(start, i).toLowerCase());
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isCjk(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+
+    private static boolean isSingleCjk(String token) {
+        return token.length() == 1 && isCjk(token.charAt(0));
+    }
+
+    // Getters and Setters
+    public long getRowid() {
+        return rowid;
+    }
+
+    public void setRowid(long rowid) {
+        this.rowid = rowid;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public String getRecommendedStocks() {
+        return recommendedStocks;
+    }
+
+    public void setRecommendedStocks(String recommendedStocks) {
+        this.recommendedStocks = recommendedStocks;
+    }
+}
@@ -0,0 +1,131 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.gp.stockapp.utils.NewsPreRanker;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 新闻预排序训练样本存储
+ * 样本追加写到 news_ranker/samples.jsonl（每行一个样本），每批只写新增的几条；
+ * 文件行数超过保留数的2倍时重写为最近的保留数条
+ */
+public class NewsRankerSampleStore {
+    private static final String TAG = "NewsRankerSampleStore";
+    private static final String DIR_NAME = "news_ranker";
+    private static final String FILE_NAME = "samples.jsonl";
+
+    private final File dir;
+    private final File file;
+    private final Gson gson = new Gson();
+    private int lineCount = -1;
+
+    public NewsRankerSampleStore(File filesDir) {
+        this.dir = new File(filesDir, DIR_NAME);
+        this.file = new File(dir, FILE_NAME);
+    }
+
+    /**
+     * 追加样本，必要时压缩文件
+     * @param keep 最多保留的样本数
+     */
+    public synchronized void append(List<NewsPreRanker.Sample> samples, int keep) {
+        if (samples == null || samples.isEmpty()) return;
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.e(TAG, "无法创建样本目录: " + dir);
+            return;
+        }
+        if (lineCount < 0) {
+            lineCount = readAll().size();
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+            for (NewsPreRanker.Sample sample : samples) {
+                writer.write(gson.toJson(sample));
+                writer.write('\n');
+            }
+            lineCount += samples.size();
+        } catch (IOException e) {
+            Log.e(TAG, "写入样本失败", e);
+            return;
+        }
+        if (lineCount > keep * 2) {
+            compact(keep);
+        }
+    }
+
+    /**
+     * 最近的样本（按写入顺序）
+     */
+    public synchronized List<NewsPreRanker.Sample> readRecent(int keep) {
+        List<NewsPreRanker.Sample> samples = readAll();
+        lineCount = samples.size();
+        if (samples.size() > keep) {
+            return new ArrayList<>(samples.subList(samples.size() - keep, samples.size()));
+        }
+        return samples;
+    }
+
+    public synchronized boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * 重写文件，只保留最近的样本（先写临时文件再替换，中途失败不影响原文件）
+     */
+    private void compact(int keep) {
+        List<NewsPreRanker.Sample> recent = readRecent(keep);
+        File tmp = new File(dir, FILE_NAME + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            for (NewsPreRanker.Sample sample : recent) {
+                writer.write(gson.toJson(sample));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "压缩样本文件失败", e);
+            tmp.delete();
+            return;
+        }
+        if (tmp.renameTo(file)) {
+            lineCount = recent.size();
+            Log.d(TAG, "样本文件压缩为 " + lineCount + " 条");
+        }
+    }
+
+    /**
+     * 读取全部样本，末尾不完整的行（如写入时进程被杀）跳过
+     */
+    private List<NewsPreRanker.Sample> readAll() {
+        List<NewsPreRanker.Sample> samples = new ArrayList<>();
+        if (!file.exists()) {
+            return samples;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    NewsPreRanker.Sample sample = gson.fromJson(line, NewsPreRanker.Sample.class);
+                    if (sample != null) samples.add(sample);
+                } catch (Exception e) {
+                    Log.w(TAG, "跳过损坏的样本记录");
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "读取样本文件失败", e);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,59 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import java.util.List;
+
+/**
+ * 推荐台账访问对象
+ */
+@Dao
+public interface RecommendationLedgerDao {
+
+    /**
+     * 记录一批推荐（同一策略同一次生成的同一股票只记一次）
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    List<Long> insertAll(List<RecommendationLedgerEntity> items);
+
+    /**
+     * 批量回填评估结果（按主键）
+     */
+    @Update
+    void updateAll(List<RecommendationLedgerEntity> items);
+
+    /**
+     * 待评估且信号日早于 closedDate（次一交易日K线已定型）的推荐，按id分页
+     */
+    @Query("SELECT * FROM recommendation_ledger WHERE status = 0 AND signalDate < :closedDate " +
+            "AND id > :afterId ORDER BY id LIMIT :limit")
+    List<RecommendationLedgerEntity> getPending(String closedDate, long afterId, int limit);
+
+    /**
+     * 待评估推荐涉及的股票（日K线同步用）
+     */
+    @Query("SELECT DISTINCT code FROM recommendation_ledger WHERE status = 0")
+    List<String> getPendingCodes();
+
+    /**
+     * 从某信号日起的效果汇总，按策略 + 模型 + Prompt版本分组
+     */
+    @Query("SELECT strategyType, model, promptVersion, COUNT(*) AS picks, " +
+            "SUM(CASE WHEN nextCloseReturn > 0 THEN 1 ELSE 0 END) AS winCount, " +
+            "AVG(nextOpenReturn) AS avgOpenReturn, AVG(nextCloseReturn) AS avgCloseReturn, " +
+            "AVG(maxAdverseReturn) AS avgMaxAdverseReturn, MIN(maxAdverseReturn) AS worstMaxAdverseReturn, " +
+            "MIN(signalDate) AS firstSignalDate, MAX(signalDate) AS lastSignalDate " +
+            "FROM recommendation_ledger WHERE status = 1 AND signalDate >= :sinceDate " +
+            "GROUP BY strategyType, model, promptVersion ORDER BY strategyType, lastSignalDate DESC")
+    List<RecommendationOutcomeSummary> getSummaries(String sinceDate);
+
+    /**
+     * 某状态的记录数
+     */
+    @Query("SELECT COUNT(*) FROM recommendation_ledger WHERE status = :status")
+    int countByStatus(int status);
+}
@@ -0,0 +1,122 @@
+package com.gp.stockapp.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 推荐台账
+ * 每次生成的竞价/尾盘推荐逐只记一行（推荐缓存每次会被覆盖，台账只增不改推荐内容），
+ * 次日K线定型后回填入场价和次日开盘/收盘收益、持有期最大不利波动，用于按策略/模型/Prompt版本统计效果
+ * (status, signalDate) 索引用于增量评估；(strategyType, model, promptVersion, signalDate) 索引用于汇总查询
+ */
+@Entity(tableName = "recommendation_ledger",
+        indices = {@Index(value = {"strategyType", "recTime", "code"}, unique = true),
+                @Index(value = {"status", "signalDate"}),
+                @Index(value = {"strategyType", "model", "promptVersion", "signalDate"})})
+public class RecommendationLedgerEntity {
+
+    /** 待评估 */
+    public static final int STATUS_PENDING = 0;
+    /** 已评估 */
+    public static final int STATUS_EVALUATED = 1;
+    /** 超过等待期仍没有K线（长期停牌等），不再评估 */
+    public static final int STATUS_NO_DATA = 2;
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    /** 推荐生成时间 */
+    private long recTime;
+
+    /** 策略类型（open_auction / closing） */
+    @NonNull
+    private String strategyType = "";
+
+    /** 生成推荐的模型 */
+    private String model;
+
+    /** Prompt版本（策略说明+分析要求的摘要） */
+    private String promptVersion;
+
+    /** 股票代码 */
+    @NonNull
+    private String code = "";
+
+    /** 股票名称 */
+    private String name;
+
+    /** 推荐序号（从1开始） */
+    private int rank;
+
+    /** 模型评分 */
+    private double score;
+
+    /** 推荐时的实时价格（参考价，0表示未取到） */
+    private double refPrice;
+
+    /** 信号交易日 yyyyMMdd（竞价=当天开盘买入的交易日，尾盘=推荐当天） */
+    private String signalDate;
+
+    /** 评估状态 */
+    private int status;
+
+    /** 评估用的次一交易日 yyyyMMdd */
+    private String evalDate;
+
+    /** 入场价（按日K线：竞价取信号日开盘，尾盘取信号日收盘） */
+    private double entryPrice;
+
+    /** 次日开盘收益(%) */
+    private double nextOpenReturn;
+
+    /** 次日收盘收益(%) */
+    private double nextCloseReturn;
+
+    /** 持有期最大不利波动(%)，不大于0 */
+    private double maxAdverseReturn;
+
+    /** 评估时间 */
+    private long evaluatedAt;
+
+    // Getters & Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public long getRecTime() { return recTime; }
+    public void setRecTime(long recTime) { this.recTime = recTime; }
+    @NonNull
+    public String getStrategyType() { return strategyType; }
+    public void setStrategyType(@NonNull String strategyType) { this.strategyType = strategyType; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    @NonNull
+    public String getCode() { return code; }
+    public void setCode(@NonNull String code) { this.code = code; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public double getRefPrice() { return refPrice; }
+    public void setRefPrice(double refPrice) { this.refPrice = refPrice; }
+    public String getSignalDate() { return signalDate; }
+    public void setSignalDate(String signalDate) { this.signalDate = signalDate; }
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    public String getEvalDate() { return evalDate; }
+    public void setEvalDate(String evalDate) { this.evalDate = evalDate; }
+    public double getEntryPrice() { return entryPrice; }
+    public void setEntryPrice(double entryPrice) { this.entryPrice = entryPrice; }
+    public double getNextOpenReturn() { return nextOpenReturn; }
+    public void setNextOpenReturn(double nextOpenReturn) { this.nextOpenReturn = nextOpenReturn; }
+    public double getNextCloseReturn() { return nextCloseReturn; }
+    public void setNextCloseReturn(double nextCloseReturn) { this.nextCloseReturn = nextCloseReturn; }
+    public double getMaxAdverseReturn() { return maxAdverseReturn; }
+    public void setMaxAdverseReturn(double maxAdverseReturn) { this.maxAdverseReturn = maxAdverseReturn; }
+    public long getEvaluatedAt() { return evaluatedAt; }
+    public void setEvaluatedAt(long evaluatedAt) { this.evaluatedAt = evaluatedAt; }
+}
@@ -0,0 +1,72 @@
+package com.gp.stockapp.db;
+
+import java.util.Locale;
+
+/**
+ * 推荐效果汇总（按策略 + 模型 + Prompt版本分组的查询结果）
+ */
+public class RecommendationOutcomeSummary {
+
+    private String strategyType;
+    private String model;
+    private String promptVersion;
+
+    /** 已评估的推荐数 */
+    private int picks;
+
+    /** 次日收盘收益为正的推荐数 */
+    private int winCount;
+
+    /** 平均次日开盘收益(%) */
+    private double avgOpenReturn;
+
+    /** 平均次日收盘收益(%) */
+    private double avgCloseReturn;
+
+    /** 平均最大不利波动(%) */
+    private double avgMaxAdverseReturn;
+
+    /** 最差的最大不利波动(%) */
+    private double worstMaxAdverseReturn;
+
+    private String firstSignalDate;
+    private String lastSignalDate;
+
+    /**
+     * 次日收盘胜率(%)
+     */
+    public double getWinRate() {
+        return picks > 0 ? winCount * 100.0 / picks : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s/%s/%s %s~%s: %d只 胜率%.1f%% 开盘%+.2f%% 收盘%+.2f%% 回撤%.2f%%(最差%.2f%%)",
+                strategyType, model, promptVersion, firstSignalDate, lastSignalDate, picks, getWinRate(),
+                avgOpenReturn, avgCloseReturn, avgMaxAdverseReturn, worstMaxAdverseReturn);
+    }
+
+    // Getters & Setters
+    public String getStrategyType() { return strategyType; }
+    public void setStrategyType(String strategyType) { this.strategyType = strategyType; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    public int getPicks() { return picks; }
+    public void setPicks(int picks) { this.picks = picks; }
+    public int getWinCount() { return winCount; }
+    public void setWinCount(int winCount) { this.winCount = winCount; }
+    public double getAvgOpenReturn() { return avgOpenReturn; }
+    public void setAvgOpenReturn(double avgOpenReturn) { this.avgOpenReturn = avgOpenReturn; }
+    public double getAvgCloseReturn() { return avgCloseReturn; }
+    public void setAvgCloseReturn(double avgCloseReturn) { this.avgCloseReturn = avgCloseReturn; }
+    public double getAvgMaxAdverseReturn() { return avgMaxAdverseReturn; }
+    public void setAvgMaxAdverseReturn(double avgMaxAdverseReturn) { this.avgMaxAdverseReturn = avgMaxAdverseReturn; }
+    public double getWorstMaxAdverseReturn() { return worstMaxAdverseReturn; }
+    public void setWorstMaxAdverseReturn(double worstMaxAdverseReturn) { this.worstMaxAdverseReturn = worstMaxAdverseReturn; }
+    public String getFirstSignalDate() { return firstSignalDate; }
+    public void setFirstSignalDate(String firstSignalDate) { this.firstSignalDate = firstSignalDate; }
+    public String getLastSignalDate() { return lastSignalDate; }
+    public void setLastSignalDate(String lastSignalDate) { this.lastSignalDate = lastSignalDate; }
+}
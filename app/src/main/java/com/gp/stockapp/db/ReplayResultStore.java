@@ -0,0 +1,194 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 策略回放结果存储
+ * 每次回放一个文件（replay_runs/{runId}.jsonl），每个快照回放完成后立即追加一行，
+ * 中断后用同一个 runId 重新执行时跳过已有结果的快照，从断点继续
+ */
+public class ReplayResultStore {
+    private static final String TAG = "ReplayResultStore";
+    private static final String DIR_NAME = "replay_runs";
+    private static final String SUFFIX = ".jsonl";
+
+    /**
+     * 一只推荐个股的回放结果
+     */
+    public static class Pick {
+        @SerializedName("code")
+        private String code;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("rank")
+        private int rank;
+
+        @SerializedName("score")
+        private double score;
+
+        @SerializedName("evaluated")
+        private boolean evaluated;          // K线齐全、已计算收益
+
+        @SerializedName("entry_price")
+        private double entryPrice;          // 入场价（竞价取信号日开盘，尾盘取信号日收盘）
+
+        @SerializedName("next_open_return")
+        private double nextOpenReturn;      // 次日开盘收益(%)
+
+        @SerializedName("next_close_return")
+        private double nextCloseReturn;     // 次日收盘收益(%)
+
+        @SerializedName("max_adverse_return")
+        private double maxAdverseReturn;    // 持有期最大不利波动(%)
+
+        /**
+         * @param row 已按推荐台账口径评估过的记录
+         */
+        public Pick(RecommendationLedgerEntity row, boolean evaluated) {
+            this.code = row.getCode();
+            this.name = row.getName();
+            this.rank = row.getRank();
+            this.score = row.getScore();
+            this.evaluated = evaluated;
+            this.entryPrice = row.getEntryPrice();
+            this.nextOpenReturn = row.getNextOpenReturn();
+            this.nextCloseReturn = row.getNextCloseReturn();
+            this.maxAdverseReturn = row.getMaxAdverseReturn();
+        }
+
+        public String getCode() { return code; }
+        public String getName() { return name; }
+        public int getRank() { return rank; }
+        public double getScore() { return score; }
+        public boolean isEvaluated() { return evaluated; }
+        public double getEntryPrice() { return entryPrice; }
+        public double getNextOpenReturn() { return nextOpenReturn; }
+        public double getNextCloseReturn() { return nextCloseReturn; }
+        public double getMaxAdverseReturn() { return maxAdverseReturn; }
+    }
+
+    /**
+     * 一个快照的回放结果
+     */
+    public static class Result {
+        @SerializedName("snapshot_id")
+        private String snapshotId;
+
+        @SerializedName("strategy_type")
+        private String strategyType;
+
+        @SerializedName("signal_date")
+        private String signalDate;
+
+        @SerializedName("model")
+        private String model;
+
+        @SerializedName("prompt_version")
+        private String promptVersion;
+
+        @SerializedName("picks")
+        private List<Pick> picks = new ArrayList<>();
+
+        public Result(String snapshotId, String strategyType, String signalDate, String model, String promptVersion) {
+            this.snapshotId = snapshotId;
+            this.strategyType = strategyType;
+            this.signalDate = signalDate;
+            this.model = model;
+            this.promptVersion = promptVersion;
+        }
+
+        public void addPick(Pick pick) {
+            picks.add(pick);
+        }
+
+        public String getSnapshotId() { return snapshotId; }
+        public String getStrategyType() { return strategyType; }
+        public String getSignalDate() { return signalDate; }
+        public String getModel() { return model; }
+        public String getPromptVersion() { return promptVersion; }
+        public List<Pick> getPicks() { return picks != null ? picks : new ArrayList<>(); }
+    }
+
+    private final File file;
+    private final Gson gson = new Gson();
+
+    public ReplayResultStore(File filesDir, String runId) {
+        this.file = new File(new File(filesDir, DIR_NAME), runId + SUFFIX);
+    }
+
+    /**
+     * 追加一个快照的回放结果
+     */
+    public synchronized void append(Result result) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建回放目录: " + dir);
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+            writer.write(gson.toJson(result));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * 读取全部结果（同一快照取最后一次）
+     * 末尾的半行（写入时进程被杀）忽略，对应快照下次会重新回放
+     */
+    public synchronized List<Result> readAll() {
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    Result result = gson.fromJson(line, Result.class);
+                    if (result != null && result.getSnapshotId() != null) {
+                        results.remove(result.getSnapshotId());
+                        results.put(result.getSnapshotId(), result);
+                    }
+                } catch (Exception e) {
+                    Log.w(TAG, "跳过不完整的回放结果: " + file.getName());
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "读取回放结果失败: " + file.getName(), e);
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * 已有结果的快照标识
+     */
+    public Set<String> getCompletedIds() {
+        Set<String> ids = new HashSet<>();
+        for (Result result : readAll()) {
+            ids.add(result.getSnapshotId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,48 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * 板块每日强度统计访问对象
+ */
+@Dao
+public interface SectorDayStatsDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<SectorDayStatsEntity> items);
+
+    @Query("DELETE FROM sector_day_stats WHERE tradeDate = :tradeDate")
+    void deleteByDate(String tradeDate);
+
+    /**
+     * 整体替换某交易日的统计（当天重复采集时以最后一次为准，旧的板块不残留）
+     */
+    @Transaction
+    default void replaceDay(String tradeDate, List<SectorDayStatsEntity> items) {
+        deleteByDate(tradeDate);
+        if (items != null && !items.isEmpty()) {
+            insertAll(items);
+        }
+    }
+
+    /**
+     * 某交易日的统计，按排名排序
+     */
+    @Query("SELECT * FROM sector_day_stats WHERE tradeDate = :tradeDate ORDER BY rank")
+    List<SectorDayStatsEntity> getByDate(String tradeDate);
+
+    /**
+     * 早于某日期的最近一个有统计的交易日，没有时返回null
+     */
+    @Query("SELECT MAX(tradeDate) FROM sector_day_stats WHERE tradeDate < :beforeDate")
+    String getLatestDateBefore(String beforeDate);
+
+    @Query("DELETE FROM sector_day_stats WHERE tradeDate < :beforeDate")
+    int deleteBeforeDate(String beforeDate);
+}
@@ -0,0 +1,74 @@
+package com.gp.stockapp.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * 板块每日强度统计
+ * 盘后热门数据按行业/概念聚合后每个板块一行（{@link com.gp.stockapp.utils.SectorAggregator}），
+ * 用于计算板块强度的日环比（涨停家数、连板高度、排名变化）
+ */
+@Entity(tableName = "sector_day_stats",
+        primaryKeys = {"tradeDate", "sector"})
+public class SectorDayStatsEntity {
+
+    /** 交易日期 yyyyMMdd */
+    @NonNull
+    private String tradeDate = "";
+
+    /** 板块（行业/概念）名称 */
+    @NonNull
+    private String sector = "";
+
+    /** 当日强度排名（从1开始） */
+    private int rank;
+
+    /** 强度评分 */
+    private double score;
+
+    /** 涨停家数（含连板） */
+    private int limitUpCount;
+
+    /** 连板家数（2板及以上） */
+    private int continuousCount;
+
+    /** 最高连板数（空间高度） */
+    private int ladderHeight;
+
+    /** 龙虎榜上榜家数 */
+    private int dragonTigerCount;
+
+    /** 龙虎榜净买入合计(万) */
+    private double netBuy;
+
+    /** 活跃股成交额占比(%) */
+    private double amountShare;
+
+    private long updatedAt;
+
+    // Getters & Setters
+    @NonNull
+    public String getTradeDate() { return tradeDate; }
+    public void setTradeDate(@NonNull String tradeDate) { this.tradeDate = tradeDate; }
+    @NonNull
+    public String getSector() { return sector; }
+    public void setSector(@NonNull String sector) { this.sector = sector; }
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public int getLimitUpCount() { return limitUpCount; }
+    public void setLimitUpCount(int limitUpCount) { this.limitUpCount = limitUpCount; }
+    public int getContinuousCount() { return continuousCount; }
+    public void setContinuousCount(int continuousCount) { this.continuousCount = continuousCount; }
+    public int getLadderHeight() { return ladderHeight; }
+    public void setLadderHeight(int ladderHeight) { this.ladderHeight = ladderHeight; }
+    public int getDragonTigerCount() { return dragonTigerCount; }
+    public void setDragonTigerCount(int dragonTigerCount) { this.dragonTigerCount = dragonTigerCount; }
+    public double getNetBuy() { return netBuy; }
+    public void setNetBuy(double netBuy) { this.netBuy = netBuy; }
+    public double getAmountShare() { return amountShare; }
+    public void setAmountShare(double amountShare) { this.amountShare = amountShare; }
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
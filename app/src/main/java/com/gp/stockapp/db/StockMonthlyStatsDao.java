@@ -0,0 +1,52 @@
+package com.gp.stockapp.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * 个股月度汇总访问对象
+ */
+@Dao
+public interface StockMonthlyStatsDao {
+
+    /**
+     * 写入汇总（重复则替换）
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<StockMonthlyStatsEntity> items);
+
+    /**
+     * 获取某月指定股票的汇总
+     */
+    @Query("SELECT * FROM stock_monthly_stats WHERE month = :month AND code IN (:codes)")
+    List<StockMonthlyStatsEntity> getByMonthAndCodes(String month, List<String> codes);
+
+    /**
+     * 获取某月的汇总（按上榜天数倒序）
+     */
+    @Query("SELECT * FROM stock_monthly_stats WHERE month = :month " +
+            "ORDER BY dragonTigerDays DESC, continuousLimitDays DESC LIMIT :limit")
+    List<StockMonthlyStatsEntity> getByMonth(String month, int limit);
+
+    /**
+     * 获取指定股票从某月起的汇总
+     */
+    @Query("SELECT * FROM stock_monthly_stats WHERE code = :code AND month >= :fromMonth ORDER BY month DESC")
+    List<StockMonthlyStatsEntity> getByCode(String code, String fromMonth);
+
+    /**
+     * 删除指定月份之前的汇总
+     */
+    @Query("DELETE FROM stock_monthly_stats WHERE month < :beforeMonth")
+    void deleteBeforeMonth(String beforeMonth);
+
+    /**
+     * 获取汇总总条数
+     */
+    @Query("SELECT COUNT(*) FROM stock_monthly_stats")
+    int getCount();
+}
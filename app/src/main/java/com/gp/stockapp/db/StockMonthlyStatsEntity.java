@@ -0,0 +1,98 @@
+package com.gp.stockapp.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * 个股月度汇总（长周期历史）
+ * 明细超过保留期后按月汇总到这里：上榜天数、累计净买、连板天数、最高连板等，
+ * 每只股票每月一行，几个月的数据量也只有几千行
+ */
+@Entity(tableName = "stock_monthly_stats",
+        primaryKeys = {"month", "code"},
+        indices = {@Index(value = {"code", "month"})})
+public class StockMonthlyStatsEntity {
+    @NonNull
+    private String month;               // 月份 yyyyMM
+    @NonNull
+    private String code;                // 股票代码
+    private String name;                // 股票名称（取最近一次）
+    private int dragonTigerDays;        // 龙虎榜上榜天数
+    private double dragonTigerNetBuy;   // 龙虎榜累计净买(万)
+    private int continuousLimitDays;    // 连板天数（出现在连板榜的天数）
+    private int maxContinuousCount;     // 当月最高连板数
+    private String lastTradeDate;       // 当月最后一次出现的交易日
+
+    public StockMonthlyStatsEntity() {
+    }
+
+    public StockMonthlyStatsEntity(@NonNull String month, @NonNull String code) {
+        this.month = month;
+        this.code = code;
+    }
+
+    /**
+     * 计入一条龙虎榜明细
+     */
+    public void addDragonTiger(DragonTigerEntity item) {
+        dragonTigerDays++;
+        dragonTigerNetBuy += item.getNetBuy();
+        touch(item.getTradeDate(), item.getName());
+    }
+
+    /**
+     * 计入一条连板股明细
+     */
+    public void addContinuousLimit(ContinuousLimitEntity item) {
+        continuousLimitDays++;
+        maxContinuousCount = Math.max(maxContinuousCount, item.getContinuousCount());
+        touch(item.getTradeDate(), item.getName());
+    }
+
+    /**
+     * 合并另一份同月同股的汇总
+     */
+    public void merge(StockMonthlyStatsEntity other) {
+        dragonTigerDays += other.dragonTigerDays;
+        dragonTigerNetBuy += other.dragonTigerNetBuy;
+        continuousLimitDays += other.continuousLimitDays;
+        maxContinuousCount = Math.max(maxContinuousCount, other.maxContinuousCount);
+        touch(other.lastTradeDate, other.name);
+    }
+
+    private void touch(String tradeDate, String itemName) {
+        if (tradeDate == null) return;
+        if (lastTradeDate == null || tradeDate.compareTo(lastTradeDate) >= 0) {
+            lastTradeDate = tradeDate;
+            if (itemName != null) name = itemName;
+        }
+    }
+
+    /**
+     * 交易日期 yyyyMMdd 对应的月份 yyyyMM
+     */
+    public static String monthOf(String tradeDate) {
+        return tradeDate != null && tradeDate.length() >= 6 ? tradeDate.substring(0, 6) : tradeDate;
+    }
+
+    // Getters & Setters
+    @NonNull
+    public String getMonth() { return month; }
+    public void setMonth(@NonNull String month) { this.month = month; }
+    @NonNull
+    public String getCode() { return code; }
+    public void setCode(@NonNull String code) { this.code = code; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getDragonTigerDays() { return dragonTigerDays; }
+    public void setDragonTigerDays(int dragonTigerDays) { this.dragonTigerDays = dragonTigerDays; }
+    public double getDragonTigerNetBuy() { return dragonTigerNetBuy; }
+    public void setDragonTigerNetBuy(double dragonTigerNetBuy) { this.dragonTigerNetBuy = dragonTigerNetBuy; }
+    public int getContinuousLimitDays() { return continuousLimitDays; }
+    public void setContinuousLimitDays(int continuousLimitDays) { this.continuousLimitDays = continuousLimitDays; }
+    public int getMaxContinuousCount() { return maxContinuousCount; }
+    public void setMaxContinuousCount(int maxContinuousCount) { this.maxContinuousCount = maxContinuousCount; }
+    public String getLastTradeDate() { return lastTradeDate; }
+    public void setLastTradeDate(String lastTradeDate) { this.lastTradeDate = lastTradeDate; }
+}
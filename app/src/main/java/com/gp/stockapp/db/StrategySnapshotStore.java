@@ -0,0 +1,130 @@
+package com.gp.stockapp.db;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.gp.stockapp.model.StrategySnapshot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 策略Prompt输入快照存档（策略回放用）
+ * 每个信号交易日一个 gzip 文件（strategy_snapshots/yyyyMMdd.jsonl.gz），每个快照作为一行JSON追加一个gzip分段，
+ * 格式与 {@link HistoryColdArchive} 相同。同一快照标识写入多次时以最后一次为准
+ */
+public class StrategySnapshotStore {
+    private static final String TAG = "StrategySnapshotStore";
+    private static final String DIR_NAME = "strategy_snapshots";
+    private static final String SUFFIX = ".jsonl.gz";
+
+    private final File dir;
+    private final Gson gson = new Gson();
+
+    public StrategySnapshotStore(File filesDir) {
+        this.dir = new File(filesDir, DIR_NAME);
+    }
+
+    /**
+     * 追加一个快照到其信号交易日的文件
+     */
+    public synchronized void append(StrategySnapshot snapshot) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建快照目录: " + dir);
+        }
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(dayFile(snapshot.getSignalDate()), true)),
+                StandardCharsets.UTF_8)) {
+            writer.write(gson.toJson(snapshot));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * 读取某信号交易日的全部快照（按写入顺序）
+     * 文件末尾不完整（如写入时进程被杀）时返回已读出的部分
+     */
+    public synchronized List<StrategySnapshot> readDay(String signalDate) {
+        Map<String, StrategySnapshot> snapshots = new LinkedHashMap<>();
+        File file = dayFile(signalDate);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                StrategySnapshot snapshot = gson.fromJson(line, StrategySnapshot.class);
+                if (snapshot != null && snapshot.getStrategyType() != null) {
+                    snapshots.remove(snapshot.getId());
+                    snapshots.put(snapshot.getId(), snapshot);
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "读取快照不完整: " + file.getName() + ", 已读 " + snapshots.size() + " 个", e);
+        }
+        return new ArrayList<>(snapshots.values());
+    }
+
+    /**
+     * 有快照的信号交易日（升序）
+     */
+    public synchronized List<String> getDays() {
+        List<String> days = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) return days;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(SUFFIX)) {
+                days.add(name.substring(0, name.length() - SUFFIX.length()));
+            }
+        }
+        days.sort(null);
+        return days;
+    }
+
+    /**
+     * 删除指定信号交易日之前的快照文件
+     * @return 删除的文件数
+     */
+    public synchronized int deleteBeforeDay(String beforeDate) {
+        int deleted = 0;
+        for (String day : getDays()) {
+            if (day.compareTo(beforeDate) < 0 && dayFile(day).delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 快照总大小（字节）
+     */
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private File dayFile(String signalDate) {
+        return new File(dir, signalDate + SUFFIX);
+    }
+}
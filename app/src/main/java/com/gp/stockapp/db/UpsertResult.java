@@ -0,0 +1,30 @@
+package com.gp.stockapp.db;
+
+/**
+ * 增量写入结果统计
+ */
+public class UpsertResult {
+    private int inserted;   // 新增行数
+    private int updated;    // 内容有变化而更新的行数
+    private int skipped;    // 与库中一致而跳过的行数
+
+    void addInserted(int count) { inserted += count; }
+    void addUpdated(int count) { updated += count; }
+    void addSkipped(int count) { skipped += count; }
+
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    public int getSkipped() { return skipped; }
+
+    /**
+     * 是否有实际写入
+     */
+    public boolean hasChanges() {
+        return inserted > 0 || updated > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "新增 " + inserted + ", 更新 " + updated + ", 跳过 " + skipped;
+    }
+}
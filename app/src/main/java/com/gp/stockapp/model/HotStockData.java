@@ -61,6 +61,9 @@ public class HotStockData {
         @SerializedName("market_cap")
         private double marketCap;     // 流通市值(亿)
 
+        @SerializedName("concept")
+        private String concept;       // 所属行业/概念
+
         // Getters & Setters
         public String getCode() { return code; }
         public void setCode(String code) { this.code = code; }
@@ -82,6 +85,8 @@ public class HotStockData {
         public void setReason(String reason) { this.reason = reason; }
         public double getMarketCap() { return marketCap; }
         public void setMarketCap(double marketCap) { this.marketCap = marketCap; }
+        public String getConcept() { return concept; }
+        public void setConcept(String concept) { this.concept = concept; }
 
         @Override
         public String toString() {
@@ -220,6 +225,9 @@ public class HotStockData {
         @SerializedName("market_cap")
         private double marketCap;       // 流通市值(亿)
 
+        @SerializedName("concept")
+        private String concept;         // 所属行业/概念
+
         // Getters & Setters
         public String getCode() { return code; }
         public void setCode(String code) { this.code = code; }
@@ -235,6 +243,8 @@ public class HotStockData {
         public void setAmount(double amount) { this.amount = amount; }
         public double getMarketCap() { return marketCap; }
         public void setMarketCap(double marketCap) { this.marketCap = marketCap; }
+        public String getConcept() { return concept; }
+        public void setConcept(String concept) { this.concept = concept; }
 
         @Override
         public String toString() {
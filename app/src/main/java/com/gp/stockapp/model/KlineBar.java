@@ -0,0 +1,66 @@
+package com.gp.stockapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * 日K线数据模型（前复权）
+ */
+public class KlineBar {
+
+    @SerializedName("trade_date")
+    private int tradeDate;      // 交易日 yyyyMMdd
+
+    @SerializedName("open")
+    private double open;        // 开盘价
+
+    @SerializedName("close")
+    private double close;       // 收盘价
+
+    @SerializedName("high")
+    private double high;        // 最高价
+
+    @SerializedName("low")
+    private double low;         // 最低价
+
+    @SerializedName("volume")
+    private long volume;        // 成交量(手)
+
+    @SerializedName("amount")
+    private double amount;      // 成交额(元)
+
+    public KlineBar() {
+    }
+
+    public KlineBar(int tradeDate, double open, double close, double high, double low, long volume, double amount) {
+        this.tradeDate = tradeDate;
+        this.open = open;
+        this.close = close;
+        this.high = high;
+        this.low = low;
+        this.volume = volume;
+        this.amount = amount;
+    }
+
+    // ===== Getters & Setters =====
+
+    public int getTradeDate() { return tradeDate; }
+    public void setTradeDate(int tradeDate) { this.tradeDate = tradeDate; }
+
+    public double getOpen() { return open; }
+    public void setOpen(double open) { this.open = open; }
+
+    public double getClose() { return close; }
+    public void setClose(double close) { this.close = close; }
+
+    public double getHigh() { return high; }
+    public void setHigh(double high) { this.high = high; }
+
+    public double getLow() { return low; }
+    public void setLow(double low) { this.low = low; }
+
+    public long getVolume() { return volume; }
+    public void setVolume(long volume) { this.volume = volume; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+}
@@ -0,0 +1,137 @@
+package com.gp.stockapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全市场涨跌宽度数据模型
+ * 一次请求得到全市场涨跌分布，汇总出上涨/下跌/平盘家数、涨停/跌停家数和按涨跌幅分档的家数分布
+ */
+public class MarketBreadth {
+
+    /** 涨跌幅分档（与 {@link #distribution} 一一对应） */
+    public static final String[] BUCKET_LABELS = {
+            "跌停", "<-7%", "-7~-5%", "-5~-3%", "-3~0%", "平盘", "0~3%", "3~5%", "5~7%", ">7%", "涨停"
+    };
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    @SerializedName("timestamp")
+    private long timestamp;        // 采样时间
+
+    @SerializedName("advance_count")
+    private int advanceCount;      // 上涨家数（含涨停）
+
+    @SerializedName("decline_count")
+    private int declineCount;      // 下跌家数（含跌停）
+
+    @SerializedName("flat_count")
+    private int flatCount;         // 平盘家数
+
+    @SerializedName("limit_up_count")
+    private int limitUpCount;      // 涨停家数
+
+    @SerializedName("limit_down_count")
+    private int limitDownCount;    // 跌停家数
+
+    @SerializedName("distribution")
+    private List<Integer> distribution;  // 按 BUCKET_LABELS 分档的家数
+
+    /**
+     * 上涨家数占有涨跌个股的比例(%)
+     */
+    public double getAdvanceRatio() {
+        int total = advanceCount + declineCount;
+        return total > 0 ? advanceCount * 100.0 / total : 0;
+    }
+
+    /**
+     * 是否有有效数据
+     */
+    public boolean isValid() {
+        return advanceCount + declineCount + flatCount > 0;
+    }
+
+    /**
+     * Prompt用的宽度段落：涨跌家数、涨跌停家数和涨跌幅分布
+     */
+    public String toPromptText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "上涨 %d 家 / 下跌 %d 家 / 平盘 %d 家（上涨占比 %.0f%%），涨停 %d 家 / 跌停 %d 家\n",
+                advanceCount, declineCount, flatCount, getAdvanceRatio(), limitUpCount, limitDownCount));
+        List<Integer> buckets = getDistribution();
+        if (buckets.size() == BUCKET_LABELS.length) {
+            sb.append("涨跌分布：");
+            for (int i = 0; i < BUCKET_LABELS.length; i++) {
+                if (i > 0) sb.append("，");
+                sb.append(BUCKET_LABELS[i]).append(" ").append(buckets.get(i));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 盘中宽度走势：开盘后首个采样、上涨家数最多/最少的采样和最新采样
+     * @param series 当天按时间排序的采样
+     * @return 少于2个采样时返回空串
+     */
+    public static String describeTrend(List<MarketBreadth> series) {
+        if (series == null || series.size() < 2) {
+            return "";
+        }
+        MarketBreadth first = series.get(0);
+        MarketBreadth last = series.get(series.size() - 1);
+        MarketBreadth high = first;
+        MarketBreadth low = first;
+        for (MarketBreadth item : series) {
+            if (item.getAdvanceCount() > high.getAdvanceCount()) high = item;
+            if (item.getAdvanceCount() < low.getAdvanceCount()) low = item;
+        }
+        StringBuilder sb = new StringBuilder("宽度走势：");
+        sb.append(first.formatPoint("首个采样"));
+        sb.append("，").append(high.formatPoint("上涨最多"));
+        sb.append("，").append(low.formatPoint("上涨最少"));
+        sb.append("，").append(last.formatPoint("最新"));
+        int change = last.getAdvanceCount() - first.getAdvanceCount();
+        sb.append(String.format(Locale.US, "；较首个采样上涨家数%+d，涨停%+d，跌停%+d\n",
+                change, last.getLimitUpCount() - first.getLimitUpCount(),
+                last.getLimitDownCount() - first.getLimitDownCount()));
+        return sb.toString();
+    }
+
+    private String formatPoint(String label) {
+        String time = LocalTime.from(Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault())).format(TIME_FORMAT);
+        return String.format(Locale.US, "%s %s 上涨%d家/涨停%d家", label, time, advanceCount, limitUpCount);
+    }
+
+    // ===== Getters & Setters =====
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    public int getAdvanceCount() { return advanceCount; }
+    public void setAdvanceCount(int advanceCount) { this.advanceCount = advanceCount; }
+
+    public int getDeclineCount() { return declineCount; }
+    public void setDeclineCount(int declineCount) { this.declineCount = declineCount; }
+
+    public int getFlatCount() { return flatCount; }
+    public void setFlatCount(int flatCount) { this.flatCount = flatCount; }
+
+    public int getLimitUpCount() { return limitUpCount; }
+    public void setLimitUpCount(int limitUpCount) { this.limitUpCount = limitUpCount; }
+
+    public int getLimitDownCount() { return limitDownCount; }
+    public void setLimitDownCount(int limitDownCount) { this.limitDownCount = limitDownCount; }
+
+    public List<Integer> getDistribution() { return distribution != null ? distribution : new ArrayList<>(); }
+    public void setDistribution(List<Integer> distribution) { this.distribution = distribution; }
+}
@@ -48,13 +48,13 @@ public class MarketIndex {
     private long timestamp;        // 时间戳
 
     @SerializedName("advance_count")
-    private int advanceCount;      // 上涨家数
+    private int advanceCount;      // 上涨家数（全市场，见 MarketBreadth）
 
     @SerializedName("decline_count")
-    private int declineCount;      // 下跌家数
+    private int declineCount;      // 下跌家数（全市场）
 
     @SerializedName("flat_count")
-    private int flatCount;         // 平盘家数
+    private int flatCount;         // 平盘家数（全市场）
 
     // ===== 常用指数代码 =====
     public static final String SH_INDEX = "sh000001";     // 上证指数
@@ -0,0 +1,161 @@
+package com.gp.stockapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 短线情绪周期判定结果（本地规则计算）
+ * 由全市场宽度、涨跌停家数、连板高度和昨日涨停股今日表现得出，每次行情刷新时更新
+ */
+public class SentimentCycle {
+
+    // ===== 情绪周期阶段 =====
+    public static final String STAGE_FREEZING = "冰点";
+    public static final String STAGE_RECOVERY = "修复";
+    public static final String STAGE_CLIMAX = "高潮";
+    public static final String STAGE_DIVERGENCE = "分化";
+    public static final String STAGE_EBB = "退潮";
+
+    @SerializedName("trade_date")
+    private String tradeDate;           // 所属交易日 yyyyMMdd
+
+    @SerializedName("stage")
+    private String stage;               // 周期阶段（冰点/修复/高潮/分化/退潮）
+
+    @SerializedName("score")
+    private int score;                  // 情绪温度 0-100
+
+    @SerializedName("advance_ratio")
+    private double advanceRatio;        // 上涨家数占比(%)
+
+    @SerializedName("limit_up_count")
+    private int limitUpCount;           // 涨停家数
+
+    @SerializedName("limit_down_count")
+    private int limitDownCount;         // 跌停家数
+
+    @SerializedName("ladder_height")
+    private int ladderHeight;           // 当天最高连板数
+
+    @SerializedName("prev_ladder_height")
+    private int prevLadderHeight;       // 上一交易日最高连板数
+
+    @SerializedName("follow_count")
+    private int followCount;            // 参与统计的昨日涨停股数，0表示今日表现不可用
+
+    @SerializedName("follow_avg_change")
+    private double followAvgChange;     // 昨日涨停股今日平均涨跌幅(%)
+
+    @SerializedName("follow_limit_up_rate")
+    private double followLimitUpRate;   // 昨日涨停股今日再涨停比例(%)
+
+    @SerializedName("follow_broken_rate")
+    private double followBrokenRate;    // 昨日涨停股今日跌幅超5%比例(%)
+
+    @SerializedName("reasons")
+    private List<String> reasons;       // 判定依据
+
+    @SerializedName("timestamp")
+    private long timestamp;             // 计算时间
+
+    /**
+     * 昨日涨停股今日表现是否可用
+     */
+    public boolean hasFollowThrough() {
+        return followCount > 0;
+    }
+
+    /**
+     * 情绪温度对应的文字（极度恐慌/恐慌/中性/亢奋/狂热）
+     */
+    public String getMoodText() {
+        if (score < 20) return "极度恐慌";
+        if (score < 40) return "恐慌";
+        if (score < 60) return "中性";
+        if (score < 80) return "亢奋";
+        return "狂热";
+    }
+
+    /**
+     * 阶段颜色（A股：红热绿冷）
+     */
+    public int getStageColor() {
+        if (stage == null) return 0xFF9E9E9E;
+        switch (stage) {
+            case STAGE_CLIMAX: return 0xFFE53935;
+            case STAGE_RECOVERY: return 0xFFFF7043;
+            case STAGE_DIVERGENCE: return 0xFFFF9800;
+            case STAGE_EBB: return 0xFF43A047;
+            case STAGE_FREEZING: return 0xFF1E88E5;
+            default: return 0xFF9E9E9E;
+        }
+    }
+
+    /**
+     * Prompt用的情绪周期段落（作为已知事实提供给模型）
+     */
+    public String toPromptText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("## 短线情绪周期（本地规则判定）\n\n");
+        sb.append(String.format(Locale.US, "%s 阶段：%s，情绪温度 %d/100（%s）\n", tradeDate, stage, score, getMoodText()));
+        sb.append(String.format(Locale.US, "上涨占比 %.0f%%，涨停 %d 家 / 跌停 %d 家，最高板 %d 板（前一交易日 %d 板）\n",
+                advanceRatio, limitUpCount, limitDownCount, ladderHeight, prevLadderHeight));
+        if (hasFollowThrough()) {
+            sb.append(String.format(Locale.US, "昨日涨停股今日表现：%d 只平均 %+.2f%%，再涨停 %.0f%%，跌超5%% %.0f%%\n",
+                    followCount, followAvgChange, followLimitUpRate, followBrokenRate));
+        }
+        List<String> list = getReasons();
+        if (!list.isEmpty()) {
+            sb.append("判定依据：").append(String.join("；", list)).append("\n");
+        }
+        sb.append("以上为确定性统计结果，请直接采用该阶段作为情绪周期判断，不要另行推断。\n\n");
+        return sb.toString();
+    }
+
+    // ===== Getters & Setters =====
+
+    public String getTradeDate() { return tradeDate; }
+    public void setTradeDate(String tradeDate) { this.tradeDate = tradeDate; }
+
+    public String getStage() { return stage; }
+    public void setStage(String stage) { this.stage = stage; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public double getAdvanceRatio() { return advanceRatio; }
+    public void setAdvanceRatio(double advanceRatio) { this.advanceRatio = advanceRatio; }
+
+    public int getLimitUpCount() { return limitUpCount; }
+    public void setLimitUpCount(int limitUpCount) { this.limitUpCount = limitUpCount; }
+
+    public int getLimitDownCount() { return limitDownCount; }
+    public void setLimitDownCount(int limitDownCount) { this.limitDownCount = limitDownCount; }
+
+    public int getLadderHeight() { return ladderHeight; }
+    public void setLadderHeight(int ladderHeight) { this.ladderHeight = ladderHeight; }
+
+    public int getPrevLadderHeight() { return prevLadderHeight; }
+    public void setPrevLadderHeight(int prevLadderHeight) { this.prevLadderHeight = prevLadderHeight; }
+
+    public int getFollowCount() { return followCount; }
+    public void setFollowCount(int followCount) { this.followCount = followCount; }
+
+    public double getFollowAvgChange() { return followAvgChange; }
+    public void setFollowAvgChange(double followAvgChange) { this.followAvgChange = followAvgChange; }
+
+    public double getFollowLimitUpRate() { return followLimitUpRate; }
+    public void setFollowLimitUpRate(double followLimitUpRate) { this.followLimitUpRate = followLimitUpRate; }
+
+    public double getFollowBrokenRate() { return followBrokenRate; }
+    public void setFollowBrokenRate(double followBrokenRate) { this.followBrokenRate = followBrokenRate; }
+
+    public List<String> getReasons() { return reasons != null ? reasons : new ArrayList<>(); }
+    public void setReasons(List<String> reasons) { this.reasons = reasons; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,79 @@
+package com.gp.stockapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * 个股实时行情快照（推荐结果校验用）
+ */
+public class StockQuote {
+
+    /** 东方财富交易状态 f292：停牌 */
+    public static final int TRADE_STATUS_SUSPENDED = 5;
+
+    @SerializedName("code")
+    private String code;
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("price")
+    private double price;           // 最新价，停牌或无成交时为0
+
+    @SerializedName("change_percent")
+    private double changePercent;   // 涨跌幅%
+
+    @SerializedName("prev_close")
+    private double prevClose;       // 昨收
+
+    @SerializedName("limit_up_price")
+    private double limitUpPrice;    // 涨停价
+
+    @SerializedName("market_cap")
+    private double marketCap;       // 流通市值(亿)
+
+    @SerializedName("trade_status")
+    private int tradeStatus;        // 交易状态，接口未返回时为0
+
+    @SerializedName("timestamp")
+    private long timestamp;
+
+    public StockQuote() {
+    }
+
+    // Getters & Setters
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public double getChangePercent() { return changePercent; }
+    public void setChangePercent(double changePercent) { this.changePercent = changePercent; }
+    public double getPrevClose() { return prevClose; }
+    public void setPrevClose(double prevClose) { this.prevClose = prevClose; }
+    public double getLimitUpPrice() { return limitUpPrice; }
+    public void setLimitUpPrice(double limitUpPrice) { this.limitUpPrice = limitUpPrice; }
+    public double getMarketCap() { return marketCap; }
+    public void setMarketCap(double marketCap) { this.marketCap = marketCap; }
+    public int getTradeStatus() { return tradeStatus; }
+    public void setTradeStatus(int tradeStatus) { this.tradeStatus = tradeStatus; }
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    /**
+     * 是否停牌（按行情返回的交易状态判断，不依赖最新价是否为空）
+     */
+    public boolean isSuspended() {
+        return tradeStatus == TRADE_STATUS_SUSPENDED;
+    }
+
+    /**
+     * 距涨停价的百分比（按最新价计），行情不完整时返回 NaN
+     */
+    public double getLimitDistancePercent() {
+        if (price <= 0 || limitUpPrice <= 0) {
+            return Double.NaN;
+        }
+        return (limitUpPrice - price) / price * 100.0;
+    }
+}
@@ -91,6 +91,16 @@ public class StrategyRecommendation {
         @SerializedName("next_day_plan")
         private String nextDayPlan; // 次日操作预案（尾盘推荐用）
 
+        // 行情校验结果（本地填写，个股推荐用）
+        @SerializedName("live_price")
+        private double livePrice; // 生成推荐时的实时价格，0表示未校验
+
+        @SerializedName("live_change_percent")
+        private double liveChangePercent;
+
+        @SerializedName("validation_note")
+        private String validationNote; // 校验提示（如流通市值超出范围），通过时为空
+
         // Getters & Setters
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
@@ -125,6 +135,15 @@ public class StrategyRecommendation {
         public String getNextDayPlan() { return nextDayPlan; }
         public void setNextDayPlan(String nextDayPlan) { this.nextDayPlan = nextDayPlan; }
 
+        public double getLivePrice() { return livePrice; }
+        public void setLivePrice(double livePrice) { this.livePrice = livePrice; }
+
+        public double getLiveChangePercent() { return liveChangePercent; }
+        public void setLiveChangePercent(double liveChangePercent) { this.liveChangePercent = liveChangePercent; }
+
+        public String getValidationNote() { return validationNote; }
+        public void setValidationNote(String validationNote) { this.validationNote = validationNote; }
+
         /**
          * 获取评分对应的颜色
          */
@@ -0,0 +1,89 @@
+package com.gp.stockapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 策略Prompt输入快照
+ * 每次生成竞价/尾盘推荐时记录构建Prompt所用的全部原始数据（指数、全市场宽度、情绪周期、新闻、热门数据），
+ * 以及依赖当时本地状态、事后无法还原的派生段落（大盘分时走势、宽度走势、候选股技术指标、板块强度排行），
+ * 策略回放时据此重建与当时完全一致的Prompt
+ */
+public class StrategySnapshot {
+
+    @SerializedName("strategy_type")
+    private String strategyType;
+
+    @SerializedName("timestamp")
+    private long timestamp;
+
+    @SerializedName("signal_date")
+    private String signalDate;      // 信号交易日 yyyyMMdd，与推荐台账口径一致
+
+    @SerializedName("indices")
+    private List<MarketIndex> indices;
+
+    @SerializedName("breadth")
+    private MarketBreadth breadth;  // 全市场涨跌宽度，未抓取到时为null
+
+    @SerializedName("breadth_trend_text")
+    private String breadthTrendText;    // 当天宽度走势段落
+
+    @SerializedName("sentiment_cycle")
+    private SentimentCycle sentimentCycle;  // 本地判定的情绪周期，未计算过时为null
+
+    @SerializedName("news")
+    private List<StockNews> news;
+
+    @SerializedName("hot_data")
+    private HotStockData hotData;   // 竞价为前一交易日热门数据，其他策略为当天
+
+    @SerializedName("intraday_trend_text")
+    private String intradayTrendText;   // 大盘分时走势段落（尾盘策略）
+
+    @SerializedName("indicator_codes")
+    private List<String> indicatorCodes;    // 计算技术指标的候选股代码（按顺序）
+
+    @SerializedName("indicator_text")
+    private String indicatorText;   // 候选股技术指标段落
+
+    @SerializedName("sector_table_text")
+    private String sectorTableText; // 板块强度排行段落（板块策略，含与上一交易日的对比）
+
+    /**
+     * 快照标识（策略类型 + 生成时间），回放结果按此去重
+     */
+    public String getId() {
+        return strategyType + "-" + timestamp;
+    }
+
+    // Getters & Setters
+    public String getStrategyType() { return strategyType; }
+    public void setStrategyType(String strategyType) { this.strategyType = strategyType; }
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    public String getSignalDate() { return signalDate; }
+    public void setSignalDate(String signalDate) { this.signalDate = signalDate; }
+    public List<MarketIndex> getIndices() { return indices != null ? indices : new ArrayList<>(); }
+    public void setIndices(List<MarketIndex> indices) { this.indices = indices; }
+    public List<StockNews> getNews() { return news != null ? news : new ArrayList<>(); }
+    public void setNews(List<StockNews> news) { this.news = news; }
+    public HotStockData getHotData() { return hotData; }
+    public void setHotData(HotStockData hotData) { this.hotData = hotData; }
+    public String getIntradayTrendText() { return intradayTrendText != null ? intradayTrendText : ""; }
+    public void setIntradayTrendText(String intradayTrendText) { this.intradayTrendText = intradayTrendText; }
+    public List<String> getIndicatorCodes() { return indicatorCodes != null ? indicatorCodes : new ArrayList<>(); }
+    public void setIndicatorCodes(List<String> indicatorCodes) { this.indicatorCodes = indicatorCodes; }
+    public String getIndicatorText() { return indicatorText != null ? indicatorText : ""; }
+    public void setIndicatorText(String indicatorText) { this.indicatorText = indicatorText; }
+    public MarketBreadth getBreadth() { return breadth; }
+    public void setBreadth(MarketBreadth breadth) { this.breadth = breadth; }
+    public String getBreadthTrendText() { return breadthTrendText != null ? breadthTrendText : ""; }
+    public void setBreadthTrendText(String breadthTrendText) { this.breadthTrendText = breadthTrendText; }
+    public SentimentCycle getSentimentCycle() { return sentimentCycle; }
+    public void setSentimentCycle(SentimentCycle sentimentCycle) { this.sentimentCycle = sentimentCycle; }
+    public String getSectorTableText() { return sectorTableText != null ? sectorTableText : ""; }
+    public void setSectorTableText(String sectorTableText) { this.sectorTableText = sectorTableText; }
+}
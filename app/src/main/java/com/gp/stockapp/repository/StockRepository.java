@@ -9,13 +9,33 @@ import com.gp.stockapp.db.ContinuousLimitDao;
 import com.gp.stockapp.db.ContinuousLimitEntity;
 import com.gp.stockapp.db.DragonTigerDao;
 import com.gp.stockapp.db.DragonTigerEntity;
+import com.gp.stockapp.db.HistoryColdArchive;
+import com.gp.stockapp.db.HistoryWarehouse;
+import com.gp.stockapp.db.IntradayTickStore;
+import com.gp.stockapp.db.MarketBreadthStore;
+import com.gp.stockapp.db.NewsArchiveDao;
+import com.gp.stockapp.db.NewsArchiveEntity;
+import com.gp.stockapp.db.NewsFtsEntity;
+import com.gp.stockapp.db.NewsRankerSampleStore;
+import com.gp.stockapp.db.SectorDayStatsDao;
+import com.gp.stockapp.db.SectorDayStatsEntity;
+import com.gp.stockapp.db.StockMonthlyStatsEntity;
+import com.gp.stockapp.db.StrategySnapshotStore;
 import com.gp.stockapp.model.HotStockData;
 import com.gp.stockapp.model.MarketAnalysis;
+import com.gp.stockapp.model.MarketBreadth;
 import com.gp.stockapp.model.MarketIndex;
+import com.gp.stockapp.model.SentimentCycle;
 import com.gp.stockapp.model.StockNews;
 import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.model.StrategySnapshot;
+import com.gp.stockapp.utils.IntradaySeries;
+import com.gp.stockapp.utils.NewsDeduplicator;
+import com.gp.stockapp.utils.NewsPreRanker;
 import com.gp.stockapp.utils.TradingDayHelper;
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
@@ -38,6 +58,9 @@ public class StockRepository {
 
     private static final String PREF_NAME = "market_data_prefs";
     private static final String KEY_INDICES = "market_indices";
+    private static final String KEY_MARKET_BREADTH = "market_breadth";
+    private static final String KEY_SENTIMENT_CYCLE = "sentiment_cycle";
+    private static final String KEY_PREV_DAY_SENTIMENT_STAGE = "prev_day_sentiment_stage";
     private static final String KEY_PREV_DAY_AMOUNTS = "prev_day_amounts";
     private static final String KEY_LAST_TRADING_DATE = "last_trading_date";
     private static final String KEY_NEWS = "market_news";
@@ -48,6 +71,14 @@ public class StockRepository {
     private static final String KEY_CLOSING_RECOMMENDATION = "closing_recommendation";
     private static final String KEY_HOT_STOCK_DATA = "hot_stock_data";
     private static final String KEY_PREV_DAY_HOT_STOCK_DATA = "prev_day_hot_stock_data";
+    private static final String KEY_NEWS_RANKER_STATE = "news_ranker_state";
+    private static final String KEY_NEWS_ARCHIVE_RETENTION_DAYS = "news_archive_retention_days";
+    private static final String KEY_HISTORY_RETENTION_MONTHS = "history_retention_months";
+    private static final String KEY_HISTORY_BACKFILL_DAYS = "history_backfill_days";
+    private static final int DEFAULT_HISTORY_BACKFILL_DAYS = 250; // 约一年的交易日
+
+    // 新闻归档默认保留180天
+    public static final int DEFAULT_NEWS_ARCHIVE_RETENTION_DAYS = 180;
 
     // 缓存过期时间（毫秒）
     private static final long CACHE_TTL = 60_000; // 1分钟
@@ -58,10 +89,21 @@ public class StockRepository {
     private final AppDatabase appDatabase;
     private final DragonTigerDao dragonTigerDao;
     private final ContinuousLimitDao continuousLimitDao;
+    private final NewsArchiveDao newsArchiveDao;
+    private final SectorDayStatsDao sectorDayStatsDao;
+    private final HistoryWarehouse historyWarehouse;
+    private final IntradayTickStore intradayTickStore;
+    private final MarketBreadthStore marketBreadthStore;
+    private final StrategySnapshotStore strategySnapshotStore;
+    private final NewsRankerSampleStore newsRankerSampleStore;
 
     // ===== 内存缓存 =====
     private volatile List<MarketIndex> indicesCache;
     private volatile long indicesCacheTime = 0;
+
+    private volatile MarketBreadth breadthCache;
+
+    private volatile SentimentCycle sentimentCycleCache;
     
     private volatile List<StockNews> newsCache;
     private volatile long newsCacheTime = 0;
@@ -91,6 +133,13 @@ public class StockRepository {
         appDatabase = AppDatabase.getInstance(context);
         dragonTigerDao = appDatabase.dragonTigerDao();
         continuousLimitDao = appDatabase.continuousLimitDao();
+        newsArchiveDao = appDatabase.newsArchiveDao();
+        sectorDayStatsDao = appDatabase.sectorDayStatsDao();
+        historyWarehouse = new HistoryWarehouse(appDatabase, context.getFilesDir());
+        intradayTickStore = new IntradayTickStore(context.getFilesDir());
+        marketBreadthStore = new MarketBreadthStore(context.getFilesDir());
+        strategySnapshotStore = new StrategySnapshotStore(context.getFilesDir());
+        newsRankerSampleStore = new NewsRankerSampleStore(context.getFilesDir());
     }
 
     public static StockRepository getInstance(Context context) {
@@ -144,8 +193,10 @@ public class StockRepository {
      * 1. 判断当前数据属于哪个交易日（非交易日时API返回的是最后一个交易日的数据）
      * 2. 如果是新的交易日，将旧交易日的成交额存为"前日成交额"
      * 3. prevAmount 始终为上一个交易日的最终成交额
+     * 4. 盘中的每次快照追加到分时存储，KEY_INDICES 只保留最新一份
      */
     public void saveMarketIndices(List<MarketIndex> indices) {
+        boolean inSession = TradingDayHelper.isTradingSession();
         String lastSavedTradingDay = preferences.getString(KEY_LAST_TRADING_DATE, "");
         String currentTradingDay = TradingDayHelper.getLatestTradingDayStr();
         Map<String, Double> prevDayAmounts = getPrevDayAmounts();
@@ -173,6 +224,12 @@ public class StockRepository {
         indicesCacheTime = System.currentTimeMillis();
 
         executorService.execute(() -> {
+            // 盘中快照追加到分时存储（非交易时段接口返回的是收盘数据，不再记录，当天的文件随之关闭）
+            if (inSession) {
+                intradayTickStore.record(currentTradingDay, updatedIndices);
+            } else {
+                intradayTickStore.closeFiles();
+            }
             // 保存当前数据和交易日标记
             String json = gson.toJson(updatedIndices);
             preferences.edit()
@@ -247,6 +304,234 @@ public class StockRepository {
         return null;
     }
 
+    // ===== 指数分时数据 =====
+
+    /**
+     * 获取最近交易日某指数的全部分时采样
+     */
+    public IntradaySeries getIntradaySeries(String indexCode) {
+        return intradayTickStore.getDaySeries(TradingDayHelper.getLatestTradingDayStr(), indexCode);
+    }
+
+    /**
+     * 获取某交易日某指数在 [fromMillis, toMillis] 内的分时采样
+     */
+    public IntradaySeries getIntradaySeries(String tradeDate, String indexCode, long fromMillis, long toMillis) {
+        return intradayTickStore.getSeries(tradeDate, indexCode, fromMillis, toMillis);
+    }
+
+    /**
+     * 获取最近交易日某指数按 bucketMinutes 分钟降采样的分时序列
+     */
+    public IntradaySeries getIntradayDownsampled(String indexCode, int bucketMinutes) {
+        return intradayTickStore.getDownsampled(TradingDayHelper.getLatestTradingDayStr(), indexCode,
+                Long.MIN_VALUE, Long.MAX_VALUE, bucketMinutes * 60_000L);
+    }
+
+    /**
+     * 关闭分时存储打开的文件（数据服务停止时调用）
+     */
+    public void closeIntradayFiles() {
+        intradayTickStore.closeFiles();
+    }
+
+    /**
+     * 删除早于截止交易日的分时文件（指数和全市场宽度）
+     */
+    public void pruneIntradayBefore(String cutoffDate) {
+        try {
+            intradayTickStore.deleteBeforeDay(cutoffDate);
+            marketBreadthStore.deleteBeforeDay(cutoffDate);
+        } catch (Exception e) {
+            Log.e(TAG, "Error pruning intraday ticks", e);
+        }
+    }
+
+    // ===== 全市场涨跌宽度 =====
+
+    /**
+     * 保存最新的全市场宽度，盘中采样同时追加到宽度分时存储
+     */
+    public void saveMarketBreadth(MarketBreadth breadth) {
+        boolean inSession = TradingDayHelper.isTradingSession();
+        String currentTradingDay = TradingDayHelper.getLatestTradingDayStr();
+        breadthCache = breadth;
+        executorService.execute(() -> {
+            if (inSession) {
+                marketBreadthStore.record(currentTradingDay, breadth);
+            }
+            preferences.edit().putString(KEY_MARKET_BREADTH, gson.toJson(breadth)).apply();
+        });
+    }
+
+    /**
+     * 获取最新的全市场宽度
+     * @return 从未抓取成功时返回null
+     */
+    public MarketBreadth getMarketBreadth() {
+        if (breadthCache != null) {
+            return breadthCache;
+        }
+        String json = preferences.getString(KEY_MARKET_BREADTH, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            breadthCache = gson.fromJson(json, MarketBreadth.class);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing market breadth", e);
+        }
+        return breadthCache;
+    }
+
+    /**
+     * 获取最近交易日的全市场宽度分时采样
+     */
+    public List<MarketBreadth> getMarketBreadthSeries() {
+        return marketBreadthStore.getDaySeries(TradingDayHelper.getLatestTradingDayStr());
+    }
+
+    // ===== 短线情绪周期 =====
+
+    /**
+     * 保存最新的情绪周期判定
+     * 跨交易日时，上一交易日最后一次判定的阶段记为"前日阶段"，供修复/退潮判定使用
+     */
+    public void saveSentimentCycle(SentimentCycle cycle) {
+        SentimentCycle last = getSentimentCycle();
+        sentimentCycleCache = cycle;
+        SharedPreferences.Editor editor = preferences.edit().putString(KEY_SENTIMENT_CYCLE, gson.toJson(cycle));
+        if (last != null && last.getTradeDate() != null && !last.getTradeDate().equals(cycle.getTradeDate())) {
+            editor.putString(KEY_PREV_DAY_SENTIMENT_STAGE, last.getStage());
+            Log.d(TAG, "Sentiment cycle day changed: " + last.getTradeDate() + " -> " + cycle.getTradeDate()
+                    + ", prev stage: " + last.getStage());
+        }
+        editor.apply();
+    }
+
+    /**
+     * 获取最新的情绪周期判定
+     * @return 从未计算过时返回null
+     */
+    public SentimentCycle getSentimentCycle() {
+        if (sentimentCycleCache != null) {
+            return sentimentCycleCache;
+        }
+        String json = preferences.getString(KEY_SENTIMENT_CYCLE, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            sentimentCycleCache = gson.fromJson(json, SentimentCycle.class);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing sentiment cycle", e);
+        }
+        return sentimentCycleCache;
+    }
+
+    /**
+     * 获取某交易日之前最后一次判定的情绪周期阶段
+     * @return 没有记录时返回null
+     */
+    public String getPrevDaySentimentStage(String tradeDate) {
+        SentimentCycle last = getSentimentCycle();
+        if (last != null && last.getTradeDate() != null && last.getTradeDate().compareTo(tradeDate) < 0) {
+            return last.getStage();
+        }
+        return preferences.getString(KEY_PREV_DAY_SENTIMENT_STAGE, null);
+    }
+
+    // ===== 板块每日强度统计 =====
+
+    /**
+     * 保存某交易日的板块强度统计（整体替换，阻塞）
+     */
+    public void saveSectorDayStats(String tradeDate, List<SectorDayStatsEntity> rows) {
+        try {
+            sectorDayStatsDao.replaceDay(tradeDate, rows);
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving sector stats", e);
+        }
+    }
+
+    /**
+     * 获取某交易日的板块强度统计（按排名排序）
+     */
+    public List<SectorDayStatsEntity> getSectorDayStats(String tradeDate) {
+        try {
+            return sectorDayStatsDao.getByDate(tradeDate);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading sector stats", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 早于某交易日的最近一个有板块统计的交易日，没有时返回null
+     */
+    public String getLatestSectorStatsDateBefore(String tradeDate) {
+        try {
+            return sectorDayStatsDao.getLatestDateBefore(tradeDate);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading sector stats date", e);
+            return null;
+        }
+    }
+
+    /**
+     * 删除早于截止交易日的板块统计
+     */
+    public void pruneSectorStatsBefore(String cutoffDate) {
+        try {
+            sectorDayStatsDao.deleteBeforeDate(cutoffDate);
+        } catch (Exception e) {
+            Log.e(TAG, "Error pruning sector stats", e);
+        }
+    }
+
+    // ===== 策略Prompt输入快照（回放用） =====
+
+    /**
+     * 异步保存一次策略生成的Prompt输入快照
+     */
+    public void saveStrategySnapshot(StrategySnapshot snapshot) {
+        executorService.execute(() -> {
+            try {
+                strategySnapshotStore.append(snapshot);
+            } catch (Exception e) {
+                Log.e(TAG, "Error saving strategy snapshot", e);
+            }
+        });
+    }
+
+    /**
+     * 获取某信号交易日的全部策略快照
+     */
+    public List<StrategySnapshot> getStrategySnapshots(String signalDate) {
+        return strategySnapshotStore.readDay(signalDate);
+    }
+
+    /**
+     * 获取有策略快照的信号交易日（升序）
+     */
+    public List<String> getStrategySnapshotDays() {
+        return strategySnapshotStore.getDays();
+    }
+
+    /**
+     * 删除早于截止交易日的策略快照
+     */
+    public void pruneStrategySnapshotsBefore(String cutoffDate) {
+        try {
+            int deleted = strategySnapshotStore.deleteBeforeDay(cutoffDate);
+            if (deleted > 0) {
+                Log.d(TAG, "Pruned " + deleted + " strategy snapshot files before " + cutoffDate);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error pruning strategy snapshots", e);
+        }
+    }
+
     // ===== AI分析结果管理 =====
 
     /**
@@ -504,7 +789,7 @@ public class StockRepository {
 
     /**
      * 合并保存新闻数据
-     * 新获取的新闻放在最前面，与已有新闻合并去重，只保留指定条数
+     * 新获取的新闻放在最前面，与已有新闻合并（按标题近似度）去重，只保留指定条数
      * @param newNewsList 新获取的新闻列表
      * @param maxCount 最大保留条数
      */
@@ -513,14 +798,13 @@ public class StockRepository {
 
         List<StockNews> merged = new ArrayList<>(newNewsList);
 
-        java.util.Set<String> newTitles = new java.util.HashSet<>();
+        // 旧新闻与新新闻标题近似重复（不同来源的改写稿）时以新新闻为准
+        NewsDeduplicator newTitles = new NewsDeduplicator();
         for (StockNews news : newNewsList) {
-            if (news.getTitle() != null) {
-                newTitles.add(news.getTitle().trim());
-            }
+            newTitles.add(news.getTitle());
         }
         for (StockNews oldNews : existingNews) {
-            if (oldNews.getTitle() != null && !newTitles.contains(oldNews.getTitle().trim())) {
+            if (oldNews.getTitle() != null && !newTitles.isDuplicate(oldNews.getTitle())) {
                 merged.add(oldNews);
             }
         }
@@ -577,6 +861,115 @@ public class StockRepository {
         return allNews;
     }
 
+    // ===== 新闻归档 =====
+
+    /**
+     * 归档一批新闻（异步，同一批在一个事务中写入，已归档的新闻忽略）
+     */
+    public void archiveNews(List<StockNews> newsList) {
+        if (newsList == null || newsList.isEmpty()) return;
+        List<NewsArchiveEntity> entities = new ArrayList<>(newsList.size());
+        for (StockNews news : newsList) {
+            if (news.getTitle() != null && !news.getTitle().isEmpty()) {
+                entities.add(NewsArchiveEntity.fromStockNews(news));
+            }
+        }
+        executorService.execute(() -> {
+            try {
+                int inserted = newsArchiveDao.insertBatch(entities);
+                Log.d(TAG, "Archived " + inserted + "/" + entities.size() + " news");
+            } catch (Exception e) {
+                Log.e(TAG, "Error archiving news", e);
+            }
+        });
+    }
+
+    /**
+     * 分页读取归档新闻（需在后台线程调用）
+     * @param last 上一页最后一条，传null读取第一页
+     */
+    public List<NewsArchiveEntity> getArchivedNewsPage(NewsArchiveEntity last, int pageSize) {
+        if (last == null) {
+            return newsArchiveDao.getLatest(pageSize);
+        }
+        return newsArchiveDao.getPageBefore(last.getPublishTime(), last.getId(), pageSize);
+    }
+
+    /**
+     * 全文检索归档新闻（需在后台线程调用），关键词为空时返回空列表
+     */
+    public List<NewsArchiveEntity> searchArchivedNews(String keywords, int pageSize, int offset) {
+        String matchQuery = NewsFtsEntity.buildMatchQuery(keywords);
+        if (matchQuery == null) {
+            return new ArrayList<>();
+        }
+        return newsArchiveDao.search(matchQuery, pageSize, offset);
+    }
+
+    /**
+     * 按保留天数清理归档新闻（需在后台线程调用）
+     */
+    public void pruneNewsArchive() {
+        long cutoff = System.currentTimeMillis() - getNewsArchiveRetentionDays() * 24L * 60 * 60 * 1000;
+        int deleted = newsArchiveDao.deleteBefore(cutoff);
+        if (deleted > 0) {
+            Log.d(TAG, "Pruned " + deleted + " archived news");
+        }
+    }
+
+    public int getNewsArchiveRetentionDays() {
+        return preferences.getInt(KEY_NEWS_ARCHIVE_RETENTION_DAYS, DEFAULT_NEWS_ARCHIVE_RETENTION_DAYS);
+    }
+
+    public void setNewsArchiveRetentionDays(int days) {
+        preferences.edit().putInt(KEY_NEWS_ARCHIVE_RETENTION_DAYS, Math.max(1, days)).apply();
+    }
+
+    public int getArchivedNewsCount() {
+        return newsArchiveDao.getCount();
+    }
+
+    // ===== 新闻预排序模型 =====
+
+    /**
+     * 保存新闻预排序模型：权重、阈值写配置，本批新增样本追加到样本文件
+     */
+    public void saveNewsRankerState(NewsPreRanker.State state, List<NewsPreRanker.Sample> newSamples) {
+        executorService.execute(() -> {
+            newsRankerSampleStore.append(newSamples, NewsPreRanker.MAX_SAMPLES);
+            String json = gson.toJson(state);
+            preferences.edit().putString(KEY_NEWS_RANKER_STATE, json).apply();
+            Log.d(TAG, "Saved news ranker state (+" + newSamples.size() + " samples)");
+        });
+    }
+
+    /**
+     * 读取新闻预排序模型（含样本文件中的样本），不存在时返回null
+     * 旧版本样本保存在配置JSON中，首次读取时迁移到样本文件
+     */
+    public NewsPreRanker.State getNewsRankerState() {
+        String json = preferences.getString(KEY_NEWS_RANKER_STATE, null);
+        if (json == null) return null;
+        try {
+            NewsPreRanker.State state = gson.fromJson(json, NewsPreRanker.State.class);
+            JsonObject raw = JsonParser.parseString(json).getAsJsonObject();
+            if (raw.has("samples")) {
+                if (!newsRankerSampleStore.exists()) {
+                    List<NewsPreRanker.Sample> legacy = gson.fromJson(raw.get("samples"),
+                            new TypeToken<List<NewsPreRanker.Sample>>(){}.getType());
+                    newsRankerSampleStore.append(legacy, NewsPreRanker.MAX_SAMPLES);
+                    Log.d(TAG, "Migrated " + (legacy != null ? legacy.size() : 0) + " news ranker samples to file");
+                }
+                preferences.edit().putString(KEY_NEWS_RANKER_STATE, gson.toJson(state)).apply();
+            }
+            state.setSamples(newsRankerSampleStore.readRecent(NewsPreRanker.MAX_SAMPLES));
+            return state;
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing news ranker state", e);
+            return null;
+        }
+    }
+
     // ===== 清理 =====
 
     /**
@@ -683,10 +1076,76 @@ public class StockRepository {
         return continuousLimitDao.getLatestTradeDate();
     }
     
+    /**
+     * 获取某交易日的最高连板数（没有数据时为0）
+     */
+    public int getMaxContinuousCount(String tradeDate) {
+        try {
+            return continuousLimitDao.getMaxContinuousCount(tradeDate);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading max continuous count", e);
+            return 0;
+        }
+    }
+    
     /**
      * 获取连板股数据总条数
      */
     public int getContinuousLimitCount() {
         return continuousLimitDao.getCount();
     }
+    
+    // ===== 长周期历史（月度汇总 + 冷存档） =====
+    
+    /**
+     * 把早于截止日期的龙虎榜/连板股明细转入月度汇总和冷存档，并清理超过保留期的汇总和存档
+     */
+    public void archiveHistoryBefore(String cutoffDate) {
+        try {
+            historyWarehouse.rollUpBefore(cutoffDate);
+            historyWarehouse.pruneOlderThan(getHistoryRetentionMonths());
+        } catch (Exception e) {
+            Log.e(TAG, "Error archiving history", e);
+        }
+    }
+    
+    /**
+     * 获取指定股票从某月(yyyyMM)起的按月统计（含尚未归档的明细）
+     */
+    public List<StockMonthlyStatsEntity> getStockMonthlyStats(String code, String fromMonth) {
+        return historyWarehouse.getStockMonthlyStats(code, fromMonth);
+    }
+    
+    /**
+     * 获取某月(yyyyMM)上榜最多的股票
+     */
+    public List<StockMonthlyStatsEntity> getMonthlyLeaders(String month, int limit) {
+        return historyWarehouse.getMonthlyLeaders(month, limit);
+    }
+    
+    /**
+     * 从冷存档读取某个已归档交易日的明细
+     */
+    public HistoryColdArchive.DayRecord getArchivedHistoryDay(String tradeDate) {
+        return historyWarehouse.getArchivedDay(tradeDate);
+    }
+    
+    public int getHistoryRetentionMonths() {
+        return preferences.getInt(KEY_HISTORY_RETENTION_MONTHS, HistoryWarehouse.DEFAULT_RETENTION_MONTHS);
+    }
+    
+    public void setHistoryRetentionMonths(int months) {
+        preferences.edit().putInt(KEY_HISTORY_RETENTION_MONTHS, Math.max(1, months)).apply();
+    }
+    
+    /**
+     * 手动补齐历史数据时回溯的交易日数
+     */
+    public int getHistoryBackfillDays() {
+        return preferences.getInt(KEY_HISTORY_BACKFILL_DAYS, DEFAULT_HISTORY_BACKFILL_DAYS);
+    }
+    
+    public void setHistoryBackfillDays(int days) {
+        preferences.edit().putInt(KEY_HISTORY_BACKFILL_DAYS, Math.max(1, days)).apply();
+    }
 }
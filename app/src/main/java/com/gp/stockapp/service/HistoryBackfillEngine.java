@@ -0,0 +1,271 @@
+package com.gp.stockapp.service;
+
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.db.BackfillCheckpointDao;
+import com.gp.stockapp.db.BackfillCheckpointEntity;
+import com.gp.stockapp.db.ContinuousLimitEntity;
+import com.gp.stockapp.db.DragonTigerEntity;
+import com.gp.stockapp.db.HistoryDaySummaryEntity;
+import com.gp.stockapp.model.HotStockData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 历史龙虎榜/连板股补齐引擎
+ *
+ * 每个交易日拆成龙虎榜、连板股两个任务，交给固定大小的线程池并行抓取；
+ * 每个任务完成后立即写库并记录进度（history_backfill_checkpoint），中途被杀后重跑只补未完成的部分；
+ * 请求失败按指数退避重试，多次失败的日期留到下次补齐
+ */
+public class HistoryBackfillEngine {
+    private static final String TAG = "HistoryBackfill";
+
+    public static final int DEFAULT_PARALLELISM = 3;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 1000;
+
+    /**
+     * 进度回调（在工作线程中调用）
+     */
+    public interface ProgressListener {
+        void onProgress(int finishedTasks, int totalTasks, int failedTasks);
+    }
+
+    /**
+     * 一次补齐的结果
+     */
+    public static class Result {
+        private int targetDays;
+        private int pendingDays;
+        private int finishedTasks;
+        private int failedTasks;
+        private boolean cancelled;
+
+        public int getTargetDays() { return targetDays; }
+        public int getPendingDays() { return pendingDays; }
+        public int getFinishedTasks() { return finishedTasks; }
+        public int getFailedTasks() { return failedTasks; }
+        public boolean isCancelled() { return cancelled; }
+
+        public String toMessage() {
+            if (pendingDays == 0) {
+                return "数据库中最近" + targetDays + "个交易日数据已齐全";
+            }
+            String message = "已检查最近" + targetDays + "个交易日，补齐 " + finishedTasks + " 项缺失数据";
+            if (failedTasks > 0) {
+                message += "，" + failedTasks + " 项失败（下次补齐时重试）";
+            }
+            if (cancelled) {
+                message += "，任务已中断（进度已保存）";
+            }
+            return message;
+        }
+    }
+
+    private enum Part { DRAGON_TIGER, CONTINUOUS_LIMIT }
+
+    private static final class Task {
+        final String date;
+        final Part part;
+
+        Task(String date, Part part) {
+            this.date = date;
+            this.part = part;
+        }
+    }
+
+    private final HotStockApi hotStockApi;
+    private final AppDatabase appDatabase;
+    private final BackfillCheckpointDao checkpointDao;
+    private final int parallelism;
+    private final Random random = new Random();
+    private volatile ExecutorService pool;
+
+    public HistoryBackfillEngine(HotStockApi hotStockApi, AppDatabase appDatabase, int parallelism) {
+        this.hotStockApi = hotStockApi;
+        this.appDatabase = appDatabase;
+        this.checkpointDao = appDatabase.backfillCheckpointDao();
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 补齐指定交易日（倒序，最近的优先），阻塞直到完成或被 cancel
+     * @param latestTradingDay 最近交易日，当天接口返回空数据时不记为完成（数据可能还没发布）
+     */
+    public Result run(List<String> targetDates, String latestTradingDay, ProgressListener listener) {
+        Result result = new Result();
+        result.targetDays = targetDates.size();
+        if (targetDates.isEmpty()) {
+            return result;
+        }
+
+        List<Task> tasks = collectPendingTasks(targetDates);
+        if (tasks.isEmpty()) {
+            return result;
+        }
+        Set<String> pendingDates = new LinkedHashSet<>();
+        for (Task task : tasks) {
+            pendingDates.add(task.date);
+        }
+        result.pendingDays = pendingDates.size();
+        Log.d(TAG, "待补齐 " + pendingDates.size() + " 天, " + tasks.size() + " 个任务, 并发 " + parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        pool = executor;
+        ExecutorCompletionService<Boolean> completion = new ExecutorCompletionService<>(executor);
+        try {
+            for (Task task : tasks) {
+                completion.submit(() -> runTask(task, latestTradingDay));
+            }
+            int remaining = tasks.size();
+            while (remaining > 0) {
+                Future<Boolean> future = completion.poll(1, TimeUnit.SECONDS);
+                if (future == null) {
+                    // cancel() 后排队中的任务不会再执行
+                    if (executor.isShutdown()) {
+                        result.cancelled = true;
+                        break;
+                    }
+                    continue;
+                }
+                remaining--;
+                boolean ok;
+                try {
+                    ok = future.get();
+                } catch (Exception e) {
+                    ok = false;
+                }
+                if (ok) {
+                    result.finishedTasks++;
+                } else {
+                    result.failedTasks++;
+                }
+                if (listener != null) {
+                    listener.onProgress(result.finishedTasks + result.failedTasks, tasks.size(), result.failedTasks);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancelled = true;
+        } finally {
+            executor.shutdownNow();
+            pool = null;
+        }
+        return result;
+    }
+
+    /**
+     * 中断正在进行的补齐（已完成的日期进度已保存）
+     */
+    public void cancel() {
+        ExecutorService executor = pool;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 根据每日汇总和补齐进度，列出还没完成的 (日期, 部分)
+     */
+    private List<Task> collectPendingTasks(List<String> targetDates) {
+        String startDate = targetDates.get(0);
+        for (String date : targetDates) {
+            if (date.compareTo(startDate) < 0) startDate = date;
+        }
+        Map<String, HistoryDaySummaryEntity> summaries = new HashMap<>();
+        for (HistoryDaySummaryEntity summary : appDatabase.historyDaySummaryDao().getRecentDays(startDate)) {
+            summaries.put(summary.getTradeDate(), summary);
+        }
+        Map<String, BackfillCheckpointEntity> checkpoints = new HashMap<>();
+        for (BackfillCheckpointEntity checkpoint : checkpointDao.getSince(startDate)) {
+            checkpoints.put(checkpoint.getTradeDate(), checkpoint);
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (String date : targetDates) {
+            HistoryDaySummaryEntity summary = summaries.get(date);
+            BackfillCheckpointEntity checkpoint = checkpoints.get(date);
+            boolean archived = summary != null && summary.isArchived();
+            boolean dragonTigerDone = archived
+                    || (summary != null && summary.getDragonTigerCount() > 0)
+                    || (checkpoint != null && checkpoint.isDragonTigerDone());
+            boolean continuousLimitDone = archived
+                    || (summary != null && summary.getContinuousLimitCount() > 0)
+                    || (checkpoint != null && checkpoint.isContinuousLimitDone());
+            if (!dragonTigerDone) tasks.add(new Task(date, Part.DRAGON_TIGER));
+            if (!continuousLimitDone) tasks.add(new Task(date, Part.CONTINUOUS_LIMIT));
+        }
+        return tasks;
+    }
+
+    /**
+     * 抓取并保存一个 (日期, 部分)，失败按指数退避重试
+     */
+    private boolean runTask(Task task, String latestTradingDay) throws InterruptedException {
+        String date = task.date;
+        Part part = task.part;
+        checkpointDao.ensure(date, System.currentTimeMillis());
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                int rows = fetchAndSave(date, part);
+                // 最近交易日的空结果可能只是数据尚未发布，不记为完成
+                if (rows == 0 && date.equals(latestTradingDay)) {
+                    return true;
+                }
+                long now = System.currentTimeMillis();
+                if (part == Part.DRAGON_TIGER) {
+                    checkpointDao.markDragonTigerDone(date, rows, now);
+                } else {
+                    checkpointDao.markContinuousLimitDone(date, rows, now);
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "补齐失败 " + date + " " + part + " (第" + attempt + "次): " + e.getMessage());
+                checkpointDao.recordFailure(date, part + ": " + e.getMessage(), System.currentTimeMillis());
+                if (attempt < MAX_ATTEMPTS) {
+                    long backoff = BASE_BACKOFF_MS * (1L << (attempt - 1));
+                    Thread.sleep(backoff + random.nextInt((int) BASE_BACKOFF_MS));
+                }
+            }
+        }
+        return false;
+    }
+
+    private int fetchAndSave(String date, Part part) throws IOException {
+        long fetchTime = System.currentTimeMillis();
+        if (part == Part.DRAGON_TIGER) {
+            List<DragonTigerEntity> entities = new ArrayList<>();
+            for (HotStockData.DragonTigerItem item : hotStockApi.fetchHistoricalDragonTigerList(date)) {
+                entities.add(DragonTigerEntity.fromItem(item, date, fetchTime));
+            }
+            if (!entities.isEmpty()) {
+                appDatabase.dragonTigerDao().upsertChanged(date, entities);
+            }
+            return entities.size();
+        } else {
+            List<ContinuousLimitEntity> entities = new ArrayList<>();
+            for (HotStockData.ContinuousLimitItem item : hotStockApi.fetchHistoricalContinuousLimitList(date)) {
+                entities.add(ContinuousLimitEntity.fromItem(item, date, fetchTime));
+            }
+            if (!entities.isEmpty()) {
+                appDatabase.continuousLimitDao().upsertChanged(date, entities);
+            }
+            return entities.size();
+        }
+    }
+}
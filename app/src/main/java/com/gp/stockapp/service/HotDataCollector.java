@@ -0,0 +1,201 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.db.ContinuousLimitDao;
+import com.gp.stockapp.db.ContinuousLimitEntity;
+import com.gp.stockapp.db.DragonTigerDao;
+import com.gp.stockapp.db.DragonTigerEntity;
+import com.gp.stockapp.db.SectorDayStatsEntity;
+import com.gp.stockapp.db.UpsertResult;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.SectorAggregator;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * 热门股票数据采集（龙虎榜、涨停板、连板股、活跃股）
+ * 盘中由数据服务定时调用，盘后由后台任务调用；同一进程内共享最近采集时间，避免两边重复请求
+ */
+public class HotDataCollector {
+    private static final String TAG = "HotDataCollector";
+
+    private static volatile long lastCollectTime = 0;
+
+    private final StockRepository stockRepository;
+    private final HotStockApi hotStockApi;
+    private final DragonTigerDao dragonTigerDao;
+    private final ContinuousLimitDao continuousLimitDao;
+
+    public HotDataCollector(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.stockRepository = StockRepository.getInstance(appContext);
+        this.hotStockApi = HotStockApi.getInstance();
+        AppDatabase appDatabase = AppDatabase.getInstance(appContext);
+        this.dragonTigerDao = appDatabase.dragonTigerDao();
+        this.continuousLimitDao = appDatabase.continuousLimitDao();
+    }
+
+    /**
+     * 距上次采集超过 maxAgeMs 时才采集
+     * @return 是否执行了采集且至少保存了一份数据
+     */
+    public boolean collectIfStale(long maxAgeMs) {
+        if (System.currentTimeMillis() - lastCollectTime < maxAgeMs) {
+            return false;
+        }
+        return collect();
+    }
+
+    /**
+     * 抓取当天（或最近有数据的交易日）和前一交易日的热门数据，保存到缓存和历史库
+     * @return 是否至少保存了一份数据
+     */
+    public boolean collect() {
+        Log.d(TAG, "正在抓取热门股票数据（龙虎榜/涨停板/连板/活跃股）...");
+        long now = System.currentTimeMillis();
+        boolean saved = false;
+
+        // 当天数据（尾盘策略用）
+        // 龙虎榜每天16点更新，16点前需要用前一天的日期
+        Calendar cal = Calendar.getInstance();
+        int hour = cal.get(Calendar.HOUR_OF_DAY);
+        String todayStr = TradingDayHelper.formatDate(cal.getTime());
+        String dateStr;
+
+        if (hour < 16) {
+            // 16点前，龙虎榜数据还未更新，使用前一个交易日
+            dateStr = TradingDayHelper.getPreviousTradingDayStr(cal.getTime());
+            Log.d(TAG, "当前时间: " + hour + "点, 今日: " + todayStr + ", 龙虎榜日期: " + dateStr);
+        } else {
+            dateStr = todayStr;
+            Log.d(TAG, "当前时间: " + hour + "点, 使用当日龙虎榜日期: " + dateStr);
+        }
+
+        HotStockData hotData = hotStockApi.fetchAllHotData(dateStr);
+
+        // 如果当天数据为空，尝试往前找有数据的日子
+        if (hotData == null || (hotData.getDragonTigerList() != null && hotData.getDragonTigerList().isEmpty())) {
+            Log.w(TAG, "龙虎榜数据为空，尝试查找更早的交易日...");
+            for (int i = 0; i < 5; i++) {  // 最多往前找5天
+                String olderDate = TradingDayHelper.getPreviousTradingDayStr(dateStr);
+                if (olderDate != null && !olderDate.isEmpty()) {
+                    Log.d(TAG, "尝试日期: " + olderDate);
+                    HotStockData olderData = hotStockApi.fetchAllHotData(olderDate);
+                    if (olderData != null && olderData.getDragonTigerList() != null
+                            && !olderData.getDragonTigerList().isEmpty()) {
+                        hotData = olderData;
+                        dateStr = olderDate;
+                        Log.d(TAG, "找到有效龙虎榜数据: " + olderDate);
+                        break;
+                    }
+                    dateStr = olderDate;
+                }
+            }
+        }
+
+        if (hotData != null) {
+            stockRepository.saveHotStockData(hotData);
+            // 保存龙虎榜和连板股数据到数据库
+            saveDragonTigerToDatabase(hotData, dateStr);
+            saveContinuousLimitToDatabase(hotData, dateStr);
+            // 盘后拿到当天完整数据时记录板块强度，供次日对比
+            if (dateStr.equals(todayStr)) {
+                saveSectorStats(hotData, dateStr);
+            }
+            saved = true;
+            Log.d(TAG, "成功更新当天热门股票数据, 龙虎榜: " +
+                    (hotData.getDragonTigerList() != null ? hotData.getDragonTigerList().size() : 0) + " 条");
+        }
+
+        // 前一个交易日数据（竞价策略用）
+        String prevDateStr = TradingDayHelper.getPreviousTradingDayStr(dateStr);
+        if (prevDateStr != null && !prevDateStr.isEmpty()) {
+            HotStockData prevHotData = hotStockApi.fetchAllHotData(prevDateStr);
+            if (prevHotData != null) {
+                stockRepository.savePrevDayHotStockData(prevHotData);
+                // 同时保存前一日的龙虎榜和连板股到数据库
+                saveDragonTigerToDatabase(prevHotData, prevDateStr);
+                saveContinuousLimitToDatabase(prevHotData, prevDateStr);
+                saved = true;
+                Log.d(TAG, "成功更新前一交易日热门股票数据: " + prevDateStr);
+            }
+        }
+
+        lastCollectTime = now;
+        return saved;
+    }
+
+    /**
+     * 按板块聚合当天热门数据并保存到历史库
+     */
+    private void saveSectorStats(HotStockData hotData, String tradeDate) {
+        List<SectorAggregator.SectorStat> stats = SectorAggregator.aggregate(hotData);
+        if (stats.isEmpty()) {
+            Log.d(TAG, "热门数据缺少板块信息，跳过板块统计");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<SectorDayStatsEntity> rows = new ArrayList<>();
+        for (SectorAggregator.SectorStat stat : stats) {
+            rows.add(stat.toEntity(tradeDate, now));
+        }
+        stockRepository.saveSectorDayStats(tradeDate, rows);
+        Log.d(TAG, "保存板块强度统计: " + tradeDate + ", " + rows.size() + " 个板块");
+    }
+
+    /**
+     * 保存龙虎榜数据到数据库
+     */
+    private void saveDragonTigerToDatabase(HotStockData hotData, String tradeDate) {
+        if (hotData == null || hotData.getDragonTigerList() == null || hotData.getDragonTigerList().isEmpty()) {
+            Log.d(TAG, "龙虎榜数据为空，跳过保存");
+            return;
+        }
+
+        try {
+            List<DragonTigerEntity> entities = new ArrayList<>();
+            long fetchTime = System.currentTimeMillis();
+
+            for (HotStockData.DragonTigerItem item : hotData.getDragonTigerList()) {
+                entities.add(DragonTigerEntity.fromItem(item, tradeDate, fetchTime));
+            }
+
+            UpsertResult result = dragonTigerDao.upsertChanged(tradeDate, entities);
+            Log.d(TAG, "保存龙虎榜历史数据: " + tradeDate + " " + result);
+        } catch (Exception e) {
+            Log.e(TAG, "保存龙虎榜历史数据失败", e);
+        }
+    }
+
+    /**
+     * 保存连板股数据到数据库
+     */
+    private void saveContinuousLimitToDatabase(HotStockData hotData, String tradeDate) {
+        if (hotData == null || hotData.getContinuousLimitList() == null || hotData.getContinuousLimitList().isEmpty()) {
+            Log.d(TAG, "连板股数据为空，跳过保存");
+            return;
+        }
+
+        try {
+            List<ContinuousLimitEntity> entities = new ArrayList<>();
+            long fetchTime = System.currentTimeMillis();
+
+            for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                entities.add(ContinuousLimitEntity.fromItem(item, tradeDate, fetchTime));
+            }
+
+            UpsertResult result = continuousLimitDao.upsertChanged(tradeDate, entities);
+            Log.d(TAG, "保存连板股历史数据: " + tradeDate + " " + result);
+        } catch (Exception e) {
+            Log.e(TAG, "保存连板股历史数据失败", e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.db.KlineColumnFile;
+import com.gp.stockapp.db.KlineStore;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.KlineBar;
+import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.TradingCalendar;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 个股日K线缓存
+ *
+ * 每只股票首次使用时抓取最近 FULL_HISTORY_BARS 根日线写入本地列式文件，之后只补抓缺失的尾部K线；
+ * 补抓时多取几根与本地重叠的K线做校验，前复权价格对不上（除权除息）时整段重抓。
+ * 只保存已收盘的K线，盘中当天的实时K线由调用方另行获取
+ */
+public class KlineCacheService {
+    private static final String TAG = "KlineCacheService";
+    private static volatile KlineCacheService instance;
+
+    private static final int FULL_HISTORY_BARS = 1000;    // 约4年日线
+    private static final int TAIL_OVERLAP = 3;            // 补抓时与本地重叠校验的K线数
+    private static final double ADJUST_TOLERANCE = 0.005; // 重叠K线收盘价允许的误差（元）
+    private static final int TRACKED_CODE_DAYS = 20;      // 跟踪最近多少个交易日出现过的股票
+
+    private final KlineStore store;
+    private final HotStockApi hotStockApi;
+    private final AppDatabase appDatabase;
+    private final StockRepository stockRepository;
+    // 已确认没有更新K线（如停牌）的股票 -> 检查时的目标交易日，同一交易日不再重复请求
+    private final Map<String, Integer> checkedThrough = new ConcurrentHashMap<>();
+    private final Map<String, Object> syncLocks = new ConcurrentHashMap<>();
+
+    private KlineCacheService(Context context) {
+        store = new KlineStore(context.getFilesDir());
+        hotStockApi = HotStockApi.getInstance();
+        appDatabase = AppDatabase.getInstance(context);
+        stockRepository = StockRepository.getInstance(context);
+    }
+
+    public static KlineCacheService getInstance(Context context) {
+        if (instance == null) {
+            synchronized (KlineCacheService.class) {
+                if (instance == null) {
+                    instance = new KlineCacheService(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 取某只股票截至最近已收盘交易日的日K线（必要时先同步，阻塞），没有数据时返回null
+     */
+    public KlineColumnFile.Columns getDailyBars(String code) {
+        sync(code);
+        return store.get(code);
+    }
+
+    /**
+     * 把某只股票的本地K线同步到最近已收盘的交易日
+     * @return 本地是否有可用数据
+     */
+    public boolean sync(String code) {
+        // 同一只股票的同步串行执行，避免并发补抓时重复追加
+        synchronized (syncLocks.computeIfAbsent(code, c -> new Object())) {
+            return syncLocked(code);
+        }
+    }
+
+    private boolean syncLocked(String code) {
+        int target = Integer.parseInt(TradingDayHelper.getLatestClosedTradingDayStr());
+        KlineColumnFile.Columns local = store.get(code);
+        if (local != null && local.getLastDate() >= target) {
+            return true;
+        }
+        Integer checked = checkedThrough.get(code);
+        if (checked != null && checked == target) {
+            return local != null;
+        }
+        try {
+            if (local == null || local.isEmpty()) {
+                fetchFull(code, target);
+            } else {
+                fetchTail(code, local, target);
+            }
+            checkedThrough.put(code, target);
+        } catch (IOException e) {
+            Log.w(TAG, "同步日K线失败: " + code + ", " + e.getMessage());
+        }
+        return store.get(code) != null;
+    }
+
+    /**
+     * 需要维护日K线的股票：近期龙虎榜/连板股、活跃股、最近的策略推荐个股，以及台账中待评估的推荐
+     */
+    public Set<String> collectTrackedCodes() {
+        Set<String> codes = new TreeSet<>();
+        List<String> recentDays = TradingDayHelper.getRecentTradingDayStrings(TRACKED_CODE_DAYS);
+        if (!recentDays.isEmpty()) {
+            String startDate = recentDays.get(recentDays.size() - 1);
+            addCodes(codes, appDatabase.dragonTigerDao().getCodesSince(startDate));
+            addCodes(codes, appDatabase.continuousLimitDao().getCodesSince(startDate));
+        }
+        // 推荐台账中待评估的个股
+        addCodes(codes, appDatabase.recommendationLedgerDao().getPendingCodes());
+        for (HotStockData hotData : new HotStockData[]{
+                stockRepository.getHotStockData(), stockRepository.getPrevDayHotStockData()}) {
+            if (hotData == null || hotData.getTopGainers() == null) continue;
+            for (HotStockData.TopGainerItem item : hotData.getTopGainers()) {
+                addCode(codes, item.getCode());
+            }
+        }
+        for (StrategyRecommendation rec : new StrategyRecommendation[]{
+                stockRepository.getSectorRecommendation(), stockRepository.getAuctionRecommendation(),
+                stockRepository.getClosingRecommendation()}) {
+            if (rec == null || rec.getItems() == null) continue;
+            for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+                addCode(codes, item.getCode());
+            }
+        }
+        return codes;
+    }
+
+    public long getCacheBytes() {
+        return store.getTotalBytes();
+    }
+
+    private void fetchFull(String code, int target) throws IOException {
+        List<KlineBar> bars = closedBars(hotStockApi.fetchDailyKlines(code, FULL_HISTORY_BARS), 0, target);
+        if (bars.isEmpty()) {
+            Log.w(TAG, "没有日K线数据: " + code);
+            return;
+        }
+        store.replace(code, bars);
+        Log.d(TAG, "抓取完整日K线: " + code + " " + bars.size() + " 根");
+    }
+
+    private void fetchTail(String code, KlineColumnFile.Columns local, int target) throws IOException {
+        int lastDate = local.getLastDate();
+        TradingCalendar calendar = TradingDayHelper.getCalendar();
+        int missing = calendar.range(calendar.next(lastDate), target).length;
+        List<KlineBar> fetched = hotStockApi.fetchDailyKlines(code, Math.max(1, missing) + TAIL_OVERLAP);
+        if (!overlapMatches(local, fetched)) {
+            Log.d(TAG, "复权价格变化，重新抓取完整日K线: " + code);
+            fetchFull(code, target);
+            return;
+        }
+        List<KlineBar> tail = closedBars(fetched, lastDate, target);
+        store.append(code, tail);
+        if (!tail.isEmpty()) {
+            Log.d(TAG, "补充日K线: " + code + " +" + tail.size() + " 根");
+        }
+    }
+
+    /**
+     * 抓到的K线中与本地重叠的部分收盘价是否一致
+     */
+    private static boolean overlapMatches(KlineColumnFile.Columns local, List<KlineBar> fetched) {
+        for (KlineBar bar : fetched) {
+            int index = local.indexOfDate(bar.getTradeDate());
+            if (index >= 0 && Math.abs(local.getClose(index) - bar.getClose()) > ADJUST_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * (afterDate, throughDate] 内的K线
+     */
+    private static List<KlineBar> closedBars(List<KlineBar> bars, int afterDate, int throughDate) {
+        List<KlineBar> result = new ArrayList<>();
+        for (KlineBar bar : bars) {
+            if (bar.getTradeDate() > afterDate && bar.getTradeDate() <= throughDate) {
+                result.add(bar);
+            }
+        }
+        return result;
+    }
+
+    private static void addCodes(Set<String> codes, List<String> source) {
+        for (String code : source) {
+            addCode(codes, code);
+        }
+    }
+
+    /**
+     * 只收6位数字的个股代码（板块推荐的条目代码可能是板块名）
+     */
+    private static void addCode(Set<String> codes, String code) {
+        if (code == null) return;
+        String clean = code.replaceAll("(?i)^(sh|sz)", "").trim();
+        if (clean.matches("\\d{6}")) {
+            codes.add(clean);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import com.gp.stockapp.MainActivity;
+import com.gp.stockapp.api.ChatPrompt;
+import com.gp.stockapp.api.GLM4Client;
+import com.gp.stockapp.model.MarketAnalysis;
+import com.gp.stockapp.model.MarketBreadth;
+import com.gp.stockapp.model.MarketIndex;
+import com.gp.stockapp.model.SentimentCycle;
+import com.gp.stockapp.model.StockNews;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.PromptLoader;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.util.List;
+
+/**
+ * AI大盘研判
+ * 用最新的指数、市场宽度、情绪周期和重大新闻调用模型研判大盘，保存结果并通知界面；
+ * 盘中由AI分析服务按需调用，盘后由 AfterHoursWorker 对每个收盘日补做一次
+ */
+public class MarketAnalyzer {
+    private static final String TAG = "MarketAnalyzer";
+
+    private final Context context;
+    private final StockRepository stockRepository;
+    private final PromptLoader promptLoader;
+
+    public MarketAnalyzer(Context context) {
+        this.context = context.getApplicationContext();
+        this.stockRepository = StockRepository.getInstance(this.context);
+        this.promptLoader = new PromptLoader(this.context);
+    }
+
+    /**
+     * 调用模型研判大盘并保存
+     * @return 研判结果，没有行情数据或模型返回为空时返回null
+     */
+    public MarketAnalysis analyze() {
+        Log.d(TAG, "Analyzing market...");
+        // 获取最新指数数据
+        List<MarketIndex> indices = stockRepository.getMarketIndices();
+        List<StockNews> newsList = stockRepository.getLatestNews(10);
+
+        if (indices == null || indices.isEmpty()) {
+            Log.d(TAG, "No market data to analyze");
+            return null;
+        }
+
+        // 加载提示词模板
+        String promptTemplate = promptLoader.loadMarketAnalysisPrompt();
+        if (promptTemplate == null || promptTemplate.isEmpty()) {
+            promptTemplate = getDefaultPrompt();
+        }
+
+        // 构建分析输入：提示词模板作为固定system，指数和新闻作为数据段
+        ChatPrompt analysisInput = new ChatPrompt(promptTemplate)
+                .addUserPart(buildAnalysisInput(indices, newsList));
+
+        // 调用GLM-4进行分析
+        String response = GLM4Client.getInstance().analyze(analysisInput);
+        if (response == null || response.isEmpty()) {
+            return null;
+        }
+
+        // 解析分析结果
+        MarketAnalysis analysis = parseAnalysis(response);
+        if (analysis == null) {
+            return null;
+        }
+        analysis.setTimestamp(System.currentTimeMillis());
+        stockRepository.saveMarketAnalysis(analysis);
+
+        // 通知UI更新
+        LocalBroadcastManager.getInstance(context).sendBroadcast(new Intent(MainActivity.ACTION_ANALYSIS_UPDATED));
+        Log.d(TAG, "Market analysis completed: " + analysis.getSentimentText());
+        return analysis;
+    }
+
+    /**
+     * 最近一个已收盘交易日收盘之后是否已经研判过（盘后任务据此每个收盘日只补一次）
+     */
+    public boolean hasAnalyzedSinceLastClose() {
+        MarketAnalysis last = stockRepository.getLatestMarketAnalysis();
+        long lastClose = TradingDayHelper.getSessionEndMillis(TradingDayHelper.getLatestClosedTradingDayStr());
+        return last != null && last.getTimestamp() >= lastClose;
+    }
+
+    /**
+     * 构建分析输入文本
+     */
+    private String buildAnalysisInput(List<MarketIndex> indices,
+                                       List<StockNews> newsList) {
+        StringBuilder input = new StringBuilder();
+
+        // 添加指数数据
+        input.append("## 大盘指数数据\n\n");
+        for (MarketIndex index : indices) {
+            input.append("### ").append(index.getIndexName()).append("\n");
+            input.append("当前点位：").append(String.format("%.2f", index.getCurrentPoint())).append("\n");
+            input.append("涨跌幅：").append(index.getFormattedChangePercent()).append("\n");
+            input.append("涨跌点数：").append(index.getFormattedChangePoint()).append("\n");
+            input.append("成交额：").append(index.getFormattedAmount());
+            
+            // 添加放量/缩量信息
+            String volumeChange = index.getVolumeChangeText();
+            if (!volumeChange.isEmpty()) {
+                input.append(" (").append(volumeChange);
+                double changePercent = index.getAmountChangePercent();
+                if (changePercent != 0) {
+                    input.append(String.format(" %.1f%%", Math.abs(changePercent)));
+                }
+                input.append(")");
+            }
+            input.append("\n");
+            
+            input.append("开盘：").append(String.format("%.2f", index.getOpen())).append("\n");
+            input.append("最高：").append(String.format("%.2f", index.getHigh())).append("\n");
+            input.append("最低：").append(String.format("%.2f", index.getLow())).append("\n");
+            input.append("昨收：").append(String.format("%.2f", index.getPreClose())).append("\n");
+            input.append("\n");
+        }
+
+        // 添加全市场涨跌宽度
+        MarketBreadth breadth = stockRepository.getMarketBreadth();
+        if (breadth != null) {
+            input.append("## 市场宽度\n\n");
+            input.append(breadth.toPromptText());
+            input.append(MarketBreadth.describeTrend(stockRepository.getMarketBreadthSeries()));
+            input.append("\n");
+        }
+
+        // 添加本地判定的情绪周期
+        SentimentCycle cycle = stockRepository.getSentimentCycle();
+        if (cycle != null) {
+            input.append(cycle.toPromptText());
+        }
+
+        // 添加新闻
+        if (newsList != null && !newsList.isEmpty()) {
+            input.append("## 市场新闻\n\n");
+            for (StockNews news : newsList) {
+                if (news.getTitle() != null) {
+                    input.append("- ").append(news.getTitle());
+                    if (news.getSummary() != null) {
+                        input.append("：").append(news.getSummary());
+                    }
+                    input.append("\n");
+                }
+            }
+        }
+
+        input.append("\n请根据以上数据进行大盘分析，输出JSON格式结果。");
+
+        return input.toString();
+    }
+
+    /**
+     * 解析AI分析结果
+     */
+    private MarketAnalysis parseAnalysis(String response) {
+        try {
+            com.google.gson.Gson gson = new com.google.gson.Gson();
+            return gson.fromJson(response, MarketAnalysis.class);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing analysis result", e);
+
+            // 如果JSON解析失败，创建一个文本结果
+            MarketAnalysis analysis = new MarketAnalysis();
+            analysis.setAnalysisText(response);
+            analysis.setMarketSentiment("neutral");
+            analysis.setTrendDirection("sideways");
+            analysis.setRiskLevel("medium");
+            analysis.setConfidence(50);
+            analysis.setSuggestion("AI分析解析异常，请参考原始分析文本。");
+            return analysis;
+        }
+    }
+
+    /**
+     * 默认prompt（当文件加载失败时使用）
+     */
+    private String getDefaultPrompt() {
+        return "你是一位专业的A股大盘分析师。\n" +
+                "请根据以下大盘指数数据和市场新闻进行综合分析。\n" +
+                "请输出JSON格式，包含以下字段：\n" +
+                "market_sentiment(bullish/bearish/neutral), " +
+                "trend_direction(up/down/sideways), " +
+                "risk_level(low/medium/high), " +
+                "confidence(0-100), " +
+                "short_term_view, medium_term_view, " +
+                "suggestion, key_factors[], analysis_text, " +
+                "support_level, resistance_level";
+    }
+}
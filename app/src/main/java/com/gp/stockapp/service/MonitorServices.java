@@ -0,0 +1,60 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+/**
+ * 盘中监控服务（大盘数据抓取 + AI分析）的启停
+ * 用户开启监控后记入配置：两个前台服务只在盘前准备和盘中运行，收盘后自行停止，
+ * 之后每个交易日盘前由 SessionStartWorker 按配置重新拉起，直到用户关闭监控
+ */
+public final class MonitorServices {
+    private static final String PREFS_NAME = "app_prefs";
+    private static final String KEY_ENABLED = "monitoring_enabled";
+
+    private MonitorServices() {
+    }
+
+    /**
+     * 用户是否开启了监控
+     */
+    public static boolean isEnabled(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getBoolean(KEY_ENABLED, false);
+    }
+
+    /**
+     * 开启监控并立即启动服务（服务已在运行时只刷新前台通知）
+     * Android 12 起后台无法启动前台服务，从后台任务调用时可能抛出 IllegalStateException
+     */
+    public static void start(Context context) {
+        setEnabled(context, true);
+        startService(context, StockDataService.class);
+        startService(context, AIRecommendationService.class);
+    }
+
+    /**
+     * 关闭监控并停止服务
+     */
+    public static void stop(Context context) {
+        setEnabled(context, false);
+        context.stopService(new Intent(context, StockDataService.class));
+        context.stopService(new Intent(context, AIRecommendationService.class));
+    }
+
+    private static void startService(Context context, Class<?> serviceClass) {
+        Intent intent = new Intent(context, serviceClass);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            context.startForegroundService(intent);
+        } else {
+            context.startService(intent);
+        }
+    }
+
+    private static void setEnabled(Context context, boolean enabled) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .edit()
+                .putBoolean(KEY_ENABLED, enabled)
+                .apply();
+    }
+}
@@ -0,0 +1,228 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.ChatPrompt;
+import com.gp.stockapp.api.GLM4Client;
+import com.gp.stockapp.api.MarketApi;
+import com.gp.stockapp.model.StockNews;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.NewsPreRanker;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 市场新闻采集
+ * 增量抓取新闻，本地预排序后把候选新闻交给AI评估重要性并推荐相关个股，全部新增新闻归档、重大新闻合并保存；
+ * 盘中由数据服务每次刷新调用，盘后和夜间由 AfterHoursWorker 定时调用，同一进程内共享最近采集时间
+ */
+public class NewsCollector {
+    private static final String TAG = "NewsCollector";
+    private static final int FETCH_LIMIT = 10;      // 每个新闻源抓取条数
+    private static final int MAX_MAJOR_NEWS = 10;   // 保留的重大新闻条数
+
+    private static volatile long lastCollectTime = 0;
+
+    // 新闻股票推荐的固定说明（作为system前缀，每次调用保持不变以命中前缀缓存）
+    private static final String NEWS_RECOMMENDATION_SYSTEM_PROMPT =
+            "你是一位专业的A股投资分析师。用户会按编号提供最新的财经新闻列表。\n\n" +
+            "请分析用户提供的新闻，为每条新闻评估其对A股市场的影响程度（importance 1-5），" +
+            "并为重大新闻（importance >= 3）推荐最直接受益或受影响的A股股票（1-3只）。\n\n" +
+            "**重大新闻的判定标准（importance >= 3）**：\n" +
+            "- 5分：重大政策变化（降准降息、监管新规）、国际重大事件（贸易战、地缘冲突升级）\n" +
+            "- 4分：行业重大变动、大额资金流向变化、重要经济数据发布\n" +
+            "- 3分：板块级别利好利空、市场情绪重大转变、重要人物发言\n" +
+            "- 2分：普通行业资讯、常规数据更新\n" +
+            "- 1分：个股新闻、无关紧要的消息\n\n" +
+            "请严格按以下JSON格式返回：\n" +
+            "{\n" +
+            "  \"recommendations\": [\n" +
+            "    {\n" +
+            "      \"news_index\": 1,\n" +
+            "      \"stocks\": \"股票名称(代码)、股票名称(代码)\",\n" +
+            "      \"importance\": 4\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}\n\n" +
+            "说明：\n" +
+            "- news_index: 新闻编号（从1开始）\n" +
+            "- stocks: 推荐的A股股票（仅importance>=3时需要填写），格式如\"贵州茅台(600519)、宁德时代(300750)\"\n" +
+            "- importance: 每条新闻都必须评分（1-5），importance>=3的才算重大新闻\n" +
+            "- 所有新闻都必须返回（包括不重要的），以便客户端过滤\n" +
+            "- stocks字段：importance<3的新闻可以不填stocks\n" +
+            "- 推荐的股票必须是A股上市公司，确保代码准确\n" +
+            "- 只返回JSON，不要其他文字";
+
+    private final StockRepository stockRepository;
+    private final MarketApi marketApi;
+    private final NewsPreRanker newsPreRanker;
+
+    public NewsCollector(Context context) {
+        this.stockRepository = StockRepository.getInstance(context.getApplicationContext());
+        this.marketApi = MarketApi.getInstance();
+        this.newsPreRanker = new NewsPreRanker(stockRepository.getNewsRankerState());
+    }
+
+    /**
+     * 距上次采集超过 maxAgeMs 时才采集
+     * @return 是否保存了新的重大新闻
+     */
+    public boolean collectIfStale(long maxAgeMs) {
+        if (System.currentTimeMillis() - lastCollectTime < maxAgeMs) {
+            return false;
+        }
+        return collect();
+    }
+
+    /**
+     * 抓取新增新闻（已分析过的不再重复送AI），筛选并保存重大新闻
+     * @return 是否保存了新的重大新闻
+     */
+    public boolean collect() {
+        lastCollectTime = System.currentTimeMillis();
+        Log.d(TAG, "正在抓取市场要闻...");
+        List<StockNews> newsList = marketApi.fetchNewMarketNews(FETCH_LIMIT);
+        if (newsList == null || newsList.isEmpty()) {
+            Log.d(TAG, "本次无新增市场要闻（或所有源都失败了）");
+            return false;
+        }
+
+        // 本地预排序，明显不重要的新闻不再送AI
+        NewsPreRanker.Selection selection = newsPreRanker.select(newsList);
+        List<StockNews> candidates = selection.getSelected();
+
+        // 用AI为重大新闻推荐相关A股股票并标记重要性
+        if (!candidates.isEmpty()) {
+            enrichNewsWithStockRecommendations(candidates);
+            // AI评估结果作为预排序模型的训练样本
+            List<NewsPreRanker.Sample> labelled = newsPreRanker.recordLabels(selection);
+            if (!labelled.isEmpty()) {
+                stockRepository.saveNewsRankerState(newsPreRanker.snapshotState(), labelled);
+            }
+        }
+
+        // 全部新增新闻归档（含本地跳过的），供历史翻页和全文检索
+        stockRepository.archiveNews(newsList);
+
+        // 只保留AI判定为重大新闻的（importance >= 3）
+        List<StockNews> majorNews = new ArrayList<>();
+        for (StockNews news : candidates) {
+            if (news.getImportance() >= 3) {
+                majorNews.add(news);
+            }
+        }
+        Log.d(TAG, "AI筛选重大新闻: " + majorNews.size() + "/" + candidates.size() + " 条"
+                + " (本地跳过 " + selection.getSkippedCount() + " 条)");
+        if (majorNews.isEmpty()) {
+            Log.d(TAG, "本次无重大新闻");
+            return false;
+        }
+
+        // 合并保存（新的在前，保留最多 MAX_MAJOR_NEWS 条）
+        stockRepository.mergeAndSaveNews(majorNews, MAX_MAJOR_NEWS);
+        Log.d(TAG, "成功更新市场要闻: 筛选并保存了 " + majorNews.size() + " 条重大新闻");
+        return true;
+    }
+
+    /**
+     * 用AI为重大新闻推荐相关A股股票
+     * 将所有新闻标题批量发送给GLM-4，由AI判断哪些是重大新闻并推荐相关股票
+     */
+    private void enrichNewsWithStockRecommendations(List<StockNews> newsList) {
+        GLM4Client glm4Client = GLM4Client.getInstance();
+        if (glm4Client == null) {
+            Log.w(TAG, "GLM4Client未初始化，跳过新闻股票推荐");
+            return;
+        }
+
+        try {
+            // 构建新闻列表prompt
+            StringBuilder newsText = new StringBuilder();
+            for (int i = 0; i < newsList.size(); i++) {
+                StockNews news = newsList.get(i);
+                newsText.append(i + 1).append(". ")
+                        .append(news.getTitle());
+                if (news.getSummary() != null && !news.getSummary().isEmpty()) {
+                    String summary = news.getSummary().length() > 80 
+                            ? news.getSummary().substring(0, 80) + "..." 
+                            : news.getSummary();
+                    newsText.append(" — ").append(summary);
+                }
+                newsText.append("\n");
+            }
+
+            ChatPrompt prompt = new ChatPrompt(NEWS_RECOMMENDATION_SYSTEM_PROMPT)
+                    .addUserPart("以下是最新的财经新闻列表：\n\n" + newsText);
+
+            Log.d(TAG, "正在用AI分析新闻并推荐相关股票...");
+            String response = glm4Client.analyze(prompt);
+
+            if (response != null && !response.isEmpty()) {
+                parseAndApplyRecommendations(response, newsList);
+            } else {
+                Log.w(TAG, "AI新闻分析返回为空");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "AI新闻股票推荐出错", e);
+        }
+    }
+
+    /**
+     * 解析AI返回的推荐结果并应用到对应新闻
+     */
+    private void parseAndApplyRecommendations(String response, List<StockNews> newsList) {
+        try {
+            // 提取JSON部分
+            String jsonStr = response;
+            int jsonStart = response.indexOf("{");
+            int jsonEnd = response.lastIndexOf("}");
+            if (jsonStart >= 0 && jsonEnd > jsonStart) {
+                jsonStr = response.substring(jsonStart, jsonEnd + 1);
+            }
+
+            JSONObject json = new JSONObject(jsonStr);
+            JSONArray recommendations = json.optJSONArray("recommendations");
+            if (recommendations == null) {
+                Log.w(TAG, "AI返回中没有recommendations字段");
+                return;
+            }
+
+            int appliedCount = 0;
+            for (int i = 0; i < recommendations.length(); i++) {
+                JSONObject rec = recommendations.getJSONObject(i);
+                int newsIndex = rec.optInt("news_index", -1) - 1; // 转为0-based
+                String stocks = rec.optString("stocks", "");
+                int importance = rec.optInt("importance", 1);
+
+                if (newsIndex >= 0 && newsIndex < newsList.size()) {
+                    StockNews news = newsList.get(newsIndex);
+                    // 设置重要性评分（所有新闻都设置）
+                    news.setImportance(importance);
+                    if (importance >= 4) {
+                        news.setImpactLevel("high");
+                    } else if (importance >= 3) {
+                        news.setImpactLevel("medium");
+                    } else {
+                        news.setImpactLevel("low");
+                    }
+                    // 仅为重大新闻设置推荐股票
+                    if (!stocks.isEmpty() && importance >= 3) {
+                        news.setRecommendedStocks(stocks);
+                        appliedCount++;
+                        Log.d(TAG, "新闻[" + (newsIndex + 1) + "] importance=" + importance + " 推荐股票: " + stocks);
+                    } else {
+                        Log.d(TAG, "新闻[" + (newsIndex + 1) + "] importance=" + importance + " (非重大)");
+                    }
+                }
+            }
+            Log.d(TAG, "成功为 " + appliedCount + " 条重大新闻添加了股票推荐");
+        } catch (Exception e) {
+            Log.e(TAG, "解析AI新闻推荐结果出错: " + response, e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.db.KlineColumnFile;
+import com.gp.stockapp.db.RecommendationLedgerDao;
+import com.gp.stockapp.db.RecommendationLedgerEntity;
+import com.gp.stockapp.db.RecommendationOutcomeSummary;
+import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.utils.TradingCalendar;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 推荐效果跟踪
+ * 竞价/尾盘推荐生成后逐只写入推荐台账；盘后K线同步完成后增量评估：
+ * 只处理次一交易日K线已定型的待评估记录，按股票分组读取本地日K线（{@link KlineCacheService}），
+ * 计算次日开盘/收盘收益和持有期最大不利波动
+ *
+ * 入场价统一取日K线（前复权，与评估用的K线口径一致）：竞价取信号日开盘价，尾盘取信号日收盘价
+ */
+public class RecommendationTracker {
+    private static final String TAG = "RecommendationTracker";
+    private static volatile RecommendationTracker instance;
+
+    private static final int EVALUATE_PAGE_SIZE = 200;
+    // 信号日之后这么多个交易日仍没有K线（长期停牌等）则放弃评估
+    private static final int MAX_WAIT_TRADING_DAYS = 10;
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(15, 0);
+
+    private final RecommendationLedgerDao ledgerDao;
+    private final KlineCacheService klineCacheService;
+
+    private RecommendationTracker(Context context) {
+        ledgerDao = AppDatabase.getInstance(context).recommendationLedgerDao();
+        klineCacheService = KlineCacheService.getInstance(context);
+    }
+
+    public static RecommendationTracker getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RecommendationTracker.class) {
+                if (instance == null) {
+                    instance = new RecommendationTracker(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 把一次推荐的个股条目写入台账（阻塞，没有个股代码的条目不记录）
+     * @param model 生成推荐的模型
+     * @param promptVersion Prompt版本
+     * @return 写入条数
+     */
+    public int record(StrategyRecommendation rec, String model, String promptVersion) {
+        if (rec == null || rec.getItems() == null || rec.getType() == null) return 0;
+        String signalDate = signalDateFor(rec.getType(), rec.getTimestamp());
+        List<RecommendationLedgerEntity> rows = new ArrayList<>();
+        int rank = 0;
+        for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+            rank++;
+            String code = item.getCode();
+            if (code == null || !code.matches("\\d{6}")) continue;
+            RecommendationLedgerEntity row = new RecommendationLedgerEntity();
+            row.setRecTime(rec.getTimestamp());
+            row.setStrategyType(rec.getType());
+            row.setModel(model);
+            row.setPromptVersion(promptVersion);
+            row.setCode(code);
+            row.setName(item.getName());
+            row.setRank(rank);
+            row.setScore(item.getScore());
+            row.setRefPrice(item.getLivePrice());
+            row.setSignalDate(signalDate);
+            row.setStatus(RecommendationLedgerEntity.STATUS_PENDING);
+            rows.add(row);
+        }
+        if (rows.isEmpty()) return 0;
+        ledgerDao.insertAll(rows);
+        Log.d(TAG, "推荐台账: " + rec.getType() + " 信号日 " + signalDate + " 记录 " + rows.size() + " 只");
+        return rows.size();
+    }
+
+    /**
+     * 增量评估所有次一交易日K线已定型的待评估推荐（阻塞）
+     * @return 本次完成评估（含放弃）的条数
+     */
+    public int evaluatePending() {
+        String closedDate = TradingDayHelper.getLatestClosedTradingDayStr();
+        TradingCalendar calendar = TradingDayHelper.getCalendar();
+        String giveUpBefore = String.valueOf(calendar.offset(Integer.parseInt(closedDate), -MAX_WAIT_TRADING_DAYS));
+        long now = System.currentTimeMillis();
+        int done = 0;
+        long afterId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<RecommendationLedgerEntity> page = ledgerDao.getPending(closedDate, afterId, EVALUATE_PAGE_SIZE);
+            if (page.isEmpty()) break;
+            afterId = page.get(page.size() - 1).getId();
+
+            // 按股票分组，每只股票只读一次K线
+            Map<String, List<RecommendationLedgerEntity>> byCode = new LinkedHashMap<>();
+            for (RecommendationLedgerEntity row : page) {
+                byCode.computeIfAbsent(row.getCode(), c -> new ArrayList<>()).add(row);
+            }
+            List<RecommendationLedgerEntity> updated = new ArrayList<>();
+            for (Map.Entry<String, List<RecommendationLedgerEntity>> entry : byCode.entrySet()) {
+                KlineColumnFile.Columns bars = klineCacheService.getDailyBars(entry.getKey());
+                for (RecommendationLedgerEntity row : entry.getValue()) {
+                    if (evaluate(row, bars, closedDate)) {
+                        row.setStatus(RecommendationLedgerEntity.STATUS_EVALUATED);
+                    } else if (row.getSignalDate().compareTo(giveUpBefore) < 0) {
+                        row.setStatus(RecommendationLedgerEntity.STATUS_NO_DATA);
+                    } else {
+                        continue;
+                    }
+                    row.setEvaluatedAt(now);
+                    updated.add(row);
+                }
+            }
+            if (!updated.isEmpty()) {
+                ledgerDao.updateAll(updated);
+                done += updated.size();
+            }
+        }
+        Log.d(TAG, "推荐评估完成: " + done + " 条, 剩余待评估 "
+                + ledgerDao.countByStatus(RecommendationLedgerEntity.STATUS_PENDING) + " 条");
+        return done;
+    }
+
+    /**
+     * 某信号日起按策略/模型/Prompt版本汇总的效果
+     * @param sinceDate yyyyMMdd
+     */
+    public List<RecommendationOutcomeSummary> getSummaries(String sinceDate) {
+        return ledgerDao.getSummaries(sinceDate);
+    }
+
+    /**
+     * 用日K线回填一条推荐的结果
+     * @return K线是否齐全（信号日和其后第一根已定型的K线）
+     */
+    static boolean evaluate(RecommendationLedgerEntity row, KlineColumnFile.Columns bars, String closedDate) {
+        if (bars == null || row.getSignalDate() == null) return false;
+        int signalIndex = bars.indexOfDate(Integer.parseInt(row.getSignalDate()));
+        int nextIndex = signalIndex + 1;
+        // 次日停牌时顺延到复牌后的第一根K线
+        if (signalIndex < 0 || nextIndex >= bars.size() || bars.getDate(nextIndex) > Integer.parseInt(closedDate)) {
+            return false;
+        }
+        boolean auction = StrategyGenerator.TYPE_AUCTION.equals(row.getStrategyType());
+        double entry = auction ? bars.getOpen(signalIndex) : bars.getClose(signalIndex);
+        if (entry <= 0) return false;
+
+        // 竞价开盘买入，信号日当天的低点也计入持有期
+        double minLow = bars.getLow(nextIndex);
+        if (auction) minLow = Math.min(minLow, bars.getLow(signalIndex));
+
+        row.setEvalDate(String.valueOf(bars.getDate(nextIndex)));
+        row.setEntryPrice(entry);
+        row.setNextOpenReturn(percent(bars.getOpen(nextIndex), entry));
+        row.setNextCloseReturn(percent(bars.getClose(nextIndex), entry));
+        row.setMaxAdverseReturn(Math.min(0, percent(minLow, entry)));
+        return true;
+    }
+
+    private static double percent(double price, double entry) {
+        return Math.round((price - entry) / entry * 10000.0) / 100.0;
+    }
+
+    /**
+     * 推荐对应的信号交易日：竞价推荐在交易日收盘前生成时为当天，否则为下一个交易日；
+     * 尾盘推荐为生成当天（非交易日生成时取最近的交易日）
+     */
+    static String signalDateFor(String strategyType, long timestamp) {
+        LocalDateTime time = Instant.ofEpochMilli(timestamp > 0 ? timestamp : System.currentTimeMillis())
+                .atZone(ZoneId.systemDefault()).toLocalDateTime();
+        LocalDate day = time.toLocalDate();
+        int date = TradingCalendar.toInt(day);
+        TradingCalendar calendar = TradingDayHelper.getCalendar();
+        if (StrategyGenerator.TYPE_AUCTION.equals(strategyType)) {
+            boolean beforeClose = calendar.isTradingDay(date) && time.toLocalTime().isBefore(MARKET_CLOSE);
+            return String.valueOf(beforeClose ? date : calendar.next(date));
+        }
+        return String.valueOf(calendar.onOrBefore(date));
+    }
+}
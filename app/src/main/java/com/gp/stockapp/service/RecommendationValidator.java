@@ -0,0 +1,182 @@
+package com.gp.stockapp.service;
+
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.model.StockQuote;
+import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.utils.CandidateScreener;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 个股推荐结果校验
+ * 模型返回推荐后，一次请求批量抓取所有推荐代码的实时行情，逐只核对：
+ * 代码存在、名称与代码一致、主板非ST、未停牌、距涨停≥1%，不满足的直接剔除；
+ * 流通市值超出30-120亿只标注提示不剔除。通过的条目写入实时价格和涨跌幅
+ *
+ * 行情请求失败或超时时不修改推荐（宁可不校验也不丢结果）
+ */
+public class RecommendationValidator {
+    private static final String TAG = "RecommendationValidator";
+
+    private static final double MIN_MARKET_CAP = 30;       // 流通市值下限(亿)
+    private static final double MAX_MARKET_CAP = 120;      // 流通市值上限(亿)
+    private static final double MIN_LIMIT_DISTANCE = 1.0;  // 距涨停价下限(%)
+
+    private final HotStockApi hotStockApi;
+
+    public RecommendationValidator(HotStockApi hotStockApi) {
+        this.hotStockApi = hotStockApi;
+    }
+
+    /**
+     * 校验并就地修改推荐条目
+     * @return 剔除的条目数；行情不可用、未做校验时返回 -1
+     */
+    public int validate(StrategyRecommendation rec) {
+        if (rec == null || rec.getItems() == null || rec.getItems().isEmpty()) return 0;
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+            String code = cleanCode(item.getCode());
+            if (code != null) codes.add(code);
+        }
+        if (codes.isEmpty()) return 0;
+
+        long start = System.currentTimeMillis();
+        Map<String, StockQuote> quotes;
+        try {
+            quotes = hotStockApi.fetchQuotes(codes);
+        } catch (IOException e) {
+            Log.w(TAG, "抓取行情失败，跳过推荐校验: " + e.getMessage());
+            return -1;
+        }
+        // 交易日开盘前最新价为空，按昨收校验；收盘后和非交易日最新价就是收盘价
+        boolean preOpen = TradingDayHelper.isPreOpen();
+
+        List<StrategyRecommendation.RecommendItem> passed = new ArrayList<>();
+        for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+            String code = cleanCode(item.getCode());
+            if (code == null) {
+                // 没有代码的条目不参与校验
+                passed.add(item);
+                continue;
+            }
+            String violation = check(item, code, quotes.get(code), preOpen);
+            if (violation != null) {
+                Log.w(TAG, "剔除推荐: " + item.getName() + "(" + item.getCode() + ") - " + violation);
+            } else {
+                passed.add(item);
+            }
+        }
+
+        int removed = rec.getItems().size() - passed.size();
+        rec.setItems(passed);
+        if (removed > 0 && passed.isEmpty()) {
+            String summary = rec.getSummary() != null ? rec.getSummary() : "";
+            rec.setSummary(summary + "（推荐个股均未通过实时行情校验，今日暂无可操作标的）");
+        }
+        Log.d(TAG, "推荐校验: " + codes.size() + " 只, 剔除 " + removed + " 只, 耗时 "
+                + (System.currentTimeMillis() - start) + "ms");
+        return removed;
+    }
+
+    /**
+     * 校验单只推荐，通过时写入实时价格和提示
+     * @param preOpen 是否处于交易日开盘前（只有这时才允许用昨收代替空的最新价）
+     * @return 违规原因，通过时返回null
+     */
+    static String check(StrategyRecommendation.RecommendItem item, String code, StockQuote quote, boolean preOpen) {
+        if (quote == null) {
+            return "代码不存在";
+        }
+        String liveName = quote.getName() != null ? quote.getName() : "";
+        if (item.getName() == null || item.getName().trim().isEmpty()) {
+            item.setName(liveName);
+        } else if (!namesMatch(item.getName(), liveName)) {
+            return "名称与代码不符(实际为" + liveName + ")";
+        }
+        if (!CandidateScreener.isMainBoardCode(code)) {
+            return "非主板";
+        }
+        if (liveName.contains("ST")) {
+            return "ST股";
+        }
+
+        if (quote.isSuspended()) {
+            return "停牌";
+        }
+
+        double price = quote.getPrice();
+        double changePercent = quote.getChangePercent();
+        if (price <= 0) {
+            if (!preOpen || quote.getPrevClose() <= 0) {
+                return "无报价";
+            }
+            price = quote.getPrevClose();
+            changePercent = 0;
+        }
+        if (quote.getLimitUpPrice() > 0) {
+            double distance = (quote.getLimitUpPrice() - price) / price * 100.0;
+            if (distance < MIN_LIMIT_DISTANCE) {
+                return String.format(Locale.US, "已涨停或接近涨停(距涨停%.2f%%)", distance);
+            }
+        }
+
+        item.setCode(code);
+        item.setLivePrice(price);
+        item.setLiveChangePercent(changePercent);
+        double marketCap = quote.getMarketCap();
+        if (marketCap > 0 && (marketCap < MIN_MARKET_CAP || marketCap > MAX_MARKET_CAP)) {
+            item.setValidationNote(String.format(Locale.US, "流通市值%.0f亿，超出30-120亿范围", marketCap));
+        } else {
+            item.setValidationNote(null);
+        }
+        return null;
+    }
+
+    /**
+     * 6位数字代码（去掉sh/sz前缀），不是个股代码时返回null
+     */
+    private static String cleanCode(String code) {
+        if (code == null) return null;
+        String clean = code.replaceAll("(?i)^(sh|sz)", "").trim();
+        return clean.matches("\\d{6}") ? clean : null;
+    }
+
+    /**
+     * 名称比对：忽略空白、全角/半角、"*"和除权除息前缀(XD/XR/DR)，行情名称可能被截断，3个字以上允许互相包含
+     */
+    static boolean namesMatch(String modelName, String liveName) {
+        String a = normalizeName(modelName);
+        String b = normalizeName(liveName);
+        if (a.isEmpty() || b.isEmpty()) return false;
+        // 过短的名称不做包含匹配，避免误判
+        return a.equals(b) || (Math.min(a.length(), b.length()) >= 3 && (a.contains(b) || b.contains(a)));
+    }
+
+    private static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= '\uFF01' && c <= '\uFF5E') {
+                c = (char) (c - 0xFEE0);
+            }
+            if (Character.isWhitespace(c) || c == '\u3000' || c == '*') continue;
+            sb.append(Character.toUpperCase(c));
+        }
+        String normalized = sb.toString();
+        if (normalized.startsWith("XD") || normalized.startsWith("XR") || normalized.startsWith("DR")) {
+            normalized = normalized.substring(2);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,167 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.MarketBreadth;
+import com.gp.stockapp.model.SentimentCycle;
+import com.gp.stockapp.model.StockQuote;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.SentimentCycleClassifier;
+import com.gp.stockapp.utils.TradingCalendar;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 短线情绪周期跟踪
+ * 每次行情刷新拿到全市场宽度后，汇总涨跌停家数、连板高度（连板历史库）和昨日涨停股今日表现，
+ * 交给 {@link SentimentCycleClassifier} 判定阶段并缓存到 {@link StockRepository}，不调用模型
+ *
+ * 昨日涨停池每个交易日只抓一次；昨日涨停股的实时行情和当天涨停池（连板高度）每次刷新各抓取一次
+ */
+public class SentimentCycleTracker {
+    private static final String TAG = "SentimentCycleTracker";
+    private static volatile SentimentCycleTracker instance;
+
+    // 集合竞价撮合前接口返回的仍是上一交易日收盘数据
+    private static final LocalTime MARKET_OPEN = LocalTime.of(9, 25);
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(15, 0);
+    private static final double BROKEN_CHANGE_PERCENT = -5;
+
+    private final StockRepository stockRepository;
+    private final HotStockApi hotStockApi;
+
+    private String followDate;
+    private List<String> followCodes = new ArrayList<>();
+
+    private SentimentCycleTracker(Context context) {
+        stockRepository = StockRepository.getInstance(context);
+        hotStockApi = HotStockApi.getInstance();
+    }
+
+    public static SentimentCycleTracker getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SentimentCycleTracker.class) {
+                if (instance == null) {
+                    instance = new SentimentCycleTracker(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 用本次抓取的全市场宽度重新判定情绪周期（阻塞）
+     * 盘前不计算；盘后当天已按收盘数据判定过的不重复计算
+     * @return 本次新判定的结果，未重新计算时返回null
+     */
+    public synchronized SentimentCycle update(MarketBreadth breadth) {
+        if (breadth == null || !breadth.isValid()) {
+            return null;
+        }
+        String tradeDate = TradingDayHelper.getLatestTradingDayStr();
+        boolean tradingToday = TradingDayHelper.isTodayTradingDay();
+        if (tradingToday && LocalTime.now().isBefore(MARKET_OPEN)) {
+            return null;
+        }
+        SentimentCycle last = stockRepository.getSentimentCycle();
+        if (!TradingDayHelper.isTradingSession() && last != null && tradeDate.equals(last.getTradeDate())
+                && last.getTimestamp() >= closeMillis(tradeDate)) {
+            return null;
+        }
+
+        String prevDate = TradingDayHelper.getPreviousTradingDayStr(tradeDate);
+        SentimentCycle cycle = new SentimentCycle();
+        cycle.setTradeDate(tradeDate);
+        cycle.setAdvanceRatio(breadth.getAdvanceRatio());
+        cycle.setLimitUpCount(breadth.getLimitUpCount());
+        cycle.setLimitDownCount(breadth.getLimitDownCount());
+        cycle.setLadderHeight(currentLadderHeight(tradeDate, last));
+        cycle.setPrevLadderHeight(stockRepository.getMaxContinuousCount(prevDate));
+        fillFollowThrough(cycle, prevDate);
+
+        SentimentCycleClassifier.classify(cycle, stockRepository.getPrevDaySentimentStage(tradeDate));
+        cycle.setTimestamp(System.currentTimeMillis());
+        stockRepository.saveSentimentCycle(cycle);
+        Log.d(TAG, "情绪周期: " + cycle.getStage() + " 温度 " + cycle.getScore() + ", 依据: " + cycle.getReasons());
+        return cycle;
+    }
+
+    /**
+     * 当天最高连板数
+     * 连板历史库已有当天数据（盘后采集完成）时直接用；否则抓当天涨停池现算，与 prevLadderHeight 同一口径。
+     * 不能用热门数据缓存：16点前缓存的还是上一交易日的连板榜
+     * @param last 上次判定结果，涨停池请求失败时沿用同一交易日上次的高度（按0计会被误判为高度下降）
+     */
+    private int currentLadderHeight(String tradeDate, SentimentCycle last) {
+        int stored = stockRepository.getMaxContinuousCount(tradeDate);
+        if (stored > 0) {
+            return stored;
+        }
+        try {
+            int height = 0;
+            for (HotStockData.ContinuousLimitItem item : hotStockApi.fetchHistoricalContinuousLimitList(tradeDate)) {
+                height = Math.max(height, item.getContinuousCount());
+            }
+            return height;
+        } catch (IOException e) {
+            Log.w(TAG, "当天涨停池不可用，沿用上次的连板高度: " + e.getMessage());
+            return last != null && tradeDate.equals(last.getTradeDate()) ? last.getLadderHeight() : 0;
+        }
+    }
+
+    /**
+     * 昨日涨停股今日表现：平均涨跌幅、再涨停比例、跌超5%比例
+     * 涨停池或行情请求失败时不填写（followCount 为0）
+     */
+    private void fillFollowThrough(SentimentCycle cycle, String prevDate) {
+        if (prevDate == null || prevDate.isEmpty()) return;
+        try {
+            if (!prevDate.equals(followDate)) {
+                followCodes = hotStockApi.fetchLimitUpPoolCodes(prevDate);
+                followDate = prevDate;
+                Log.d(TAG, "昨日涨停池 " + prevDate + ": " + followCodes.size() + " 只");
+            }
+            if (followCodes.isEmpty()) return;
+
+            Map<String, StockQuote> quotes = hotStockApi.fetchQuotes(followCodes);
+            int count = 0;
+            int limitUp = 0;
+            int broken = 0;
+            double totalChange = 0;
+            for (StockQuote quote : quotes.values()) {
+                // 停牌或盘前没有最新价
+                if (quote.getPrice() <= 0) continue;
+                count++;
+                totalChange += quote.getChangePercent();
+                if (quote.getLimitUpPrice() > 0 && quote.getPrice() >= quote.getLimitUpPrice() - 0.001) {
+                    limitUp++;
+                }
+                if (quote.getChangePercent() <= BROKEN_CHANGE_PERCENT) {
+                    broken++;
+                }
+            }
+            if (count == 0) return;
+            cycle.setFollowCount(count);
+            cycle.setFollowAvgChange(Math.round(totalChange / count * 100.0) / 100.0);
+            cycle.setFollowLimitUpRate(limitUp * 100.0 / count);
+            cycle.setFollowBrokenRate(broken * 100.0 / count);
+        } catch (IOException e) {
+            // 涨停池抓取失败时 followDate 不变，下次刷新重新抓取
+            Log.w(TAG, "昨日涨停股表现不可用: " + e.getMessage());
+        }
+    }
+
+    private static long closeMillis(String tradeDate) {
+        return TradingCalendar.toLocalDate(Integer.parseInt(tradeDate)).atTime(MARKET_CLOSE)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
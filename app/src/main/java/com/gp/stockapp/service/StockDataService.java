@@ -15,35 +15,23 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.gp.stockapp.MainActivity;
 import com.gp.stockapp.R;
-import com.gp.stockapp.api.GLM4Client;
-import com.gp.stockapp.api.HotStockApi;
 import com.gp.stockapp.api.MarketApi;
-import com.gp.stockapp.db.AppDatabase;
-import com.gp.stockapp.db.ContinuousLimitDao;
-import com.gp.stockapp.db.ContinuousLimitEntity;
-import com.gp.stockapp.db.DragonTigerDao;
-import com.gp.stockapp.db.DragonTigerEntity;
-import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.MarketBreadth;
 import com.gp.stockapp.model.MarketIndex;
-import com.gp.stockapp.model.StockNews;
 import com.gp.stockapp.repository.StockRepository;
 import com.gp.stockapp.utils.TradingDayHelper;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 大盘数据抓取服务
- * 循环抓取三大指数实时数据和市场新闻
+ * 交易日盘前准备和盘中（8:30 ~ 15:00）循环抓取三大指数实时数据、全市场涨跌宽度和市场新闻，盘中顺带刷新热门股票数据，
+ * 每次拿到宽度后用本地规则更新短线情绪周期
+ * 收盘后抓完最后一次即自行停止，次日盘前由 SessionStartWorker 重新拉起；盘后新闻交给 AfterHoursWorker，
+ * 盘后采集、历史补齐和归档清理同样交给 WorkManager（见 work 包），不再占用前台服务
  * 
  * 优化：使用 ScheduledExecutorService 替代 Timer，提高稳定性和性能
  */
@@ -52,25 +40,16 @@ public class StockDataService extends Service {
     private static final String CHANNEL_ID = "MarketDataChannel";
     private static final int NOTIFICATION_ID = 1;
     private static final long FETCH_INTERVAL = 60000; // 1分钟刷新一次
-    private static final int HISTORY_RETENTION_DAYS = 7;
-
-    public static final String ACTION_SYNC_HISTORY = "com.gp.stockapp.SYNC_HISTORY";
-    public static final String ACTION_HISTORY_SYNC_STATUS = "com.gp.stockapp.HISTORY_SYNC_STATUS";
-    public static final String EXTRA_HISTORY_SYNC_RUNNING = "history_sync_running";
-    public static final String EXTRA_HISTORY_SYNC_SUCCESS = "history_sync_success";
-    public static final String EXTRA_HISTORY_SYNC_MESSAGE = "history_sync_message";
 
     private StockRepository stockRepository;
     private MarketApi marketApi;
-    private HotStockApi hotStockApi;
-    private AppDatabase appDatabase;
-    private DragonTigerDao dragonTigerDao;
-    private ContinuousLimitDao continuousLimitDao;
     private ScheduledExecutorService scheduler;
-    private long lastHotDataFetchTime = 0;
-    private static final long HOT_DATA_FETCH_INTERVAL = 300000; // 热门数据5分钟抓取一次
+    private NewsCollector newsCollector;
+    private HotDataCollector hotDataCollector;
+    private SentimentCycleTracker sentimentCycleTracker;
+    private static final long HOT_DATA_FETCH_INTERVAL = 300000; // 盘中热门数据5分钟抓取一次
+
     private volatile boolean isRunning = false;
-    private volatile boolean isHistorySyncRunning = false;
 
     @Override
     public void onCreate() {
@@ -79,10 +58,9 @@ public class StockDataService extends Service {
 
         stockRepository = StockRepository.getInstance(getApplicationContext());
         marketApi = MarketApi.getInstance();
-        hotStockApi = HotStockApi.getInstance();
-        appDatabase = AppDatabase.getInstance(getApplicationContext());
-        dragonTigerDao = appDatabase.dragonTigerDao();
-        continuousLimitDao = appDatabase.continuousLimitDao();
+        newsCollector = new NewsCollector(getApplicationContext());
+        hotDataCollector = new HotDataCollector(getApplicationContext());
+        sentimentCycleTracker = SentimentCycleTracker.getInstance(getApplicationContext());
         // 使用单线程调度器，更稳定可靠
         scheduler = Executors.newSingleThreadScheduledExecutor();
 
@@ -99,11 +77,6 @@ public class StockDataService extends Service {
             startForeground(NOTIFICATION_ID, createNotification("正在获取大盘数据..."));
         }
 
-        if (intent != null && ACTION_SYNC_HISTORY.equals(intent.getAction())) {
-            startHistorySync(startId);
-            return START_NOT_STICKY;
-        }
-
         startDataFetching();
         return START_STICKY;
     }
@@ -133,6 +106,7 @@ public class StockDataService extends Service {
                 Thread.currentThread().interrupt();
             }
         }
+        stockRepository.closeIntradayFiles();
         
         // 停止前台服务
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
@@ -188,6 +162,7 @@ public class StockDataService extends Service {
             } catch (Exception e) {
                 Log.e(TAG, "Error in initial fetch task", e);
             }
+            stopIfOffSession();
         });
 
         // 使用 ScheduledExecutorService 定时执行
@@ -197,6 +172,7 @@ public class StockDataService extends Service {
             } catch (Exception e) {
                 Log.e(TAG, "Error in scheduled fetch task", e);
             }
+            stopIfOffSession();
         }, FETCH_INTERVAL, FETCH_INTERVAL, TimeUnit.MILLISECONDS);
 
         Log.d(TAG, "Data fetching started, interval: " + FETCH_INTERVAL + "ms");
@@ -207,75 +183,14 @@ public class StockDataService extends Service {
         Log.d(TAG, "Data fetching stopped");
     }
 
-    private void startHistorySync(int startId) {
-        if (isHistorySyncRunning) {
-            broadcastHistorySyncStatus(false, false, "历史数据补齐任务已在执行中");
-            return;
-        }
-
-        isHistorySyncRunning = true;
-        broadcastHistorySyncStatus(true, true, "开始补齐最近7个交易日的龙虎榜和连板数据...");
-        scheduler.submit(() -> {
-            boolean success = false;
-            String message;
-            try {
-                message = syncRecentHistoryData();
-                success = true;
-            } catch (Exception e) {
-                Log.e(TAG, "历史数据补齐失败", e);
-                message = "历史数据补齐失败：" + e.getMessage();
-            } finally {
-                isHistorySyncRunning = false;
-            }
-
-            broadcastHistorySyncStatus(false, success, message);
-            if (!isRunning) {
-                stopSelfResult(startId);
-            }
-        });
-    }
-
-    private String syncRecentHistoryData() {
-        List<String> targetDates = TradingDayHelper.getRecentTradingDayStrings(HISTORY_RETENTION_DAYS);
-        if (targetDates.isEmpty()) {
-            return "未找到可补齐的交易日";
-        }
-
-        Set<String> dragonTigerDates = new HashSet<>(dragonTigerDao.getAllTradeDates());
-        Set<String> continuousLimitDates = new HashSet<>(continuousLimitDao.getAllTradeDates());
-        List<String> missingDates = new ArrayList<>();
-        for (String date : targetDates) {
-            if (!dragonTigerDates.contains(date) || !continuousLimitDates.contains(date)) {
-                missingDates.add(date);
-            }
-        }
-
-        int filledCount = 0;
-        for (String date : missingDates) {
-            HotStockData historicalData = hotStockApi.fetchHistoricalDatabaseData(date);
-            if (historicalData != null) {
-                saveDragonTigerToDatabase(historicalData, date);
-                saveContinuousLimitToDatabase(historicalData, date);
-                filledCount++;
-            }
-        }
-
-        pruneHistoricalDatabase();
-
-        if (missingDates.isEmpty()) {
-            return "数据库中最近7个交易日数据已齐全";
-        }
-        return "已检查最近7个交易日，补齐 " + filledCount + " 天缺失数据";
-    }
-
-    private void pruneHistoricalDatabase() {
-        List<String> recentTradingDays = TradingDayHelper.getRecentTradingDayStrings(HISTORY_RETENTION_DAYS);
-        if (recentTradingDays.isEmpty()) {
-            return;
+    /**
+     * 盘前准备和盘中以外不再循环抓取：本次抓取完成后停止服务（收盘后的这一次正好拿到收盘数据）
+     */
+    private void stopIfOffSession() {
+        if (!TradingDayHelper.isPreOpenOrSession()) {
+            Log.d(TAG, "非盘中时段，停止数据服务");
+            stopSelf();
         }
-        String cutoffDate = recentTradingDays.get(recentTradingDays.size() - 1);
-        dragonTigerDao.deleteBeforeDate(cutoffDate);
-        continuousLimitDao.deleteBeforeDate(cutoffDate);
     }
 
     /**
@@ -290,6 +205,27 @@ public class StockDataService extends Service {
             // 抓取三大指数数据
             Log.d(TAG, "正在抓取大盘指数...");
             List<MarketIndex> indices = marketApi.fetchMarketIndices();
+
+            // 全市场涨跌宽度（一次请求），涨跌家数同时写入各指数
+            MarketBreadth breadth = marketApi.fetchMarketBreadth();
+            if (breadth != null) {
+                stockRepository.saveMarketBreadth(breadth);
+                if (indices != null) {
+                    for (MarketIndex index : indices) {
+                        index.setAdvanceCount(breadth.getAdvanceCount());
+                        index.setDeclineCount(breadth.getDeclineCount());
+                        index.setFlatCount(breadth.getFlatCount());
+                    }
+                }
+                try {
+                    if (sentimentCycleTracker.update(breadth) != null) {
+                        hasDataUpdated = true;
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "更新情绪周期失败", e);
+                }
+            }
+
             if (indices != null && !indices.isEmpty()) {
                 stockRepository.saveMarketIndices(indices);
                 hasDataUpdated = true;
@@ -302,106 +238,15 @@ public class StockDataService extends Service {
                 Log.w(TAG, "抓取大盘指数失败或列表为空");
             }
 
-            // 抓取市场新闻
-            Log.d(TAG, "正在抓取市场要闻...");
-            List<StockNews> newsList = marketApi.fetchMarketNews();
-            if (newsList != null && !newsList.isEmpty()) {
-                // 用AI为重大新闻推荐相关A股股票并标记重要性
-                enrichNewsWithStockRecommendations(newsList);
-                
-                // 只保留AI判定为重大新闻的（importance >= 3）
-                List<StockNews> majorNews = new ArrayList<>();
-                for (StockNews news : newsList) {
-                    if (news.getImportance() >= 3) {
-                        majorNews.add(news);
-                    }
-                }
-                Log.d(TAG, "AI筛选重大新闻: " + majorNews.size() + "/" + newsList.size() + " 条");
-                
-                if (!majorNews.isEmpty()) {
-                    // 合并保存（新的在前，保留最多10条）
-                    stockRepository.mergeAndSaveNews(majorNews, 10);
-                    hasDataUpdated = true;
-                    Log.d(TAG, "成功更新市场要闻: 筛选并保存了 " + majorNews.size() + " 条重大新闻");
-                } else {
-                    Log.d(TAG, "本次无重大新闻");
-                }
-            } else {
-                Log.w(TAG, "市场要闻抓取结果为空（可能所有源都失败了）");
+            // 抓取新增市场新闻，AI筛选重大新闻
+            if (newsCollector.collect()) {
+                hasDataUpdated = true;
             }
 
-            // 抓取热门股票数据（龙虎榜、涨停板、连板股、活跃股）
-            // 每5分钟抓取一次，避免频繁请求
-            long now = System.currentTimeMillis();
-            if (now - lastHotDataFetchTime >= HOT_DATA_FETCH_INTERVAL) {
-                Log.d(TAG, "正在抓取热门股票数据（龙虎榜/涨停板/连板/活跃股）...");
+            // 盘中抓取热门股票数据（龙虎榜、涨停板、连板股、活跃股），盘后由后台任务刷新
+            if (TradingDayHelper.isTradingSession()) {
                 try {
-                    // 当天数据（尾盘策略用）
-                    // 龙虎榜每天16点更新，16点前需要用前一天的日期
-                    Calendar cal = Calendar.getInstance();
-                    int hour = cal.get(Calendar.HOUR_OF_DAY);
-                    String todayStr = new java.text.SimpleDateFormat("yyyyMMdd", java.util.Locale.CHINA)
-                            .format(cal.getTime());
-                    String dateStr;
-                    
-                    if (hour < 16) {
-                        // 16点前，龙虎榜数据还未更新，使用前一个交易日
-                        dateStr = TradingDayHelper.getPreviousTradingDayStr(cal.getTime());
-                        Log.d(TAG, "当前时间: " + hour + "点, 今日: " + todayStr + ", 龙虎榜日期: " + dateStr);
-                    } else {
-                        dateStr = todayStr;
-                        Log.d(TAG, "当前时间: " + hour + "点, 使用当日龙虎榜日期: " + dateStr);
-                    }
-                    
-                    HotStockData hotData = hotStockApi.fetchAllHotData(dateStr);
-                    
-                    // 如果当天数据为空，尝试往前找有数据的日子
-                    if (hotData == null || (hotData.getDragonTigerList() != null && hotData.getDragonTigerList().isEmpty())) {
-                        Log.w(TAG, "龙虎榜数据为空，尝试查找更早的交易日...");
-                        for (int i = 0; i < 5; i++) {  // 最多往前找5天
-                            String olderDate = TradingDayHelper.getPreviousTradingDayStr(
-                                    TradingDayHelper.parseDate(dateStr));
-                            if (olderDate != null && !olderDate.isEmpty()) {
-                                Log.d(TAG, "尝试日期: " + olderDate);
-                                HotStockData olderData = hotStockApi.fetchAllHotData(olderDate);
-                                if (olderData != null && olderData.getDragonTigerList() != null 
-                                        && !olderData.getDragonTigerList().isEmpty()) {
-                                    hotData = olderData;
-                                    dateStr = olderDate;
-                                    Log.d(TAG, "找到有效龙虎榜数据: " + olderDate);
-                                    break;
-                                }
-                                dateStr = olderDate;
-                            }
-                        }
-                    }
-                    
-                    if (hotData != null) {
-                        stockRepository.saveHotStockData(hotData);
-                        // 保存龙虎榜和连板股数据到数据库
-                        saveDragonTigerToDatabase(hotData, dateStr);
-                        saveContinuousLimitToDatabase(hotData, dateStr);
-                        pruneHistoricalDatabase();
-                        Log.d(TAG, "成功更新当天热门股票数据, 龙虎榜: " + 
-                                (hotData.getDragonTigerList() != null ? hotData.getDragonTigerList().size() : 0) + " 条");
-                    }
-                    
-                    // 前一个交易日数据（竞价策略用）
-                    String prevDateStr = TradingDayHelper.getPreviousTradingDayStr(
-                            TradingDayHelper.parseDate(dateStr));
-                    if (prevDateStr != null && !prevDateStr.isEmpty()) {
-                        HotStockData prevHotData = hotStockApi.fetchAllHotData(prevDateStr);
-                        if (prevHotData != null) {
-                            stockRepository.savePrevDayHotStockData(prevHotData);
-                            // 同时保存前一日的龙虎榜和连板股到数据库
-                            saveDragonTigerToDatabase(prevHotData, prevDateStr);
-                            saveContinuousLimitToDatabase(prevHotData, prevDateStr);
-                            pruneHistoricalDatabase();
-                            Log.d(TAG, "成功更新前一交易日热门股票数据: " + prevDateStr);
-                        }
-                    }
-                    
-                    lastHotDataFetchTime = now;
+                    hotDataCollector.collectIfStale(HOT_DATA_FETCH_INTERVAL);
                 } catch (Exception e) {
                     Log.e(TAG, "抓取热门股票数据失败", e);
                 }
@@ -417,200 +262,6 @@ public class StockDataService extends Service {
         }
     }
 
-    /**
-     * 用AI为重大新闻推荐相关A股股票
-     * 将所有新闻标题批量发送给GLM-4，由AI判断哪些是重大新闻并推荐相关股票
-     */
-    private void enrichNewsWithStockRecommendations(List<StockNews> newsList) {
-        GLM4Client glm4Client = GLM4Client.getInstance();
-        if (glm4Client == null) {
-            Log.w(TAG, "GLM4Client未初始化，跳过新闻股票推荐");
-            return;
-        }
-
-        try {
-            // 构建新闻列表prompt
-            StringBuilder newsText = new StringBuilder();
-            for (int i = 0; i < newsList.size(); i++) {
-                StockNews news = newsList.get(i);
-                newsText.append(i + 1).append(". ")
-                        .append(news.getTitle());
-                if (news.getSummary() != null && !news.getSummary().isEmpty()) {
-                    String summary = news.getSummary().length() > 80 
-                            ? news.getSummary().substring(0, 80) + "..." 
-                            : news.getSummary();
-                    newsText.append(" — ").append(summary);
-                }
-                newsText.append("\n");
-            }
-
-            String prompt = "你是一位专业的A股投资分析师。以下是最新的财经新闻列表：\n\n" +
-                    newsText.toString() +
-                    "\n请分析以上新闻，为每条新闻评估其对A股市场的影响程度（importance 1-5），" +
-                    "并为重大新闻（importance >= 3）推荐最直接受益或受影响的A股股票（1-3只）。\n\n" +
-                    "**重大新闻的判定标准（importance >= 3）**：\n" +
-                    "- 5分：重大政策变化（降准降息、监管新规）、国际重大事件（贸易战、地缘冲突升级）\n" +
-                    "- 4分：行业重大变动、大额资金流向变化、重要经济数据发布\n" +
-                    "- 3分：板块级别利好利空、市场情绪重大转变、重要人物发言\n" +
-                    "- 2分：普通行业资讯、常规数据更新\n" +
-                    "- 1分：个股新闻、无关紧要的消息\n\n" +
-                    "请严格按以下JSON格式返回：\n" +
-                    "{\n" +
-                    "  \"recommendations\": [\n" +
-                    "    {\n" +
-                    "      \"news_index\": 1,\n" +
-                    "      \"stocks\": \"股票名称(代码)、股票名称(代码)\",\n" +
-                    "      \"importance\": 4\n" +
-                    "    }\n" +
-                    "  ]\n" +
-                    "}\n\n" +
-                    "说明：\n" +
-                    "- news_index: 新闻编号（从1开始）\n" +
-                    "- stocks: 推荐的A股股票（仅importance>=3时需要填写），格式如\"贵州茅台(600519)、宁德时代(300750)\"\n" +
-                    "- importance: 每条新闻都必须评分（1-5），importance>=3的才算重大新闻\n" +
-                    "- 所有新闻都必须返回（包括不重要的），以便客户端过滤\n" +
-                    "- stocks字段：importance<3的新闻可以不填stocks\n" +
-                    "- 推荐的股票必须是A股上市公司，确保代码准确\n" +
-                    "- 只返回JSON，不要其他文字";
-
-            Log.d(TAG, "正在用AI分析新闻并推荐相关股票...");
-            String response = glm4Client.analyze(prompt);
-
-            if (response != null && !response.isEmpty()) {
-                parseAndApplyRecommendations(response, newsList);
-            } else {
-                Log.w(TAG, "AI新闻分析返回为空");
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "AI新闻股票推荐出错", e);
-        }
-    }
-
-    /**
-     * 解析AI返回的推荐结果并应用到对应新闻
-     */
-    private void parseAndApplyRecommendations(String response, List<StockNews> newsList) {
-        try {
-            // 提取JSON部分
-            String jsonStr = response;
-            int jsonStart = response.indexOf("{");
-            int jsonEnd = response.lastIndexOf("}");
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                jsonStr = response.substring(jsonStart, jsonEnd + 1);
-            }
-
-            JSONObject json = new JSONObject(jsonStr);
-            JSONArray recommendations = json.optJSONArray("recommendations");
-            if (recommendations == null) {
-                Log.w(TAG, "AI返回中没有recommendations字段");
-                return;
-            }
-
-            int appliedCount = 0;
-            for (int i = 0; i < recommendations.length(); i++) {
-                JSONObject rec = recommendations.getJSONObject(i);
-                int newsIndex = rec.optInt("news_index", -1) - 1; // 转为0-based
-                String stocks = rec.optString("stocks", "");
-                int importance = rec.optInt("importance", 1);
-
-                if (newsIndex >= 0 && newsIndex < newsList.size()) {
-                    StockNews news = newsList.get(newsIndex);
-                    // 设置重要性评分（所有新闻都设置）
-                    news.setImportance(importance);
-                    if (importance >= 4) {
-                        news.setImpactLevel("high");
-                    } else if (importance >= 3) {
-                        news.setImpactLevel("medium");
-                    } else {
-                        news.setImpactLevel("low");
-                    }
-                    // 仅为重大新闻设置推荐股票
-                    if (!stocks.isEmpty() && importance >= 3) {
-                        news.setRecommendedStocks(stocks);
-                        appliedCount++;
-                        Log.d(TAG, "新闻[" + (newsIndex + 1) + "] importance=" + importance + " 推荐股票: " + stocks);
-                    } else {
-                        Log.d(TAG, "新闻[" + (newsIndex + 1) + "] importance=" + importance + " (非重大)");
-                    }
-                }
-            }
-            Log.d(TAG, "成功为 " + appliedCount + " 条重大新闻添加了股票推荐");
-        } catch (Exception e) {
-            Log.e(TAG, "解析AI新闻推荐结果出错: " + response, e);
-        }
-    }
-
-    /**
-     * 保存龙虎榜数据到数据库
-     */
-    private void saveDragonTigerToDatabase(HotStockData hotData, String tradeDate) {
-        if (hotData == null || hotData.getDragonTigerList() == null || hotData.getDragonTigerList().isEmpty()) {
-            Log.d(TAG, "龙虎榜数据为空，跳过保存");
-            return;
-        }
-        
-        try {
-            List<DragonTigerEntity> entities = new ArrayList<>();
-            long fetchTime = System.currentTimeMillis();
-            
-            for (HotStockData.DragonTigerItem item : hotData.getDragonTigerList()) {
-                DragonTigerEntity entity = new DragonTigerEntity();
-                entity.setTradeDate(tradeDate);
-                entity.setCode(item.getCode());
-                entity.setName(item.getName());
-                entity.setClosePrice(item.getClose());
-                entity.setChangePercent(item.getChangePercent());
-                entity.setTurnoverRate(item.getTurnoverRate());
-                entity.setNetBuy(item.getNetBuy());
-                entity.setBuyAmount(item.getBuyAmount());
-                entity.setSellAmount(item.getSellAmount());
-                entity.setReason(item.getReason());
-                entity.setMarketCap(item.getMarketCap());
-                entity.setFetchTime(fetchTime);
-                entities.add(entity);
-            }
-            
-            dragonTigerDao.insertAll(entities);
-            Log.d(TAG, "成功保存龙虎榜历史数据: " + tradeDate + " 共 " + entities.size() + " 条");
-        } catch (Exception e) {
-            Log.e(TAG, "保存龙虎榜历史数据失败", e);
-        }
-    }
-
-    /**
-     * 保存连板股数据到数据库
-     */
-    private void saveContinuousLimitToDatabase(HotStockData hotData, String tradeDate) {
-        if (hotData == null || hotData.getContinuousLimitList() == null || hotData.getContinuousLimitList().isEmpty()) {
-            Log.d(TAG, "连板股数据为空，跳过保存");
-            return;
-        }
-        
-        try {
-            List<ContinuousLimitEntity> entities = new ArrayList<>();
-            long fetchTime = System.currentTimeMillis();
-            
-            for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
-                ContinuousLimitEntity entity = new ContinuousLimitEntity();
-                entity.setTradeDate(tradeDate);
-                entity.setCode(item.getCode());
-                entity.setName(item.getName());
-                entity.setContinuousCount(item.getContinuousCount());
-                entity.setChangePercent(item.getChangePercent());
-                entity.setTurnoverRate(item.getTurnoverRate());
-                entity.setMarketCap(item.getMarketCap());
-                entity.setConcept(item.getConcept());
-                entity.setFetchTime(fetchTime);
-                entities.add(entity);
-            }
-            
-            continuousLimitDao.insertAll(entities);
-            Log.d(TAG, "成功保存连板股历史数据: " + tradeDate + " 共 " + entities.size() + " 条");
-        } catch (Exception e) {
-            Log.e(TAG, "保存连板股历史数据失败", e);
-        }
-    }
-
     /**
      * 更新通知栏显示
      */
@@ -638,12 +289,4 @@ public class StockDataService extends Service {
         Intent intent = new Intent(action);
         LocalBroadcastManager.getInstance(getApplicationContext()).sendBroadcast(intent);
     }
-
-    private void broadcastHistorySyncStatus(boolean running, boolean success, String message) {
-        Intent intent = new Intent(ACTION_HISTORY_SYNC_STATUS);
-        intent.putExtra(EXTRA_HISTORY_SYNC_RUNNING, running);
-        intent.putExtra(EXTRA_HISTORY_SYNC_SUCCESS, success);
-        intent.putExtra(EXTRA_HISTORY_SYNC_MESSAGE, message);
-        LocalBroadcastManager.getInstance(getApplicationContext()).sendBroadcast(intent);
-    }
 }
@@ -0,0 +1,696 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import com.gp.stockapp.MainActivity;
+import com.gp.stockapp.api.ChatModel;
+import com.gp.stockapp.api.ChatPrompt;
+import com.gp.stockapp.api.GLM4Client;
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.IntradayTickStore;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.MarketBreadth;
+import com.gp.stockapp.model.MarketIndex;
+import com.gp.stockapp.model.StockNews;
+import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.model.StrategySnapshot;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.CandidateScreener;
+import com.gp.stockapp.utils.IntradaySeries;
+import com.gp.stockapp.utils.PromptLoader;
+import com.gp.stockapp.utils.PromptTemplate;
+import com.gp.stockapp.utils.SectorAggregator;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 策略推荐生成器
+ * 板块/竞价/尾盘三种策略的Prompt构建、模型调用和结果解析
+ * AI分析服务（盘中板块推荐）和后台策略任务（手动刷新）共用同一套逻辑
+ *
+ * Prompt只由 {@link StrategySnapshot} 构建：实时生成时先采集快照（竞价/尾盘的快照会存档），
+ * 策略回放（{@link StrategyReplayer}）用存档的快照重建同一份Prompt
+ */
+public class StrategyGenerator {
+    private static final String TAG = "StrategyGenerator";
+
+    public static final String TYPE_SECTOR = "sector";
+    public static final String TYPE_AUCTION = "open_auction";
+    public static final String TYPE_CLOSING = "closing";
+
+    // 策略Prompt数据段布局模板（assets/prompts/strategy_layout.txt，唯一来源）
+    // 策略说明和分析要求作为system固定前缀，不进入此模板
+    private static final String STRATEGY_LAYOUT_FILE = "strategy_layout.txt";
+
+    // 尾盘走势起点（14:30，距当天0点的分钟数）
+    private static final int CLOSING_TAIL_START_MINUTE = 14 * 60 + 30;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    // 本地初筛后交给模型的候选股数量（同时计算技术指标）
+    private static final int MAX_SCREENED_CANDIDATES = 15;
+
+    // 板块策略Prompt中列出的板块数
+    private static final int MAX_SECTOR_ROWS = 15;
+
+    private final Context context;
+    private final StockRepository stockRepository;
+    private final PromptLoader promptLoader;
+    private final TechnicalIndicatorService technicalIndicatorService;
+    private final RecommendationValidator recommendationValidator;
+    private final RecommendationTracker recommendationTracker;
+
+    public StrategyGenerator(Context context) {
+        this.context = context.getApplicationContext();
+        this.stockRepository = StockRepository.getInstance(this.context);
+        this.promptLoader = new PromptLoader(this.context);
+        this.technicalIndicatorService = TechnicalIndicatorService.getInstance(this.context);
+        this.recommendationValidator = new RecommendationValidator(HotStockApi.getInstance());
+        this.recommendationTracker = RecommendationTracker.getInstance(this.context);
+    }
+
+    /**
+     * 生成指定类型的策略推荐并保存（阻塞，需在工作线程调用）
+     * @param type {@link #TYPE_SECTOR} / {@link #TYPE_AUCTION} / {@link #TYPE_CLOSING}
+     * @return 是否生成并保存成功
+     */
+    public boolean generate(String type) {
+        List<MarketIndex> indices = stockRepository.getMarketIndices();
+        List<StockNews> newsList = stockRepository.getLatestNews(10);
+        if (indices == null || indices.isEmpty()) {
+            Log.d(TAG, "No market data for strategy analysis: " + type);
+            return false;
+        }
+        StrategySnapshot snapshot = captureSnapshot(type, indices, newsList);
+        GLM4Client glm4Client = GLM4Client.getInstance();
+        switch (type) {
+            case TYPE_AUCTION:
+                return analyzeAuctionStrategy(glm4Client, snapshot);
+            case TYPE_CLOSING:
+                return analyzeClosingStrategy(glm4Client, snapshot);
+            case TYPE_SECTOR:
+                return analyzeSectorStrategy(glm4Client, snapshot);
+            default:
+                Log.w(TAG, "Unknown strategy type: " + type);
+                return false;
+        }
+    }
+
+    /**
+     * 用存档的快照重建当时的Prompt（策略回放用，不访问实时行情）
+     * 策略说明取当前版本，便于评估Prompt修改
+     */
+    public ChatPrompt buildReplayPrompt(StrategySnapshot snapshot) {
+        return buildFullStrategyPrompt(getStrategyPrompt(snapshot.getStrategyType()), snapshot, true);
+    }
+
+    /**
+     * 解析回放得到的模型输出（只做主板过滤，不做实时行情校验）
+     */
+    public StrategyRecommendation parseReplayResponse(String response, String type) {
+        return parseStrategyRecommendation(response, type);
+    }
+
+    /**
+     * Prompt版本：system部分（策略说明+分析要求）的摘要，assets中的策略Prompt修改后自动区分
+     */
+    static String promptVersionOf(ChatPrompt prompt) {
+        return String.format("%08x", prompt.getSystem() != null ? prompt.getSystem().hashCode() : 0);
+    }
+
+    /**
+     * 采集本次生成所用的原始数据和分时走势/板块排行段落；技术指标段落在构建Prompt时写入
+     */
+    private StrategySnapshot captureSnapshot(String type, List<MarketIndex> indices, List<StockNews> newsList) {
+        long now = System.currentTimeMillis();
+        StrategySnapshot snapshot = new StrategySnapshot();
+        snapshot.setStrategyType(type);
+        snapshot.setTimestamp(now);
+        snapshot.setSignalDate(RecommendationTracker.signalDateFor(type, now));
+        snapshot.setIndices(indices);
+        snapshot.setBreadth(stockRepository.getMarketBreadth());
+        snapshot.setBreadthTrendText(MarketBreadth.describeTrend(stockRepository.getMarketBreadthSeries()));
+        snapshot.setSentimentCycle(stockRepository.getSentimentCycle());
+        snapshot.setNews(newsList);
+        // 竞价用前一交易日的热门数据，其他策略用当天
+        snapshot.setHotData(TYPE_AUCTION.equals(type)
+                ? stockRepository.getPrevDayHotStockData() : stockRepository.getHotStockData());
+        if (TYPE_CLOSING.equals(type)) {
+            // 分时走势：由本地分时存储计算全天形态、短时动量和尾盘走势
+            snapshot.setIntradayTrendText(buildIntradayTrendText(indices));
+        } else if (TYPE_SECTOR.equals(type)) {
+            snapshot.setSectorTableText(buildSectorTableText(snapshot.getHotData()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 构建板块强度排行表（板块策略用），与历史库中上一交易日的板块统计对比
+     * 热门数据缺少板块信息时返回空串
+     */
+    private String buildSectorTableText(HotStockData hotData) {
+        List<SectorAggregator.SectorStat> sectors = SectorAggregator.aggregate(hotData);
+        if (sectors.isEmpty()) {
+            return "";
+        }
+        String previousDate = stockRepository.getLatestSectorStatsDateBefore(TradingDayHelper.getLatestTradingDayStr());
+        if (previousDate != null) {
+            SectorAggregator.attachPrevious(sectors, stockRepository.getSectorDayStats(previousDate));
+        }
+        return SectorAggregator.buildPromptTable(sectors, MAX_SECTOR_ROWS, previousDate);
+    }
+
+    /**
+     * 构建融合热门数据+市场数据的完整Prompt
+     * 将龙虎榜、涨停板、连板股等真实数据提供给AI
+     * 请求按变化频率从低到高排列：策略说明+分析要求(system，固定) → 热门数据 → 新闻和指数，
+     * 同一策略多次调用时前缀保持一致，可命中服务端前缀缓存
+     * 按快照中的策略类型组织: "open_auction"=竞价(用前一交易日龙虎榜+技术指标+竞价数据), "closing"=尾盘(用大盘走势+板块+宏观), 其他=用当天数据
+     * @param replay 是否为回放（回放时技术指标取快照或截至信号日前一交易日的本地K线）
+     */
+    private ChatPrompt buildFullStrategyPrompt(String strategyPrompt, StrategySnapshot snapshot, boolean replay) {
+        String strategyType = snapshot.getStrategyType();
+        // 热门数据段（按策略类型组织）
+        StringBuilder sb = new StringBuilder();
+        
+        if ("closing".equals(strategyType)) {
+            // ===== 尾盘策略：大盘走势+龙虎榜+连板股+板块轮动+国际国内局势+技术指标 =====
+            Log.d(TAG, "尾盘策略: 聚焦大盘走势+龙虎榜+连板股+板块分析+宏观局势+技术指标");
+            
+            // 分时走势（采集快照时计算）
+            sb.append(snapshot.getIntradayTrendText());
+            
+            // 尾盘推荐应该参考当天的龙虎榜和连板股数据，因为这些数据能反映：
+            // 1. 龙虎榜：当天游资/机构的操作方向，次日可能延续
+            // 2. 连板股：市场高度和板块强度，判断情绪周期
+            HotStockData hotData = snapshot.getHotData();
+            if (hotData != null) {
+                // 连板股数据 - 判断板块强度和市场高度
+                if (hotData.getContinuousLimitList() != null && !hotData.getContinuousLimitList().isEmpty()) {
+                    sb.append("## 当日连板股数据（板块强度指标）\n\n");
+                    sb.append("以下是今日连板股数据，反映市场高度和板块强度：\n\n");
+                    for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                        sb.append("- ").append(item.toString()).append("\n");
+                    }
+                    sb.append("\n**连板股分析要点**：\n");
+                    sb.append("- 连板股数量和高度反映市场赚钱效应和情绪周期\n");
+                    sb.append("- 连板股所在板块是当前最强主线，次日可能延续\n");
+                    sb.append("- 连板股龙头若开板，板块可能进入分化，谨慎追高\n");
+                    sb.append("- 从连板股所在板块中寻找低位补涨标的\n\n");
+                }
+                
+                // 活跃股数据 - 板块资金流向
+                if (hotData.getTopGainers() != null && !hotData.getTopGainers().isEmpty()) {
+                    sb.append("## 当日主板活跃股数据（资金流向）\n\n");
+                    sb.append("以下是今日成交最活跃的主板股票，用于分析板块资金流向：\n\n");
+                    for (HotStockData.TopGainerItem item : hotData.getTopGainers()) {
+                        sb.append("- ").append(item.toString()).append("\n");
+                    }
+                    sb.append("\n**活跃股分析要点**：\n");
+                    sb.append("- 成交额集中度反映主力资金主攻方向\n");
+                    sb.append("- 结合龙虎榜判断是否有游资/机构介入\n\n");
+                }
+                
+                // 本地初筛候选股（龙虎榜净买入已并入候选表）+ 技术指标
+                appendScreenedCandidates(sb, snapshot, replay);
+            }
+            
+        } else if ("open_auction".equals(strategyType)) {
+            // ===== 竞价策略：昨日龙虎榜+热搜榜+技术指标+集合竞价 =====
+            Log.d(TAG, "竞价策略: 使用前一交易日龙虎榜+热搜+技术指标+竞价分析");
+            
+            HotStockData hotData = snapshot.getHotData();
+            if (hotData != null) {
+                // 昨日市场高度：连板股明细 + 涨停家数（完整龙虎榜/涨停池不再逐条列出，已并入候选表）
+                if (hotData.getContinuousLimitList() != null && !hotData.getContinuousLimitList().isEmpty()) {
+                    sb.append("\n## 昨日连板股（市场高度，仅供判断情绪，禁止直接推荐）\n\n");
+                    for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                        sb.append("- ").append(item.toString()).append("\n");
+                    }
+                }
+                if (hotData.getLimitUpList() != null && !hotData.getLimitUpList().isEmpty()) {
+                    sb.append("\n昨日涨停 ").append(hotData.getLimitUpList().size()).append(" 只\n");
+                }
+                // 本地初筛候选股（来自昨日龙虎榜和活跃股）+ 技术指标
+                appendScreenedCandidates(sb, snapshot, replay);
+            }
+            
+        } else {
+            // ===== 板块策略等其他类型：使用当天板块强度排行，缺少板块信息时退回全量热门数据 =====
+            HotStockData hotData = snapshot.getHotData();
+            String dataLabel = "当天";
+            Log.d(TAG, "板块策略: 使用当天热门数据");
+            
+            if (!snapshot.getSectorTableText().isEmpty()) {
+                if (hotData != null && hotData.getLimitUpList() != null) {
+                    sb.append("\n今日涨停 ").append(hotData.getLimitUpList().size()).append(" 只\n");
+                }
+                sb.append(snapshot.getSectorTableText());
+                sb.append("**重要提示**：请以上表为主要依据判断板块强弱，优先推荐排名靠前且较前日涨停家数、高度提升的板块；");
+                sb.append("代表个股已涨停的仅用于判断板块强度。\n");
+            } else if (hotData != null) {
+                String hotText = hotData.toAnalysisText();
+                if (hotText != null && !hotText.isEmpty()) {
+                    sb.append("\n## 热门股票数据（").append(dataLabel).append("）\n\n");
+                    sb.append("以下是").append(dataLabel).append("市场的真实热点数据，请基于这些数据进行分析和推荐：\n\n");
+                    sb.append(hotText);
+                    sb.append("\n**重要提示**：请优先从以上数据中的中小市值股票（流通市值30-120亿）中选择推荐标的。");
+                    sb.append("龙虎榜净买入、涨停板、连板股是游资参与度最高的标的，请结合题材热点重点分析。\n");
+                }
+            }
+        }
+        
+        Map<String, CharSequence> values = new HashMap<>();
+        values.put("market_data", buildMarketDataText(snapshot));
+        return new ChatPrompt(strategyPrompt + getAnalysisFocus(strategyType))
+                .addUserPart(sb)
+                .addUserPart(getStrategyLayout().render(values));
+    }
+
+    /**
+     * 追加本地初筛候选表和候选股技术指标；没有候选时只提示模型宁缺毋滥
+     */
+    private void appendScreenedCandidates(StringBuilder sb, StrategySnapshot snapshot, boolean replay) {
+        List<CandidateScreener.Candidate> candidates = CandidateScreener.screen(snapshot.getHotData(), MAX_SCREENED_CANDIDATES);
+        if (candidates.isEmpty()) {
+            sb.append("\n## 本地初筛候选股\n\n今日热门数据中没有满足主板、流通市值30-120亿、距涨停≥1%等硬性条件的个股，")
+                    .append("如无把握请减少推荐数量，宁缺毋滥。\n\n");
+            return;
+        }
+        sb.append("\n## 本地初筛候选股（共").append(candidates.size()).append("只，按评分排序）\n\n");
+        sb.append("以下候选已按主板(600/000)、非ST、流通市值30-120亿、距涨停≥1%、换手2%-30%、龙虎榜净买入为正过滤，")
+                .append("评分综合了龙虎榜净买入占比、换手、涨幅、成交额和市值。")
+                .append("**推荐个股必须从以下候选中选择**，候选不足时宁缺毋滥：\n\n");
+        Map<String, String> names = new LinkedHashMap<>();
+        for (CandidateScreener.Candidate candidate : candidates) {
+            sb.append("- ").append(candidate.toPromptText()).append("\n");
+            names.put(candidate.getCode(), candidate.getName());
+        }
+        sb.append("\n");
+        // 候选股技术指标（本地计算）
+        sb.append(resolveIndicatorText(snapshot, names, replay));
+    }
+
+    /**
+     * 候选股技术指标段落：实时生成时本地计算并记入快照；
+     * 回放时候选股与快照一致则直接用快照中的段落，否则按信号日前一交易日收盘的本地K线重算（不引入未来数据）
+     */
+    private String resolveIndicatorText(StrategySnapshot snapshot, Map<String, String> names, boolean replay) {
+        List<String> codes = new ArrayList<>(names.keySet());
+        if (!replay) {
+            String text = technicalIndicatorService.buildPromptText(names);
+            snapshot.setIndicatorCodes(codes);
+            snapshot.setIndicatorText(text);
+            return text;
+        }
+        if (codes.equals(snapshot.getIndicatorCodes())) {
+            return snapshot.getIndicatorText();
+        }
+        String asOfDate = TradingDayHelper.getPreviousTradingDayStr(snapshot.getSignalDate());
+        return asOfDate.isEmpty() ? "" : technicalIndicatorService.buildPromptTextAsOf(names, Integer.parseInt(asOfDate));
+    }
+
+    /**
+     * 构建大盘分时走势文本（尾盘策略用）：30分钟节点、最高/最低点、5分钟动量、尾盘走势和近30分钟成交额
+     * 当天分时采样不足时返回空串
+     */
+    private String buildIntradayTrendText(List<MarketIndex> indices) {
+        StringBuilder sb = new StringBuilder();
+        for (MarketIndex index : indices) {
+            if (index.getIndexCode() == null) continue;
+            IntradaySeries series = stockRepository.getIntradaySeries(index.getIndexCode());
+            if (series.size() < 2) continue;
+
+            int last = series.size() - 1;
+            long lastTime = series.getTimestamp(last);
+            double lastPoint = series.getPoint(last);
+            int high = series.indexOfHigh();
+            int low = series.indexOfLow();
+
+            sb.append("### ").append(index.getIndexName()).append("\n");
+            sb.append("30分钟节点：");
+            IntradaySeries nodes = stockRepository.getIntradayDownsampled(index.getIndexCode(), 30);
+            for (int i = 0; i < nodes.size(); i++) {
+                if (i > 0) sb.append(" → ");
+                sb.append(formatTime(nodes.getTimestamp(i))).append(" ")
+                        .append(String.format("%.2f", nodes.getPoint(i)));
+            }
+            sb.append("\n");
+            sb.append("最高 ").append(String.format("%.2f", series.getPoint(high)))
+                    .append("(").append(formatTime(series.getTimestamp(high))).append(")")
+                    .append("，最低 ").append(String.format("%.2f", series.getPoint(low)))
+                    .append("(").append(formatTime(series.getTimestamp(low))).append(")");
+            double range = series.getPoint(high) - series.getPoint(low);
+            if (range > 0) {
+                sb.append("，现价位于全天振幅的 ")
+                        .append(String.format("%.0f%%", (lastPoint - series.getPoint(low)) / range * 100));
+            }
+            sb.append("\n");
+            appendChange(sb, "近5分钟", series.pointAtOrBefore(lastTime - 5 * 60_000L), lastPoint);
+            appendChange(sb, "近30分钟", series.pointAtOrBefore(lastTime - 30 * 60_000L), lastPoint);
+            long tailStart = IntradayTickStore.dayStartMillis(TradingDayHelper.getLatestTradingDayStr())
+                    + CLOSING_TAIL_START_MINUTE * 60_000L;
+            if (lastTime > tailStart) {
+                appendChange(sb, "14:30以来", series.pointAtOrBefore(tailStart), lastPoint);
+            }
+            int halfHourAgo = series.indexAtOrBefore(lastTime - 30 * 60_000L);
+            if (halfHourAgo >= 0 && series.getAmount(last) > series.getAmount(halfHourAgo)) {
+                sb.append("近30分钟成交额：")
+                        .append(String.format("%.0f亿", series.getAmount(last) - series.getAmount(halfHourAgo)))
+                        .append("（全天 ").append(String.format("%.0f亿", series.getAmount(last))).append("）\n");
+            }
+            sb.append("\n");
+        }
+        if (sb.length() == 0) {
+            return "";
+        }
+        return "\n## 大盘分时走势（截至 " + formatTime(System.currentTimeMillis()) + "）\n\n" + sb;
+    }
+
+    private static void appendChange(StringBuilder sb, String label, double fromPoint, double toPoint) {
+        if (Double.isNaN(fromPoint) || fromPoint <= 0) return;
+        double change = (toPoint - fromPoint) / fromPoint * 100;
+        sb.append(label).append("：").append(String.format("%+.2f%%", change))
+                .append("（").append(String.format("%.2f", fromPoint)).append(" → ")
+                .append(String.format("%.2f", toPoint)).append("）\n");
+    }
+
+    private static String formatTime(long millis) {
+        return TIME_FORMATTER.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * 各策略固定的分析要求（随策略说明一起放入system）
+     */
+    private static String getAnalysisFocus(String strategyType) {
+        if ("closing".equals(strategyType)) {
+            return "\n\n## 分析重点提示\n\n" +
+                    "请综合以下维度进行尾盘推荐（优先级从高到低）：\n" +
+                    "1. **大盘全天走势**：走势形态、量价配合、尾盘承接和情绪变化\n" +
+                    "2. **板块资金轮动**：从活跃股和板块强弱判断明日可能延续的方向\n" +
+                    "3. **市场新闻与政策催化**：优先考虑当天有明确催化、且逻辑顺畅的方向\n" +
+                    "4. **技术指标验证**：推荐标的需有技术支撑（均线/MACD/KDJ/RSI等），以提供的本地计算指标为准\n" +
+                    "5. **龙虎榜与连板股辅助确认**：仅用于验证资金关注度和板块强度，不得喧宾夺主\n";
+        } else if ("open_auction".equals(strategyType)) {
+            return "\n\n## 竞价分析要求\n\n" +
+                    "请对筛选出的标的，从以下维度进行综合评估：\n" +
+                    "1. **昨日龙虎榜**：净买入额、知名游资/机构席位参与情况\n" +
+                    "2. **热搜/题材热度**：结合新闻判断标的所在题材的市场热度和持续性\n" +
+                    "3. **技术指标验证**：均线排列(5/10/20日)、MACD金叉/红柱、KDJ超卖区金叉、RSI位置、量能变化，以提供的本地计算指标为准\n" +
+                    "4. **集合竞价预判**：根据龙虎榜和题材热度，预判竞价高开/低开可能性，给出介入条件\n" +
+                    "5. 每只推荐必须提到至少一项技术指标信号作为辅助依据\n";
+        }
+        return "";
+    }
+
+    /**
+     * 策略数据段布局模板，资源缺失说明打包有误，直接抛异常而不是悄悄换成其他布局
+     */
+    private PromptTemplate getStrategyLayout() {
+        PromptTemplate layout = promptLoader.getTemplate(STRATEGY_LAYOUT_FILE);
+        if (layout == null) {
+            throw new IllegalStateException("Missing prompt asset: prompts/" + STRATEGY_LAYOUT_FILE);
+        }
+        return layout;
+    }
+
+    /**
+     * 板块推荐分析
+     */
+    private boolean analyzeSectorStrategy(ChatModel chatModel, StrategySnapshot snapshot) {
+        try {
+            ChatPrompt prompt = buildFullStrategyPrompt(getSectorPrompt(), snapshot, false);
+
+            String response = chatModel.analyzePremium(prompt);
+            if (response != null && !response.isEmpty()) {
+                StrategyRecommendation recommendation = parseStrategyRecommendation(response, "sector");
+                if (recommendation != null) {
+                    recommendation.setTimestamp(System.currentTimeMillis());
+                    recommendation.setType("sector");
+                    stockRepository.saveSectorRecommendation(recommendation);
+                    sendBroadcast(MainActivity.ACTION_STRATEGY_UPDATED);
+                    Log.d(TAG, "Sector strategy analysis completed");
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in sector analysis", e);
+        }
+        return false;
+    }
+
+    /**
+     * 开盘竞价推荐分析（量化+游资融合策略）
+     * 使用GLM-5高精度模型
+     */
+    private boolean analyzeAuctionStrategy(ChatModel chatModel, StrategySnapshot snapshot) {
+        try {
+            ChatPrompt prompt = buildFullStrategyPrompt(getAuctionPrompt(), snapshot, false);
+            stockRepository.saveStrategySnapshot(snapshot);
+
+            Log.d(TAG, "竞价推荐: 使用GLM-5高精度模型");
+            String response = chatModel.analyzePremium(prompt);
+            if (response != null && !response.isEmpty()) {
+                StrategyRecommendation recommendation = parseStrategyRecommendation(response, "open_auction");
+                if (recommendation != null) {
+                    recommendationValidator.validate(recommendation);
+                    recommendation.setTimestamp(System.currentTimeMillis());
+                    recommendation.setType("open_auction");
+                    stockRepository.saveAuctionRecommendation(recommendation);
+                    recordToLedger(recommendation, chatModel.getPremiumModel(), prompt);
+                    sendBroadcast(MainActivity.ACTION_STRATEGY_UPDATED);
+                    Log.d(TAG, "Auction strategy analysis completed");
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in auction analysis", e);
+        }
+        return false;
+    }
+
+    /**
+     * 尾盘推荐分析（量化+游资融合策略）
+     * 使用GLM-5高精度模型
+     */
+    private boolean analyzeClosingStrategy(ChatModel chatModel, StrategySnapshot snapshot) {
+        try {
+            ChatPrompt prompt = buildFullStrategyPrompt(getClosingPrompt(), snapshot, false);
+            stockRepository.saveStrategySnapshot(snapshot);
+
+            Log.d(TAG, "尾盘推荐: 使用GLM-5高精度模型");
+            String response = chatModel.analyzePremium(prompt);
+            if (response != null && !response.isEmpty()) {
+                StrategyRecommendation recommendation = parseStrategyRecommendation(response, "closing");
+                if (recommendation != null) {
+                    recommendationValidator.validate(recommendation);
+                    recommendation.setTimestamp(System.currentTimeMillis());
+                    recommendation.setType("closing");
+                    stockRepository.saveClosingRecommendation(recommendation);
+                    recordToLedger(recommendation, chatModel.getPremiumModel(), prompt);
+                    sendBroadcast(MainActivity.ACTION_STRATEGY_UPDATED);
+                    Log.d(TAG, "Closing strategy analysis completed");
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in closing analysis", e);
+        }
+        return false;
+    }
+    
+    /**
+     * 写入推荐台账（失败不影响推荐本身）
+     */
+    private void recordToLedger(StrategyRecommendation recommendation, String model, ChatPrompt prompt) {
+        try {
+            recommendationTracker.record(recommendation, model, promptVersionOf(prompt));
+        } catch (Exception e) {
+            Log.w(TAG, "写入推荐台账失败", e);
+        }
+    }
+
+    /**
+     * 构建市场数据文本
+     */
+    private String buildMarketDataText(StrategySnapshot snapshot) {
+        List<StockNews> newsList = snapshot.getNews();
+        StringBuilder sb = new StringBuilder();
+        sb.append("## 当前大盘数据\n\n");
+        for (MarketIndex index : snapshot.getIndices()) {
+            sb.append("### ").append(index.getIndexName()).append("\n");
+            sb.append("当前点位：").append(String.format("%.2f", index.getCurrentPoint())).append("\n");
+            sb.append("涨跌幅：").append(index.getFormattedChangePercent()).append("\n");
+            sb.append("成交额：").append(index.getFormattedAmount());
+            String volumeChange = index.getVolumeChangeText();
+            if (!volumeChange.isEmpty()) {
+                sb.append(" (").append(volumeChange).append(")");
+            }
+            sb.append("\n\n");
+        }
+        if (snapshot.getBreadth() != null) {
+            sb.append("## 市场宽度\n\n");
+            sb.append(snapshot.getBreadth().toPromptText());
+            sb.append(snapshot.getBreadthTrendText());
+            sb.append("\n");
+        }
+        if (snapshot.getSentimentCycle() != null) {
+            sb.append(snapshot.getSentimentCycle().toPromptText());
+            sb.append("输出中的 market_sentiment 请填写上述阶段（").append(snapshot.getSentimentCycle().getStage())
+                    .append("），可补充简短说明。\n\n");
+        }
+        if (newsList != null && !newsList.isEmpty()) {
+            sb.append("## 市场新闻\n\n");
+            for (StockNews news : newsList) {
+                if (news.getTitle() != null) {
+                    sb.append("- ").append(news.getTitle()).append("\n");
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 解析策略推荐结果
+     */
+    private StrategyRecommendation parseStrategyRecommendation(String response, String type) {
+        try {
+            com.google.gson.Gson gson = new com.google.gson.Gson();
+            StrategyRecommendation rec = gson.fromJson(response, StrategyRecommendation.class);
+            if (rec != null) {
+                // 竞价和尾盘推荐：代码层面强制过滤非主板股票（实时行情校验由调用方决定）
+                if ("open_auction".equals(type) || "closing".equals(type)) {
+                    filterMainBoardOnly(rec);
+                }
+                return rec;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing strategy recommendation JSON", e);
+        }
+
+        // JSON解析失败时，创建文本结果
+        StrategyRecommendation rec = new StrategyRecommendation();
+        rec.setType(type);
+        rec.setAnalysisText(response);
+        rec.setConfidence(50);
+        rec.setRiskLevel("medium");
+        switch (type) {
+            case "sector":
+                rec.setTitle("板块推荐");
+                rec.setSummary("AI分析解析中，请参考原始分析文本。");
+                break;
+            case "open_auction":
+                rec.setTitle("开盘竞价推荐");
+                rec.setSummary("AI分析解析中，请参考原始分析文本。");
+                break;
+            case "closing":
+                rec.setTitle("尾盘推荐");
+                rec.setSummary("AI分析解析中，请参考原始分析文本。");
+                break;
+        }
+        return rec;
+    }
+
+    /**
+     * 强制过滤非主板股票（竞价/尾盘推荐专用）
+     * 只保留600xxx（上证主板）和000xxx（深证主板）的股票
+     * 移除300xxx（创业板）、688xxx（科创板）等非主板股票
+     */
+    private void filterMainBoardOnly(StrategyRecommendation rec) {
+        if (rec == null || rec.getItems() == null || rec.getItems().isEmpty()) return;
+        
+        List<StrategyRecommendation.RecommendItem> filtered = new ArrayList<>();
+        for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+            String code = item.getCode();
+            if (code == null || code.isEmpty()) {
+                // 没有代码的条目保留（可能是板块推荐等）
+                filtered.add(item);
+                continue;
+            }
+            // 去除可能的前缀如 sh/sz/SH/SZ
+            String cleanCode = code.replaceAll("(?i)^(sh|sz)", "").trim();
+            if (CandidateScreener.isMainBoardCode(cleanCode)) {
+                // 更新为纯数字代码
+                item.setCode(cleanCode);
+                filtered.add(item);
+                Log.d(TAG, "保留主板股票: " + item.getName() + "(" + cleanCode + ")");
+            } else {
+                Log.w(TAG, "过滤非主板股票: " + item.getName() + "(" + code + ") - 非600/000开头");
+            }
+        }
+        
+        if (filtered.size() < rec.getItems().size()) {
+            Log.d(TAG, "主板过滤: " + rec.getItems().size() + " -> " + filtered.size() + " 只");
+        }
+        
+        // 如果过滤后还有数据，使用过滤后的结果
+        // 如果全部被过滤掉了，保留原始数据但在摘要中添加提示
+        if (!filtered.isEmpty()) {
+            rec.setItems(filtered);
+        } else {
+            Log.w(TAG, "主板过滤后无剩余股票，保留原始推荐并标注");
+            String originalSummary = rec.getSummary() != null ? rec.getSummary() : "";
+            rec.setSummary(originalSummary + "（注意：以下部分推荐含非主板股票，请自行甄别）");
+        }
+    }
+
+    // ===== 策略 Prompt =====
+
+    private String getStrategyPrompt(String strategyType) {
+        switch (strategyType) {
+            case TYPE_AUCTION:
+                return getAuctionPrompt();
+            case TYPE_CLOSING:
+                return getClosingPrompt();
+            default:
+                return getSectorPrompt();
+        }
+    }
+
+    /**
+     * 板块推荐 Prompt
+     */
+    private String getSectorPrompt() {
+        return requirePrompt(promptLoader.loadSectorStrategyPrompt(), "sector_strategy.txt");
+    }
+
+    /**
+     * 开盘竞价推荐 Prompt（昨日龙虎榜+热搜+技术指标+集合竞价）
+     */
+    private String getAuctionPrompt() {
+        return requirePrompt(promptLoader.loadAuctionStrategyPrompt(), "auction_strategy.txt");
+    }
+
+    /**
+     * 尾盘推荐 Prompt（大盘走势+板块轮动+国际国内局势+主力资金技术指标）
+     */
+    private String getClosingPrompt() {
+        return requirePrompt(promptLoader.loadClosingStrategyPrompt(), "closing_strategy.txt");
+    }
+
+    /**
+     * 策略 Prompt 只以 assets/prompts 为准（回放按文件记录Prompt版本），资源缺失直接抛异常
+     */
+    private static String requirePrompt(String prompt, String fileName) {
+        if (prompt == null || prompt.isEmpty()) {
+            throw new IllegalStateException("Missing prompt asset: prompts/" + fileName);
+        }
+        return prompt;
+    }
+
+    private void sendBroadcast(String action) {
+        Intent intent = new Intent(action);
+        LocalBroadcastManager.getInstance(context).sendBroadcast(intent);
+    }
+}
@@ -0,0 +1,209 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.ChatModel;
+import com.gp.stockapp.api.ChatPrompt;
+import com.gp.stockapp.db.RecommendationLedgerEntity;
+import com.gp.stockapp.db.ReplayResultStore;
+import com.gp.stockapp.model.StrategyRecommendation;
+import com.gp.stockapp.model.StrategySnapshot;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 策略回放
+ * 把存档的策略快照（{@link StrategySnapshot}）按当前的策略Prompt重建请求，交给指定模型（真实接口或本地确定性实现）生成推荐，
+ * 再按推荐台账的口径（{@link RecommendationTracker}）用本地日K线计算次日收益，用于不等行情就评估Prompt/模型的修改
+ *
+ * 只回放次一交易日K线已定型的快照；多个快照有限并发执行，每完成一个立即写入结果文件，
+ * 中断后用同一个 runId 重新执行时跳过已完成的快照
+ */
+public class StrategyReplayer {
+    private static final String TAG = "StrategyReplayer";
+
+    public static final int MAX_PARALLELISM = 4;
+
+    /**
+     * 回放效果汇总
+     */
+    public static class Summary {
+        private int snapshots;
+        private int picks;
+        private int evaluated;
+        private int winCount;
+        private double totalOpenReturn;
+        private double totalCloseReturn;
+        private double totalMaxAdverseReturn;
+        private double worstMaxAdverseReturn;
+
+        void add(ReplayResultStore.Result result) {
+            snapshots++;
+            for (ReplayResultStore.Pick pick : result.getPicks()) {
+                picks++;
+                if (!pick.isEvaluated()) continue;
+                evaluated++;
+                if (pick.getNextCloseReturn() > 0) winCount++;
+                totalOpenReturn += pick.getNextOpenReturn();
+                totalCloseReturn += pick.getNextCloseReturn();
+                totalMaxAdverseReturn += pick.getMaxAdverseReturn();
+                worstMaxAdverseReturn = Math.min(worstMaxAdverseReturn, pick.getMaxAdverseReturn());
+            }
+        }
+
+        public int getSnapshots() { return snapshots; }
+        public int getPicks() { return picks; }
+        public int getEvaluated() { return evaluated; }
+        public double getWinRate() { return evaluated > 0 ? winCount * 100.0 / evaluated : 0; }
+        public double getAvgOpenReturn() { return evaluated > 0 ? totalOpenReturn / evaluated : 0; }
+        public double getAvgCloseReturn() { return evaluated > 0 ? totalCloseReturn / evaluated : 0; }
+        public double getAvgMaxAdverseReturn() { return evaluated > 0 ? totalMaxAdverseReturn / evaluated : 0; }
+        public double getWorstMaxAdverseReturn() { return worstMaxAdverseReturn; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d个快照 %d只(已评估%d) 胜率%.1f%% 开盘%+.2f%% 收盘%+.2f%% 回撤%.2f%%(最差%.2f%%)",
+                    snapshots, picks, evaluated, getWinRate(), getAvgOpenReturn(), getAvgCloseReturn(),
+                    getAvgMaxAdverseReturn(), worstMaxAdverseReturn);
+        }
+    }
+
+    private final File filesDir;
+    private final StockRepository stockRepository;
+    private final StrategyGenerator strategyGenerator;
+    private final KlineCacheService klineCacheService;
+    private volatile boolean cancelled;
+
+    public StrategyReplayer(Context context) {
+        Context appContext = context.getApplicationContext();
+        filesDir = appContext.getFilesDir();
+        stockRepository = StockRepository.getInstance(appContext);
+        strategyGenerator = new StrategyGenerator(appContext);
+        klineCacheService = KlineCacheService.getInstance(appContext);
+    }
+
+    /**
+     * 执行一次回放（阻塞，需在工作线程调用）
+     * @param runId 回放标识，相同标识的回放共用结果文件、可断点续跑
+     * @param strategyType 只回放该策略的快照，null 表示竞价和尾盘都回放
+     * @param fromDate 起始信号交易日 yyyyMMdd（含）
+     * @param toDate 截止信号交易日 yyyyMMdd（含）
+     * @param parallelism 并发数（1 ~ {@link #MAX_PARALLELISM}）
+     * @return 该 runId 下全部结果的汇总；被取消时返回null
+     */
+    public Summary run(String runId, String strategyType, String fromDate, String toDate,
+                       ChatModel chatModel, int parallelism) {
+        String closedDate = TradingDayHelper.getLatestClosedTradingDayStr();
+        ReplayResultStore store = new ReplayResultStore(filesDir, runId);
+        Set<String> completed = store.getCompletedIds();
+
+        List<StrategySnapshot> pending = new ArrayList<>();
+        for (String day : stockRepository.getStrategySnapshotDays()) {
+            // 信号日须早于最近收盘日，次一交易日的K线才已定型
+            if (day.compareTo(fromDate) < 0 || day.compareTo(toDate) > 0 || day.compareTo(closedDate) >= 0) continue;
+            for (StrategySnapshot snapshot : stockRepository.getStrategySnapshots(day)) {
+                String type = snapshot.getStrategyType();
+                boolean wanted = strategyType != null ? strategyType.equals(type)
+                        : StrategyGenerator.TYPE_AUCTION.equals(type) || StrategyGenerator.TYPE_CLOSING.equals(type);
+                if (wanted && !completed.contains(snapshot.getId())) {
+                    pending.add(snapshot);
+                }
+            }
+        }
+        Log.d(TAG, "回放 " + runId + ": 模型 " + chatModel.getPremiumModel() + ", 待回放 " + pending.size()
+                + " 个快照, 已完成 " + completed.size() + " 个");
+
+        int threads = Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<ReplayResultStore.Result> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            for (StrategySnapshot snapshot : pending) {
+                completionService.submit(() -> cancelled ? null : replayOne(snapshot, chatModel, closedDate));
+            }
+            int done = 0;
+            for (int i = 0; i < pending.size() && !cancelled; i++) {
+                try {
+                    ReplayResultStore.Result result = completionService.take().get();
+                    if (result != null) {
+                        store.append(result);
+                        done++;
+                    }
+                } catch (ExecutionException e) {
+                    Log.w(TAG, "快照回放失败", e.getCause());
+                } catch (IOException e) {
+                    Log.e(TAG, "写入回放结果失败", e);
+                }
+            }
+            Log.d(TAG, "回放 " + runId + " 本次完成 " + done + "/" + pending.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        } finally {
+            executor.shutdownNow();
+        }
+        if (cancelled) {
+            return null;
+        }
+
+        Summary summary = new Summary();
+        for (ReplayResultStore.Result result : store.readAll()) {
+            summary.add(result);
+        }
+        return summary;
+    }
+
+    /**
+     * 取消正在执行的回放（已写入的结果保留）
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 回放单个快照并评估推荐个股，模型调用失败时返回null（下次续跑时重试）
+     */
+    private ReplayResultStore.Result replayOne(StrategySnapshot snapshot, ChatModel chatModel, String closedDate) {
+        ChatPrompt prompt = strategyGenerator.buildReplayPrompt(snapshot);
+        String response = chatModel.analyzeReplay(snapshot, prompt);
+        if (response == null || response.isEmpty()) {
+            Log.w(TAG, "模型无返回, 跳过快照: " + snapshot.getId());
+            return null;
+        }
+        String type = snapshot.getStrategyType();
+        StrategyRecommendation rec = strategyGenerator.parseReplayResponse(response, type);
+        ReplayResultStore.Result result = new ReplayResultStore.Result(snapshot.getId(), type,
+                snapshot.getSignalDate(), chatModel.getPremiumModel(), StrategyGenerator.promptVersionOf(prompt));
+        if (rec.getItems() == null) {
+            return result;
+        }
+        int rank = 0;
+        for (StrategyRecommendation.RecommendItem item : rec.getItems()) {
+            rank++;
+            String code = item.getCode();
+            if (code == null || !code.matches("\\d{6}")) continue;
+            RecommendationLedgerEntity row = new RecommendationLedgerEntity();
+            row.setStrategyType(type);
+            row.setSignalDate(snapshot.getSignalDate());
+            row.setCode(code);
+            row.setName(item.getName());
+            row.setRank(rank);
+            row.setScore(item.getScore());
+            boolean evaluated = RecommendationTracker.evaluate(row, klineCacheService.getDailyBars(code), closedDate);
+            result.addPick(new ReplayResultStore.Pick(row, evaluated));
+        }
+        return result;
+    }
+}
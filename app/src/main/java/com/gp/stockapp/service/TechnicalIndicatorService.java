@@ -0,0 +1,257 @@
+package com.gp.stockapp.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.KlineColumnFile;
+import com.gp.stockapp.model.KlineBar;
+import com.gp.stockapp.utils.IndicatorEngine;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 个股技术指标服务
+ * 用 {@link KlineCacheService} 中已收盘的前复权日线在本地计算均线/MACD/KDJ/RSI/BOLL/量比，
+ * 供竞价和尾盘策略Prompt直接引用，模型不再需要"猜"指标
+ *
+ * 已收盘部分的指标状态按股票缓存（LRU），只在本地K线更新后重算；
+ * 盘中再抓当天实时K线（缓存5分钟），在缓存状态的副本上追加一根即可得到最新指标
+ */
+public class TechnicalIndicatorService {
+    private static final String TAG = "TechnicalIndicatorService";
+    private static volatile TechnicalIndicatorService instance;
+
+    private static final int MAX_CACHED_ENGINES = 64;
+    private static final long LIVE_BAR_TTL = 5 * 60_000L;
+    private static final LocalTime LIVE_BAR_START = LocalTime.of(9, 15);
+    private static final int FETCH_PARALLELISM = 4;
+    private static final long FETCH_TIMEOUT_MS = 15_000;
+
+    /**
+     * 已收盘K线上的指标状态
+     */
+    private static class EngineEntry {
+        final int lastDate;
+        final IndicatorEngine engine;
+
+        EngineEntry(int lastDate, IndicatorEngine engine) {
+            this.lastDate = lastDate;
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * 当天实时K线
+     */
+    private static class LiveBar {
+        final KlineBar bar;
+        final long fetchTime;
+
+        LiveBar(KlineBar bar, long fetchTime) {
+            this.bar = bar;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    private final KlineCacheService klineCacheService;
+    private final HotStockApi hotStockApi;
+    private final ExecutorService fetchExecutor;
+    private final Map<String, EngineEntry> engines = new LinkedHashMap<String, EngineEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EngineEntry> eldest) {
+            return size() > MAX_CACHED_ENGINES;
+        }
+    };
+    private final Map<String, LiveBar> liveBars = new LinkedHashMap<String, LiveBar>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LiveBar> eldest) {
+            return size() > MAX_CACHED_ENGINES;
+        }
+    };
+
+    private TechnicalIndicatorService(Context context) {
+        klineCacheService = KlineCacheService.getInstance(context);
+        hotStockApi = HotStockApi.getInstance();
+        fetchExecutor = Executors.newFixedThreadPool(FETCH_PARALLELISM);
+    }
+
+    public static TechnicalIndicatorService getInstance(Context context) {
+        if (instance == null) {
+            synchronized (TechnicalIndicatorService.class) {
+                if (instance == null) {
+                    instance = new TechnicalIndicatorService(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 计算单只股票的最新指标（阻塞，需在工作线程调用），K线不可用时返回null
+     * 交易日开盘后包含当天的实时K线
+     */
+    public IndicatorEngine.Snapshot getSnapshot(String code) {
+        IndicatorEngine engine = getClosedEngine(code);
+        KlineBar live = getLiveBar(code);
+        if (live != null && (engine == null || live.getTradeDate() > engine.getLastDate())) {
+            engine = engine != null ? engine.copy() : new IndicatorEngine();
+            engine.update(live.getTradeDate(), live.getHigh(), live.getLow(), live.getClose(), live.getVolume());
+        }
+        return engine != null ? engine.snapshot() : null;
+    }
+
+    /**
+     * 并发计算一批股票的指标（阻塞），抓取失败或超时的股票不出现在结果中
+     * @return 代码 -> 指标，顺序与输入一致
+     */
+    public Map<String, IndicatorEngine.Snapshot> getSnapshots(List<String> codes) {
+        Map<String, Future<IndicatorEngine.Snapshot>> futures = new LinkedHashMap<>();
+        for (String code : codes) {
+            futures.put(code, fetchExecutor.submit(() -> getSnapshot(code)));
+        }
+        Map<String, IndicatorEngine.Snapshot> result = new LinkedHashMap<>();
+        long deadline = System.currentTimeMillis() + FETCH_TIMEOUT_MS;
+        for (Map.Entry<String, Future<IndicatorEngine.Snapshot>> entry : futures.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                IndicatorEngine.Snapshot snapshot = entry.getValue().get(remaining, TimeUnit.MILLISECONDS);
+                if (snapshot != null) {
+                    result.put(entry.getKey(), snapshot);
+                }
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                Log.w(TAG, "计算技术指标超时: " + entry.getKey());
+            } catch (ExecutionException e) {
+                Log.w(TAG, "计算技术指标失败: " + entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 构建候选股技术指标文本（策略Prompt用），没有可用指标时返回空串
+     * @param candidates 代码 -> 名称（按优先级排序）
+     */
+    public String buildPromptText(Map<String, String> candidates) {
+        if (candidates.isEmpty()) {
+            return "";
+        }
+        long start = System.currentTimeMillis();
+        Map<String, IndicatorEngine.Snapshot> snapshots = getSnapshots(new ArrayList<>(candidates.keySet()));
+        Log.d(TAG, "计算 " + snapshots.size() + "/" + candidates.size() + " 只候选股技术指标, 耗时 "
+                + (System.currentTimeMillis() - start) + "ms");
+        return formatPromptText(candidates, snapshots);
+    }
+
+    /**
+     * 按截至某交易日收盘的本地K线构建候选股技术指标文本（策略回放用，不含实时K线），没有可用指标时返回空串
+     * @param candidates 代码 -> 名称（按优先级排序）
+     * @param asOfDate 只使用该交易日（yyyyMMdd）及之前的K线
+     */
+    public String buildPromptTextAsOf(Map<String, String> candidates, int asOfDate) {
+        Map<String, IndicatorEngine.Snapshot> snapshots = new LinkedHashMap<>();
+        for (String code : candidates.keySet()) {
+            KlineColumnFile.Columns columns = klineCacheService.getDailyBars(code);
+            if (columns == null || columns.isEmpty()) continue;
+            IndicatorEngine engine = new IndicatorEngine();
+            boolean hasBar = false;
+            for (int i = 0; i < columns.size() && columns.getDate(i) <= asOfDate; i++) {
+                engine.update(columns.getDate(i), columns.getHigh(i), columns.getLow(i),
+                        columns.getClose(i), columns.getVolume(i));
+                hasBar = true;
+            }
+            if (hasBar) {
+                snapshots.put(code, engine.snapshot());
+            }
+        }
+        return formatPromptText(candidates, snapshots);
+    }
+
+    private static String formatPromptText(Map<String, String> candidates,
+                                           Map<String, IndicatorEngine.Snapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n## 候选股技术指标（本地根据前复权日K线计算，截至 ")
+                .append(snapshots.values().iterator().next().getTradeDate()).append("）\n\n");
+        sb.append("以下指标为真实计算结果，引用技术面依据时请直接使用这些数值，不要自行推测：\n\n");
+        for (Map.Entry<String, IndicatorEngine.Snapshot> entry : snapshots.entrySet()) {
+            String name = candidates.get(entry.getKey());
+            sb.append("- ").append(name != null ? name : "").append("(").append(entry.getKey()).append(") ")
+                    .append(entry.getValue().toPromptText()).append("\n");
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * 已收盘K线上的指标状态（本地K线更新后重算），没有K线时返回null
+     */
+    private IndicatorEngine getClosedEngine(String code) {
+        KlineColumnFile.Columns columns = klineCacheService.getDailyBars(code);
+        if (columns == null || columns.isEmpty()) {
+            return null;
+        }
+        int lastDate = columns.getLastDate();
+        synchronized (engines) {
+            EngineEntry entry = engines.get(code);
+            if (entry != null && entry.lastDate == lastDate) {
+                return entry.engine;
+            }
+        }
+        IndicatorEngine engine = new IndicatorEngine();
+        for (int i = 0; i < columns.size(); i++) {
+            engine.update(columns.getDate(i), columns.getHigh(i), columns.getLow(i),
+                    columns.getClose(i), columns.getVolume(i));
+        }
+        synchronized (engines) {
+            engines.put(code, new EngineEntry(lastDate, engine));
+        }
+        return engine;
+    }
+
+    /**
+     * 当天的实时K线（交易日集合竞价开始后、日K线定型之前），取不到时返回null
+     */
+    private KlineBar getLiveBar(String code) {
+        if (!TradingDayHelper.isTodayTradingDay() || LocalTime.now().isBefore(LIVE_BAR_START)
+                || TradingDayHelper.formatDate(new Date()).equals(TradingDayHelper.getLatestClosedTradingDayStr())) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (liveBars) {
+            LiveBar cached = liveBars.get(code);
+            if (cached != null && now - cached.fetchTime < LIVE_BAR_TTL) {
+                return cached.bar;
+            }
+        }
+        try {
+            List<KlineBar> bars = hotStockApi.fetchDailyKlines(code, 1);
+            KlineBar bar = bars.isEmpty() ? null : bars.get(bars.size() - 1);
+            synchronized (liveBars) {
+                liveBars.put(code, new LiveBar(bar, now));
+            }
+            return bar;
+        } catch (Exception e) {
+            Log.w(TAG, "抓取实时K线失败: " + code + ", " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.gp.stockapp.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick 多模式匹配自动机（构建后不可变，线程安全）
+ * 一次扫描文本即可找出所有关键词，耗时与文本长度成线性关系，与关键词数量无关
+ *
+ * 用法：
+ * AhoCorasick matcher = new AhoCorasick.Builder().add("降准", 0).add("降息", 0).build();
+ * matcher.scan(text, (patternId, end) -> ...);
+ */
+public final class AhoCorasick {
+
+    /**
+     * 匹配回调
+     */
+    public interface MatchListener {
+        /**
+         * @param patternId 命中的关键词编号（add顺序，从0开始）
+         * @param end       命中位置（关键词最后一个字符之后的下标）
+         */
+        void onMatch(int patternId, int end);
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    // 转移表：key=(状态<<16)|字符
+    private final Map<Long, Integer> transitions;
+    private final int[] fail;
+    // 每个状态命中的关键词（已合并失败链上的输出）
+    private final int[][] outputs;
+    private final String[] patterns;
+    private final int[] categories;
+
+    private AhoCorasick(Map<Long, Integer> transitions, int[] fail, int[][] outputs,
+                        String[] patterns, int[] categories) {
+        this.transitions = transitions;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.patterns = patterns;
+        this.categories = categories;
+    }
+
+    /**
+     * 扫描文本，每个命中回调一次（同一关键词出现多次会回调多次）
+     */
+    public void scan(CharSequence text, MatchListener listener) {
+        if (text == null) return;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next;
+            while ((next = transitions.get(key(state, c))) == null && state != 0) {
+                state = fail[state];
+            }
+            state = next != null ? next : 0;
+            for (int patternId : outputs[state]) {
+                listener.onMatch(patternId, i + 1);
+            }
+        }
+    }
+
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    public String getPattern(int patternId) {
+        return patterns[patternId];
+    }
+
+    /**
+     * 关键词所属类别（add时指定）
+     */
+    public int getCategory(int patternId) {
+        return categories[patternId];
+    }
+
+    private static long key(int state, char c) {
+        return ((long) state << 16) | c;
+    }
+
+    public static final class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+
+        /**
+         * 添加关键词
+         * @param category 关键词类别，匹配时可通过 getCategory 取回
+         */
+        public Builder add(String pattern, int category) {
+            if (pattern != null && !pattern.isEmpty()) {
+                patterns.add(pattern);
+                categories.add(category);
+            }
+            return this;
+        }
+
+        public Builder addAll(String[] patterns, int category) {
+            for (String pattern : patterns) {
+                add(pattern, category);
+            }
+            return this;
+        }
+
+        public AhoCorasick build() {
+            Map<Long, Integer> transitions = new HashMap<>();
+            List<List<Integer>> nodeOutputs = new ArrayList<>();
+            nodeOutputs.add(new ArrayList<>());
+
+            // 1. 构建字典树
+            for (int id = 0; id < patterns.size(); id++) {
+                String pattern = patterns.get(id);
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    long k = key(state, pattern.charAt(i));
+                    Integer next = transitions.get(k);
+                    if (next == null) {
+                        next = nodeOutputs.size();
+                        nodeOutputs.add(new ArrayList<>());
+                        transitions.put(k, next);
+                    }
+                    state = next;
+                }
+                nodeOutputs.get(state).add(id);
+            }
+
+            // 2. BFS计算失败指针，并把失败状态的输出合并进来
+            int nodeCount = nodeOutputs.size();
+            int[] fail = new int[nodeCount];
+            Map<Integer, List<long[]>> children = new HashMap<>();
+            for (Map.Entry<Long, Integer> e : transitions.entrySet()) {
+                int parent = (int) (e.getKey() >>> 16);
+                char c = (char) (e.getKey() & 0xFFFF);
+                children.computeIfAbsent(parent, p -> new ArrayList<>()).add(new long[]{c, e.getValue()});
+            }
+
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (long[] child : children.getOrDefault(0, new ArrayList<>())) {
+                fail[(int) child[1]] = 0;
+                queue.add((int) child[1]);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (long[] child : children.getOrDefault(state, new ArrayList<>())) {
+                    char c = (char) child[0];
+                    int target = (int) child[1];
+                    int f = fail[state];
+                    Integer next;
+                    while ((next = transitions.get(key(f, c))) == null && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[target] = next != null && next != target ? next : 0;
+                    nodeOutputs.get(target).addAll(nodeOutputs.get(fail[target]));
+                    queue.add(target);
+                }
+            }
+
+            int[][] outputs = new int[nodeCount][];
+            for (int i = 0; i < nodeCount; i++) {
+                List<Integer> out = nodeOutputs.get(i);
+                if (out.isEmpty()) {
+                    outputs[i] = NO_OUTPUT;
+                } else {
+                    outputs[i] = new int[out.size()];
+                    for (int j = 0; j < out.size(); j++) {
+                        outputs[i][j] = out.get(j);
+                    }
+                }
+            }
+
+            int[] categoryArray = new int[categories.size()];
+            for (int i = 0; i < categoryArray.length; i++) {
+                categoryArray[i] = categories.get(i);
+            }
+            return new AhoCorasick(transitions, fail, outputs,
+                    patterns.toArray(new String[0]), categoryArray);
+        }
+    }
+}
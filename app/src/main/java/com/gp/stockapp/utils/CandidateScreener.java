@@ -0,0 +1,260 @@
+package com.gp.stockapp.utils;
+
+import android.util.Log;
+
+import com.gp.stockapp.model.HotStockData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 候选股本地初筛
+ * 在构建竞价/尾盘Prompt之前，按策略的硬性规则过滤热门数据中的个股，再按规则打分取前K只，
+ * 只把候选表交给模型，减少Prompt长度和被事后过滤掉的推荐
+ *
+ * 过滤：主板、非ST、流通市值30-120亿、距涨停≥1%（涨停池个股直接排除）、换手2%-30%、上龙虎榜的须净买入为正
+ * 评分(0-100)：龙虎榜净买入占流通市值(30) + 换手(20) + 涨幅(20) + 成交额(15) + 流通市值(15)
+ * 同分按代码排序，同一份热门数据的结果完全确定
+ */
+public final class CandidateScreener {
+    private static final String TAG = "CandidateScreener";
+
+    private static final double MIN_MARKET_CAP = 30;       // 流通市值下限(亿)
+    private static final double MAX_MARKET_CAP = 120;      // 流通市值上限(亿)
+    private static final double MIN_LIMIT_DISTANCE = 1.0;  // 距涨停价下限(%)
+    private static final double MIN_TURNOVER = 2.0;        // 换手率下限(%)
+    private static final double MAX_TURNOVER = 30.0;       // 换手率上限(%)，过高多为分歧出货
+    private static final double MAIN_BOARD_LIMIT = 10.0;   // 主板涨跌停幅度(%)
+
+    private CandidateScreener() {
+    }
+
+    /**
+     * 初筛候选股（各榜单数据按代码合并）
+     */
+    public static final class Candidate {
+        private final String code;
+        private String name;
+        private double close;
+        private double changePercent;
+        private double turnoverRate;
+        private double amount;          // 成交额(万)，榜单没有时按换手率估算
+        private double marketCap;       // 流通市值(亿)
+        private boolean onDragonTiger;
+        private double netBuy;          // 龙虎榜净买入(万)
+        private String dragonTigerReason;
+        private String concept;
+        private double limitDistance;   // 距涨停价(%)
+        private double score;
+
+        Candidate(String code) {
+            this.code = code;
+        }
+
+        public String getCode() { return code; }
+        public String getName() { return name; }
+        public double getClose() { return close; }
+        public double getChangePercent() { return changePercent; }
+        public double getTurnoverRate() { return turnoverRate; }
+        public double getAmount() { return amount; }
+        public double getMarketCap() { return marketCap; }
+        public boolean isOnDragonTiger() { return onDragonTiger; }
+        public double getNetBuy() { return netBuy; }
+        public double getLimitDistance() { return limitDistance; }
+        public double getScore() { return score; }
+
+        /**
+         * Prompt中的一行候选描述
+         */
+        public String toPromptText() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(name != null ? name : "").append("(").append(code).append(") ")
+                    .append(String.format(Locale.US, "评分%.0f 涨幅%.2f%% 距涨停%.1f%% 换手%.1f%% 成交%.1f亿 流通市值%.0f亿",
+                            score, changePercent, limitDistance, turnoverRate, amount / 10000.0, marketCap));
+            if (onDragonTiger) {
+                sb.append(String.format(Locale.US, " 龙虎榜净买入%.0f万", netBuy));
+                if (dragonTigerReason != null && !dragonTigerReason.isEmpty()) {
+                    sb.append("[").append(dragonTigerReason).append("]");
+                }
+            }
+            if (concept != null && !concept.isEmpty()) {
+                sb.append(" 题材:").append(concept);
+            }
+            return sb.toString();
+        }
+
+        private void merge(String name, double close, double changePercent, double turnoverRate, double marketCap) {
+            if (this.name == null || this.name.isEmpty()) this.name = name;
+            if (this.close <= 0) this.close = close;
+            if (this.changePercent == 0) this.changePercent = changePercent;
+            if (this.turnoverRate <= 0) this.turnoverRate = turnoverRate;
+            if (this.marketCap <= 0) this.marketCap = marketCap;
+        }
+
+        private void mergeConcept(String concept) {
+            if ((this.concept == null || this.concept.isEmpty()) && concept != null && !concept.isEmpty()) {
+                this.concept = concept;
+            }
+        }
+    }
+
+    /**
+     * 主板股票代码（上证600/601/603/605，深证000/001/002）
+     */
+    public static boolean isMainBoardCode(String code) {
+        return code.startsWith("600") || code.startsWith("601") || code.startsWith("603") || code.startsWith("605")
+                || code.startsWith("000") || code.startsWith("001") || code.startsWith("002");
+    }
+
+    /**
+     * 过滤并打分，返回评分最高的 topK 只（评分降序）
+     */
+    public static List<Candidate> screen(HotStockData hotData, int topK) {
+        List<Candidate> passed = new ArrayList<>();
+        if (hotData == null || topK <= 0) {
+            return passed;
+        }
+        Map<String, Candidate> merged = mergeByCode(hotData);
+        Set<String> limitUpCodes = new HashSet<>();
+        if (hotData.getLimitUpList() != null) {
+            for (HotStockData.LimitUpItem item : hotData.getLimitUpList()) {
+                if (item.getCode() != null) limitUpCodes.add(item.getCode());
+            }
+        }
+
+        int rejectedBoard = 0, rejectedCap = 0, rejectedLimit = 0, rejectedTurnover = 0, rejectedNetBuy = 0;
+        for (Candidate candidate : merged.values()) {
+            if (!isMainBoardCode(candidate.code) || (candidate.name != null && candidate.name.contains("ST"))) {
+                rejectedBoard++;
+                continue;
+            }
+            if (candidate.marketCap < MIN_MARKET_CAP || candidate.marketCap > MAX_MARKET_CAP) {
+                rejectedCap++;
+                continue;
+            }
+            candidate.limitDistance = limitDistance(candidate.close, candidate.changePercent);
+            if (limitUpCodes.contains(candidate.code) || candidate.limitDistance < MIN_LIMIT_DISTANCE) {
+                rejectedLimit++;
+                continue;
+            }
+            if (candidate.turnoverRate < MIN_TURNOVER || candidate.turnoverRate > MAX_TURNOVER) {
+                rejectedTurnover++;
+                continue;
+            }
+            if (candidate.onDragonTiger && candidate.netBuy <= 0) {
+                rejectedNetBuy++;
+                continue;
+            }
+            if (candidate.amount <= 0) {
+                candidate.amount = candidate.turnoverRate / 100.0 * candidate.marketCap * 10000.0;
+            }
+            candidate.score = score(candidate);
+            passed.add(candidate);
+        }
+
+        passed.sort((a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            return byScore != 0 ? byScore : a.code.compareTo(b.code);
+        });
+        Log.d(TAG, "候选股初筛: " + merged.size() + " -> " + passed.size() + " 只 (板块/ST " + rejectedBoard
+                + ", 市值 " + rejectedCap + ", 涨停 " + rejectedLimit + ", 换手 " + rejectedTurnover
+                + ", 净卖出 " + rejectedNetBuy + "), 取前 " + Math.min(topK, passed.size()));
+        return passed.size() > topK ? new ArrayList<>(passed.subList(0, topK)) : passed;
+    }
+
+    /**
+     * 按代码合并龙虎榜、活跃股、连板股的字段（先出现的非空值优先）
+     */
+    private static Map<String, Candidate> mergeByCode(HotStockData hotData) {
+        Map<String, Candidate> merged = new LinkedHashMap<>();
+        if (hotData.getDragonTigerList() != null) {
+            for (HotStockData.DragonTigerItem item : hotData.getDragonTigerList()) {
+                Candidate candidate = candidateFor(merged, item.getCode());
+                if (candidate == null) continue;
+                candidate.merge(item.getName(), item.getClose(), item.getChangePercent(),
+                        item.getTurnoverRate(), item.getMarketCap());
+                // 同一只股票可能因多个原因上榜，净买入只计一次
+                if (!candidate.onDragonTiger) {
+                    candidate.onDragonTiger = true;
+                    candidate.netBuy = item.getNetBuy();
+                    candidate.dragonTigerReason = item.getReason();
+                }
+                candidate.mergeConcept(item.getConcept());
+            }
+        }
+        if (hotData.getTopGainers() != null) {
+            for (HotStockData.TopGainerItem item : hotData.getTopGainers()) {
+                Candidate candidate = candidateFor(merged, item.getCode());
+                if (candidate == null) continue;
+                candidate.merge(item.getName(), item.getClose(), item.getChangePercent(),
+                        item.getTurnoverRate(), item.getMarketCap());
+                if (candidate.amount <= 0) candidate.amount = item.getAmount();
+                candidate.mergeConcept(item.getConcept());
+            }
+        }
+        if (hotData.getContinuousLimitList() != null) {
+            for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                Candidate candidate = candidateFor(merged, item.getCode());
+                if (candidate == null) continue;
+                candidate.merge(item.getName(), 0, item.getChangePercent(),
+                        item.getTurnoverRate(), item.getMarketCap());
+                candidate.mergeConcept(item.getConcept());
+            }
+        }
+        return merged;
+    }
+
+    private static Candidate candidateFor(Map<String, Candidate> merged, String code) {
+        if (code == null) return null;
+        String clean = code.replaceAll("(?i)^(sh|sz)", "").trim();
+        if (clean.isEmpty()) return null;
+        return merged.computeIfAbsent(clean, Candidate::new);
+    }
+
+    /**
+     * 距涨停价的百分比：有现价时按昨收推算涨停价（四舍五入到分），否则按涨幅近似
+     */
+    static double limitDistance(double close, double changePercent) {
+        if (close <= 0 || changePercent <= -100) {
+            return MAIN_BOARD_LIMIT - changePercent;
+        }
+        double prevClose = close / (1 + changePercent / 100.0);
+        double limitPrice = Math.round(prevClose * (1 + MAIN_BOARD_LIMIT / 100.0) * 100) / 100.0;
+        return (limitPrice - close) / close * 100.0;
+    }
+
+    private static double score(Candidate c) {
+        double score = 0;
+        if (c.onDragonTiger) {
+            // 净买入占流通市值1%即满分
+            double ratio = c.netBuy / (c.marketCap * 10000.0);
+            score += 30 * clamp(ratio / 0.01);
+        }
+        score += 20 * trapezoid(c.turnoverRate, MIN_TURNOVER, 5, 15, MAX_TURNOVER);
+        // 有上涨动能且离涨停留有空间
+        score += 20 * trapezoid(c.changePercent, -3, 2, 6, MAIN_BOARD_LIMIT - MIN_LIMIT_DISTANCE);
+        // 成交额1亿起算，20亿满分（对数刻度）
+        score += 15 * clamp(Math.log10(Math.max(c.amount, 1) / 10000.0) / Math.log10(20));
+        score += 15 * trapezoid(c.marketCap, MIN_MARKET_CAP, 50, 80, MAX_MARKET_CAP);
+        return Math.round(score * 10) / 10.0;
+    }
+
+    /**
+     * 梯形隶属度：[lowZero, lowFull] 线性升到1，[lowFull, highFull] 为1，[highFull, highZero] 线性降到0
+     */
+    private static double trapezoid(double x, double lowZero, double lowFull, double highFull, double highZero) {
+        if (x <= lowZero || x >= highZero) return 0;
+        if (x < lowFull) return (x - lowZero) / (lowFull - lowZero);
+        if (x > highFull) return (highZero - x) / (highZero - highFull);
+        return 1;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
@@ -0,0 +1,169 @@
+package com.gp.stockapp.utils;
+
+import android.util.Log;
+
+/**
+ * 熔断器（关闭 / 打开 / 半开）
+ * 基于滑动窗口内的失败率决定是否熔断：
+ * - 关闭：正常放行，记录每次调用结果
+ * - 打开：失败率超过阈值后进入，冷却期内直接拒绝（快速失败）
+ * - 半开：冷却期结束后放行少量探测请求，全部成功则关闭，任一失败则重新打开
+ */
+public class CircuitBreaker {
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State {
+        CLOSED,     // 关闭：正常放行
+        OPEN,       // 打开：快速失败
+        HALF_OPEN   // 半开：探测恢复
+    }
+
+    private final String name;
+    private final int windowSize;             // 滑动窗口大小（最近N次调用）
+    private final int minimumCalls;           // 窗口内至少N次调用才计算失败率
+    private final double failureRateThreshold; // 失败率阈值(0-1)
+    private final long openDurationMs;        // 打开状态持续时间
+    private final int halfOpenPermits;        // 半开状态允许的探测请求数
+
+    // 环形缓冲区：true=失败
+    private final boolean[] outcomes;
+    private int cursor = 0;
+    private int recordedCalls = 0;
+    private int failureCount = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private int halfOpenInFlight = 0;
+    private int halfOpenSuccesses = 0;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls,
+                          double failureRateThreshold, long openDurationMs, int halfOpenPermits) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenPermits = Math.max(1, halfOpenPermits);
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * 是否允许发起请求
+     * 打开状态下冷却期结束会自动转为半开，并占用一个探测名额
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now() - openedAt < openDurationMs) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                return tryHalfOpen();
+            case HALF_OPEN:
+            default:
+                return tryHalfOpen();
+        }
+    }
+
+    /**
+     * 半开状态下占用一个探测名额，名额用完时拒绝
+     */
+    private boolean tryHalfOpen() {
+        if (halfOpenInFlight >= halfOpenPermits) {
+            return false;
+        }
+        halfOpenInFlight++;
+        return true;
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= halfOpenPermits) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录一次失败调用
+     */
+    public synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record(true);
+        if (recordedCalls >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        // 冷却期已过但还没有请求进来时，对外仍报告为半开
+        if (state == State.OPEN && now() - openedAt >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * 当前窗口内的失败率(0-1)
+     */
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0 : (double) failureCount / recordedCalls;
+    }
+
+    /**
+     * 打开状态剩余的冷却时间（毫秒），非打开状态返回0
+     */
+    public synchronized long getRemainingOpenMs() {
+        if (state != State.OPEN) return 0;
+        return Math.max(0, openDurationMs - (now() - openedAt));
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == windowSize) {
+            // 窗口已满，覆盖最旧的记录
+            if (outcomes[cursor]) failureCount--;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[cursor] = failed;
+        if (failed) failureCount++;
+        cursor = (cursor + 1) % windowSize;
+    }
+
+    private void transitionTo(State newState) {
+        if (state == newState) return;
+        Log.w(TAG, "[" + name + "] " + state + " -> " + newState
+                + String.format(" (失败率 %.0f%%, 窗口 %d 次)", getFailureRate() * 100, recordedCalls));
+        state = newState;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = now();
+        } else if (newState == State.CLOSED) {
+            // 恢复后清空窗口，避免旧失败记录立刻再次触发熔断
+            cursor = 0;
+            recordedCalls = 0;
+            failureCount = 0;
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
@@ -0,0 +1,471 @@
+package com.gp.stockapp.utils;
+
+import com.gp.stockapp.model.KlineBar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 本地技术指标引擎（日线，增量计算）
+ *
+ * 按时间顺序逐根喂入K线，每根K线的更新为常数时间：均线/布林带/量比用定长滑动窗口维护和与平方和，
+ * EMA、MACD、KDJ 的平滑和 RSI 的 SMA(X,N,1) 都是递推式，KDJ 的 9 日高低点在定长窗口内取得。
+ * 历史部分算好后可以缓存，盘中只需 copy() 后再喂入当天的实时K线。
+ * 指标口径与通达信/同花顺一致：MACD(12,26,9)、KDJ(9,3,3)、RSI(6,12)、BOLL(20,2)、量比为当日量/前5日均量
+ */
+public class IndicatorEngine {
+
+    private static final int KDJ_PERIOD = 9;
+    private static final int BOLL_PERIOD = 20;
+    private static final double BOLL_WIDTH = 2.0;
+    private static final int VOLUME_RATIO_PERIOD = 5;
+
+    private final RollingWindow ma5;
+    private final RollingWindow ma10;
+    private final RollingWindow ma20;
+    private final RollingWindow ma60;
+    private final RollingWindow highs;
+    private final RollingWindow lows;
+    private final RollingWindow volumes;
+
+    private final Ema ema12;
+    private final Ema ema26;
+    private final Ema dea;
+    private final Sma rsi6Up;
+    private final Sma rsi6All;
+    private final Sma rsi12Up;
+    private final Sma rsi12All;
+
+    private int barCount = 0;
+    private int lastDate;
+    private double lastClose;
+    private double prevClose = Double.NaN;
+    private double volumeRatio = Double.NaN;
+    private double k = 50;
+    private double d = 50;
+    private double prevDif = Double.NaN;
+    private double prevDea = Double.NaN;
+    private double prevK = Double.NaN;
+    private double prevD = Double.NaN;
+    private double prevMa5 = Double.NaN;
+
+    public IndicatorEngine() {
+        ma5 = new RollingWindow(5);
+        ma10 = new RollingWindow(10);
+        ma20 = new RollingWindow(BOLL_PERIOD);
+        ma60 = new RollingWindow(60);
+        highs = new RollingWindow(KDJ_PERIOD);
+        lows = new RollingWindow(KDJ_PERIOD);
+        volumes = new RollingWindow(VOLUME_RATIO_PERIOD);
+        ema12 = new Ema(12);
+        ema26 = new Ema(26);
+        dea = new Ema(9);
+        rsi6Up = new Sma(6);
+        rsi6All = new Sma(6);
+        rsi12Up = new Sma(12);
+        rsi12All = new Sma(12);
+    }
+
+    /**
+     * 拷贝当前状态（在已计算好的历史基础上试算盘中实时K线，不影响原引擎）
+     */
+    public IndicatorEngine copy() {
+        IndicatorEngine copy = new IndicatorEngine(this);
+        copy.barCount = barCount;
+        copy.lastDate = lastDate;
+        copy.lastClose = lastClose;
+        copy.prevClose = prevClose;
+        copy.volumeRatio = volumeRatio;
+        copy.k = k;
+        copy.d = d;
+        copy.prevDif = prevDif;
+        copy.prevDea = prevDea;
+        copy.prevK = prevK;
+        copy.prevD = prevD;
+        copy.prevMa5 = prevMa5;
+        return copy;
+    }
+
+    private IndicatorEngine(IndicatorEngine other) {
+        ma5 = other.ma5.copy();
+        ma10 = other.ma10.copy();
+        ma20 = other.ma20.copy();
+        ma60 = other.ma60.copy();
+        highs = other.highs.copy();
+        lows = other.lows.copy();
+        volumes = other.volumes.copy();
+        ema12 = other.ema12.copy();
+        ema26 = other.ema26.copy();
+        dea = other.dea.copy();
+        rsi6Up = other.rsi6Up.copy();
+        rsi6All = other.rsi6All.copy();
+        rsi12Up = other.rsi12Up.copy();
+        rsi12All = other.rsi12All.copy();
+    }
+
+    /**
+     * 由一组K线（日期升序）构建引擎
+     */
+    public static IndicatorEngine of(List<KlineBar> bars) {
+        IndicatorEngine engine = new IndicatorEngine();
+        for (KlineBar bar : bars) {
+            engine.update(bar.getTradeDate(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        }
+        return engine;
+    }
+
+    /**
+     * 追加一根日K线
+     */
+    public void update(int tradeDate, double high, double low, double close, long volume) {
+        // 前值用于判断金叉/死叉
+        double dif = ema12.value() - ema26.value();
+        prevDif = barCount > 0 ? dif : Double.NaN;
+        prevDea = barCount > 0 ? dea.value() : Double.NaN;
+        prevK = barCount > 0 ? k : Double.NaN;
+        prevD = barCount > 0 ? d : Double.NaN;
+        prevMa5 = ma5.isFull() ? ma5.mean() : Double.NaN;
+
+        // 量比：当日量 / 前5日均量（先算再入窗口）
+        volumeRatio = volumes.isFull() && volumes.mean() > 0 ? volume / volumes.mean() : Double.NaN;
+        volumes.add(volume);
+
+        ma5.add(close);
+        ma10.add(close);
+        ma20.add(close);
+        ma60.add(close);
+
+        ema12.add(close);
+        ema26.add(close);
+        dea.add(ema12.value() - ema26.value());
+
+        highs.add(high);
+        lows.add(low);
+        double highest = highs.max();
+        double lowest = lows.min();
+        double rsv = highest > lowest ? (close - lowest) / (highest - lowest) * 100 : 50;
+        k = (2 * k + rsv) / 3;
+        d = (2 * d + k) / 3;
+
+        if (barCount > 0) {
+            double change = close - lastClose;
+            rsi6Up.add(Math.max(change, 0));
+            rsi6All.add(Math.abs(change));
+            rsi12Up.add(Math.max(change, 0));
+            rsi12All.add(Math.abs(change));
+            prevClose = lastClose;
+        }
+
+        lastDate = tradeDate;
+        lastClose = close;
+        barCount++;
+    }
+
+    public int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * 最后一根K线的交易日，没有K线时返回 0
+     */
+    public int getLastDate() {
+        return lastDate;
+    }
+
+    /**
+     * 当前指标值（没有K线时返回null）
+     */
+    public Snapshot snapshot() {
+        if (barCount == 0) {
+            return null;
+        }
+        Snapshot s = new Snapshot();
+        s.tradeDate = lastDate;
+        s.close = lastClose;
+        s.changePercent = !Double.isNaN(prevClose) && prevClose > 0 ? (lastClose - prevClose) / prevClose * 100 : Double.NaN;
+        s.ma5 = ma5.isFull() ? ma5.mean() : Double.NaN;
+        s.ma10 = ma10.isFull() ? ma10.mean() : Double.NaN;
+        s.ma20 = ma20.isFull() ? ma20.mean() : Double.NaN;
+        s.ma60 = ma60.isFull() ? ma60.mean() : Double.NaN;
+        s.dif = ema12.value() - ema26.value();
+        s.dea = dea.value();
+        s.macd = 2 * (s.dif - s.dea);
+        s.k = k;
+        s.d = d;
+        s.j = 3 * k - 2 * d;
+        s.rsi6 = rsi(rsi6Up, rsi6All);
+        s.rsi12 = rsi(rsi12Up, rsi12All);
+        if (ma20.isFull()) {
+            double std = ma20.stdDev();
+            s.bollMid = ma20.mean();
+            s.bollUpper = s.bollMid + BOLL_WIDTH * std;
+            s.bollLower = s.bollMid - BOLL_WIDTH * std;
+        } else {
+            s.bollMid = s.bollUpper = s.bollLower = Double.NaN;
+        }
+        s.volumeRatio = volumeRatio;
+        s.macdGoldenCross = !Double.isNaN(prevDif) && prevDif <= prevDea && s.dif > s.dea;
+        s.macdDeadCross = !Double.isNaN(prevDif) && prevDif >= prevDea && s.dif < s.dea;
+        s.kdjGoldenCross = !Double.isNaN(prevK) && prevK <= prevD && k > d;
+        s.kdjDeadCross = !Double.isNaN(prevK) && prevK >= prevD && k < d;
+        s.ma5Rising = !Double.isNaN(prevMa5) && s.ma5 > prevMa5;
+        return s;
+    }
+
+    private static double rsi(Sma up, Sma all) {
+        if (up.count() == 0) {
+            return Double.NaN;
+        }
+        return all.value() > 0 ? up.value() / all.value() * 100 : 50;
+    }
+
+    /**
+     * 某一根K线上的指标值
+     */
+    public static class Snapshot {
+        private int tradeDate;
+        private double close;
+        private double changePercent;
+        private double ma5, ma10, ma20, ma60;
+        private double dif, dea, macd;
+        private double k, d, j;
+        private double rsi6, rsi12;
+        private double bollUpper, bollMid, bollLower;
+        private double volumeRatio;
+        private boolean macdGoldenCross, macdDeadCross;
+        private boolean kdjGoldenCross, kdjDeadCross;
+        private boolean ma5Rising;
+
+        public int getTradeDate() { return tradeDate; }
+        public double getClose() { return close; }
+        public double getChangePercent() { return changePercent; }
+        public double getMa5() { return ma5; }
+        public double getMa10() { return ma10; }
+        public double getMa20() { return ma20; }
+        public double getMa60() { return ma60; }
+        public double getDif() { return dif; }
+        public double getDea() { return dea; }
+        public double getMacd() { return macd; }
+        public double getK() { return k; }
+        public double getD() { return d; }
+        public double getJ() { return j; }
+        public double getRsi6() { return rsi6; }
+        public double getRsi12() { return rsi12; }
+        public double getBollUpper() { return bollUpper; }
+        public double getBollMid() { return bollMid; }
+        public double getBollLower() { return bollLower; }
+        public double getVolumeRatio() { return volumeRatio; }
+        public boolean isMacdGoldenCross() { return macdGoldenCross; }
+        public boolean isMacdDeadCross() { return macdDeadCross; }
+        public boolean isKdjGoldenCross() { return kdjGoldenCross; }
+        public boolean isKdjDeadCross() { return kdjDeadCross; }
+
+        /**
+         * 均线多头排列（MA5 > MA10 > MA20）
+         */
+        public boolean isMaBullish() {
+            return ma5 > ma10 && ma10 > ma20;
+        }
+
+        /**
+         * 均线空头排列（MA5 < MA10 < MA20）
+         */
+        public boolean isMaBearish() {
+            return ma5 < ma10 && ma10 < ma20;
+        }
+
+        /**
+         * 由指标值归纳的信号标签（金叉/死叉、均线排列、超买超卖、布林带位置、放量缩量）
+         */
+        public List<String> getSignals() {
+            List<String> signals = new ArrayList<>();
+            if (macdGoldenCross) signals.add("MACD金叉");
+            if (macdDeadCross) signals.add("MACD死叉");
+            if (!macdGoldenCross && !macdDeadCross) {
+                signals.add(macd > 0 ? "MACD红柱" : "MACD绿柱");
+            }
+            if (kdjGoldenCross) signals.add(k < 30 ? "KDJ低位金叉" : "KDJ金叉");
+            if (kdjDeadCross) signals.add(k > 70 ? "KDJ高位死叉" : "KDJ死叉");
+            if (isMaBullish()) signals.add(ma5Rising ? "均线多头排列" : "均线多头排列(MA5走平)");
+            if (isMaBearish()) signals.add("均线空头排列");
+            if (!Double.isNaN(ma20) && close < ma20) signals.add("跌破MA20");
+            if (rsi6 > 80) signals.add("RSI超买");
+            if (rsi6 < 20) signals.add("RSI超卖");
+            if (!Double.isNaN(bollUpper) && close > bollUpper) signals.add("突破布林上轨");
+            if (!Double.isNaN(bollLower) && close < bollLower) signals.add("跌破布林下轨");
+            if (volumeRatio >= 2) signals.add("放量");
+            if (volumeRatio > 0 && volumeRatio < 0.7) signals.add("缩量");
+            return signals;
+        }
+
+        /**
+         * 一行紧凑文本（供策略Prompt使用）
+         */
+        public String toPromptText() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.US, "收%.2f", close));
+            if (!Double.isNaN(changePercent)) sb.append(String.format(Locale.US, "(%+.2f%%)", changePercent));
+            sb.append(" MA5/10/20=").append(fmt(ma5)).append("/").append(fmt(ma10)).append("/").append(fmt(ma20));
+            sb.append(String.format(Locale.US, " MACD DIF=%.3f DEA=%.3f 柱=%.3f", dif, dea, macd));
+            sb.append(String.format(Locale.US, " KDJ=%.0f/%.0f/%.0f", k, d, j));
+            sb.append(" RSI6/12=").append(fmt0(rsi6)).append("/").append(fmt0(rsi12));
+            if (!Double.isNaN(bollMid)) {
+                sb.append(" BOLL=").append(fmt(bollUpper)).append("/").append(fmt(bollMid)).append("/").append(fmt(bollLower));
+            }
+            if (!Double.isNaN(volumeRatio)) {
+                sb.append(String.format(Locale.US, " 量比=%.2f", volumeRatio));
+            }
+            List<String> signals = getSignals();
+            if (!signals.isEmpty()) {
+                sb.append(" 信号:").append(String.join("、", signals));
+            }
+            return sb.toString();
+        }
+
+        private static String fmt(double value) {
+            return Double.isNaN(value) ? "-" : String.format(Locale.US, "%.2f", value);
+        }
+
+        private static String fmt0(double value) {
+            return Double.isNaN(value) ? "-" : String.format(Locale.US, "%.0f", value);
+        }
+    }
+
+    /**
+     * 定长滑动窗口：维护和与平方和，最值在窗口内取得（窗口长度固定，仍为常数时间）
+     */
+    private static final class RollingWindow {
+        private final double[] values;
+        private int next = 0;
+        private int count = 0;
+        private double sum = 0;
+        private double sumSq = 0;
+
+        RollingWindow(int size) {
+            this.values = new double[size];
+        }
+
+        RollingWindow copy() {
+            RollingWindow copy = new RollingWindow(values.length);
+            System.arraycopy(values, 0, copy.values, 0, values.length);
+            copy.next = next;
+            copy.count = count;
+            copy.sum = sum;
+            copy.sumSq = sumSq;
+            return copy;
+        }
+
+        void add(double value) {
+            if (count == values.length) {
+                double old = values[next];
+                sum -= old;
+                sumSq -= old * old;
+            } else {
+                count++;
+            }
+            values[next] = value;
+            sum += value;
+            sumSq += value * value;
+            next = (next + 1) % values.length;
+        }
+
+        boolean isFull() {
+            return count == values.length;
+        }
+
+        double mean() {
+            return count > 0 ? sum / count : Double.NaN;
+        }
+
+        /**
+         * 总体标准差（与 BOLL 的 STD 口径一致）
+         */
+        double stdDev() {
+            double mean = mean();
+            return Math.sqrt(Math.max(0, sumSq / count - mean * mean));
+        }
+
+        double max() {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) max = Math.max(max, values[i]);
+            return max;
+        }
+
+        double min() {
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) min = Math.min(min, values[i]);
+            return min;
+        }
+    }
+
+    /**
+     * 指数移动平均 EMA(N)，首个值取第一根K线
+     */
+    private static final class Ema {
+        private final double alpha;
+        private double value = 0;
+        private boolean initialized = false;
+
+        Ema(int period) {
+            this(2.0 / (period + 1));
+        }
+
+        private Ema(double alpha) {
+            this.alpha = alpha;
+        }
+
+        Ema copy() {
+            Ema copy = new Ema(alpha);
+            copy.value = value;
+            copy.initialized = initialized;
+            return copy;
+        }
+
+        void add(double x) {
+            if (!initialized) {
+                value = x;
+                initialized = true;
+            } else {
+                value += alpha * (x - value);
+            }
+        }
+
+        double value() {
+            return value;
+        }
+    }
+
+    /**
+     * 通达信 SMA(X,N,1) 递推：Y = (X + (N-1)*Y') / N
+     */
+    private static final class Sma {
+        private final int period;
+        private double value = 0;
+        private int count = 0;
+
+        Sma(int period) {
+            this.period = period;
+        }
+
+        Sma copy() {
+            Sma copy = new Sma(period);
+            copy.value = value;
+            copy.count = count;
+            return copy;
+        }
+
+        void add(double x) {
+            value = count == 0 ? x : (x + (period - 1) * value) / period;
+            count++;
+        }
+
+        double value() {
+            return value;
+        }
+
+        int count() {
+            return count;
+        }
+    }
+}
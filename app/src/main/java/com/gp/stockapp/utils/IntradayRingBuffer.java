@@ -0,0 +1,145 @@
+package com.gp.stockapp.utils;
+
+/**
+ * 单个指数的分时环形缓冲区
+ *
+ * 时间戳、点位、成交额、成交量各用一个定长基本类型数组保存，写满后覆盖最旧的采样；
+ * 追加不分配任何对象，只有区间读取时才拷贝出一份 {@link IntradaySeries}。
+ * 采样按时间严格递增写入（时间戳不大于最后一条的采样直接丢弃），因此区间读取可以二分查找
+ */
+public final class IntradayRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] points;
+    private final double[] amounts;
+    private final long[] volumes;
+    private final int capacity;
+
+    private int head = 0;   // 下一条写入位置
+    private int size = 0;
+
+    public IntradayRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.points = new double[capacity];
+        this.amounts = new double[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    /**
+     * 追加一个采样
+     * @return 是否写入（时间戳不晚于最后一条时返回false）
+     */
+    public synchronized boolean append(long timestamp, double point, double amount, long volume) {
+        if (size > 0 && timestamp <= timestamps[physical(size - 1)]) {
+            return false;
+        }
+        timestamps[head] = timestamp;
+        points[head] = point;
+        amounts[head] = amount;
+        volumes[head] = volume;
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 最后一条采样的时间戳，没有采样时返回 0
+     */
+    public synchronized long getLastTimestamp() {
+        return size > 0 ? timestamps[physical(size - 1)] : 0;
+    }
+
+    /**
+     * 点位、成交额、成交量是否与最后一条采样完全相同（行情未更新）
+     */
+    public synchronized boolean isSameAsLast(double point, double amount, long volume) {
+        if (size == 0) {
+            return false;
+        }
+        int last = physical(size - 1);
+        return points[last] == point && amounts[last] == amount && volumes[last] == volume;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * 读取 [fromMillis, toMillis] 内的采样
+     */
+    public synchronized IntradaySeries range(long fromMillis, long toMillis) {
+        if (size == 0 || fromMillis > toMillis) {
+            return IntradaySeries.EMPTY;
+        }
+        int begin = firstIndexAfter(fromMillis, false);
+        int end = firstIndexAfter(toMillis, true);
+        int count = end - begin;
+        if (count <= 0) {
+            return IntradaySeries.EMPTY;
+        }
+        long[] outTimestamps = new long[count];
+        double[] outPoints = new double[count];
+        double[] outAmounts = new double[count];
+        long[] outVolumes = new long[count];
+        // 逻辑区间在物理数组上最多分成两段
+        int start = physical(begin);
+        int firstPart = Math.min(count, capacity - start);
+        System.arraycopy(timestamps, start, outTimestamps, 0, firstPart);
+        System.arraycopy(points, start, outPoints, 0, firstPart);
+        System.arraycopy(amounts, start, outAmounts, 0, firstPart);
+        System.arraycopy(volumes, start, outVolumes, 0, firstPart);
+        if (firstPart < count) {
+            int rest = count - firstPart;
+            System.arraycopy(timestamps, 0, outTimestamps, firstPart, rest);
+            System.arraycopy(points, 0, outPoints, firstPart, rest);
+            System.arraycopy(amounts, 0, outAmounts, firstPart, rest);
+            System.arraycopy(volumes, 0, outVolumes, firstPart, rest);
+        }
+        return new IntradaySeries(outTimestamps, outPoints, outAmounts, outVolumes, count);
+    }
+
+    /**
+     * 第一个时间戳大于（strictly=false 时为不小于）timestamp 的逻辑下标，不存在时返回 size
+     */
+    private int firstIndexAfter(long timestamp, boolean strictly) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long value = timestamps[physical(mid)];
+            if (value < timestamp || (strictly && value == timestamp)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 逻辑下标（0 为最旧的采样）转物理下标
+     */
+    private int physical(int logical) {
+        int start = head - size;
+        if (start < 0) {
+            start += capacity;
+        }
+        int index = start + logical;
+        return index >= capacity ? index - capacity : index;
+    }
+}
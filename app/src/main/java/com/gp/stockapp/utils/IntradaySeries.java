@@ -0,0 +1,155 @@
+package com.gp.stockapp.utils;
+
+import java.util.Arrays;
+
+/**
+ * 分时序列快照（只读，按时间升序）
+ * 由 {@link IntradayRingBuffer} 的区间读取或磁盘分时文件解码得到，字段为并列的基本类型数组
+ * 成交额、成交量与行情接口一致，是截至该时刻的当日累计值
+ */
+public final class IntradaySeries {
+
+    public static final IntradaySeries EMPTY = new IntradaySeries(new long[0], new double[0], new double[0], new long[0], 0);
+
+    private final long[] timestamps;
+    private final double[] points;
+    private final double[] amounts;
+    private final long[] volumes;
+    private final int size;
+
+    /**
+     * 直接持有传入的数组（调用方不得再修改），只使用前 size 个元素
+     */
+    public IntradaySeries(long[] timestamps, double[] points, double[] amounts, long[] volumes, int size) {
+        this.timestamps = timestamps;
+        this.points = points;
+        this.amounts = amounts;
+        this.volumes = volumes;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    public double getPoint(int i) {
+        return points[i];
+    }
+
+    public double getAmount(int i) {
+        return amounts[i];
+    }
+
+    public long getVolume(int i) {
+        return volumes[i];
+    }
+
+    public double getLastPoint() {
+        return size > 0 ? points[size - 1] : Double.NaN;
+    }
+
+    /**
+     * 不晚于 timestamp 的最后一个采样下标，没有则返回 -1
+     */
+    public int indexAtOrBefore(long timestamp) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 不晚于 timestamp 的最后一个点位，没有则返回 NaN
+     */
+    public double pointAtOrBefore(long timestamp) {
+        int index = indexAtOrBefore(timestamp);
+        return index >= 0 ? points[index] : Double.NaN;
+    }
+
+    /**
+     * [fromMillis, toMillis] 内的子序列（覆盖整个序列时直接返回自身）
+     */
+    public IntradaySeries range(long fromMillis, long toMillis) {
+        int begin = fromMillis == Long.MIN_VALUE ? 0 : indexAtOrBefore(fromMillis - 1) + 1;
+        int end = indexAtOrBefore(toMillis) + 1;
+        if (begin == 0 && end == size) {
+            return this;
+        }
+        if (end <= begin) {
+            return EMPTY;
+        }
+        return new IntradaySeries(Arrays.copyOfRange(timestamps, begin, end), Arrays.copyOfRange(points, begin, end),
+                Arrays.copyOfRange(amounts, begin, end), Arrays.copyOfRange(volumes, begin, end), end - begin);
+    }
+
+    /**
+     * 最高点下标（空序列返回 -1）
+     */
+    public int indexOfHigh() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best < 0 || points[i] > points[best]) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * 最低点下标（空序列返回 -1）
+     */
+    public int indexOfLow() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best < 0 || points[i] < points[best]) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * 按固定时间桶降采样，每个桶取最后一个采样（累计成交额/成交量取桶末值即为截至桶末的累计）
+     * @param originMillis 桶的对齐起点（通常取当天0点）
+     * @param bucketMillis 桶宽（毫秒）
+     */
+    public IntradaySeries downsample(long originMillis, long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketMillis must be positive: " + bucketMillis);
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] outTimestamps = new long[size];
+        double[] outPoints = new double[size];
+        double[] outAmounts = new double[size];
+        long[] outVolumes = new long[size];
+        int count = 0;
+        long currentBucket = 0;
+        for (int i = 0; i < size; i++) {
+            long bucket = Math.floorDiv(timestamps[i] - originMillis, bucketMillis);
+            if (count == 0 || bucket != currentBucket) {
+                currentBucket = bucket;
+                count++;
+            }
+            outTimestamps[count - 1] = timestamps[i];
+            outPoints[count - 1] = points[i];
+            outAmounts[count - 1] = amounts[i];
+            outVolumes[count - 1] = volumes[i];
+        }
+        return new IntradaySeries(outTimestamps, outPoints, outAmounts, outVolumes, count);
+    }
+}
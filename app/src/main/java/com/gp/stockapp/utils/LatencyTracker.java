@@ -0,0 +1,48 @@
+package com.gp.stockapp.utils;
+
+import java.util.Arrays;
+
+/**
+ * 请求耗时统计
+ * 保存最近N次成功请求的耗时，用于计算分位数（如P90）作为对冲请求的触发阈值
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int cursor = 0;
+    private int count = 0;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    /**
+     * 记录一次耗时（毫秒）
+     */
+    public synchronized void record(long latencyMs) {
+        samples[cursor] = latencyMs;
+        cursor = (cursor + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    /**
+     * 已记录的样本数
+     */
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * 计算分位数耗时
+     * @param percentile 分位(0-100)，如90表示P90
+     * @return 分位数耗时（毫秒），没有样本时返回-1
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        index = Math.max(0, Math.min(count - 1, index));
+        return sorted[index];
+    }
+}
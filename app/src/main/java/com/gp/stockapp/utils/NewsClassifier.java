@@ -0,0 +1,247 @@
+package com.gp.stockapp.utils;
+
+/**
+ * 新闻关键词分类器
+ * 所有关键词在类加载时编译进一个 Aho-Corasick 自动机，标题和摘要各扫描一遍，
+ * 同时识别个股代码，输出按类别汇总的权重向量（标题命中权重高于摘要）
+ *
+ * 向量既用于判断是否为影响大盘的宏观新闻，也可作为本地新闻打分的特征
+ */
+public final class NewsClassifier {
+
+    /**
+     * 关键词类别
+     */
+    public enum Category {
+        POLICY("宏观政策"),
+        MARKET("大盘"),
+        SECTOR("板块行业"),
+        CAPITAL("资金面"),
+        INTERNATIONAL("国际"),
+        MACRO_DATA("经济数据"),
+        MAJOR_EVENT("重大事件"),
+        INDIVIDUAL_STOCK("个股事项"),
+        STOCK_CODE("个股代码");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * 是否属于宏观/大盘类别
+         */
+        public boolean isMarketWide() {
+            return this != INDIVIDUAL_STOCK && this != STOCK_CODE;
+        }
+    }
+
+    // 命中权重：标题比摘要更能代表新闻主题
+    public static final double TITLE_WEIGHT = 2.0;
+    public static final double SUMMARY_WEIGHT = 1.0;
+
+    // ===== 宏观/大盘新闻关键词（保留） =====
+    private static final String[] POLICY_KEYWORDS = {
+            "央行", "货币政策", "降准", "降息", "加息", "MLF", "LPR", "逆回购",
+            "国务院", "证监会", "银保监", "财政部", "发改委", "商务部",
+            "政策", "监管", "法规", "改革"
+    };
+    private static final String[] MARKET_KEYWORDS = {
+            "大盘", "A股", "股市", "沪深", "沪指", "深指", "创业板",
+            "上证", "深证", "北证", "科创板",
+            "三大指数", "两市", "成交额", "成交量",
+            "牛市", "熊市", "震荡", "反弹", "回调",
+            "放量", "缩量", "突破", "支撑", "压力"
+    };
+    private static final String[] SECTOR_KEYWORDS = {
+            "板块", "行业", "赛道", "概念股", "题材",
+            "半导体行业", "新能源行业", "人工智能行业"
+    };
+    private static final String[] CAPITAL_KEYWORDS = {
+            "北向资金", "外资", "融资融券", "杠杆资金",
+            "公募基金", "私募基金", "社保基金", "险资",
+            "资金流入", "资金流出", "净流入", "净流出"
+    };
+    private static final String[] INTERNATIONAL_KEYWORDS = {
+            "美联储", "美股", "纳斯达克", "道琼斯", "标普",
+            "港股", "恒生", "日经", "欧股",
+            "美元", "人民币", "汇率",
+            "关税", "贸易战", "贸易摩擦", "制裁",
+            "原油", "黄金", "大宗商品",
+            "地缘", "战争", "冲突"
+    };
+    private static final String[] MACRO_DATA_KEYWORDS = {
+            "GDP", "CPI", "PPI", "PMI", "社融",
+            "就业", "失业率", "通胀", "通缩",
+            "进出口", "贸易数据", "外贸",
+            "房地产", "楼市"
+    };
+    private static final String[] MAJOR_EVENT_KEYWORDS = {
+            "两会", "中央经济工作会议", "政治局会议",
+            "达沃斯", "G20", "APEC"
+    };
+
+    // ===== 个股新闻关键词（排除） =====
+    private static final String[] INDIVIDUAL_STOCK_KEYWORDS = {
+            "涨停", "跌停", "龙虎榜", "大宗交易",
+            "年报", "季报", "半年报", "业绩预告", "业绩快报",
+            "公告", "增持", "减持", "回购", "质押",
+            "定增", "配股", "分红", "送转", "除权", "除息",
+            "股东大会", "董事会", "监事会",
+            "解禁", "限售股", "实控人", "控股股东",
+            "研报", "评级", "目标价",
+            "收购", "并购", "重组", "借壳", "上市申请",
+            "IPO申购", "中签", "新股发行"
+    };
+
+    private static final Category[] CATEGORIES = Category.values();
+    // 包内可见：基准测试用同一份关键词表对比逐个 contains 的旧实现
+    static final AhoCorasick MATCHER = new AhoCorasick.Builder()
+            .addAll(POLICY_KEYWORDS, Category.POLICY.ordinal())
+            .addAll(MARKET_KEYWORDS, Category.MARKET.ordinal())
+            .addAll(SECTOR_KEYWORDS, Category.SECTOR.ordinal())
+            .addAll(CAPITAL_KEYWORDS, Category.CAPITAL.ordinal())
+            .addAll(INTERNATIONAL_KEYWORDS, Category.INTERNATIONAL.ordinal())
+            .addAll(MACRO_DATA_KEYWORDS, Category.MACRO_DATA.ordinal())
+            .addAll(MAJOR_EVENT_KEYWORDS, Category.MAJOR_EVENT.ordinal())
+            .addAll(INDIVIDUAL_STOCK_KEYWORDS, Category.INDIVIDUAL_STOCK.ordinal())
+            .build();
+
+    private NewsClassifier() {
+    }
+
+    /**
+     * 分类结果：各类别的权重和命中标记
+     */
+    public static final class Result {
+        private final double[] weights = new double[CATEGORIES.length];
+        private int titleMask = 0;   // 标题中命中的类别
+        private int anyMask = 0;     // 标题或摘要中命中的类别
+
+        public double getWeight(Category category) {
+            return weights[category.ordinal()];
+        }
+
+        /**
+         * 权重向量（按 Category 顺序，返回副本）
+         */
+        public double[] toVector() {
+            return weights.clone();
+        }
+
+        public boolean hasInTitle(Category category) {
+            return (titleMask & (1 << category.ordinal())) != 0;
+        }
+
+        public boolean has(Category category) {
+            return (anyMask & (1 << category.ordinal())) != 0;
+        }
+
+        /**
+         * 标题或摘要是否包含任一宏观/大盘类关键词
+         */
+        public boolean hasMarketKeyword() {
+            for (Category category : CATEGORIES) {
+                if (category.isMarketWide() && has(category)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * 宏观类关键词的总权重
+         */
+        public double getMarketWideWeight() {
+            double sum = 0;
+            for (Category category : CATEGORIES) {
+                if (category.isMarketWide()) sum += weights[category.ordinal()];
+            }
+            return sum;
+        }
+
+        private void hit(Category category, boolean inTitle) {
+            int bit = 1 << category.ordinal();
+            weights[category.ordinal()] += inTitle ? TITLE_WEIGHT : SUMMARY_WEIGHT;
+            anyMask |= bit;
+            if (inTitle) titleMask |= bit;
+        }
+    }
+
+    /**
+     * 对标题和摘要分类，同一关键词在同一段文本中只计一次
+     */
+    public static Result classify(String title, String summary) {
+        Result result = new Result();
+        scan(title, true, result);
+        scan(summary, false, result);
+        return result;
+    }
+
+    private static void scan(String text, boolean inTitle, Result result) {
+        if (text == null || text.isEmpty()) return;
+        boolean[] seen = new boolean[MATCHER.getPatternCount()];
+        MATCHER.scan(text, (patternId, end) -> {
+            if (!seen[patternId]) {
+                seen[patternId] = true;
+                result.hit(CATEGORIES[MATCHER.getCategory(patternId)], inTitle);
+            }
+        });
+        int codes = countStockCodes(text);
+        for (int i = 0; i < codes; i++) {
+            result.hit(Category.STOCK_CODE, inTitle);
+        }
+    }
+
+    /**
+     * 线性扫描个股代码（与原正则等价）：
+     * 独立的6位数字且以0/3/6开头（如 600519）、括号内的6位数字（如 (600519)、（600519）），
+     * 或 SH/SZ 前缀加6位数字（如 SH600519；和原正则一样后面不要求边界，SH6005191 也算一个）
+     */
+    static int countStockCodes(String text) {
+        int count = 0;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < n && isDigit(text.charAt(i))) i++;
+            int length = i - start;
+            char before = start > 0 ? text.charAt(start - 1) : ' ';
+            if (length >= 6 && start >= 2 && isExchangePrefix(text.charAt(start - 2), before)) {
+                count++;
+                continue;
+            }
+            if (length != 6) continue;
+
+            char after = i < n ? text.charAt(i) : ' ';
+            if ((before == '(' && after == ')') || (before == '（' && after == '）')) {
+                count++;
+            } else if (!isWordChar(before) && !isWordChar(after)
+                    && (text.charAt(start) == '0' || text.charAt(start) == '3' || text.charAt(start) == '6')) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // 与正则 \b 一致：汉字也算单词字符，紧贴汉字的6位数字不视为独立代码
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isExchangePrefix(char first, char second) {
+        return (first == 'S' && (second == 'H' || second == 'Z'))
+                || (first == 's' && (second == 'h' || second == 'z'));
+    }
+}
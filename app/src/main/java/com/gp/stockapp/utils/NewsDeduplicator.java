@@ -0,0 +1,247 @@
+package com.gp.stockapp.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 新闻近似重复检测（MinHash + LSH）
+ * 标题归一化（去空白和标点、转小写）后切成字符2-gram，
+ * 用MinHash签名分桶（LSH），只和同桶候选计算精确Jaccard相似度，
+ * 整体接近线性，可识别不同新闻源对同一事件的改写标题
+ *
+ * 索引有容量上限，超出后按加入顺序淘汰最旧的标题，可跨多轮抓取持续使用
+ */
+public class NewsDeduplicator {
+
+    public static final double DEFAULT_THRESHOLD = 0.5;
+    public static final int DEFAULT_CAPACITY = 500;
+
+    // 30个桶 x 每桶2行：Jaccard 0.5 的标题成为候选的概率>99.9%，0.1 的约26%
+    // 候选还要再算精确Jaccard，桶多只增加比较次数，不影响精确率；
+    // 标题只有二三十个2-gram，60个哈希的签名波动较大，每桶3行时J≈0.6的改写标题也会漏掉
+    private static final int BANDS = 30;
+    private static final int ROWS = 2;
+    private static final int NUM_HASHES = BANDS * ROWS;
+    private static final int SHINGLE_SIZE = 2;
+
+    private static final long[] HASH_SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            HASH_SEEDS[i] = mix(seed);
+        }
+    }
+
+    private final int capacity;
+    private volatile double threshold;
+
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+
+    public NewsDeduplicator() {
+        this(DEFAULT_THRESHOLD, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param threshold 判定为重复的Jaccard相似度阈值(0-1)
+     * @param capacity  索引最多保留的标题数
+     */
+    public NewsDeduplicator(double threshold, int capacity) {
+        this.threshold = threshold;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 是否与索引中已有标题近似重复（只查询，不加入）
+     */
+    public synchronized boolean isDuplicate(String text) {
+        Entry entry = Entry.of(text);
+        return entry != null && findDuplicate(entry) != null;
+    }
+
+    /**
+     * 不重复则加入索引
+     * @return true=新标题已加入，false=空标题或与已有标题近似重复
+     */
+    public synchronized boolean addIfNovel(String text) {
+        Entry entry = Entry.of(text);
+        if (entry == null || findDuplicate(entry) != null) {
+            return false;
+        }
+        insert(entry);
+        return true;
+    }
+
+    /**
+     * 直接加入索引（不做重复检查）
+     */
+    public synchronized void add(String text) {
+        Entry entry = Entry.of(text);
+        if (entry != null) {
+            insert(entry);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        buckets.clear();
+    }
+
+    /**
+     * 两段文本的2-gram Jaccard相似度(0-1)，用于调试和调整阈值
+     */
+    public static double similarity(String a, String b) {
+        int[] sa = shingles(normalize(a));
+        int[] sb = shingles(normalize(b));
+        if (sa.length == 0 || sb.length == 0) return 0;
+        return jaccard(sa, sb);
+    }
+
+    private Entry findDuplicate(Entry entry) {
+        double limit = threshold;
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> candidates = buckets.get(entry.bandKeys[band]);
+            if (candidates == null) continue;
+            for (Entry candidate : candidates) {
+                if (candidate.text.equals(entry.text)
+                        || jaccard(candidate.shingles, entry.shingles) >= limit) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insert(Entry entry) {
+        entries.addLast(entry);
+        for (long key : entry.bandKeys) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(entry);
+        }
+        while (entries.size() > capacity) {
+            Entry oldest = entries.removeFirst();
+            for (long key : oldest.bandKeys) {
+                List<Entry> bucket = buckets.get(key);
+                if (bucket == null) continue;
+                bucket.remove(oldest);
+                if (bucket.isEmpty()) buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 归一化：只保留字母、数字和汉字，英文转小写
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 字符2-gram，排序去重后的int数组（2个UTF-16字符直接拼成一个int，无碰撞）
+     */
+    static int[] shingles(String normalized) {
+        int n = normalized.length();
+        if (n == 0) return new int[0];
+        if (n < SHINGLE_SIZE) return new int[]{normalized.charAt(0)};
+        int[] result = new int[n - SHINGLE_SIZE + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (normalized.charAt(i) << 16) | normalized.charAt(i + 1);
+        }
+        Arrays.sort(result);
+        int unique = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[unique++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 索引中的一条标题
+     */
+    private static final class Entry {
+        final String text;
+        final int[] shingles;
+        final long[] bandKeys;
+
+        private Entry(String text, int[] shingles, long[] bandKeys) {
+            this.text = text;
+            this.shingles = shingles;
+            this.bandKeys = bandKeys;
+        }
+
+        static Entry of(String raw) {
+            String text = normalize(raw);
+            int[] shingles = shingles(text);
+            if (shingles.length == 0) return null;
+
+            long[] signature = new long[NUM_HASHES];
+            Arrays.fill(signature, Long.MAX_VALUE);
+            for (int shingle : shingles) {
+                for (int h = 0; h < NUM_HASHES; h++) {
+                    long value = mix(shingle ^ HASH_SEEDS[h]);
+                    if (value < signature[h]) signature[h] = value;
+                }
+            }
+
+            long[] bandKeys = new long[BANDS];
+            for (int band = 0; band < BANDS; band++) {
+                long key = band;
+                for (int row = 0; row < ROWS; row++) {
+                    key = mix(key * 31 + signature[band * ROWS + row]);
+                }
+                bandKeys[band] = key;
+            }
+            return new Entry(text, shingles, bandKeys);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.gp.stockapp.utils;
+
+import android.util.Log;
+
+import com.google.gson.annotations.SerializedName;
+import com.gp.stockapp.model.StockNews;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 新闻本地预排序
+ * 在送GLM评估重要性之前，用一个轻量逻辑回归模型给新闻打分，只把可能是重大新闻的送给AI，减少每轮token消耗
+ *
+ * 特征：关键词类别权重（NewsClassifier）、个股代码数、新闻源、发布时效、标题长度
+ * 标签：GLM返回的importance（>=3为正样本），每轮送AI的新闻评估完后自动记为样本
+ * 校准：样本足够后用带类别权重的批量梯度下降训练，阈值取训练集正样本的最低得分，训练集中的重大新闻全部能通过
+ *
+ * 样本不足时不做过滤（全部送AI）；低于阈值的新闻仍按一定比例随机送AI，保证样本不偏
+ */
+public class NewsPreRanker {
+    private static final String TAG = "NewsPreRanker";
+
+    private static final int MIN_TRAINING_SAMPLES = 60;   // 至少60条样本才启用过滤
+    private static final int MIN_POSITIVE_SAMPLES = 10;   // 其中至少10条重大新闻
+    public static final int MAX_SAMPLES = 1000;           // 只保留最近1000条样本
+    private static final int RETRAIN_INTERVAL = 30;       // 每新增30条样本重新训练
+    private static final double EXPLORATION_RATE = 0.1;   // 低于阈值的新闻仍有10%送AI
+    private static final int MAJOR_IMPORTANCE = 3;
+
+    private static final int TRAIN_ITERATIONS = 300;
+    private static final double LEARNING_RATE = 0.2;
+    private static final double L2 = 0.001;
+
+    private static final NewsClassifier.Category[] CATEGORIES = NewsClassifier.Category.values();
+    // 偏置 + 各关键词类别 + 3个新闻源 + 时效 + 标题长度
+    private static final int FEATURE_COUNT = 1 + CATEGORIES.length + 3 + 2;
+
+    /**
+     * 训练样本
+     */
+    public static class Sample {
+        @SerializedName("x")
+        double[] features;
+        @SerializedName("y")
+        int importance;
+
+        Sample(double[] features, int importance) {
+            this.features = features;
+            this.importance = importance;
+        }
+    }
+
+    /**
+     * 持久化状态（由StockRepository保存）
+     * 样本量大，单独追加写文件，不随状态一起序列化
+     */
+    public static class State {
+        @SerializedName("weights")
+        double[] weights;
+        @SerializedName("threshold")
+        double threshold;
+        @SerializedName("trained")
+        boolean trained;
+        @SerializedName("samples_since_training")
+        int samplesSinceTraining;
+
+        transient List<Sample> samples = new ArrayList<>();
+
+        /**
+         * 设置恢复的样本（按时间顺序）
+         */
+        public void setSamples(List<Sample> samples) {
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * 一轮筛选结果
+     */
+    public static class Selection {
+        private final List<StockNews> selected = new ArrayList<>();
+        private final Map<StockNews, double[]> features = new IdentityHashMap<>();
+        private int skipped;
+
+        /**
+         * 需要送AI评估的新闻
+         */
+        public List<StockNews> getSelected() { return selected; }
+
+        /**
+         * 本地判定为不重要、未送AI的新闻数
+         */
+        public int getSkippedCount() { return skipped; }
+    }
+
+    private final State state;
+    private final Random random = new Random();
+
+    public NewsPreRanker(State state) {
+        this.state = state != null ? state : new State();
+        if (this.state.samples == null) this.state.samples = new ArrayList<>();
+        // 特征定义变化后旧样本作废
+        this.state.samples.removeIf(sample -> sample.features == null || sample.features.length != FEATURE_COUNT);
+        trimSamples();
+        if (this.state.weights == null || this.state.weights.length != FEATURE_COUNT) {
+            this.state.weights = new double[FEATURE_COUNT];
+            this.state.trained = false;
+        }
+    }
+
+    /**
+     * 当前状态的副本（用于异步保存，不受后续训练影响；不含样本，样本由 recordLabels 返回后追加保存）
+     */
+    public synchronized State snapshotState() {
+        State copy = new State();
+        copy.weights = state.weights.clone();
+        copy.threshold = state.threshold;
+        copy.trained = state.trained;
+        copy.samplesSinceTraining = state.samplesSinceTraining;
+        return copy;
+    }
+
+    public synchronized boolean isTrained() {
+        return state.trained;
+    }
+
+    /**
+     * 重大新闻概率(0-1)
+     */
+    public synchronized double score(StockNews news) {
+        return predict(state.weights, extractFeatures(news, System.currentTimeMillis()));
+    }
+
+    /**
+     * 筛选需要送AI评估的新闻
+     */
+    public synchronized Selection select(List<StockNews> newsList) {
+        Selection selection = new Selection();
+        long now = System.currentTimeMillis();
+        for (StockNews news : newsList) {
+            double[] x = extractFeatures(news, now);
+            boolean pass = !state.trained
+                    || predict(state.weights, x) >= state.threshold
+                    || random.nextDouble() < EXPLORATION_RATE;
+            if (pass) {
+                selection.selected.add(news);
+                selection.features.put(news, x);
+            } else {
+                selection.skipped++;
+            }
+        }
+        if (state.trained) {
+            Log.d(TAG, "本地预排序: 送AI " + selection.selected.size() + " 条, 跳过 " + selection.skipped
+                    + " 条 (阈值 " + String.format("%.3f", state.threshold) + ")");
+        }
+        return selection;
+    }
+
+    /**
+     * 记录AI评估结果作为样本（importance为0表示AI未返回，忽略），样本累计到一定数量后重新训练
+     * @return 本次新增的样本（为空表示状态无变化，不需要保存）
+     */
+    public synchronized List<Sample> recordLabels(Selection selection) {
+        List<Sample> added = new ArrayList<>();
+        for (StockNews news : selection.selected) {
+            double[] x = selection.features.get(news);
+            if (x == null || news.getImportance() <= 0) continue;
+            added.add(new Sample(x, news.getImportance()));
+        }
+        if (added.isEmpty()) return added;
+
+        state.samples.addAll(added);
+        trimSamples();
+        state.samplesSinceTraining += added.size();
+        if (!state.trained || state.samplesSinceTraining >= RETRAIN_INTERVAL) {
+            train();
+        }
+        return added;
+    }
+
+    private void trimSamples() {
+        if (state.samples.size() > MAX_SAMPLES) {
+            state.samples = new ArrayList<>(
+                    state.samples.subList(state.samples.size() - MAX_SAMPLES, state.samples.size()));
+        }
+    }
+
+    /**
+     * 用全部样本训练逻辑回归并校准阈值
+     */
+    private void train() {
+        List<Sample> samples = state.samples;
+        int positives = 0;
+        for (Sample sample : samples) {
+            if (sample.importance >= MAJOR_IMPORTANCE) positives++;
+        }
+        int negatives = samples.size() - positives;
+        if (samples.size() < MIN_TRAINING_SAMPLES || positives < MIN_POSITIVE_SAMPLES || negatives == 0) {
+            return;
+        }
+
+        // 正样本少，按比例加权，避免模型全部判为不重要
+        double positiveWeight = (double) negatives / positives;
+        double[] w = state.trained ? state.weights.clone() : new double[FEATURE_COUNT];
+        double[] gradient = new double[FEATURE_COUNT];
+        double totalWeight = negatives + positives * positiveWeight;
+        for (int iter = 0; iter < TRAIN_ITERATIONS; iter++) {
+            Arrays.fill(gradient, 0);
+            for (Sample sample : samples) {
+                int y = sample.importance >= MAJOR_IMPORTANCE ? 1 : 0;
+                double sampleWeight = y == 1 ? positiveWeight : 1.0;
+                double error = (predict(w, sample.features) - y) * sampleWeight;
+                for (int j = 0; j < FEATURE_COUNT; j++) {
+                    gradient[j] += error * sample.features[j];
+                }
+            }
+            for (int j = 0; j < FEATURE_COUNT; j++) {
+                double reg = j == 0 ? 0 : L2 * w[j];
+                w[j] -= LEARNING_RATE * (gradient[j] / totalWeight + reg);
+            }
+        }
+
+        // 阈值：训练集重大新闻的最低得分，漏掉一条重大新闻的代价远高于多送几条给AI
+        double threshold = Double.MAX_VALUE;
+        for (Sample sample : samples) {
+            if (sample.importance >= MAJOR_IMPORTANCE) {
+                threshold = Math.min(threshold, predict(w, sample.features));
+            }
+        }
+
+        int kept = 0;
+        for (Sample sample : samples) {
+            if (predict(w, sample.features) >= threshold) kept++;
+        }
+
+        state.weights = w;
+        state.threshold = threshold;
+        state.trained = true;
+        state.samplesSinceTraining = 0;
+        Log.d(TAG, String.format("训练完成: 样本 %d (重大 %d), 阈值 %.3f, 预计送AI比例 %.0f%%",
+                samples.size(), positives, threshold, kept * 100.0 / samples.size()));
+    }
+
+    private static double[] extractFeatures(StockNews news, long now) {
+        double[] x = new double[FEATURE_COUNT];
+        int i = 0;
+        x[i++] = 1.0;
+
+        NewsClassifier.Result categories = NewsClassifier.classify(news.getTitle(), news.getSummary());
+        for (NewsClassifier.Category category : CATEGORIES) {
+            x[i++] = Math.log1p(categories.getWeight(category));
+        }
+
+        String type = news.getNewsType();
+        x[i++] = "国内财经".equals(type) ? 1 : 0;
+        x[i++] = "全球财经".equals(type) ? 1 : 0;
+        x[i++] = "财经快讯".equals(type) ? 1 : 0;
+
+        // 时效：1小时内接近1，越旧越接近0
+        long ageMinutes = Math.max(0, (now - news.getPublishTime()) / 60000);
+        x[i++] = Math.exp(-ageMinutes / 60.0);
+
+        String title = news.getTitle();
+        x[i] = title != null ? Math.min(title.length(), 100) / 50.0 : 0;
+        return x;
+    }
+
+    private static double predict(double[] w, double[] x) {
+        double z = 0;
+        for (int j = 0; j < w.length; j++) {
+            z += w[j] * x[j];
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+}
@@ -7,13 +7,20 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 提示词加载工具
- * 从assets目录加载提示词模板
+ * 启动时一次性加载assets/prompts目录下的全部模板并预编译，之后的读取全部走内存缓存
  */
 public class PromptLoader {
     private static final String TAG = "PromptLoader";
+    private static final String PROMPT_DIR = "prompts";
+    
+    // 全局共享缓存（两个服务各自创建PromptLoader，模板只需加载一次）
+    private static volatile Map<String, PromptTemplate> templates;
     
     private Context context;
     
@@ -22,15 +29,52 @@ public class PromptLoader {
     }
     
     /**
-     * 加载提示词文件
+     * 预加载并编译全部提示词模板（幂等）
      */
-    public String loadPrompt(String fileName) {
+    public void preload() {
+        getTemplates();
+    }
+    
+    private Map<String, PromptTemplate> getTemplates() {
+        Map<String, PromptTemplate> loaded = templates;
+        if (loaded == null) {
+            synchronized (PromptLoader.class) {
+                loaded = templates;
+                if (loaded == null) {
+                    loaded = loadAllTemplates();
+                    templates = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+    
+    private Map<String, PromptTemplate> loadAllTemplates() {
+        Map<String, PromptTemplate> result = new HashMap<>();
+        try {
+            String[] fileNames = context.getAssets().list(PROMPT_DIR);
+            if (fileNames != null) {
+                for (String fileName : fileNames) {
+                    String content = readAsset(fileName);
+                    if (content != null) {
+                        result.put(fileName, PromptTemplate.compile(content));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error listing prompt directory", e);
+        }
+        Log.d(TAG, "Preloaded " + result.size() + " prompt templates");
+        return Collections.unmodifiableMap(result);
+    }
+    
+    private String readAsset(String fileName) {
         InputStream inputStream = null;
         BufferedReader reader = null;
         StringBuilder content = new StringBuilder();
         
         try {
-            inputStream = context.getAssets().open("prompts/" + fileName);
+            inputStream = context.getAssets().open(PROMPT_DIR + "/" + fileName);
             reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
             
             String line;
@@ -58,6 +102,26 @@ public class PromptLoader {
         }
     }
     
+    /**
+     * 获取预编译模板
+     * @return 模板，文件不存在时返回null
+     */
+    public PromptTemplate getTemplate(String fileName) {
+        return getTemplates().get(fileName);
+    }
+    
+    /**
+     * 加载提示词文件（返回模板原文）
+     */
+    public String loadPrompt(String fileName) {
+        PromptTemplate template = getTemplate(fileName);
+        if (template == null) {
+            Log.e(TAG, "Prompt not found: " + fileName);
+            return null;
+        }
+        return template.getSource();
+    }
+    
     /**
      * 加载大盘分析提示词
      */
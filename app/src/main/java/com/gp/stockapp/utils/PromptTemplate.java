@@ -0,0 +1,126 @@
+package com.gp.stockapp.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 预编译的提示词模板（不可变）
+ * 占位符格式：{{name}}，编译时拆分为固定文本片段和占位符，
+ * 渲染时按片段顺序写入一个预估好容量的缓冲区，避免重复扫描和扩容
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String source;
+    // segments[i] 为固定文本；placeholders[i] 为紧跟在 segments[i] 之后的占位符（最后一段之后没有占位符）
+    private final String[] segments;
+    private final String[] placeholders;
+    private final int literalLength;
+    private final Set<String> placeholderNames;
+
+    private PromptTemplate(String source, String[] segments, String[] placeholders) {
+        this.source = source;
+        this.segments = segments;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.literalLength = length;
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, placeholders);
+        this.placeholderNames = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 编译模板文本
+     * 未闭合的 {{ 按普通文本处理
+     */
+    public static PromptTemplate compile(String source) {
+        if (source == null) source = "";
+        List<String> segments = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int pos = 0;
+        int textStart = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) break;
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) break;
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (name.isEmpty()) {
+                pos = close + CLOSE.length();
+                continue;
+            }
+            segments.add(source.substring(textStart, open));
+            placeholders.add(name);
+            pos = close + CLOSE.length();
+            textStart = pos;
+        }
+        segments.add(source.substring(textStart));
+
+        return new PromptTemplate(source,
+                segments.toArray(new String[0]),
+                placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * 渲染模板，缺失的占位符替换为空文本
+     */
+    public String render(Map<String, ? extends CharSequence> values) {
+        int capacity = literalLength;
+        if (values != null) {
+            for (String name : placeholders) {
+                CharSequence value = values.get(name);
+                if (value != null) capacity += value.length();
+            }
+        }
+        StringBuilder sb = new StringBuilder(capacity);
+        renderTo(sb, values);
+        return sb.toString();
+    }
+
+    /**
+     * 渲染到已有缓冲区
+     */
+    public void renderTo(StringBuilder sb, Map<String, ? extends CharSequence> values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(segments[i]);
+            CharSequence value = values != null ? values.get(placeholders[i]) : null;
+            if (value != null) sb.append(value);
+        }
+        sb.append(segments[segments.length - 1]);
+    }
+
+    /**
+     * 模板包含的占位符名称（按首次出现顺序）
+     */
+    public Set<String> getPlaceholderNames() {
+        return placeholderNames;
+    }
+
+    public boolean hasPlaceholder(String name) {
+        return placeholderNames.contains(name);
+    }
+
+    /**
+     * 模板原文
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 固定文本总长度（不含占位符）
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
@@ -0,0 +1,308 @@
+package com.gp.stockapp.utils;
+
+import android.util.Log;
+
+import com.gp.stockapp.db.SectorDayStatsEntity;
+import com.gp.stockapp.model.HotStockData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 板块强度本地聚合
+ * 把涨停、连板、龙虎榜、活跃股按所属行业/概念分组，统计每个板块的涨停家数、连板家数和最高板、
+ * 龙虎榜净买入合计、活跃股成交额占比，按规则打分排序，板块策略Prompt只拿排行表，不再逐条列出个股
+ *
+ * 个股的板块取自身条目的行业/概念字段，没有时用其他榜单中同一代码的板块；都没有的不计入任何板块
+ * 评分：涨停家数×3 + 连板家数×2 + (最高板-1)×2 + 龙虎榜净买入(每5000万1分，±5封顶) + 成交额占比/5
+ * 同分按涨停家数、板块名排序，同一份热门数据的结果完全确定
+ */
+public final class SectorAggregator {
+    private static final String TAG = "SectorAggregator";
+
+    private static final int MAX_LEADERS = 5;               // 每个板块列出的代表个股数
+    private static final double NET_BUY_PER_POINT = 5000;  // 龙虎榜净买入每多少万计1分
+    private static final double MAX_NET_BUY_POINTS = 5;
+
+    private SectorAggregator() {
+    }
+
+    /**
+     * 单个板块的聚合结果
+     */
+    public static final class SectorStat {
+        private final String sector;
+        private final Set<String> limitUpCodes = new LinkedHashSet<>();
+        private int continuousCount;
+        private int ladderHeight;
+        private final Set<String> dragonTigerCodes = new LinkedHashSet<>();
+        private double netBuy;                  // 龙虎榜净买入合计(万)
+        private double activeAmount;            // 活跃股成交额合计(万)
+        private double amountShare;             // 活跃股成交额占比(%)
+        private final Map<String, Integer> leaders = new LinkedHashMap<>(); // 名称 -> 连板数(非涨停为0)
+        private double score;
+        private int rank;
+        private SectorDayStatsEntity previous;  // 上一交易日的统计，没有时为null
+
+        SectorStat(String sector) {
+            this.sector = sector;
+        }
+
+        public String getSector() { return sector; }
+        public int getLimitUpCount() { return limitUpCodes.size(); }
+        public int getContinuousCount() { return continuousCount; }
+        public int getLadderHeight() { return ladderHeight; }
+        public int getDragonTigerCount() { return dragonTigerCodes.size(); }
+        public double getNetBuy() { return netBuy; }
+        public double getAmountShare() { return amountShare; }
+        public double getScore() { return score; }
+        public int getRank() { return rank; }
+        public SectorDayStatsEntity getPrevious() { return previous; }
+
+        /**
+         * 转为当日统计行（写入历史库）
+         */
+        public SectorDayStatsEntity toEntity(String tradeDate, long now) {
+            SectorDayStatsEntity entity = new SectorDayStatsEntity();
+            entity.setTradeDate(tradeDate);
+            entity.setSector(sector);
+            entity.setRank(rank);
+            entity.setScore(score);
+            entity.setLimitUpCount(getLimitUpCount());
+            entity.setContinuousCount(continuousCount);
+            entity.setLadderHeight(ladderHeight);
+            entity.setDragonTigerCount(getDragonTigerCount());
+            entity.setNetBuy(netBuy);
+            entity.setAmountShare(amountShare);
+            entity.setUpdatedAt(now);
+            return entity;
+        }
+
+        /**
+         * 与上一交易日相比的变化，上一交易日没有该板块时为"新进"
+         */
+        public String getChangeText() {
+            if (previous == null) {
+                return "新进";
+            }
+            List<String> parts = new ArrayList<>();
+            int rankChange = previous.getRank() - rank;
+            if (rankChange != 0) {
+                parts.add((rankChange > 0 ? "排名↑" : "排名↓") + Math.abs(rankChange));
+            }
+            int limitUpChange = getLimitUpCount() - previous.getLimitUpCount();
+            if (limitUpChange != 0) {
+                parts.add(String.format(Locale.US, "涨停%+d", limitUpChange));
+            }
+            int heightChange = ladderHeight - previous.getLadderHeight();
+            if (heightChange != 0) {
+                parts.add(String.format(Locale.US, "高度%+d", heightChange));
+            }
+            return parts.isEmpty() ? "持平" : String.join(" ", parts);
+        }
+
+        /**
+         * 排行表的一行（Markdown）
+         */
+        public String toPromptRow() {
+            StringBuilder names = new StringBuilder();
+            for (Map.Entry<String, Integer> entry : leaders.entrySet()) {
+                if (names.length() > 0) names.append("、");
+                names.append(entry.getKey());
+                if (entry.getValue() >= 2) names.append("(").append(entry.getValue()).append("板)");
+            }
+            return String.format(Locale.US, "| %d | %s | %.1f | %d | %d | %d | %.0f万(%d只) | %.1f%% | %s | %s |",
+                    rank, sector, score, getLimitUpCount(), continuousCount, ladderHeight, netBuy,
+                    getDragonTigerCount(), amountShare, getChangeText(), names);
+        }
+
+        private void addLeader(String name, int boards) {
+            if (name == null || name.isEmpty()) return;
+            Integer existing = leaders.get(name);
+            if (existing == null || boards > existing) {
+                leaders.put(name, boards);
+            }
+        }
+    }
+
+    /**
+     * 聚合并打分，返回按强度排序的全部板块（排名从1开始）
+     */
+    public static List<SectorStat> aggregate(HotStockData hotData) {
+        List<SectorStat> result = new ArrayList<>();
+        if (hotData == null) {
+            return result;
+        }
+        Map<String, String> sectorByCode = buildSectorIndex(hotData);
+        Map<String, SectorStat> stats = new HashMap<>();
+        int unclassified = 0;
+
+        if (hotData.getContinuousLimitList() != null) {
+            for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                SectorStat stat = statFor(stats, sectorByCode, item.getCode());
+                if (stat == null) { unclassified++; continue; }
+                stat.limitUpCodes.add(item.getCode());
+                if (item.getContinuousCount() >= 2) stat.continuousCount++;
+                stat.ladderHeight = Math.max(stat.ladderHeight, item.getContinuousCount());
+                stat.addLeader(item.getName(), item.getContinuousCount());
+            }
+        }
+        if (hotData.getLimitUpList() != null) {
+            for (HotStockData.LimitUpItem item : hotData.getLimitUpList()) {
+                SectorStat stat = statFor(stats, sectorByCode, item.getCode());
+                if (stat == null) { unclassified++; continue; }
+                stat.limitUpCodes.add(item.getCode());
+                stat.ladderHeight = Math.max(stat.ladderHeight, 1);
+                stat.addLeader(item.getName(), 1);
+            }
+        }
+        if (hotData.getDragonTigerList() != null) {
+            for (HotStockData.DragonTigerItem item : hotData.getDragonTigerList()) {
+                SectorStat stat = statFor(stats, sectorByCode, item.getCode());
+                if (stat == null) { unclassified++; continue; }
+                // 同一只股票可能因多个原因上榜，净买入只计一次
+                if (stat.dragonTigerCodes.add(item.getCode())) {
+                    stat.netBuy += item.getNetBuy();
+                }
+            }
+        }
+        double totalAmount = 0;
+        if (hotData.getTopGainers() != null) {
+            for (HotStockData.TopGainerItem item : hotData.getTopGainers()) {
+                totalAmount += Math.max(0, item.getAmount());
+                SectorStat stat = statFor(stats, sectorByCode, item.getCode());
+                if (stat == null) { unclassified++; continue; }
+                stat.activeAmount += Math.max(0, item.getAmount());
+                if (stat.leaders.size() < MAX_LEADERS) stat.addLeader(item.getName(), 0);
+            }
+        }
+
+        for (SectorStat stat : stats.values()) {
+            stat.amountShare = totalAmount > 0 ? stat.activeAmount / totalAmount * 100.0 : 0;
+            stat.score = score(stat);
+            result.add(stat);
+        }
+        result.sort((a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            if (byScore != 0) return byScore;
+            int byLimitUp = Integer.compare(b.getLimitUpCount(), a.getLimitUpCount());
+            return byLimitUp != 0 ? byLimitUp : a.sector.compareTo(b.sector);
+        });
+        for (int i = 0; i < result.size(); i++) {
+            SectorStat stat = result.get(i);
+            stat.rank = i + 1;
+            // 代表个股：高标在前，最多列出 MAX_LEADERS 只
+            List<Map.Entry<String, Integer>> sorted = new ArrayList<>(stat.leaders.entrySet());
+            sorted.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+            stat.leaders.clear();
+            for (int j = 0; j < sorted.size() && j < MAX_LEADERS; j++) {
+                stat.leaders.put(sorted.get(j).getKey(), sorted.get(j).getValue());
+            }
+        }
+        Log.d(TAG, "板块聚合: " + result.size() + " 个板块, 未归类条目 " + unclassified);
+        return result;
+    }
+
+    /**
+     * 关联上一交易日的统计（按板块名匹配）
+     */
+    public static void attachPrevious(List<SectorStat> stats, List<SectorDayStatsEntity> previousDay) {
+        if (previousDay == null || previousDay.isEmpty()) return;
+        Map<String, SectorDayStatsEntity> bySector = new HashMap<>();
+        for (SectorDayStatsEntity entity : previousDay) {
+            bySector.put(entity.getSector(), entity);
+        }
+        for (SectorStat stat : stats) {
+            stat.previous = bySector.get(stat.sector);
+        }
+    }
+
+    /**
+     * 构建板块强度排行表（Prompt用），没有可归类的数据时返回空串
+     * @param previousDate 对比的上一交易日，没有历史统计时为null
+     */
+    public static String buildPromptTable(List<SectorStat> stats, int limit, String previousDate) {
+        if (stats.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n## 板块强度排行（本地按行业聚合，共").append(stats.size()).append("个板块，列出前")
+                .append(Math.min(limit, stats.size())).append("）\n\n");
+        sb.append("评分 = 涨停家数×3 + 连板家数×2 + (最高板-1)×2 + 龙虎榜净买入(每5000万1分，±5封顶) + 活跃股成交额占比/5；");
+        if (previousDate != null) {
+            sb.append("较前日为与").append(previousDate).append("的对比。\n\n");
+        } else {
+            sb.append("暂无上一交易日统计，较前日一栏仅供参考。\n\n");
+        }
+        sb.append("| 排名 | 板块 | 评分 | 涨停 | 连板 | 最高板 | 龙虎榜净买入 | 成交占比 | 较前日 | 代表个股 |\n");
+        sb.append("|---|---|---|---|---|---|---|---|---|---|\n");
+        for (int i = 0; i < stats.size() && i < limit; i++) {
+            sb.append(stats.get(i).toPromptRow()).append("\n");
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * 代码 -> 板块：各榜单中带板块字段的条目（连板、涨停优先）
+     */
+    private static Map<String, String> buildSectorIndex(HotStockData hotData) {
+        Map<String, String> index = new HashMap<>();
+        if (hotData.getContinuousLimitList() != null) {
+            for (HotStockData.ContinuousLimitItem item : hotData.getContinuousLimitList()) {
+                putSector(index, item.getCode(), item.getConcept());
+            }
+        }
+        if (hotData.getLimitUpList() != null) {
+            for (HotStockData.LimitUpItem item : hotData.getLimitUpList()) {
+                putSector(index, item.getCode(), item.getConcept());
+            }
+        }
+        if (hotData.getDragonTigerList() != null) {
+            for (HotStockData.DragonTigerItem item : hotData.getDragonTigerList()) {
+                putSector(index, item.getCode(), item.getConcept());
+            }
+        }
+        if (hotData.getTopGainers() != null) {
+            for (HotStockData.TopGainerItem item : hotData.getTopGainers()) {
+                putSector(index, item.getCode(), item.getConcept());
+            }
+        }
+        return index;
+    }
+
+    private static void putSector(Map<String, String> index, String code, String concept) {
+        String sector = primaryLabel(concept);
+        if (code != null && sector != null && !index.containsKey(code)) {
+            index.put(code, sector);
+        }
+    }
+
+    private static SectorStat statFor(Map<String, SectorStat> stats, Map<String, String> sectorByCode, String code) {
+        String sector = code != null ? sectorByCode.get(code) : null;
+        if (sector == null) return null;
+        return stats.computeIfAbsent(sector, SectorStat::new);
+    }
+
+    /**
+     * 板块字段可能是多个概念拼接，取第一个；空值和占位符"-"返回null
+     */
+    static String primaryLabel(String concept) {
+        if (concept == null) return null;
+        String label = concept.trim().split("[,，、;；+|]")[0].trim();
+        return label.isEmpty() || "-".equals(label) ? null : label;
+    }
+
+    private static double score(SectorStat stat) {
+        double netBuyPoints = Math.max(-MAX_NET_BUY_POINTS, Math.min(MAX_NET_BUY_POINTS, stat.netBuy / NET_BUY_PER_POINT));
+        double score = stat.getLimitUpCount() * 3 + stat.continuousCount * 2 + Math.max(0, stat.ladderHeight - 1) * 2
+                + netBuyPoints + stat.amountShare / 5;
+        return Math.round(score * 10) / 10.0;
+    }
+}
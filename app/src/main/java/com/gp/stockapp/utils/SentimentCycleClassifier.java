@@ -0,0 +1,154 @@
+package com.gp.stockapp.utils;
+
+import com.gp.stockapp.model.SentimentCycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 短线情绪周期规则判定
+ * 输入为已填好统计指标的 {@link SentimentCycle}（宽度、涨跌停家数、连板高度、昨日涨停股今日表现），
+ * 按 冰点 → 高潮 → 退潮 → 修复 → 分化 的顺序匹配规则，写入阶段、情绪温度和判定依据
+ *
+ * 昨日涨停股今日表现不可用（盘前、行情请求失败）时，相关条件不参与判定，情绪温度按其余指标重新加权
+ */
+public final class SentimentCycleClassifier {
+
+    // 冰点
+    private static final int FREEZING_LIMIT_DOWN = 30;
+    private static final double FREEZING_ADVANCE_RATIO = 20;
+    private static final double FREEZING_FOLLOW_AVG = -4;
+    private static final double FREEZING_WEAK_ADVANCE_RATIO = 35;
+    // 高潮
+    private static final int CLIMAX_LIMIT_UP = 80;
+    private static final double CLIMAX_ADVANCE_RATIO = 65;
+    private static final int CLIMAX_MAX_LIMIT_DOWN = 5;
+    private static final double CLIMAX_FOLLOW_AVG = 2;
+    // 退潮
+    private static final double EBB_FOLLOW_AVG = -1.5;
+    private static final double EBB_BROKEN_RATE = 30;
+    private static final int EBB_LIMIT_DOWN = 10;
+    private static final double EBB_ADVANCE_RATIO = 40;
+    // 修复
+    private static final double RECOVERY_ADVANCE_RATIO = 45;
+
+    // 情绪温度各项权重
+    private static final double WEIGHT_BREADTH = 0.35;
+    private static final double WEIGHT_LIMIT_UP = 0.2;
+    private static final double WEIGHT_FOLLOW = 0.3;
+    private static final double WEIGHT_HEIGHT = 0.15;
+    private static final double WEIGHT_LIMIT_DOWN_PENALTY = 0.15;
+
+    private SentimentCycleClassifier() {
+    }
+
+    /**
+     * 判定情绪周期阶段并计算情绪温度（就地写入）
+     * @param prevStage 上一交易日最终判定的阶段，没有时为null
+     */
+    public static SentimentCycle classify(SentimentCycle cycle, String prevStage) {
+        List<String> reasons = new ArrayList<>();
+        cycle.setStage(matchStage(cycle, prevStage, reasons));
+        cycle.setReasons(reasons);
+        cycle.setScore(score(cycle));
+        return cycle;
+    }
+
+    private static String matchStage(SentimentCycle c, String prevStage, List<String> reasons) {
+        boolean follow = c.hasFollowThrough();
+        double ratio = c.getAdvanceRatio();
+        int limitUp = c.getLimitUpCount();
+        int limitDown = c.getLimitDownCount();
+
+        // 冰点：大面积跌停、普跌或接力全面亏钱
+        if (limitDown >= FREEZING_LIMIT_DOWN) {
+            reasons.add("跌停 " + limitDown + " 家");
+        }
+        if (ratio < FREEZING_ADVANCE_RATIO) {
+            reasons.add(String.format(Locale.US, "上涨占比仅 %.0f%%", ratio));
+        }
+        if (follow && c.getFollowAvgChange() <= FREEZING_FOLLOW_AVG) {
+            reasons.add(String.format(Locale.US, "昨日涨停股平均 %+.2f%%", c.getFollowAvgChange()));
+        }
+        if (limitDown >= limitUp && limitUp > 0 && ratio < FREEZING_WEAK_ADVANCE_RATIO) {
+            reasons.add("跌停家数不少于涨停家数");
+        }
+        if (!reasons.isEmpty()) {
+            return SentimentCycle.STAGE_FREEZING;
+        }
+
+        // 高潮：涨停潮 + 普涨 + 接力赚钱 + 高度不降
+        if (limitUp >= CLIMAX_LIMIT_UP && ratio >= CLIMAX_ADVANCE_RATIO && limitDown <= CLIMAX_MAX_LIMIT_DOWN
+                && (!follow || c.getFollowAvgChange() >= CLIMAX_FOLLOW_AVG)
+                && c.getLadderHeight() >= c.getPrevLadderHeight()) {
+            reasons.add("涨停 " + limitUp + " 家");
+            reasons.add(String.format(Locale.US, "上涨占比 %.0f%%", ratio));
+            if (follow) {
+                reasons.add(String.format(Locale.US, "昨日涨停股平均 %+.2f%%", c.getFollowAvgChange()));
+            }
+            reasons.add("最高板 " + c.getLadderHeight() + " 板未降");
+            return SentimentCycle.STAGE_CLIMAX;
+        }
+
+        // 退潮：接力亏钱，且高度下降、跌停增多或普跌
+        boolean losing = follow && (c.getFollowAvgChange() <= EBB_FOLLOW_AVG || c.getFollowBrokenRate() >= EBB_BROKEN_RATE);
+        if (losing) {
+            boolean heightDown = c.getPrevLadderHeight() > 0 && c.getLadderHeight() < c.getPrevLadderHeight();
+            if (heightDown || limitDown >= EBB_LIMIT_DOWN || ratio < EBB_ADVANCE_RATIO) {
+                reasons.add(String.format(Locale.US, "昨日涨停股平均 %+.2f%%，跌超5%%占 %.0f%%",
+                        c.getFollowAvgChange(), c.getFollowBrokenRate()));
+                if (heightDown) {
+                    reasons.add("最高板 " + c.getPrevLadderHeight() + " → " + c.getLadderHeight() + " 板");
+                }
+                if (limitDown >= EBB_LIMIT_DOWN) {
+                    reasons.add("跌停 " + limitDown + " 家");
+                }
+                if (ratio < EBB_ADVANCE_RATIO) {
+                    reasons.add(String.format(Locale.US, "上涨占比 %.0f%%", ratio));
+                }
+                return SentimentCycle.STAGE_EBB;
+            }
+        }
+
+        // 修复：冰点/退潮之后宽度回暖、跌停收敛、接力不再亏钱
+        if ((SentimentCycle.STAGE_FREEZING.equals(prevStage) || SentimentCycle.STAGE_EBB.equals(prevStage))
+                && ratio >= RECOVERY_ADVANCE_RATIO && limitDown < EBB_LIMIT_DOWN
+                && (!follow || c.getFollowAvgChange() > 0)) {
+            reasons.add("前一交易日为" + prevStage);
+            reasons.add(String.format(Locale.US, "上涨占比回升至 %.0f%%", ratio));
+            if (follow) {
+                reasons.add(String.format(Locale.US, "昨日涨停股平均 %+.2f%%", c.getFollowAvgChange()));
+            }
+            return SentimentCycle.STAGE_RECOVERY;
+        }
+
+        // 其余情况：赚钱效应与亏钱效应并存
+        reasons.add(String.format(Locale.US, "上涨占比 %.0f%%，涨停 %d / 跌停 %d", ratio, limitUp, limitDown));
+        if (follow) {
+            reasons.add(String.format(Locale.US, "昨日涨停股平均 %+.2f%%，再涨停 %.0f%%",
+                    c.getFollowAvgChange(), c.getFollowLimitUpRate()));
+        }
+        return SentimentCycle.STAGE_DIVERGENCE;
+    }
+
+    /**
+     * 情绪温度：宽度、涨停家数、接力表现、连板高度加权，跌停家数扣分，结果截断到 0-100
+     */
+    private static int score(SentimentCycle c) {
+        double breadth = c.getAdvanceRatio();
+        double limitUp = Math.min(c.getLimitUpCount() / 100.0, 1) * 100;
+        double height = Math.min(c.getLadderHeight() / 7.0, 1) * 100;
+        double weighted = breadth * WEIGHT_BREADTH + limitUp * WEIGHT_LIMIT_UP + height * WEIGHT_HEIGHT;
+        double totalWeight = WEIGHT_BREADTH + WEIGHT_LIMIT_UP + WEIGHT_HEIGHT;
+        if (c.hasFollowThrough()) {
+            // 平均涨跌幅 -5% ~ +5% 线性映射到 0 ~ 100
+            double follow = Math.max(0, Math.min(1, (c.getFollowAvgChange() + 5) / 10)) * 100;
+            weighted += follow * WEIGHT_FOLLOW;
+            totalWeight += WEIGHT_FOLLOW;
+        }
+        double penalty = Math.min(c.getLimitDownCount() / 30.0, 1) * 100 * WEIGHT_LIMIT_DOWN_PENALTY;
+        double score = weighted / totalWeight - penalty;
+        return (int) Math.round(Math.max(0, Math.min(100, score)));
+    }
+}
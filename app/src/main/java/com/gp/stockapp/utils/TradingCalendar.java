@@ -0,0 +1,248 @@
+package com.gp.stockapp.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 交易日历索引（不可变，构建后可在任意线程共享）
+ *
+ * 构建时把 [startDate, endDate] 内的交易日展开成升序 int 数组（yyyyMMdd），
+ * 同时按自然日记录"截至当天（含）的交易日个数"，因此判断交易日、取前后交易日、
+ * 按交易日偏移和取区间都只需一次下标换算；超出范围的日期按周一至周五规则逐日推算
+ * 范围内缺少节假日数据的年份同样只排除周末，调用方可通过 {@link #hasDataFor(int)} 判断
+ *
+ * A股周末一律休市，调休上班的周六日也不开市，因此交易日 = 周一至周五且不在休市日内
+ */
+public final class TradingCalendar {
+
+    /** 范围外逐日推算的最大步数（最长的休市也不会超过这个天数） */
+    private static final int MAX_WALK_DAYS = 30;
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long startEpochDay;
+    private final int[] tradingDays;
+    private final int[] countThrough;
+    private final Set<Integer> dataYears;
+
+    /**
+     * @param holidays  休市日（yyyyMMdd），含落在工作日的法定节假日
+     * @param dataYears 有节假日数据的年份
+     */
+    public TradingCalendar(LocalDate startDate, LocalDate endDate,
+                           Set<Integer> holidays, Set<Integer> dataYears) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate before startDate: " + startDate + " ~ " + endDate);
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startEpochDay = startDate.toEpochDay();
+        this.dataYears = Collections.unmodifiableSet(new TreeSet<>(dataYears));
+
+        int days = (int) (endDate.toEpochDay() - startEpochDay + 1);
+        int[] trading = new int[days];
+        int[] counts = new int[days];
+        int count = 0;
+        LocalDate cursor = startDate;
+        for (int i = 0; i < days; i++) {
+            int date = toInt(cursor);
+            boolean open = !holidays.contains(date) && !isWeekend(cursor);
+            if (open) {
+                trading[count++] = date;
+            }
+            counts[i] = count;
+            cursor = cursor.plusDays(1);
+        }
+        this.tradingDays = Arrays.copyOf(trading, count);
+        this.countThrough = counts;
+    }
+
+    /**
+     * 没有任何节假日数据的日历（只排除周末），节假日数据加载前使用
+     */
+    public static TradingCalendar weekdaysOnly() {
+        LocalDate epoch = LocalDate.ofEpochDay(0);
+        return new TradingCalendar(epoch, epoch, Collections.emptySet(), Collections.emptySet());
+    }
+
+    /**
+     * 该年份是否有节假日数据（否则只按周一至周五推算）
+     */
+    public boolean hasDataFor(int year) {
+        return dataYears.contains(year);
+    }
+
+    public Set<Integer> getDataYears() {
+        return dataYears;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * 日期是否在索引范围内（范围外按周一至周五规则推算）
+     */
+    public boolean covers(LocalDate date) {
+        return indexOf(date) >= 0;
+    }
+
+    public boolean isTradingDay(LocalDate date) {
+        int index = indexOf(date);
+        if (index < 0) {
+            return !isWeekend(date);
+        }
+        return countThrough[index] - (index > 0 ? countThrough[index - 1] : 0) == 1;
+    }
+
+    public boolean isTradingDay(int date) {
+        return isTradingDay(toLocalDate(date));
+    }
+
+    /**
+     * 严格早于 date 的最近一个交易日
+     */
+    public int previous(int date) {
+        LocalDate day = toLocalDate(date);
+        int index = indexOf(day);
+        if (index >= 0) {
+            int before = countThrough[index] - (isTradingDay(day) ? 1 : 0);
+            if (before > 0) {
+                return tradingDays[before - 1];
+            }
+        }
+        return walk(day, -1);
+    }
+
+    /**
+     * 严格晚于 date 的最近一个交易日
+     */
+    public int next(int date) {
+        LocalDate day = toLocalDate(date);
+        int index = indexOf(day);
+        if (index >= 0 && countThrough[index] < tradingDays.length) {
+            return tradingDays[countThrough[index]];
+        }
+        return walk(day, 1);
+    }
+
+    /**
+     * date 当天（若为交易日）或之前最近的交易日
+     */
+    public int onOrBefore(int date) {
+        return isTradingDay(date) ? date : previous(date);
+    }
+
+    /**
+     * 从 onOrBefore(date) 起按交易日偏移 n 天（n < 0 向前）
+     */
+    public int offset(int date, int n) {
+        int base = onOrBefore(date);
+        int position = positionOf(base);
+        if (position >= 0 && position + n >= 0 && position + n < tradingDays.length) {
+            return tradingDays[position + n];
+        }
+        int result = base;
+        for (int i = 0; i < Math.abs(n); i++) {
+            result = n > 0 ? next(result) : previous(result);
+        }
+        return result;
+    }
+
+    /**
+     * [from, to] 内的全部交易日（升序）
+     */
+    public int[] range(int from, int to) {
+        if (from > to) {
+            return new int[0];
+        }
+        LocalDate fromDay = toLocalDate(from);
+        LocalDate toDay = toLocalDate(to);
+        int fromIndex = indexOf(fromDay);
+        int toIndex = indexOf(toDay);
+        if (fromIndex >= 0 && toIndex >= 0) {
+            int begin = fromIndex > 0 ? countThrough[fromIndex - 1] : 0;
+            return Arrays.copyOfRange(tradingDays, begin, countThrough[toIndex]);
+        }
+        int[] result = new int[(int) (toDay.toEpochDay() - fromDay.toEpochDay() + 1)];
+        int count = 0;
+        for (int date = isTradingDay(from) ? from : next(from); date <= to; date = next(date)) {
+            result[count++] = date;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 截至 date（含）最近的 count 个交易日（降序，最近的在前）
+     */
+    public int[] recent(int date, int count) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        int[] result = new int[count];
+        int base = onOrBefore(date);
+        int position = positionOf(base);
+        if (position + 1 >= count) {
+            for (int i = 0; i < count; i++) {
+                result[i] = tradingDays[position - i];
+            }
+            return result;
+        }
+        result[0] = base;
+        for (int i = 1; i < count; i++) {
+            result[i] = previous(result[i - 1]);
+        }
+        return result;
+    }
+
+    /**
+     * 交易日在数组中的下标，非交易日或范围外返回 -1
+     */
+    private int positionOf(int tradingDay) {
+        int index = indexOf(toLocalDate(tradingDay));
+        if (index < 0 || !isTradingDay(tradingDay)) {
+            return -1;
+        }
+        return countThrough[index] - 1;
+    }
+
+    private int indexOf(LocalDate date) {
+        long index = date.toEpochDay() - startEpochDay;
+        return index >= 0 && index < countThrough.length ? (int) index : -1;
+    }
+
+    /**
+     * 逐日推算（跨越索引边界时使用）
+     */
+    private int walk(LocalDate from, int step) {
+        LocalDate cursor = from;
+        for (int i = 0; i < MAX_WALK_DAYS; i++) {
+            cursor = cursor.plusDays(step);
+            if (isTradingDay(cursor)) {
+                return toInt(cursor);
+            }
+        }
+        return toInt(cursor);
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+
+    public static int toInt(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    public static LocalDate toLocalDate(int date) {
+        return LocalDate.of(date / 10000, date / 100 % 100, date % 100);
+    }
+}
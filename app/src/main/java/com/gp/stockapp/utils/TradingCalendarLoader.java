@@ -0,0 +1,268 @@
+package com.gp.stockapp.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 交易日历加载器
+ *
+ * 节假日数据每年一个 JSON 文件（yyyy.json）：随安装包内置在 assets/calendar/，
+ * 数据源刷新后的版本（CalendarRefreshWorker 下载）保存在 filesDir/calendar/，同一年份取 version 较大的一份。
+ * 解析后构建 {@link TradingCalendar} 并替换 {@link TradingDayHelper} 当前使用的日历，无需重启。
+ * workdaysOnWeekend（调休上班的周末）只作记录和校验，A股周末不开市，不参与交易日计算
+ */
+public class TradingCalendarLoader {
+    private static final String TAG = "TradingCalendarLoader";
+    private static final String CALENDAR_DIR = "calendar";
+    private static final String FILE_SUFFIX = ".json";
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * 单个年份的日历文件
+     */
+    static class YearFile {
+        int year;
+        int version;
+        List<DateGroup> holidays;
+        List<DateGroup> workdaysOnWeekend;
+    }
+
+    /**
+     * 一个假期（或一组调休日），estimated 表示官方安排尚未公布、按惯例预估
+     */
+    static class DateGroup {
+        String name;
+        List<String> dates;
+        boolean estimated;
+    }
+
+    /**
+     * 加载全部年份并安装到 TradingDayHelper（应用启动时调用）
+     */
+    public static void install(Context context) {
+        TradingDayHelper.install(load(context));
+    }
+
+    /**
+     * 读取内置和已刷新的日历文件，构建交易日历
+     */
+    public static TradingCalendar load(Context context) {
+        TreeMap<Integer, YearFile> years = new TreeMap<>();
+        try {
+            String[] fileNames = context.getAssets().list(CALENDAR_DIR);
+            if (fileNames != null) {
+                for (String fileName : fileNames) {
+                    if (!fileName.endsWith(FILE_SUFFIX)) continue;
+                    try (InputStream in = context.getAssets().open(CALENDAR_DIR + "/" + fileName)) {
+                        merge(years, parse(readFully(in)), "assets/" + fileName);
+                    } catch (IOException | IllegalArgumentException e) {
+                        Log.e(TAG, "内置日历文件无效: " + fileName, e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error listing calendar assets", e);
+        }
+        mergeRefreshed(years, getRefreshedDir(context));
+        return build(years);
+    }
+
+    /**
+     * 应用数据源下发的某一年日历（JSON 文本）：校验通过后落盘并立即替换当前日历
+     * @return 是否已应用（校验失败或版本不高于现有数据时返回false）
+     */
+    public static boolean applyUpdate(Context context, String json) {
+        YearFile update = saveUpdate(getRefreshedDir(context), json);
+        if (update == null) {
+            return false;
+        }
+        install(context);
+        Log.d(TAG, "已应用 " + update.year + " 年日历 v" + update.version);
+        return true;
+    }
+
+    /**
+     * 把目录中已刷新的年份文件按 version 合并到 years，无效文件忽略
+     */
+    static void mergeRefreshed(Map<Integer, YearFile> years, File dir) {
+        File[] refreshed = dir.listFiles((d, name) -> name.endsWith(FILE_SUFFIX));
+        if (refreshed == null) {
+            return;
+        }
+        for (File file : refreshed) {
+            try (InputStream in = new FileInputStream(file)) {
+                merge(years, parse(readFully(in)), file.getName());
+            } catch (IOException | IllegalArgumentException e) {
+                Log.e(TAG, "已刷新的日历文件无效，忽略: " + file.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 校验下发的日历并保存到目录，版本不高于已保存的同年份文件时不覆盖
+     * @return 已保存的年份文件，未保存时返回null
+     */
+    static YearFile saveUpdate(File dir, String json) {
+        YearFile update;
+        try {
+            update = parse(json);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "下发的日历数据无效", e);
+            return null;
+        }
+
+        File target = new File(dir, update.year + FILE_SUFFIX);
+        if (target.exists()) {
+            try (InputStream in = new FileInputStream(target)) {
+                if (parse(readFully(in)).version >= update.version) {
+                    Log.d(TAG, update.year + " 年日历已是最新版本 v" + update.version);
+                    return null;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                Log.w(TAG, "现有日历文件无效，直接覆盖: " + target.getName());
+            }
+        }
+
+        // 先写临时文件再改名，避免进程被杀时留下半个文件
+        File temp = new File(dir, update.year + FILE_SUFFIX + ".tmp");
+        try {
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("无法创建目录: " + dir);
+            }
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            if (!temp.renameTo(target)) {
+                throw new IOException("重命名失败: " + temp);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "保存日历文件失败: " + update.year, e);
+            temp.delete();
+            return null;
+        }
+        return update;
+    }
+
+    /**
+     * 解析并校验单个年份文件
+     * @throws IllegalArgumentException 格式错误、日期不属于该年份、调休日不是周末等
+     */
+    static YearFile parse(String json) {
+        YearFile file;
+        try {
+            file = GSON.fromJson(json, YearFile.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("JSON格式错误: " + e.getMessage(), e);
+        }
+        if (file == null || file.year < 2000 || file.year > 2100) {
+            throw new IllegalArgumentException("缺少有效的 year 字段");
+        }
+        if (file.holidays == null || file.holidays.isEmpty()) {
+            throw new IllegalArgumentException(file.year + ": 缺少 holidays");
+        }
+        for (DateGroup group : file.holidays) {
+            validateDates(file.year, group, false);
+        }
+        if (file.workdaysOnWeekend != null) {
+            for (DateGroup group : file.workdaysOnWeekend) {
+                validateDates(file.year, group, true);
+            }
+        }
+        return file;
+    }
+
+    private static void validateDates(int year, DateGroup group, boolean mustBeWeekend) {
+        if (group.dates == null || group.dates.isEmpty()) {
+            throw new IllegalArgumentException(year + " " + group.name + ": 缺少 dates");
+        }
+        for (String date : group.dates) {
+            LocalDate day;
+            try {
+                day = TradingCalendar.toLocalDate(Integer.parseInt(date));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(year + " " + group.name + ": 无效日期 " + date, e);
+            }
+            if (day.getYear() != year) {
+                throw new IllegalArgumentException(year + " " + group.name + ": 日期不属于该年份 " + date);
+            }
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+            if (mustBeWeekend && !weekend) {
+                throw new IllegalArgumentException(year + " " + group.name + ": 调休日不是周末 " + date);
+            }
+        }
+    }
+
+    private static void merge(Map<Integer, YearFile> years, YearFile file, String source) {
+        YearFile existing = years.get(file.year);
+        if (existing == null || file.version > existing.version) {
+            years.put(file.year, file);
+            Log.d(TAG, "日历 " + file.year + " v" + file.version + " (" + source + ")");
+        }
+    }
+
+    private static TradingCalendar build(TreeMap<Integer, YearFile> years) {
+        if (years.isEmpty()) {
+            Log.w(TAG, "没有可用的节假日数据，按周一至周五推算交易日");
+            return TradingCalendar.weekdaysOnly();
+        }
+        Set<Integer> holidays = new HashSet<>();
+        List<String> estimated = new ArrayList<>();
+        for (YearFile file : years.values()) {
+            for (DateGroup group : file.holidays) {
+                addAll(holidays, group.dates);
+                if (group.estimated) {
+                    estimated.add(file.year + group.name);
+                }
+            }
+        }
+        if (!estimated.isEmpty()) {
+            Log.w(TAG, "以下假期为预估安排，等待数据源更新: " + estimated);
+        }
+        return new TradingCalendar(LocalDate.of(years.firstKey(), 1, 1), LocalDate.of(years.lastKey(), 12, 31),
+                holidays, years.keySet());
+    }
+
+    private static void addAll(Set<Integer> target, List<String> dates) {
+        for (String date : dates) {
+            target.add(Integer.parseInt(date));
+        }
+    }
+
+    private static File getRefreshedDir(Context context) {
+        return new File(context.getFilesDir(), CALENDAR_DIR);
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                content.append(line).append("\n");
+            }
+        }
+        return content.toString();
+    }
+}
@@ -1,146 +1,173 @@
 package com.gp.stockapp.utils;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import android.util.Log;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 交易日判断工具
  * 判断是否为A股交易日（排除周末和中国法定节假日）
  *
- * 注意：每年需要更新节假日和调休数据
+ * 节假日数据由 {@link TradingCalendarLoader} 从 assets/calendar/yyyy.json 及数据源刷新的文件加载，展开为不可变的
+ * {@link TradingCalendar} 索引，查询不再逐日推算；日历可整体替换，替换前后的查询各自看到完整的一份。
+ * 日期格式化使用线程安全的 java.time，可在多个服务线程中并发调用
+ *
+ * 注意：每年新增一个日历文件；缺失年份按周一至周五推算并记入 getFallbackLookupCount()
  */
 public class TradingDayHelper {
+    private static final String TAG = "TradingDayHelper";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+    // 盘前准备时段起点：集合竞价前半小时起刷新热门数据
+    private static final LocalTime PRE_OPEN_START = LocalTime.of(8, 30);
+    private static final LocalTime SESSION_START = LocalTime.of(9, 15);
+    private static final LocalTime SESSION_END = LocalTime.of(15, 0);
+    // 收盘后留出半小时，日K线数据源完成当日收盘数据更新
+    private static final LocalTime DAILY_BAR_SETTLED = LocalTime.of(15, 30);
+
+    private static volatile TradingCalendar calendar = TradingCalendar.weekdaysOnly();
+
+    // 查询落在没有节假日数据的年份时计数，每个年份只告警一次
+    private static final AtomicLong fallbackLookups = new AtomicLong();
+    private static final Set<Integer> warnedYears = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 替换当前日历（应用启动和数据源刷新后由 TradingCalendarLoader 调用）
+     * 同时输出此前落在缺失年份的查询次数，便于确认刷新是否及时
+     */
+    public static void install(TradingCalendar newCalendar) {
+        calendar = newCalendar;
+        warnedYears.clear();
+        Log.d(TAG, "交易日历已更新, 数据年份: " + newCalendar.getDataYears()
+                + ", 累计按周一至周五推算的查询: " + fallbackLookups.get());
+    }
 
-    private static final SimpleDateFormat SDF = new SimpleDateFormat("yyyyMMdd", Locale.CHINA);
-
-    // ===== 2026年中国法定节假日（股市休市） =====
-    private static final Set<String> HOLIDAYS_2026 = new HashSet<>(Arrays.asList(
-            // 元旦 1.1-1.3
-            "20260101", "20260102", "20260103",
-            // 春节 2.16-2.22（除夕到初六）
-            "20260216", "20260217", "20260218", "20260219", "20260220", "20260221", "20260222",
-            // 清明节 4.4-4.6
-            "20260404", "20260405", "20260406",
-            // 劳动节 5.1-5.5
-            "20260501", "20260502", "20260503", "20260504", "20260505",
-            // 端午节 5.31-6.2（预估）
-            "20260531", "20260601", "20260602",
-            // 中秋节 9.25-9.27（预估）
-            "20260925", "20260926", "20260927",
-            // 国庆节 10.1-10.7
-            "20261001", "20261002", "20261003", "20261004", "20261005", "20261006", "20261007"
-    ));
-
-    // 2025年节假日
-    private static final Set<String> HOLIDAYS_2025 = new HashSet<>(Arrays.asList(
-            "20250101",
-            "20250128", "20250129", "20250130", "20250131", "20250201", "20250202", "20250203", "20250204",
-            "20250404", "20250405", "20250406",
-            "20250501", "20250502", "20250503", "20250504", "20250505",
-            "20250531", "20250601", "20250602",
-            "20251004", "20251005", "20251006", "20251007", "20251008"
-    ));
-
-    // ===== 周末调休上班日（需交易的周末） =====
-    private static final Set<String> WORKDAYS_ON_WEEKEND_2026 = new HashSet<>(Arrays.asList(
-            "20260214", // 春节调休 周六上班
-            "20260215"  // 春节调休 周日上班
-            // 其他调休日按实际情况添加
-    ));
-
-    private static final Set<String> WORKDAYS_ON_WEEKEND_2025 = new HashSet<>(Arrays.asList(
-            "20250126", // 春节调休
-            "20250208", // 春节调休
-            "20250928", // 国庆调休
-            "20251011"  // 国庆调休
-    ));
+    /**
+     * 交易日历索引（需要按 yyyyMMdd 整数批量查询时直接使用）
+     */
+    public static TradingCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * 该年份是否有节假日数据
+     */
+    public static boolean hasCalendarData(int year) {
+        return calendar.hasDataFor(year);
+    }
+
+    /**
+     * 落在缺失年份、只能按周一至周五推算的查询次数
+     */
+    public static long getFallbackLookupCount() {
+        return fallbackLookups.get();
+    }
 
     /**
      * 判断指定日期是否是交易日
      */
     public static boolean isTradingDay(Date date) {
-        String dateStr = SDF.format(date);
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-
-        // 1. 如果是法定节假日 → 休市
-        if (isHoliday(dateStr)) {
-            return false;
-        }
+        LocalDate day = toLocalDate(date);
+        return calendarFor(day).isTradingDay(day);
+    }
 
-        // 2. 如果是调休工作日（周末但要上班） → 开市
-        if (isWorkdayOnWeekend(dateStr)) {
-            return true;
-        }
+    /**
+     * 判断今天是否是交易日
+     */
+    public static boolean isTodayTradingDay() {
+        LocalDate today = LocalDate.now();
+        return calendarFor(today).isTradingDay(today);
+    }
 
-        // 3. 如果是周末 → 休市
-        if (dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY) {
+    /**
+     * 判断当前是否处于盘中时段（交易日 9:15 集合竞价开始 ~ 15:00 收盘）
+     */
+    public static boolean isTradingSession() {
+        if (!isTodayTradingDay()) {
             return false;
         }
+        LocalTime now = LocalTime.now();
+        return !now.isBefore(SESSION_START) && !now.isAfter(SESSION_END);
+    }
 
-        // 4. 普通工作日 → 开市
-        return true;
+    /**
+     * 判断当前是否在今天开盘前（交易日 0:00 ~ 9:15 集合竞价开始），此时行情接口还是上一交易日收盘数据
+     */
+    public static boolean isPreOpen() {
+        return isTodayTradingDay() && LocalTime.now().isBefore(SESSION_START);
     }
 
     /**
-     * 判断今天是否是交易日
+     * 判断当前是否处于盘前准备或盘中时段（交易日 8:30 ~ 15:00）
      */
-    public static boolean isTodayTradingDay() {
-        return isTradingDay(new Date());
+    public static boolean isPreOpenOrSession() {
+        if (!isTodayTradingDay()) {
+            return false;
+        }
+        LocalTime now = LocalTime.now();
+        return !now.isBefore(PRE_OPEN_START) && !now.isAfter(SESSION_END);
     }
 
     /**
      * 获取上一个交易日的日期
      */
     public static Date getPreviousTradingDay(Date fromDate) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(fromDate);
-
-        // 向前找，最多找30天
-        for (int i = 0; i < 30; i++) {
-            cal.add(Calendar.DAY_OF_MONTH, -1);
-            if (isTradingDay(cal.getTime())) {
-                return cal.getTime();
-            }
-        }
-
-        return null; // 理论上不会走到这里
+        LocalDate day = toLocalDate(fromDate);
+        return toDate(calendarFor(day).previous(TradingCalendar.toInt(day)));
     }
 
     /**
      * 获取上一个交易日的日期字符串 (yyyyMMdd)
      */
     public static String getPreviousTradingDayStr(Date fromDate) {
-        Date prevDay = getPreviousTradingDay(fromDate);
-        return prevDay != null ? SDF.format(prevDay) : "";
+        LocalDate day = toLocalDate(fromDate);
+        return String.valueOf(calendarFor(day).previous(TradingCalendar.toInt(day)));
+    }
+
+    /**
+     * 获取上一个交易日的日期字符串 (yyyyMMdd)，输入无法解析时返回空串
+     */
+    public static String getPreviousTradingDayStr(String dateStr) {
+        LocalDate date = parseLocalDate(dateStr);
+        return date != null ? String.valueOf(calendarFor(date).previous(TradingCalendar.toInt(date))) : "";
     }
 
     /**
      * 获取最近的交易日（如果今天是交易日返回今天，否则返回上一个交易日）
      */
     public static Date getLatestTradingDay() {
-        Date today = new Date();
-        if (isTradingDay(today)) {
-            return today;
-        }
-        return getPreviousTradingDay(today);
+        return toDate(latestTradingDay());
     }
 
     /**
      * 获取最近的交易日字符串 (yyyyMMdd)
      */
     public static String getLatestTradingDayStr() {
-        Date day = getLatestTradingDay();
-        return day != null ? SDF.format(day) : "";
+        return String.valueOf(latestTradingDay());
+    }
+
+    /**
+     * 获取最近一个已收盘（日K线已定型）的交易日字符串 (yyyyMMdd)
+     * 交易日 15:30 之前返回上一个交易日
+     */
+    public static String getLatestClosedTradingDayStr() {
+        LocalDate today = LocalDate.now();
+        TradingCalendar current = calendarFor(today);
+        int date = TradingCalendar.toInt(today);
+        if (current.isTradingDay(today) && LocalTime.now().isBefore(DAILY_BAR_SETTLED)) {
+            return String.valueOf(current.previous(date));
+        }
+        return String.valueOf(current.onOrBefore(date));
     }
 
     /**
@@ -148,14 +175,9 @@ public class TradingDayHelper {
      */
     public static List<String> getRecentTradingDayStrings(int count) {
         List<String> tradingDays = new ArrayList<>();
-        if (count <= 0) {
-            return tradingDays;
-        }
-
-        Date cursor = getLatestTradingDay();
-        while (cursor != null && tradingDays.size() < count) {
-            tradingDays.add(SDF.format(cursor));
-            cursor = getPreviousTradingDay(cursor);
+        LocalDate today = LocalDate.now();
+        for (int date : calendarFor(today).recent(TradingCalendar.toInt(today), count)) {
+            tradingDays.add(String.valueOf(date));
         }
         return tradingDays;
     }
@@ -173,25 +195,61 @@ public class TradingDayHelper {
      * 格式化日期
      */
     public static String formatDate(Date date) {
-        return SDF.format(date);
+        return FORMATTER.format(toLocalDate(date));
     }
 
     /**
      * 解析日期字符串
      */
     public static Date parseDate(String dateStr) {
+        LocalDate date = parseLocalDate(dateStr);
+        return date != null ? Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    /**
+     * 指定交易日 15:00 收盘时刻的毫秒时间，输入无法解析时返回0
+     */
+    public static long getSessionEndMillis(String dateStr) {
+        LocalDate date = parseLocalDate(dateStr);
+        return date != null ? date.atTime(SESSION_END).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    private static LocalDate parseLocalDate(String dateStr) {
+        if (dateStr == null) {
+            return null;
+        }
         try {
-            return SDF.parse(dateStr);
-        } catch (ParseException e) {
+            return LocalDate.parse(dateStr, FORMATTER);
+        } catch (DateTimeParseException e) {
             return null;
         }
     }
 
-    private static boolean isHoliday(String dateStr) {
-        return HOLIDAYS_2025.contains(dateStr) || HOLIDAYS_2026.contains(dateStr);
+    private static int latestTradingDay() {
+        LocalDate today = LocalDate.now();
+        return calendarFor(today).onOrBefore(TradingCalendar.toInt(today));
+    }
+
+    /**
+     * 取当前日历；日期所在年份没有节假日数据时记一次降级并告警，避免静默按错误的日历调度
+     */
+    private static TradingCalendar calendarFor(LocalDate date) {
+        TradingCalendar current = calendar;
+        int year = date.getYear();
+        if (!current.hasDataFor(year)) {
+            fallbackLookups.incrementAndGet();
+            if (warnedYears.add(year)) {
+                Log.w(TAG, year + " 年缺少节假日数据，按周一至周五推算交易日");
+            }
+        }
+        return current;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
-    private static boolean isWorkdayOnWeekend(String dateStr) {
-        return WORKDAYS_ON_WEEKEND_2025.contains(dateStr) || WORKDAYS_ON_WEEKEND_2026.contains(dateStr);
+    private static Date toDate(int date) {
+        return Date.from(TradingCalendar.toLocalDate(date).atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 }
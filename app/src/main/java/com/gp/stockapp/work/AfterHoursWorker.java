@@ -0,0 +1,49 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.service.MarketAnalyzer;
+import com.gp.stockapp.service.NewsCollector;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+/**
+ * 盘后/夜间新闻与大盘研判任务（周期执行）
+ * 监控服务收盘后停止，非盘中时段的新增新闻由这里定时抓取并交给AI筛选，供次日竞价策略使用；
+ * 每个收盘日收盘后还没有研判过时补做一次大盘研判。盘前准备和盘中时段由监控服务负责，直接返回
+ */
+public class AfterHoursWorker extends Worker {
+    private static final String TAG = "AfterHoursWorker";
+    private static final long MIN_NEWS_AGE = 30 * 60 * 1000; // 30分钟内已抓取过新闻则跳过
+
+    public AfterHoursWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (TradingDayHelper.isPreOpenOrSession()) {
+            return Result.success();
+        }
+        Context context = getApplicationContext();
+        if (!BackgroundJobs.ensureApiKey(context)) {
+            return Result.success();
+        }
+        try {
+            new NewsCollector(context).collectIfStale(MIN_NEWS_AGE);
+            MarketAnalyzer analyzer = new MarketAnalyzer(context);
+            if (!analyzer.hasAnalyzedSinceLastClose()) {
+                analyzer.analyze();
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "盘后新闻/研判失败", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import com.gp.stockapp.api.GLM4Client;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 后台任务入口
+ * 盘前拉起监控服务、盘后新闻与研判、盘后采集、交易日历刷新、历史补齐、归档清理、日K线同步、推荐评估、策略生成和策略回放
+ * 都交给 WorkManager：进程被杀或重启后仍会执行，带网络/电量约束，同名任务只保留一份
+ */
+public final class BackgroundJobs {
+
+    static final String WORK_HOT_DATA = "hot_data_refresh";
+    static final String WORK_POST_CLOSE = "post_close_capture";
+    static final String WORK_HISTORY_BACKFILL = "history_backfill";
+    static final String WORK_HISTORY_PRUNE = "history_prune";
+    static final String WORK_KLINE_SYNC = "kline_sync";
+    static final String WORK_SESSION_START = "session_start";
+    static final String WORK_AFTER_HOURS = "after_hours_digest";
+    static final String WORK_CALENDAR_REFRESH = "calendar_refresh";
+    private static final String WORK_STRATEGY_PREFIX = "strategy_";
+    private static final String WORK_REPLAY_PREFIX = "strategy_replay_";
+
+    // 周期任务无法限定时段，盘前/盘中以外的执行由 HotDataWorker 自行跳过
+    private static final long HOT_DATA_INTERVAL_MINUTES = 60;
+    // 盘后新闻周期，盘前/盘中的执行由 AfterHoursWorker 自行跳过
+    private static final long AFTER_HOURS_INTERVAL_MINUTES = 60;
+    // 节假日安排一年只公布一两次，每周检查一次足够
+    private static final long CALENDAR_REFRESH_INTERVAL_DAYS = 7;
+    // 与 TradingDayHelper 的盘前准备时段起点一致
+    private static final int SESSION_START_HOUR = 8;
+    private static final int SESSION_START_MINUTE = 30;
+    // 龙虎榜16点后发布，留出半小时余量
+    private static final int POST_CLOSE_HOUR = 16;
+    private static final int POST_CLOSE_MINUTE = 30;
+
+    private BackgroundJobs() {
+    }
+
+    /**
+     * 注册周期任务（幂等，已注册的保持原有计划）
+     */
+    public static void schedulePeriodicJobs(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context);
+
+        PeriodicWorkRequest hotData = new PeriodicWorkRequest.Builder(
+                HotDataWorker.class, HOT_DATA_INTERVAL_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(buildConstraints(false))
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_HOT_DATA, ExistingPeriodicWorkPolicy.KEEP, hotData);
+
+        PeriodicWorkRequest postClose = new PeriodicWorkRequest.Builder(
+                PostCloseCaptureWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(buildConstraints(false))
+                .setInitialDelay(millisUntil(POST_CLOSE_HOUR, POST_CLOSE_MINUTE), TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.LINEAR, 30, TimeUnit.MINUTES)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_POST_CLOSE, ExistingPeriodicWorkPolicy.KEEP, postClose);
+
+        PeriodicWorkRequest sessionStart = new PeriodicWorkRequest.Builder(
+                SessionStartWorker.class, 1, TimeUnit.DAYS)
+                .setInitialDelay(millisUntil(SESSION_START_HOUR, SESSION_START_MINUTE), TimeUnit.MILLISECONDS)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_SESSION_START, ExistingPeriodicWorkPolicy.KEEP, sessionStart);
+
+        PeriodicWorkRequest afterHours = new PeriodicWorkRequest.Builder(
+                AfterHoursWorker.class, AFTER_HOURS_INTERVAL_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(buildConstraints(true))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.MINUTES)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_AFTER_HOURS, ExistingPeriodicWorkPolicy.KEEP, afterHours);
+
+        PeriodicWorkRequest calendarRefresh = new PeriodicWorkRequest.Builder(
+                CalendarRefreshWorker.class, CALENDAR_REFRESH_INTERVAL_DAYS, TimeUnit.DAYS)
+                .setConstraints(buildConstraints(true))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.MINUTES)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_CALENDAR_REFRESH, ExistingPeriodicWorkPolicy.KEEP, calendarRefresh);
+    }
+
+    /**
+     * 补齐最近交易日的龙虎榜和连板数据，完成后接着归档清理
+     * 已在排队或执行中时不重复提交；中断后按退避策略重试，从断点继续
+     */
+    public static void enqueueHistoryBackfill(Context context) {
+        OneTimeWorkRequest backfill = new OneTimeWorkRequest.Builder(HistoryBackfillWorker.class)
+                .setConstraints(buildConstraints(true))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 1, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .beginUniqueWork(WORK_HISTORY_BACKFILL, ExistingWorkPolicy.KEEP, backfill)
+                .then(buildPruneRequest())
+                .enqueue();
+    }
+
+    /**
+     * 归档/清理超出保留期的历史明细
+     */
+    public static void enqueueHistoryPrune(Context context) {
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_HISTORY_PRUNE, ExistingWorkPolicy.KEEP, buildPruneRequest());
+    }
+
+    /**
+     * 把跟踪股票的本地日K线同步到最近收盘日，完成后接着评估推荐台账（已在排队或执行中时不重复提交）
+     */
+    public static void enqueueKlineSync(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(KlineSyncWorker.class)
+                .setConstraints(buildConstraints(true))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 1, TimeUnit.MINUTES)
+                .build();
+        OneTimeWorkRequest evaluate = new OneTimeWorkRequest.Builder(RecommendationEvalWorker.class)
+                .setConstraints(buildConstraints(false))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 1, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .beginUniqueWork(WORK_KLINE_SYNC, ExistingWorkPolicy.KEEP, request)
+                .then(evaluate)
+                .enqueue();
+    }
+
+    /**
+     * 生成一次策略推荐（同类型的请求在执行完之前只保留一份）
+     * @param strategyType 见 StrategyGenerator.TYPE_*
+     */
+    public static void enqueueStrategy(Context context, String strategyType) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(StrategyWorker.class)
+                .setConstraints(buildConstraints(false))
+                .setInputData(new Data.Builder()
+                        .putString(StrategyWorker.KEY_STRATEGY_TYPE, strategyType)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_STRATEGY_PREFIX + strategyType, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * 用存档的策略快照回放一段日期内的推荐并评估（同一 runId 只保留一份，中断后从断点继续）
+     * @param strategyType 见 StrategyGenerator.TYPE_*，null 表示竞价和尾盘都回放
+     * @param fromDate 起始信号交易日 yyyyMMdd
+     * @param toDate 截止信号交易日 yyyyMMdd
+     * @param useStub true 用本地确定性模型（初筛基线），false 用真实模型接口
+     * @param parallelism 并发数，最多 StrategyReplayer.MAX_PARALLELISM
+     */
+    public static void enqueueStrategyReplay(Context context, String runId, String strategyType,
+                                             String fromDate, String toDate, boolean useStub, int parallelism) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(StrategyReplayWorker.class)
+                .setConstraints(buildConstraints(!useStub))
+                .setInputData(new Data.Builder()
+                        .putString(StrategyReplayWorker.KEY_RUN_ID, runId)
+                        .putString(StrategyReplayWorker.KEY_STRATEGY_TYPE, strategyType)
+                        .putString(StrategyReplayWorker.KEY_FROM_DATE, fromDate)
+                        .putString(StrategyReplayWorker.KEY_TO_DATE, toDate)
+                        .putBoolean(StrategyReplayWorker.KEY_USE_STUB, useStub)
+                        .putInt(StrategyReplayWorker.KEY_PARALLELISM, parallelism)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 1, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_REPLAY_PREFIX + runId, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * 后台任务可能在没有打开过界面的进程中执行，从配置中恢复API密钥
+     * @return 是否已配置密钥
+     */
+    static boolean ensureApiKey(Context context) {
+        String apiKey = context.getSharedPreferences("app_prefs", Context.MODE_PRIVATE)
+                .getString("api_key", "");
+        if (apiKey.isEmpty()) {
+            return false;
+        }
+        GLM4Client.getInstance().setApiKey(apiKey);
+        return true;
+    }
+
+    private static OneTimeWorkRequest buildPruneRequest() {
+        return new OneTimeWorkRequest.Builder(HistoryPruneWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .setRequiresStorageNotLow(true)
+                        .build())
+                .build();
+    }
+
+    /**
+     * @param heavy 大批量请求（历史补齐）和不急的任务（盘后新闻、日历刷新）额外要求电量充足
+     */
+    private static Constraints buildConstraints(boolean heavy) {
+        return new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(heavy)
+                .build();
+    }
+
+    /**
+     * 距下一个 hour:minute 的毫秒数
+     */
+    private static long millisUntil(int hour, int minute) {
+        Calendar now = Calendar.getInstance();
+        Calendar next = (Calendar) now.clone();
+        next.set(Calendar.HOUR_OF_DAY, hour);
+        next.set(Calendar.MINUTE, minute);
+        next.set(Calendar.SECOND, 0);
+        next.set(Calendar.MILLISECOND, 0);
+        if (!next.after(now)) {
+            next.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return next.getTimeInMillis() - now.getTimeInMillis();
+    }
+}
@@ -0,0 +1,88 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.utils.HttpClient;
+import com.gp.stockapp.utils.TradingCalendarLoader;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 交易日历刷新任务（每周一次）
+ * 从配置的数据源下载今年和明年的 yyyy.json（格式同 assets/calendar/），版本更高时落盘并立即替换当前日历：
+ * 预估的假期安排在官方公布后得到更正，新年份不必等版本发布。
+ * 数据源地址存于 app_prefs 的 calendar_source_url（目录地址，以 / 结尾），未配置时只检查日历是否缺年份
+ */
+public class CalendarRefreshWorker extends Worker {
+    private static final String TAG = "CalendarRefreshWorker";
+    static final String KEY_SOURCE_URL = "calendar_source_url";
+    private static final int HTTP_NOT_FOUND = 404;
+
+    public CalendarRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        int year = LocalDate.now().getYear();
+        String sourceUrl = context.getSharedPreferences("app_prefs", Context.MODE_PRIVATE)
+                .getString(KEY_SOURCE_URL, "");
+        if (sourceUrl.isEmpty()) {
+            if (!TradingDayHelper.hasCalendarData(year)) {
+                Log.w(TAG, "未配置日历数据源，" + year + " 年缺少节假日数据，已按周一至周五推算 "
+                        + TradingDayHelper.getFallbackLookupCount() + " 次");
+            }
+            return Result.success();
+        }
+
+        try {
+            for (int target = year; target <= year + 1; target++) {
+                if (isStopped()) {
+                    return Result.retry();
+                }
+                String json = fetch(sourceUrl + target + ".json");
+                if (json == null) {
+                    // 明年的安排通常年底才公布
+                    Log.d(TAG, "数据源暂无 " + target + " 年日历");
+                    continue;
+                }
+                TradingCalendarLoader.applyUpdate(context, json);
+            }
+            return Result.success();
+        } catch (IOException e) {
+            Log.w(TAG, "下载交易日历失败: " + e.getMessage());
+            return Result.retry();
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "日历数据源地址无效: " + sourceUrl, e);
+            return Result.success();
+        }
+    }
+
+    /**
+     * @return 文件内容，数据源没有该文件时返回null
+     */
+    private String fetch(String url) throws IOException {
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = HttpClient.getInstance().newCall(request).execute()) {
+            if (response.code() == HTTP_NOT_FOUND) {
+                return null;
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.service.HistoryBackfillEngine;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.util.List;
+
+/**
+ * 历史龙虎榜/连板数据补齐任务
+ * 进度记录在 history_backfill_checkpoint 中，被系统停止或部分失败时返回 retry，下次只补未完成的部分
+ */
+public class HistoryBackfillWorker extends Worker {
+    private static final String TAG = "HistoryBackfillWorker";
+    private static final long PROGRESS_INTERVAL = 5000; // 补齐进度最多5秒广播一次
+    private static final int MAX_RUN_ATTEMPTS = 5;
+
+    public static final String ACTION_HISTORY_SYNC_STATUS = "com.gp.stockapp.HISTORY_SYNC_STATUS";
+    public static final String EXTRA_HISTORY_SYNC_RUNNING = "history_sync_running";
+    public static final String EXTRA_HISTORY_SYNC_SUCCESS = "history_sync_success";
+    public static final String EXTRA_HISTORY_SYNC_MESSAGE = "history_sync_message";
+
+    private static volatile boolean running = false;
+
+    private final HistoryBackfillEngine engine;
+
+    public HistoryBackfillWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        engine = new HistoryBackfillEngine(HotStockApi.getInstance(), AppDatabase.getInstance(context),
+                HistoryBackfillEngine.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * 当前进程中是否有补齐正在执行（归档清理需等补齐结束，避免只补了一部分的日期被提前归档）
+     */
+    static boolean isRunning() {
+        return running;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        running = true;
+        try {
+            int backfillDays = StockRepository.getInstance(getApplicationContext()).getHistoryBackfillDays();
+            List<String> targetDates = TradingDayHelper.getRecentTradingDayStrings(backfillDays);
+            if (targetDates.isEmpty()) {
+                broadcastStatus(false, false, "未找到可补齐的交易日");
+                return Result.success();
+            }
+
+            broadcastStatus(true, true, getRunAttemptCount() == 0
+                    ? "开始补齐最近" + backfillDays + "个交易日的龙虎榜和连板数据..."
+                    : "继续补齐历史数据（第" + (getRunAttemptCount() + 1) + "次）...");
+
+            final long[] lastBroadcastTime = {0};
+            HistoryBackfillEngine.Result result = engine.run(targetDates,
+                    TradingDayHelper.getLatestTradingDayStr(), (finished, total, failed) -> {
+                        long now = System.currentTimeMillis();
+                        if (finished < total && now - lastBroadcastTime[0] < PROGRESS_INTERVAL) {
+                            return;
+                        }
+                        lastBroadcastTime[0] = now;
+                        String progress = "正在补齐历史数据 " + finished + "/" + total
+                                + (failed > 0 ? "（失败 " + failed + "）" : "");
+                        broadcastStatus(true, true, progress);
+                    });
+
+            broadcastStatus(false, !result.isCancelled(), result.toMessage());
+            // 被系统停止：进度已保存，交给 WorkManager 重新调度
+            if (result.isCancelled() || isStopped()) {
+                return Result.retry();
+            }
+            if (result.getFailedTasks() > 0 && getRunAttemptCount() + 1 < MAX_RUN_ATTEMPTS) {
+                return Result.retry();
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "历史数据补齐失败", e);
+            broadcastStatus(false, false, "历史数据补齐失败：" + e.getMessage());
+            return getRunAttemptCount() + 1 < MAX_RUN_ATTEMPTS ? Result.retry() : Result.failure();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public void onStopped() {
+        super.onStopped();
+        engine.cancel();
+    }
+
+    private void broadcastStatus(boolean running, boolean success, String message) {
+        Intent intent = new Intent(ACTION_HISTORY_SYNC_STATUS);
+        intent.putExtra(EXTRA_HISTORY_SYNC_RUNNING, running);
+        intent.putExtra(EXTRA_HISTORY_SYNC_SUCCESS, success);
+        intent.putExtra(EXTRA_HISTORY_SYNC_MESSAGE, message);
+        LocalBroadcastManager.getInstance(getApplicationContext()).sendBroadcast(intent);
+    }
+}
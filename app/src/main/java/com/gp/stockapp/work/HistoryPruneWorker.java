@@ -0,0 +1,64 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.repository.StockRepository;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.util.List;
+
+/**
+ * 历史明细归档清理任务
+ * 超出保留期的龙虎榜/连板明细先转入月度汇总和冷存档，再清理残留、过期新闻、分时文件、策略快照和板块统计
+ */
+public class HistoryPruneWorker extends Worker {
+    private static final String TAG = "HistoryPruneWorker";
+    private static final int HISTORY_RETENTION_DAYS = 7;
+    // 策略快照保留约一年，供策略回放使用；板块强度统计同样保留
+    private static final int SNAPSHOT_RETENTION_DAYS = 250;
+
+    public HistoryPruneWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // 补齐任务链结束后会再执行一次清理，这里直接跳过
+        if (HistoryBackfillWorker.isRunning()) {
+            Log.d(TAG, "历史补齐进行中，跳过本次清理");
+            return Result.success();
+        }
+        List<String> recentTradingDays = TradingDayHelper.getRecentTradingDayStrings(HISTORY_RETENTION_DAYS);
+        if (recentTradingDays.isEmpty()) {
+            return Result.success();
+        }
+        String cutoffDate = recentTradingDays.get(recentTradingDays.size() - 1);
+        try {
+            StockRepository stockRepository = StockRepository.getInstance(getApplicationContext());
+            AppDatabase appDatabase = AppDatabase.getInstance(getApplicationContext());
+            stockRepository.archiveHistoryBefore(cutoffDate);
+            appDatabase.dragonTigerDao().deleteBeforeDate(cutoffDate);
+            appDatabase.continuousLimitDao().deleteBeforeDate(cutoffDate);
+            stockRepository.pruneNewsArchive();
+            stockRepository.pruneIntradayBefore(cutoffDate);
+            List<String> snapshotDays = TradingDayHelper.getRecentTradingDayStrings(SNAPSHOT_RETENTION_DAYS);
+            if (!snapshotDays.isEmpty()) {
+                String snapshotCutoff = snapshotDays.get(snapshotDays.size() - 1);
+                stockRepository.pruneStrategySnapshotsBefore(snapshotCutoff);
+                stockRepository.pruneSectorStatsBefore(snapshotCutoff);
+            }
+            Log.d(TAG, "历史明细清理完成, 截止 " + cutoffDate);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "历史明细清理失败", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.service.HotDataCollector;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+/**
+ * 热门股票数据定时刷新任务
+ * 数据服务未运行时也能保证竞价/尾盘策略拿到较新的热门数据；
+ * 只在交易日盘前准备和盘中（8:30 ~ 15:00）采集，夜间和非交易日被唤醒时直接返回，不发网络请求，
+ * 盘后数据由 PostCloseCaptureWorker 负责
+ */
+public class HotDataWorker extends Worker {
+    private static final String TAG = "HotDataWorker";
+    private static final long MIN_REFRESH_AGE = 10 * 60 * 1000; // 10分钟内已采集过（如数据服务盘中刚抓过）则跳过
+
+    public HotDataWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (!TradingDayHelper.isPreOpenOrSession()) {
+            return Result.success();
+        }
+        try {
+            new HotDataCollector(getApplicationContext()).collectIfStale(MIN_REFRESH_AGE);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "刷新热门股票数据失败", e);
+            return Result.retry();
+        }
+    }
+}
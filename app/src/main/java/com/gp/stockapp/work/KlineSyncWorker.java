@@ -0,0 +1,48 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.service.KlineCacheService;
+
+import java.util.Set;
+
+/**
+ * 日K线同步任务（盘后采集完成后执行）
+ * 把近期龙虎榜/连板股、活跃股和推荐个股的本地日K线补到最近收盘日，
+ * 次日竞价计算技术指标时不用再临时抓取历史K线
+ */
+public class KlineSyncWorker extends Worker {
+    private static final String TAG = "KlineSyncWorker";
+
+    public KlineSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            KlineCacheService klineCacheService = KlineCacheService.getInstance(getApplicationContext());
+            Set<String> codes = klineCacheService.collectTrackedCodes();
+            int ready = 0;
+            for (String code : codes) {
+                if (isStopped()) {
+                    Log.d(TAG, "日K线同步被中断, 已完成 " + ready + "/" + codes.size());
+                    return Result.retry();
+                }
+                if (klineCacheService.sync(code)) ready++;
+            }
+            Log.d(TAG, "日K线同步完成: " + ready + "/" + codes.size() + " 只, 本地缓存 "
+                    + klineCacheService.getCacheBytes() / 1024 + "KB");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "日K线同步失败", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.api.HotStockApi;
+import com.gp.stockapp.db.AppDatabase;
+import com.gp.stockapp.db.BackfillCheckpointDao;
+import com.gp.stockapp.db.ContinuousLimitEntity;
+import com.gp.stockapp.db.DragonTigerEntity;
+import com.gp.stockapp.db.UpsertResult;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.service.HotDataCollector;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * 盘后龙虎榜/连板股采集任务（每日一次）
+ * 盘中缓存的只是热门数据中的前几名，收盘发布后抓取当日完整名单写入历史库，
+ * 同时刷新次日竞价策略用的热门数据缓存，最后提交归档清理和日K线同步
+ */
+public class PostCloseCaptureWorker extends Worker {
+    private static final String TAG = "PostCloseCapture";
+    private static final int PUBLISH_HOUR = 16; // 龙虎榜每天16点后发布
+
+    public PostCloseCaptureWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Calendar cal = Calendar.getInstance();
+        // 周期任务的执行时间会漂移，发布前执行时采集上一个交易日
+        String tradeDate = TradingDayHelper.isTodayTradingDay() && cal.get(Calendar.HOUR_OF_DAY) < PUBLISH_HOUR
+                ? TradingDayHelper.getPreviousTradingDayStr(cal.getTime())
+                : TradingDayHelper.getLatestTradingDayStr();
+        if (tradeDate.isEmpty()) {
+            return Result.success();
+        }
+
+        HotStockApi hotStockApi = HotStockApi.getInstance();
+        AppDatabase appDatabase = AppDatabase.getInstance(getApplicationContext());
+        BackfillCheckpointDao checkpointDao = appDatabase.backfillCheckpointDao();
+        try {
+            long fetchTime = System.currentTimeMillis();
+            List<DragonTigerEntity> dragonTigerList = new ArrayList<>();
+            for (HotStockData.DragonTigerItem item : hotStockApi.fetchHistoricalDragonTigerList(tradeDate)) {
+                dragonTigerList.add(DragonTigerEntity.fromItem(item, tradeDate, fetchTime));
+            }
+            if (dragonTigerList.isEmpty()) {
+                // 数据可能还没发布，按退避策略稍后再试
+                Log.d(TAG, "龙虎榜尚未发布: " + tradeDate);
+                return Result.retry();
+            }
+            List<ContinuousLimitEntity> continuousLimitList = new ArrayList<>();
+            for (HotStockData.ContinuousLimitItem item : hotStockApi.fetchHistoricalContinuousLimitList(tradeDate)) {
+                continuousLimitList.add(ContinuousLimitEntity.fromItem(item, tradeDate, fetchTime));
+            }
+
+            UpsertResult dragonTigerResult = appDatabase.dragonTigerDao().upsertChanged(tradeDate, dragonTigerList);
+            UpsertResult continuousLimitResult = appDatabase.continuousLimitDao()
+                    .upsertChanged(tradeDate, continuousLimitList);
+            // 记入补齐进度，历史补齐不再重复抓取这一天
+            long now = System.currentTimeMillis();
+            checkpointDao.ensure(tradeDate, now);
+            checkpointDao.markDragonTigerDone(tradeDate, dragonTigerList.size(), now);
+            if (!continuousLimitList.isEmpty()) {
+                checkpointDao.markContinuousLimitDone(tradeDate, continuousLimitList.size(), now);
+            }
+            Log.d(TAG, "盘后采集完成 " + tradeDate + ": 龙虎榜 " + dragonTigerResult
+                    + ", 连板股 " + continuousLimitResult);
+
+            new HotDataCollector(getApplicationContext()).collect();
+        } catch (IOException e) {
+            Log.w(TAG, "盘后采集失败: " + tradeDate + " " + e.getMessage());
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "盘后采集出错: " + tradeDate, e);
+            return Result.retry();
+        }
+
+        BackgroundJobs.enqueueHistoryPrune(getApplicationContext());
+        BackgroundJobs.enqueueKlineSync(getApplicationContext());
+        return Result.success();
+    }
+}
@@ -0,0 +1,47 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.db.RecommendationOutcomeSummary;
+import com.gp.stockapp.service.RecommendationTracker;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+import java.util.List;
+
+/**
+ * 推荐效果评估任务（日K线同步完成后执行）
+ * 增量回填推荐台账中次日K线已定型的记录，并输出最近的分组汇总
+ */
+public class RecommendationEvalWorker extends Worker {
+    private static final String TAG = "RecommendationEval";
+    private static final int SUMMARY_TRADING_DAYS = 60;
+
+    public RecommendationEvalWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            RecommendationTracker tracker = RecommendationTracker.getInstance(getApplicationContext());
+            int evaluated = tracker.evaluatePending();
+            if (evaluated > 0) {
+                List<String> recentDays = TradingDayHelper.getRecentTradingDayStrings(SUMMARY_TRADING_DAYS);
+                String sinceDate = recentDays.isEmpty() ? "" : recentDays.get(recentDays.size() - 1);
+                for (RecommendationOutcomeSummary summary : tracker.getSummaries(sinceDate)) {
+                    Log.d(TAG, "近" + SUMMARY_TRADING_DAYS + "个交易日推荐效果: " + summary);
+                }
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "推荐效果评估失败", e);
+            return Result.retry();
+        }
+    }
+}
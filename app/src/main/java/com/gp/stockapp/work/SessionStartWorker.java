@@ -0,0 +1,45 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.service.MonitorServices;
+import com.gp.stockapp.utils.TradingDayHelper;
+
+/**
+ * 盘前拉起监控服务（每日一次）
+ * 用户开启了监控时，在交易日盘前准备和盘中时段启动数据抓取和AI分析服务；服务收盘后自行停止。
+ * 非交易日或执行时间漂移到收盘后直接返回，盘后新闻由 AfterHoursWorker 负责
+ */
+public class SessionStartWorker extends Worker {
+    private static final String TAG = "SessionStartWorker";
+
+    public SessionStartWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        if (!MonitorServices.isEnabled(context) || !TradingDayHelper.isPreOpenOrSession()) {
+            return Result.success();
+        }
+        if (!BackgroundJobs.ensureApiKey(context)) {
+            Log.w(TAG, "未设置API密钥，不启动监控服务");
+            return Result.success();
+        }
+        try {
+            MonitorServices.start(context);
+            Log.d(TAG, "盘前启动监控服务");
+        } catch (IllegalStateException e) {
+            // 系统不允许从后台启动前台服务，等用户下次打开界面时再启动
+            Log.w(TAG, "无法从后台启动监控服务: " + e.getMessage());
+        }
+        return Result.success();
+    }
+}
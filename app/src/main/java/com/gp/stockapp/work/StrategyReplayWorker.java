@@ -0,0 +1,81 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.api.ChatModel;
+import com.gp.stockapp.api.GLM4Client;
+import com.gp.stockapp.api.ScreenerStubModel;
+import com.gp.stockapp.service.StrategyReplayer;
+
+/**
+ * 策略回放任务
+ * 用存档的策略快照重放一段日期内的竞价/尾盘推荐并按次日收益评估，结果写入回放结果文件；
+ * 中断后按退避策略重试，同一 runId 从断点继续
+ */
+public class StrategyReplayWorker extends Worker {
+    private static final String TAG = "StrategyReplayWorker";
+
+    static final String KEY_RUN_ID = "run_id";
+    static final String KEY_STRATEGY_TYPE = "strategy_type";
+    static final String KEY_FROM_DATE = "from_date";
+    static final String KEY_TO_DATE = "to_date";
+    static final String KEY_USE_STUB = "use_stub";
+    static final String KEY_PARALLELISM = "parallelism";
+    public static final String KEY_SUMMARY = "summary";
+
+    private volatile StrategyReplayer replayer;
+
+    public StrategyReplayWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Data input = getInputData();
+        String runId = input.getString(KEY_RUN_ID);
+        String fromDate = input.getString(KEY_FROM_DATE);
+        String toDate = input.getString(KEY_TO_DATE);
+        if (runId == null || fromDate == null || toDate == null) {
+            return Result.failure();
+        }
+        ChatModel chatModel;
+        if (input.getBoolean(KEY_USE_STUB, false)) {
+            chatModel = new ScreenerStubModel();
+        } else if (BackgroundJobs.ensureApiKey(getApplicationContext())) {
+            chatModel = GLM4Client.getInstance();
+        } else {
+            Log.w(TAG, "未设置API密钥，无法用真实模型回放: " + runId);
+            return Result.failure();
+        }
+
+        try {
+            replayer = new StrategyReplayer(getApplicationContext());
+            StrategyReplayer.Summary summary = replayer.run(runId, input.getString(KEY_STRATEGY_TYPE), fromDate, toDate,
+                    chatModel, input.getInt(KEY_PARALLELISM, 2));
+            if (summary == null || isStopped()) {
+                Log.d(TAG, "回放被中断: " + runId);
+                return Result.retry();
+            }
+            Log.d(TAG, "回放完成 " + runId + ": " + summary);
+            return Result.success(new Data.Builder().putString(KEY_SUMMARY, summary.toString()).build());
+        } catch (Exception e) {
+            Log.e(TAG, "回放失败: " + runId, e);
+            return Result.retry();
+        }
+    }
+
+    @Override
+    public void onStopped() {
+        StrategyReplayer current = replayer;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gp.stockapp.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.gp.stockapp.service.StrategyGenerator;
+
+/**
+ * 策略推荐生成任务（竞价/尾盘/板块的手动刷新）
+ */
+public class StrategyWorker extends Worker {
+    private static final String TAG = "StrategyWorker";
+    private static final int MAX_RUN_ATTEMPTS = 3;
+
+    static final String KEY_STRATEGY_TYPE = "strategy_type";
+
+    public StrategyWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String strategyType = getInputData().getString(KEY_STRATEGY_TYPE);
+        if (strategyType == null) {
+            return Result.failure();
+        }
+        if (!BackgroundJobs.ensureApiKey(getApplicationContext())) {
+            Log.w(TAG, "未设置API密钥，跳过策略生成: " + strategyType);
+            return Result.failure();
+        }
+
+        Log.d(TAG, "Generating strategy: " + strategyType);
+        if (new StrategyGenerator(getApplicationContext()).generate(strategyType)) {
+            return Result.success();
+        }
+        return getRunAttemptCount() + 1 < MAX_RUN_ATTEMPTS ? Result.retry() : Result.failure();
+    }
+}
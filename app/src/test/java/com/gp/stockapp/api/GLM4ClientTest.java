@@ -0,0 +1,120 @@
+package com.gp.stockapp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.utils.CircuitBreaker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 用本地模拟的GLM接口验证熔断和对冲：注入5xx和慢响应
+ */
+public class GLM4ClientTest {
+
+    private static final String MODEL_STANDARD = "glm-4.7";
+    private static final String OK_BODY =
+            "{\"content\":[{\"type\":\"text\",\"text\":\"{\\\"ok\\\":true}\"}]}";
+
+    private MockWebServer server;
+    private GLM4Client client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient http = new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
+        client = new GLM4Client(http);
+        client.setApiKey("test-key");
+        client.setApiUrl(server.url("/v1/messages").toString());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void successfulCallReturnsExtractedJson() {
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        assertEquals("{\"ok\":true}", client.analyze("prompt"));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void serverErrorIsRetried() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        assertEquals("{\"ok\":true}", client.analyze("prompt"));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState(MODEL_STANDARD));
+    }
+
+    @Test
+    public void repeatedServerErrorsOpenOnlyThatModelsBreaker() {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        // 第一次调用3次尝试全部失败，第二次调用第1次尝试失败后窗口内失败达到4次，熔断打开
+        assertNull(client.analyze("prompt"));
+        assertNull(client.analyze("prompt"));
+        assertEquals(4, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState(MODEL_STANDARD));
+
+        // 熔断期间标准模型不再发请求
+        assertNull(client.analyze("prompt"));
+        assertEquals(4, server.getRequestCount());
+
+        // 高精度模型有自己的熔断器，不受影响
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState(client.getPremiumModel()));
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+        assertNotNull(client.analyzePremium(ChatPrompt.of("prompt")));
+    }
+
+    @Test
+    public void slowPremiumRequestIsHedged() {
+        // 积累足够的耗时样本后，对冲阈值为 max(3秒, P90)
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setBody(OK_BODY));
+            assertNotNull(client.analyzePremium(ChatPrompt.of("warmup")));
+        }
+        server.enqueue(new MockResponse().setBody(OK_BODY).setHeadersDelay(20, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        long start = System.nanoTime();
+        String result = client.analyzePremium(ChatPrompt.of("prompt"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals("{\"ok\":true}", result);
+        assertEquals(7, server.getRequestCount());
+        assertTrue("对冲请求应在慢请求返回前结束: " + elapsedMs + "ms", elapsedMs < 10_000);
+    }
+
+    @Test
+    public void standardModelIsNotHedged() {
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setBody(OK_BODY));
+            assertNotNull(client.analyze("warmup"));
+        }
+        server.enqueue(new MockResponse().setBody(OK_BODY).setHeadersDelay(4, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        assertNotNull(client.analyze("prompt"));
+        assertEquals(6, server.getRequestCount());
+    }
+}
@@ -0,0 +1,64 @@
+package com.gp.stockapp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.gp.stockapp.model.MarketBreadth;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+public class MarketApiTest {
+
+    @Test
+    public void breadthKeysMapToBucketBoundaries() {
+        // 每个key的家数不同，便于核对落在哪一档
+        String body = "{\"data\":{\"fenbu\":["
+                + "{\"-11\":1},{\"-10\":2},{\"-8\":4},{\"-7\":8},{\"-6\":16},{\"-5\":32},{\"-4\":64},"
+                + "{\"-3\":128},{\"-1\":256},{\"0\":512},{\"1\":1000},{\"3\":2000},{\"4\":3000},"
+                + "{\"5\":4000},{\"6\":5000},{\"7\":6000},{\"8\":7000},{\"10\":8000},{\"11\":9000},{\"20\":10000}"
+                + "]}}";
+
+        MarketBreadth breadth = MarketApi.parseBreadthResponse(body);
+
+        assertEquals(Arrays.asList(1, 2 + 4, 8 + 16, 32 + 64, 128 + 256, 512,
+                1000 + 2000, 3000 + 4000, 5000 + 6000, 7000 + 8000, 9000 + 10000), breadth.getDistribution());
+        assertEquals(1, breadth.getLimitDownCount());
+        assertEquals(19000, breadth.getLimitUpCount());
+        assertEquals(1 + 2 + 4 + 8 + 16 + 32 + 64 + 128 + 256, breadth.getDeclineCount());
+        assertEquals(512, breadth.getFlatCount());
+        assertEquals(1000 + 2000 + 3000 + 4000 + 5000 + 6000 + 7000 + 8000 + 9000 + 10000, breadth.getAdvanceCount());
+    }
+
+    @Test
+    public void breadthIgnoresNonNumericKeysAndMergesSameBucket() {
+        String body = "{\"data\":{\"fenbu\":[{\"2\":10,\"3\":5},{\"x\":99},{\" -2 \":7}]}}";
+
+        MarketBreadth breadth = MarketApi.parseBreadthResponse(body);
+
+        assertEquals(15, (int) breadth.getDistribution().get(6));
+        assertEquals(7, (int) breadth.getDistribution().get(4));
+        assertEquals(15, breadth.getAdvanceCount());
+        assertEquals(7, breadth.getDeclineCount());
+    }
+
+    @Test
+    public void breadthWithoutDataIsNull() {
+        assertNull(MarketApi.parseBreadthResponse("{\"data\":null}"));
+        assertNull(MarketApi.parseBreadthResponse("{\"data\":{\"fenbu\":{}}}"));
+        assertNull(MarketApi.parseBreadthResponse("{\"data\":{\"fenbu\":[]}}"));
+    }
+
+    @Test
+    public void quoteTimeParsesSinaFields() {
+        long expected = LocalDateTime.of(2025, 10, 10, 14, 30, 5)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertEquals(expected, MarketApi.parseQuoteTime("2025-10-10", " 14:30:05"));
+        assertEquals(0, MarketApi.parseQuoteTime("", "14:30:05"));
+        assertEquals(0, MarketApi.parseQuoteTime("2025-10-10", "--"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.gp.stockapp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.gp.stockapp.model.HotStockData;
+import com.gp.stockapp.model.StrategySnapshot;
+import com.gp.stockapp.utils.CandidateScreener;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScreenerStubModelTest {
+
+    @Test
+    public void picksTopScreenedCandidatesFromSnapshot() {
+        StrategySnapshot snapshot = new StrategySnapshot();
+        snapshot.setHotData(hotData());
+        List<CandidateScreener.Candidate> expected = CandidateScreener.screen(snapshot.getHotData(), 2);
+
+        JsonObject result = JsonParser.parseString(
+                new ScreenerStubModel(2).analyzeReplay(snapshot, ChatPrompt.of("任意内容"))).getAsJsonObject();
+
+        JsonArray items = result.getAsJsonArray("items");
+        assertEquals(2, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(expected.get(i).getCode(), items.get(i).getAsJsonObject().get("code").getAsString());
+        }
+    }
+
+    @Test
+    public void emptyHotDataGivesNoPicks() {
+        JsonObject result = JsonParser.parseString(
+                new ScreenerStubModel().analyzeReplay(new StrategySnapshot(), ChatPrompt.of(""))).getAsJsonObject();
+
+        assertEquals(0, result.getAsJsonArray("items").size());
+    }
+
+    @Test
+    public void promptOnlyCallIsNotSupported() {
+        assertNull(new ScreenerStubModel().analyzePremium(ChatPrompt.of("## 本地初筛候选股\n- 招商银行(600036) 评分80")));
+    }
+
+    private static HotStockData hotData() {
+        List<HotStockData.TopGainerItem> gainers = new ArrayList<>();
+        gainers.add(gainer("600036", "招商银行", 4.0, 6.0, 60));
+        gainers.add(gainer("000858", "五粮液", 1.0, 3.0, 100));
+        gainers.add(gainer("002594", "比亚迪", 3.0, 10.0, 50));
+        gainers.add(gainer("300750", "宁德时代", 5.0, 8.0, 80));    // 创业板，初筛剔除
+        HotStockData data = new HotStockData();
+        data.setTopGainers(gainers);
+        return data;
+    }
+
+    private static HotStockData.TopGainerItem gainer(String code, String name, double change,
+                                                      double turnover, double marketCap) {
+        HotStockData.TopGainerItem item = new HotStockData.TopGainerItem();
+        item.setCode(code);
+        item.setName(name);
+        item.setClose(20.0);
+        item.setChangePercent(change);
+        item.setTurnoverRate(turnover);
+        item.setMarketCap(marketCap);
+        item.setAmount(50000);
+        return item;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gp.stockapp.db;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class HistoryColdArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rewritingDayReplacesInsteadOfAppending() throws IOException {
+        HistoryColdArchive archive = new HistoryColdArchive(folder.getRoot());
+        archive.writeDay(day("20251009", "600001"));
+        archive.writeDay(day("20251010", "600002"));
+        // 上次归档后事务失败，重试时同一交易日再写一次
+        archive.writeDay(day("20251009", "600003"));
+
+        assertEquals(2, countLines("202510"));
+        List<HistoryColdArchive.DayRecord> days = archive.readMonth("202510");
+        assertEquals(2, days.size());
+        assertEquals("20251009", days.get(0).getTradeDate());
+        assertEquals("600003", days.get(0).getDragonTigerList().get(0).getCode());
+        assertEquals("600002", archive.readDay("20251010").getDragonTigerList().get(0).getCode());
+    }
+
+    @Test
+    public void newDaysAreAppendedToMonthFile() throws IOException {
+        HistoryColdArchive archive = new HistoryColdArchive(folder.getRoot());
+        archive.writeDay(day("20251009", "600001"));
+        archive.writeDay(day("20251110", "600002"));
+        archive.writeDay(day("20251010", "600003"));
+
+        assertEquals(2, countLines("202510"));
+        assertEquals(1, countLines("202511"));
+        assertEquals(List.of("202510", "202511"), archive.getMonths());
+    }
+
+    private int countLines(String month) throws IOException {
+        File file = new File(new File(folder.getRoot(), "history_archive"), month + ".jsonl.gz");
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static HistoryColdArchive.DayRecord day(String tradeDate, String code) {
+        DragonTigerEntity item = new DragonTigerEntity();
+        item.setTradeDate(tradeDate);
+        item.setCode(code);
+        item.setName("测试");
+        List<DragonTigerEntity> list = new ArrayList<>();
+        list.add(item);
+        return new HistoryColdArchive.DayRecord(tradeDate, list, new ArrayList<>());
+    }
+}
@@ -0,0 +1,80 @@
+package com.gp.stockapp.db;
+
+import static org.junit.Assert.assertEquals;
+
+import com.gp.stockapp.model.MarketIndex;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+
+public class IntradayTickStoreTest {
+
+    private static final String DAY1 = "20251009";
+    private static final String DAY2 = "20251010";
+    private static final String CODE = "sh000001";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readingAnotherDayKeepsLiveTier() {
+        IntradayTickStore store = new IntradayTickStore(folder.getRoot());
+        store.record(DAY1, List.of(index(DAY1, 1, 3300)));
+        store.record(DAY2, List.of(index(DAY2, 1, 3310)));
+
+        // 读前一交易日走文件，不能把当天的内存层切走
+        assertEquals(1, store.getDaySeries(DAY1, CODE).size());
+        assertEquals(1, store.record(DAY2, List.of(index(DAY2, 2, 3320))));
+        assertEquals(2, store.getDaySeries(DAY2, CODE).size());
+        assertEquals(1, store.getDaySeries(DAY1, CODE).size());
+    }
+
+    @Test
+    public void readingAfterRestartDoesNotSwitchDay() {
+        new IntradayTickStore(folder.getRoot()).record(DAY1, List.of(index(DAY1, 1, 3300)));
+        IntradayTickStore store = new IntradayTickStore(folder.getRoot());
+
+        assertEquals(0, store.getDaySeries(DAY2, CODE).size());
+        // 读过更新的交易日后，记录较早的当天快照不应被当作过期数据拒绝
+        assertEquals(1, store.record(DAY1, List.of(index(DAY1, 2, 3310))));
+        assertEquals(2, store.getDaySeries(DAY1, CODE).size());
+    }
+
+    @Test
+    public void skipsUnchangedQuote() {
+        IntradayTickStore store = new IntradayTickStore(folder.getRoot());
+
+        assertEquals(1, store.record(DAY1, List.of(index(DAY1, 1, 3300))));
+        // 行情时间不变
+        assertEquals(0, store.record(DAY1, List.of(index(DAY1, 1, 3305))));
+        // 时间变了但数值完全相同
+        assertEquals(0, store.record(DAY1, List.of(index(DAY1, 2, 3300))));
+        assertEquals(1, store.record(DAY1, List.of(index(DAY1, 3, 3301))));
+
+        assertEquals(2, new IntradayTickStore(folder.getRoot()).getDaySeries(DAY1, CODE).size());
+    }
+
+    @Test
+    public void recordsAgainAfterFilesClosed() {
+        IntradayTickStore store = new IntradayTickStore(folder.getRoot());
+        store.record(DAY1, List.of(index(DAY1, 1, 3300)));
+
+        store.closeFiles();
+        store.record(DAY1, List.of(index(DAY1, 2, 3310)));
+
+        assertEquals(2, new IntradayTickStore(folder.getRoot()).getDaySeries(DAY1, CODE).size());
+    }
+
+    private static MarketIndex index(String tradeDate, int minute, double point) {
+        MarketIndex index = new MarketIndex();
+        index.setIndexCode(CODE);
+        index.setCurrentPoint(point);
+        index.setAmount(point / 10);
+        index.setVolume((long) point * 100);
+        index.setTimestamp(IntradayTickStore.dayStartMillis(tradeDate) + (9 * 60 + 30 + minute) * 60_000L);
+        return index;
+    }
+}
@@ -0,0 +1,63 @@
+package com.gp.stockapp.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.model.MarketBreadth;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MarketBreadthStoreTest {
+
+    private static final String DAY1 = "20251009";
+    private static final String DAY2 = "20251010";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readingAnotherDayKeepsLiveSeries() {
+        MarketBreadthStore store = new MarketBreadthStore(folder.getRoot());
+        store.record(DAY1, breadth(DAY1, 1));
+        store.record(DAY2, breadth(DAY2, 1));
+
+        // 读前一交易日走文件，不能把当天的内存序列切走
+        assertEquals(1, store.getDaySeries(DAY1).size());
+        assertTrue(store.record(DAY2, breadth(DAY2, 2)));
+        assertEquals(2, store.getDaySeries(DAY2).size());
+        assertEquals(1, store.getDaySeries(DAY1).size());
+    }
+
+    @Test
+    public void readingAfterRestartDoesNotSwitchDay() {
+        new MarketBreadthStore(folder.getRoot()).record(DAY1, breadth(DAY1, 1));
+        MarketBreadthStore store = new MarketBreadthStore(folder.getRoot());
+
+        assertEquals(0, store.getDaySeries(DAY2).size());
+        // 读过更新的交易日后，当天的采样不应被当作过期数据拒绝
+        assertTrue(store.record(DAY1, breadth(DAY1, 2)));
+        assertEquals(2, store.getDaySeries(DAY1).size());
+    }
+
+    @Test
+    public void skipsSampleNotAfterLast() {
+        MarketBreadthStore store = new MarketBreadthStore(folder.getRoot());
+
+        assertTrue(store.record(DAY1, breadth(DAY1, 2)));
+        assertFalse(store.record(DAY1, breadth(DAY1, 2)));
+        assertFalse(store.record(DAY1, breadth(DAY1, 1)));
+
+        assertEquals(1, new MarketBreadthStore(folder.getRoot()).getDaySeries(DAY1).size());
+    }
+
+    private static MarketBreadth breadth(String tradeDate, int minute) {
+        MarketBreadth breadth = new MarketBreadth();
+        breadth.setTimestamp(IntradayTickStore.dayStartMillis(tradeDate) + (9 * 60 + 30 + minute) * 60_000L);
+        breadth.setAdvanceCount(2000 + minute);
+        breadth.setDeclineCount(3000 - minute);
+        return breadth;
+    }
+}
@@ -0,0 +1,84 @@
+package com.gp.stockapp.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.gp.stockapp.utils.NewsPreRanker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NewsRankerSampleStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void appendsAndReadsInOrder() throws IOException {
+        NewsRankerSampleStore store = new NewsRankerSampleStore(folder.getRoot());
+
+        store.append(samples(0, 3), 10);
+        store.append(samples(3, 2), 10);
+
+        List<NewsPreRanker.Sample> read = new NewsRankerSampleStore(folder.getRoot()).readRecent(10);
+        assertEquals(5, read.size());
+        assertEquals(4, importanceOf(read.get(4)));
+    }
+
+    @Test
+    public void compactsOnceFileExceedsTwiceTheLimit() throws IOException {
+        NewsRankerSampleStore store = new NewsRankerSampleStore(folder.getRoot());
+
+        store.append(samples(0, 20), 10);
+        assertEquals(20, lineCount());
+        store.append(samples(20, 1), 10);
+
+        assertEquals(10, lineCount());
+        List<NewsPreRanker.Sample> read = store.readRecent(10);
+        assertEquals(11, importanceOf(read.get(0)));
+        assertEquals(20, importanceOf(read.get(9)));
+    }
+
+    @Test
+    public void skipsTruncatedLastLine() throws IOException {
+        NewsRankerSampleStore store = new NewsRankerSampleStore(folder.getRoot());
+        store.append(samples(0, 2), 10);
+        try (FileWriter writer = new FileWriter(sampleFile(), true)) {
+            writer.write("{\"x\":[1.0,");
+        }
+
+        assertEquals(2, new NewsRankerSampleStore(folder.getRoot()).readRecent(10).size());
+    }
+
+    private List<NewsPreRanker.Sample> samples(int from, int count) {
+        // Sample 构造器包内可见，按持久化格式反序列化构造
+        Gson gson = new Gson();
+        List<NewsPreRanker.Sample> list = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            list.add(gson.fromJson("{\"x\":[1.0],\"y\":" + i + "}", NewsPreRanker.Sample.class));
+        }
+        return list;
+    }
+
+    private static int importanceOf(NewsPreRanker.Sample sample) {
+        return new Gson().toJsonTree(sample).getAsJsonObject().get("y").getAsInt();
+    }
+
+    private File sampleFile() {
+        return new File(new File(folder.getRoot(), "news_ranker"), "samples.jsonl");
+    }
+
+    private int lineCount() throws IOException {
+        assertTrue(sampleFile().exists());
+        return Files.readAllLines(sampleFile().toPath()).size();
+    }
+}
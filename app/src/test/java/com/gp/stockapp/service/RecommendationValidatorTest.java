@@ -0,0 +1,61 @@
+package com.gp.stockapp.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.gp.stockapp.model.StockQuote;
+import com.gp.stockapp.model.StrategyRecommendation;
+
+import org.junit.Test;
+
+public class RecommendationValidatorTest {
+
+    @Test
+    public void suspendedByStatusEvenWithLastPrice() {
+        StockQuote quote = quote(10.0, 9.8);
+        quote.setTradeStatus(StockQuote.TRADE_STATUS_SUSPENDED);
+
+        assertEquals("停牌", RecommendationValidator.check(item(), "600036", quote, false));
+        assertEquals("停牌", RecommendationValidator.check(item(), "600036", quote, true));
+    }
+
+    @Test
+    public void preOpenFallsBackToPrevClose() {
+        StrategyRecommendation.RecommendItem item = item();
+
+        assertNull(RecommendationValidator.check(item, "600036", quote(0, 9.8), true));
+        assertEquals(9.8, item.getLivePrice(), 1e-9);
+        assertEquals(0, item.getLiveChangePercent(), 1e-9);
+    }
+
+    @Test
+    public void emptyPriceOutsidePreOpenIsRejected() {
+        assertEquals("无报价", RecommendationValidator.check(item(), "600036", quote(0, 9.8), false));
+    }
+
+    @Test
+    public void closingPriceIsUsedAfterClose() {
+        StrategyRecommendation.RecommendItem item = item();
+
+        assertNull(RecommendationValidator.check(item, "600036", quote(10.0, 9.8), false));
+        assertEquals(10.0, item.getLivePrice(), 1e-9);
+    }
+
+    private static StrategyRecommendation.RecommendItem item() {
+        StrategyRecommendation.RecommendItem item = new StrategyRecommendation.RecommendItem();
+        item.setName("招商银行");
+        item.setCode("600036");
+        return item;
+    }
+
+    private static StockQuote quote(double price, double prevClose) {
+        StockQuote quote = new StockQuote();
+        quote.setCode("600036");
+        quote.setName("招商银行");
+        quote.setPrice(price);
+        quote.setPrevClose(prevClose);
+        quote.setChangePercent(price > 0 ? (price - prevClose) / prevClose * 100 : 0);
+        quote.setLimitUpPrice(Math.round(prevClose * 110) / 100.0);
+        return quote;
+    }
+}
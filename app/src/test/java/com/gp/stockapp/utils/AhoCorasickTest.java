@@ -0,0 +1,113 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class AhoCorasickTest {
+
+    @Test
+    public void findsOverlappingPatterns() {
+        AhoCorasick matcher = new AhoCorasick.Builder()
+                .add("he", 0).add("she", 0).add("his", 0).add("hers", 0)
+                .build();
+
+        List<String> hits = scan(matcher, "ushers");
+
+        Collections.sort(hits);
+        assertEquals(List.of("he@4", "hers@6", "she@4"), hits);
+    }
+
+    @Test
+    public void findsNestedChineseKeywords() {
+        AhoCorasick matcher = new AhoCorasick.Builder()
+                .add("降准", 0).add("降息", 0).add("降准降息", 1).add("央行", 2)
+                .build();
+
+        List<String> hits = scan(matcher, "央行宣布降准降息");
+
+        Collections.sort(hits);
+        assertEquals(List.of("央行@2", "降准@6", "降准降息@8", "降息@8"), hits);
+    }
+
+    @Test
+    public void reportsEveryOccurrence() {
+        AhoCorasick matcher = new AhoCorasick.Builder().add("aa", 0).build();
+
+        assertEquals(List.of("aa@2", "aa@3", "aa@4"), scan(matcher, "aaaa"));
+    }
+
+    @Test
+    public void keepsCategoriesAndIgnoresEmptyPatterns() {
+        AhoCorasick matcher = new AhoCorasick.Builder()
+                .add("", 5).add(null, 5)
+                .addAll(new String[]{"美联储", "加息"}, 3)
+                .add("A股", 1)
+                .build();
+
+        assertEquals(3, matcher.getPatternCount());
+        assertEquals("美联储", matcher.getPattern(0));
+        assertEquals(3, matcher.getCategory(1));
+        assertEquals(1, matcher.getCategory(2));
+    }
+
+    @Test
+    public void nullOrEmptyTextHasNoMatches() {
+        AhoCorasick matcher = new AhoCorasick.Builder().add("a", 0).build();
+
+        assertTrue(scan(matcher, null).isEmpty());
+        assertTrue(scan(matcher, "").isEmpty());
+    }
+
+    @Test
+    public void matchesNaiveSearchOnRandomInput() {
+        // 小字母表让前缀/后缀大量重叠，覆盖失败指针的各种跳转
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            AhoCorasick.Builder builder = new AhoCorasick.Builder();
+            List<String> patterns = new ArrayList<>();
+            int patternCount = 1 + random.nextInt(8);
+            for (int i = 0; i < patternCount; i++) {
+                String pattern = randomText(random, 1 + random.nextInt(4));
+                patterns.add(pattern);
+                builder.add(pattern, 0);
+            }
+            AhoCorasick matcher = builder.build();
+            String text = randomText(random, random.nextInt(40));
+
+            List<String> expected = new ArrayList<>();
+            for (int id = 0; id < patterns.size(); id++) {
+                String pattern = patterns.get(id);
+                for (int from = text.indexOf(pattern); from >= 0; from = text.indexOf(pattern, from + 1)) {
+                    expected.add(id + "@" + (from + pattern.length()));
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            matcher.scan(text, (patternId, end) -> actual.add(patternId + "@" + end));
+
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(patterns + " in " + text, expected, actual);
+        }
+    }
+
+    private static List<String> scan(AhoCorasick matcher, String text) {
+        List<String> hits = new ArrayList<>();
+        matcher.scan(text, (patternId, end) -> hits.add(matcher.getPattern(patternId) + "@" + end));
+        return hits;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append("abc".charAt(random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
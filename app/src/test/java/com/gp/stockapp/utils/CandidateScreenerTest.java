@@ -0,0 +1,125 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.model.HotStockData;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CandidateScreenerTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void hardFiltersRejectEachRule() {
+        List<HotStockData.TopGainerItem> gainers = new ArrayList<>();
+        gainers.add(gainer("600036", "招商银行", 4.0, 6.0, 60));
+        gainers.add(gainer("300750", "宁德时代", 4.0, 6.0, 60));     // 创业板
+        gainers.add(gainer("600001", "*ST某某", 4.0, 6.0, 60));      // ST
+        gainers.add(gainer("600002", "小盘股", 4.0, 6.0, 29.9));     // 市值过小
+        gainers.add(gainer("600003", "大盘股", 4.0, 6.0, 120.1));    // 市值过大
+        gainers.add(gainer("600004", "临近涨停", 9.5, 6.0, 60));     // 距涨停不足1%
+        gainers.add(gainer("600005", "已涨停", 4.0, 6.0, 60));       // 在涨停池
+        gainers.add(gainer("600006", "低换手", 4.0, 1.9, 60));
+        gainers.add(gainer("600007", "高换手", 4.0, 30.1, 60));
+        gainers.add(gainer("600008", "净卖出", 4.0, 6.0, 60));       // 龙虎榜净卖出
+        HotStockData data = new HotStockData();
+        data.setTopGainers(gainers);
+        data.setLimitUpList(List.of(limitUp("600005")));
+        data.setDragonTigerList(List.of(dragonTiger("600008", -100)));
+
+        List<CandidateScreener.Candidate> result = CandidateScreener.screen(data, 10);
+
+        assertEquals(1, result.size());
+        assertEquals("600036", result.get(0).getCode());
+    }
+
+    @Test
+    public void limitDistanceUsesRoundedLimitPrice() {
+        // 昨收10元，涨停价11.00
+        assertEquals(0, CandidateScreener.limitDistance(11.0, 10.0), EPS);
+        assertEquals((11.0 - 10.5) / 10.5 * 100, CandidateScreener.limitDistance(10.5, 5.0), EPS);
+        // 没有现价时按涨幅近似
+        assertEquals(7.0, CandidateScreener.limitDistance(0, 3.0), EPS);
+    }
+
+    @Test
+    public void sortsByScoreThenCodeAndKeepsTopK() {
+        List<HotStockData.TopGainerItem> gainers = new ArrayList<>();
+        gainers.add(gainer("600100", "乙", 4.0, 6.0, 60));
+        gainers.add(gainer("000100", "甲", 4.0, 6.0, 60));   // 与乙完全相同，按代码排在前面
+        gainers.add(gainer("600200", "丙", -1.0, 3.0, 100));
+        HotStockData data = new HotStockData();
+        data.setTopGainers(gainers);
+
+        List<CandidateScreener.Candidate> all = CandidateScreener.screen(data, 10);
+        assertEquals(3, all.size());
+        assertEquals("000100", all.get(0).getCode());
+        assertEquals("600100", all.get(1).getCode());
+        assertEquals("600200", all.get(2).getCode());
+        assertEquals(all.get(0).getScore(), all.get(1).getScore(), 0);
+        assertTrue(all.get(1).getScore() > all.get(2).getScore());
+
+        List<CandidateScreener.Candidate> top = CandidateScreener.screen(data, 2);
+        assertEquals(2, top.size());
+        assertEquals("000100", top.get(0).getCode());
+        assertEquals(0, CandidateScreener.screen(data, 0).size());
+    }
+
+    @Test
+    public void mergesByCodeAndCountsNetBuyOnce() {
+        HotStockData data = new HotStockData();
+        // 同一只股票因两个原因上榜，只取第一条的净买入
+        data.setDragonTigerList(List.of(dragonTiger("sh600036", 500), dragonTiger("600036", -1000)));
+        data.setTopGainers(List.of(gainer("600036", "招商银行", 4.0, 6.0, 60)));
+
+        List<CandidateScreener.Candidate> result = CandidateScreener.screen(data, 10);
+
+        assertEquals(1, result.size());
+        CandidateScreener.Candidate candidate = result.get(0);
+        assertTrue(candidate.isOnDragonTiger());
+        assertEquals(500, candidate.getNetBuy(), EPS);
+        assertEquals("招商银行", candidate.getName());
+    }
+
+    @Test
+    public void estimatesAmountFromTurnoverWhenMissing() {
+        HotStockData.TopGainerItem item = gainer("600036", "招商银行", 4.0, 10.0, 50);
+        item.setAmount(0);
+        HotStockData data = new HotStockData();
+        data.setTopGainers(List.of(item));
+
+        // 换手10% × 流通市值50亿 = 5亿
+        assertEquals(50000, CandidateScreener.screen(data, 1).get(0).getAmount(), EPS);
+    }
+
+    private static HotStockData.TopGainerItem gainer(String code, String name, double change,
+                                                      double turnover, double marketCap) {
+        HotStockData.TopGainerItem item = new HotStockData.TopGainerItem();
+        item.setCode(code);
+        item.setName(name);
+        item.setClose(20.0);
+        item.setChangePercent(change);
+        item.setTurnoverRate(turnover);
+        item.setMarketCap(marketCap);
+        item.setAmount(50000);
+        return item;
+    }
+
+    private static HotStockData.LimitUpItem limitUp(String code) {
+        HotStockData.LimitUpItem item = new HotStockData.LimitUpItem();
+        item.setCode(code);
+        return item;
+    }
+
+    private static HotStockData.DragonTigerItem dragonTiger(String code, double netBuy) {
+        HotStockData.DragonTigerItem item = new HotStockData.DragonTigerItem();
+        item.setCode(code);
+        item.setNetBuy(netBuy);
+        return item;
+    }
+}
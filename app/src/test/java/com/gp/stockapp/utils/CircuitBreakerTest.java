@@ -0,0 +1,120 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long LONG_OPEN_MS = 60_000;
+
+    @Test
+    public void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 5, 0.5, LONG_OPEN_MS, 1);
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, LONG_OPEN_MS, 1);
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();   // 2/4 = 50%
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertTrue(breaker.getRemainingOpenMs() > 0);
+    }
+
+    @Test
+    public void slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 0.75, LONG_OPEN_MS, 1);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        assertEquals(0.5, breaker.getFailureRate(), 1e-9);
+
+        // 最旧的两次失败被挤出窗口
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(0.25, breaker.getFailureRate(), 1e-9);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenLimitsProbesAndClosesAfterAllSucceed() {
+        CircuitBreaker breaker = openBreaker(2);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.recordSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureRate(), 1e-9);
+    }
+
+    @Test
+    public void failedProbeReopensAndResetsProbes() {
+        CircuitBreaker breaker = openBreaker(2);
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();
+
+        // 重新打开（冷却期为0，立刻再次半开），之前成功的探测不再计数
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void openRejectsDuringCooldown() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 0.5, LONG_OPEN_MS, 1);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void failuresWhileOpenAreIgnored() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 0.5, LONG_OPEN_MS, 1);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        double rate = breaker.getFailureRate();
+
+        breaker.recordFailure();
+
+        assertEquals(rate, breaker.getFailureRate(), 1e-9);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * 已熔断且冷却期为0（下一次请求即进入半开）的熔断器
+     */
+    private static CircuitBreaker openBreaker(int halfOpenPermits) {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 0.5, 0, halfOpenPermits);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        return breaker;
+    }
+}
@@ -0,0 +1,205 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.model.KlineBar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class IndicatorEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void incrementalMatchesFullRecomputeOnEveryBar() {
+        List<KlineBar> bars = randomBars(120, 11);
+        IndicatorEngine engine = new IndicatorEngine();
+        for (int i = 0; i < bars.size(); i++) {
+            KlineBar bar = bars.get(i);
+            engine.update(bar.getTradeDate(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+            assertSnapshot("bar " + i, reference(bars.subList(0, i + 1)), engine.snapshot());
+        }
+    }
+
+    @Test
+    public void copyThenUpdateEqualsRebuildFromScratch() {
+        List<KlineBar> bars = randomBars(80, 23);
+        IndicatorEngine closed = IndicatorEngine.of(bars.subList(0, bars.size() - 1));
+        KlineBar live = bars.get(bars.size() - 1);
+
+        IndicatorEngine intraday = closed.copy();
+        intraday.update(live.getTradeDate(), live.getHigh(), live.getLow(), live.getClose(), live.getVolume());
+
+        IndicatorEngine.Snapshot rebuilt = IndicatorEngine.of(bars).snapshot();
+        IndicatorEngine.Snapshot incremental = intraday.snapshot();
+        assertEquals(rebuilt.toPromptText(), incremental.toPromptText());
+        assertEquals(rebuilt.getDif(), incremental.getDif(), 0);
+        assertEquals(rebuilt.getK(), incremental.getK(), 0);
+        assertEquals(rebuilt.getBollUpper(), incremental.getBollUpper(), 0);
+    }
+
+    @Test
+    public void copyLeavesOriginalUntouched() {
+        List<KlineBar> bars = randomBars(30, 5);
+        IndicatorEngine closed = IndicatorEngine.of(bars);
+        String before = closed.snapshot().toPromptText();
+
+        closed.copy().update(99991231, 1000, 1, 500, 1);
+
+        assertEquals(before, closed.snapshot().toPromptText());
+        assertEquals(bars.size(), closed.getBarCount());
+        assertEquals(bars.get(bars.size() - 1).getTradeDate(), closed.getLastDate());
+    }
+
+    @Test
+    public void windowsAreNaNUntilFull() {
+        IndicatorEngine engine = new IndicatorEngine();
+        assertNull(engine.snapshot());
+        for (int i = 1; i <= 4; i++) {
+            engine.update(20250100 + i, i + 1, i - 1, i, 100);
+        }
+        IndicatorEngine.Snapshot snapshot = engine.snapshot();
+        assertTrue(Double.isNaN(snapshot.getMa5()));
+        assertTrue(Double.isNaN(snapshot.getBollMid()));
+        assertTrue(Double.isNaN(snapshot.getVolumeRatio()));
+
+        engine.update(20250105, 6, 4, 5, 200);
+        assertEquals(3.0, engine.snapshot().getMa5(), EPS);
+        assertFalse(Double.isNaN(engine.snapshot().getRsi6()));
+    }
+
+    private static void assertSnapshot(String message, double[] expected, IndicatorEngine.Snapshot actual) {
+        double[] values = {actual.getMa5(), actual.getMa10(), actual.getMa20(), actual.getMa60(),
+                actual.getDif(), actual.getDea(), actual.getMacd(), actual.getK(), actual.getD(), actual.getJ(),
+                actual.getRsi6(), actual.getRsi12(), actual.getBollUpper(), actual.getBollMid(), actual.getBollLower(),
+                actual.getVolumeRatio(), actual.getChangePercent()};
+        String[] names = {"ma5", "ma10", "ma20", "ma60", "dif", "dea", "macd", "k", "d", "j",
+                "rsi6", "rsi12", "bollUpper", "bollMid", "bollLower", "volumeRatio", "changePercent"};
+        for (int i = 0; i < values.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue(message + " " + names[i] + " = " + values[i], Double.isNaN(values[i]));
+            } else {
+                // 滑动窗口的和/平方和有累计误差，按相对误差比较
+                double tolerance = Math.max(1e-6, Math.abs(expected[i]) * 1e-9);
+                assertEquals(message + " " + names[i], expected[i], values[i], tolerance);
+            }
+        }
+    }
+
+    /**
+     * 按定义对全部K线从头计算最后一根的指标（不复用任何中间状态）
+     */
+    private static double[] reference(List<KlineBar> bars) {
+        int n = bars.size();
+        double[] close = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        double[] volume = new double[n];
+        for (int i = 0; i < n; i++) {
+            close[i] = bars.get(i).getClose();
+            high[i] = bars.get(i).getHigh();
+            low[i] = bars.get(i).getLow();
+            volume[i] = bars.get(i).getVolume();
+        }
+
+        double ema12 = close[0];
+        double ema26 = close[0];
+        double dea = 0;
+        double k = 50;
+        double d = 50;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                ema12 = ema12 + 2.0 / 13 * (close[i] - ema12);
+                ema26 = ema26 + 2.0 / 27 * (close[i] - ema26);
+            }
+            double dif = ema12 - ema26;
+            dea = i == 0 ? dif : dea + 2.0 / 10 * (dif - dea);
+            double highest = Double.NEGATIVE_INFINITY;
+            double lowest = Double.POSITIVE_INFINITY;
+            for (int j = Math.max(0, i - 8); j <= i; j++) {
+                highest = Math.max(highest, high[j]);
+                lowest = Math.min(lowest, low[j]);
+            }
+            double rsv = highest > lowest ? (close[i] - lowest) / (highest - lowest) * 100 : 50;
+            k = (2 * k + rsv) / 3;
+            d = (2 * d + k) / 3;
+        }
+        double dif = ema12 - ema26;
+
+        double ma20 = mean(close, n, 20);
+        double bollUpper = Double.NaN;
+        double bollLower = Double.NaN;
+        if (!Double.isNaN(ma20)) {
+            double variance = 0;
+            for (int i = n - 20; i < n; i++) {
+                variance += (close[i] - ma20) * (close[i] - ma20);
+            }
+            double std = Math.sqrt(variance / 20);
+            bollUpper = ma20 + 2 * std;
+            bollLower = ma20 - 2 * std;
+        }
+        double volumeRatio = n > 5 ? volume[n - 1] / mean(volume, n - 1, 5) : Double.NaN;
+        double changePercent = n > 1 ? (close[n - 1] - close[n - 2]) / close[n - 2] * 100 : Double.NaN;
+
+        return new double[]{mean(close, n, 5), mean(close, n, 10), ma20, mean(close, n, 60),
+                dif, dea, 2 * (dif - dea), k, d, 3 * k - 2 * d,
+                rsi(close, 6), rsi(close, 12), bollUpper, ma20, bollLower, volumeRatio, changePercent};
+    }
+
+    /**
+     * values[end - period, end) 的均值，不足 period 个时为 NaN
+     */
+    private static double mean(double[] values, int end, int period) {
+        if (end < period) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (int i = end - period; i < end; i++) {
+            sum += values[i];
+        }
+        return sum / period;
+    }
+
+    /**
+     * RSI = SMA(MAX(C-C',0),N,1) / SMA(ABS(C-C'),N,1) * 100
+     */
+    private static double rsi(double[] close, int period) {
+        if (close.length < 2) {
+            return Double.NaN;
+        }
+        double up = 0;
+        double all = 0;
+        for (int i = 1; i < close.length; i++) {
+            double change = close[i] - close[i - 1];
+            up = i == 1 ? Math.max(change, 0) : (Math.max(change, 0) + (period - 1) * up) / period;
+            all = i == 1 ? Math.abs(change) : (Math.abs(change) + (period - 1) * all) / period;
+        }
+        return all > 0 ? up / all * 100 : 50;
+    }
+
+    private static List<KlineBar> randomBars(int count, long seed) {
+        Random random = new Random(seed);
+        List<KlineBar> bars = new ArrayList<>();
+        double close = 20;
+        for (int i = 0; i < count; i++) {
+            double open = close * (1 + (random.nextDouble() - 0.5) * 0.04);
+            close = Math.max(1, close * (1 + (random.nextDouble() - 0.5) * 0.12));
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.03);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.03);
+            // 偶尔出现一字板（高低点相同）
+            if (random.nextInt(15) == 0) {
+                high = low = open = close;
+            }
+            long volume = 100_000 + random.nextInt(900_000);
+            bars.add(new KlineBar(20250000 + i, open, close, high, low, volume, volume * close));
+        }
+        return bars;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 新闻分类微基准：Aho-Corasick 单次扫描 + 线性代码扫描 vs 原来逐个 contains + 正则
+ * 默认跳过，运行：./gradlew testDebugUnitTest --tests '*NewsClassifierBenchmark' -Dbenchmark=true
+ */
+public class NewsClassifierBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 200_000;
+
+    private static final Pattern OLD_STOCK_CODE_PATTERN = Pattern.compile(
+            "\\b[036]\\d{5}\\b|\\(\\d{6}\\)|（\\d{6}）|SH\\d{6}|SZ\\d{6}|sh\\d{6}|sz\\d{6}");
+
+    private static final String[][] NEWS = {
+            {"央行：下调存款准备金率0.5个百分点 释放长期流动性约1万亿元",
+                    "中国人民银行决定于9月27日下调金融机构存款准备金率0.5个百分点，此次降准后金融机构加权平均存款准备金率约为6.6%。"},
+            {"贵州茅台(600519)发布2024年半年报 净利润同比增长15.88%",
+                    "公司上半年实现营业收入834.51亿元，同比增长17.76%；归母净利润416.96亿元。"},
+            {"美联储宣布降息50个基点 为四年来首次降息",
+                    "美联储将联邦基金利率目标区间下调至4.75%至5.00%之间，点阵图显示年内还将降息50个基点。"},
+            {"沪指收涨1.15% 两市成交额突破1.5万亿元",
+                    "半导体、券商板块领涨，北向资金全天净买入超百亿元，超4000只个股上涨。"},
+            {"宁德时代：拟回购不超过40亿元公司股份",
+                    "宁德时代(300750)公告，拟以集中竞价方式回购公司股份，回购价格不超过200元/股。"},
+            {"国家统计局：9月份CPI同比上涨0.4% PPI同比下降2.8%",
+                    "扣除食品和能源价格的核心CPI同比上涨0.1%，涨幅比上月回落0.2个百分点。"},
+    };
+
+    @Test
+    public void compareWithContainsAndRegex() {
+        assumeTrue("设置 -Dbenchmark=true 运行", Boolean.getBoolean("benchmark"));
+
+        // 两种实现对每条新闻的结论必须一致，再比较耗时
+        for (String[] news : NEWS) {
+            assertEquals(news[0], oldHasMarketKeyword(news), NewsClassifier.classify(news[0], news[1]).hasMarketKeyword());
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += runOld(i) + runNew(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            sink += runOld(i);
+        }
+        long oldNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            sink += runNew(i);
+        }
+        long newNanos = System.nanoTime() - start;
+
+        System.out.println(String.format(Locale.US,
+                "NewsClassifier: contains+regex %.0f ns/op, aho-corasick %.0f ns/op (%.1fx), %d keywords, sink %d",
+                (double) oldNanos / MEASURE_ROUNDS, (double) newNanos / MEASURE_ROUNDS,
+                (double) oldNanos / newNanos, NewsClassifier.MATCHER.getPatternCount(), sink));
+    }
+
+    private static int runOld(int i) {
+        String[] news = NEWS[i % NEWS.length];
+        boolean market = oldHasMarketKeyword(news);
+        boolean code = OLD_STOCK_CODE_PATTERN.matcher(news[0] + news[1]).find();
+        return (market ? 1 : 0) + (code ? 2 : 0);
+    }
+
+    private static int runNew(int i) {
+        String[] news = NEWS[i % NEWS.length];
+        NewsClassifier.Result result = NewsClassifier.classify(news[0], news[1]);
+        return (result.hasMarketKeyword() ? 1 : 0) + (result.has(NewsClassifier.Category.STOCK_CODE) ? 2 : 0);
+    }
+
+    /**
+     * 原实现：标题+摘要拼接后逐个关键词 contains
+     */
+    private static boolean oldHasMarketKeyword(String[] news) {
+        String combined = news[0] + news[1];
+        AhoCorasick matcher = NewsClassifier.MATCHER;
+        for (int id = 0; id < matcher.getPatternCount(); id++) {
+            NewsClassifier.Category category = NewsClassifier.Category.values()[matcher.getCategory(id)];
+            if (category.isMarketWide() && combined.contains(matcher.getPattern(id))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class NewsClassifierTest {
+
+    // 原 MarketApi.STOCK_CODE_PATTERN。Android 的正则（ICU）里 \b 按 Unicode 判断单词字符（汉字也算），
+    // 主机JVM上用 UNICODE_CHARACTER_CLASS 得到同样语义；\d 写成 [0-9]，保持原来只认ASCII数字
+    private static final Pattern OLD_STOCK_CODE_PATTERN = Pattern.compile(
+            "\\b[036][0-9]{5}\\b|\\([0-9]{6}\\)|（[0-9]{6}）|SH[0-9]{6}|SZ[0-9]{6}|sh[0-9]{6}|sz[0-9]{6}",
+            Pattern.UNICODE_CHARACTER_CLASS);
+
+    private static final String[] EDGE_CASES = {
+            "贵州茅台(600519)公告",
+            "贵州茅台（600519）公告",
+            "宁德时代 300750 涨停",
+            "600519",
+            "代码600519",
+            "600519股份",
+            "A600519",
+            "_600519",
+            "600519_",
+            "160519 基金",
+            "(160519)",
+            "（1605190）",
+            "(60051)",
+            "SH600519",
+            "sz000858",
+            "Sh600519",
+            "SH60051",
+            "SH6005191",
+            "SH600519600519",
+            "XSH600519",
+            "SZ000001，SH600000",
+            "600519/000858/300750",
+            "6005190",
+            "060051.9",
+            "2024年10月8日 上证指数3489点",
+            "成交额1000000亿",
+    };
+
+    @Test
+    public void countStockCodesMatchesOldRegexOnEdgeCases() {
+        for (String text : EDGE_CASES) {
+            assertEquals(text, countWithRegex(text), NewsClassifier.countStockCodes(text));
+        }
+    }
+
+    @Test
+    public void countStockCodesMatchesOldRegexOnRandomInput() {
+        Random random = new Random(7);
+        String alphabet = "0123456789000366SHZshz()（）_ A股。";
+        for (int round = 0; round < 200_000; round++) {
+            int length = random.nextInt(24);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            assertEquals(text, countWithRegex(text), NewsClassifier.countStockCodes(text));
+        }
+    }
+
+    @Test
+    public void exchangePrefixDoesNotRequireTrailingBoundary() {
+        // 原正则 SH\d{6} 后面没有 \b：取前6位算一个代码，后面的数字不再单独计
+        assertEquals(1, NewsClassifier.countStockCodes("SH6005191"));
+        assertEquals(1, NewsClassifier.countStockCodes("SH600519600519"));
+        assertEquals(0, NewsClassifier.countStockCodes("SH60051"));
+    }
+
+    @Test
+    public void codeNextToChineseIsNotStandalone() {
+        assertEquals(0, NewsClassifier.countStockCodes("代码600519"));
+        assertEquals(1, NewsClassifier.countStockCodes("代码 600519"));
+        assertEquals(1, NewsClassifier.countStockCodes("代码(600519)"));
+    }
+
+    @Test
+    public void titleHitsWeighMoreThanSummaryHits() {
+        NewsClassifier.Result result = NewsClassifier.classify("央行宣布降准", "央行宣布降准，释放流动性");
+
+        assertTrue(result.hasInTitle(NewsClassifier.Category.POLICY));
+        assertTrue(result.hasMarketKeyword());
+        assertTrue(result.getWeight(NewsClassifier.Category.POLICY)
+                >= NewsClassifier.TITLE_WEIGHT + NewsClassifier.SUMMARY_WEIGHT);
+    }
+
+    @Test
+    public void repeatedKeywordCountsOncePerText() {
+        NewsClassifier.Result once = NewsClassifier.classify("降准", null);
+        NewsClassifier.Result twice = NewsClassifier.classify("降准降准", null);
+
+        assertEquals(once.getWeight(NewsClassifier.Category.POLICY),
+                twice.getWeight(NewsClassifier.Category.POLICY), 1e-9);
+    }
+
+    @Test
+    public void stockCodeAndIndividualKeywordAreNotMarketWide() {
+        NewsClassifier.Result result = NewsClassifier.classify("贵州茅台(600519)发布年报", null);
+
+        assertTrue(result.has(NewsClassifier.Category.STOCK_CODE));
+        assertFalse(result.has(NewsClassifier.Category.POLICY));
+    }
+
+    private static int countWithRegex(String text) {
+        Matcher matcher = OLD_STOCK_CODE_PATTERN.matcher(text);
+        int count = 0;
+        while (matcher.find()) count++;
+        return count;
+    }
+}
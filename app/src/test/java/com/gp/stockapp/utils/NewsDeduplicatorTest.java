@@ -0,0 +1,169 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * 近似重复检测：用新浪/东方财富对同一事件的标题改写（正样本）和同日不同事件的相似标题（负样本）
+ * 验证默认阈值下的精确率和召回率
+ */
+public class NewsDeduplicatorTest {
+
+    // 同一事件在两个新闻源的标题
+    private static final String[][] SAME_EVENT = {
+            {"央行：下调存款准备金率0.5个百分点 释放长期流动性约1万亿元",
+                    "潘功胜：将下调存款准备金率0.5个百分点，向市场提供长期流动性约1万亿元"},
+            {"央行宣布降准0.5个百分点，释放长期流动性约1万亿元",
+                    "中国人民银行决定下调存款准备金率0.5个百分点 预计释放长期流动性约1万亿元"},
+            {"证监会发布《上市公司监管指引第10号——市值管理》",
+                    "证监会正式发布上市公司监管指引第10号——市值管理"},
+            {"国务院关税税则委员会：对原产于美国的进口商品加征34%关税",
+                    "国务院关税税则委员会发布公告 对原产于美国的所有进口商品加征34%关税"},
+            {"美联储宣布降息50个基点 为四年来首次降息",
+                    "美联储降息50个基点，为2020年3月以来首次降息"},
+            {"沪指收涨1.15% 两市成交额突破1.5万亿元",
+                    "沪指涨1.15%，沪深两市成交额突破1.5万亿元"},
+            {"中共中央政治局召开会议 分析研究当前经济形势和经济工作",
+                    "中共中央政治局召开会议，分析研究当前经济形势，部署下半年经济工作"},
+            {"央行：7天逆回购操作利率由1.7%调整为1.5%",
+                    "央行将7天期逆回购操作利率由1.7%下调至1.5%"},
+            {"财政部：拟一次性增加较大规模债务限额 置换地方政府存量隐性债务",
+                    "财政部拟一次性增加较大规模债务限额，置换地方政府存量隐性债务"},
+            {"国家统计局：9月份CPI同比上涨0.4% PPI同比下降2.8%",
+                    "统计局：9月CPI同比上涨0.4%，PPI同比下降2.8%"},
+            {"A股三大指数集体高开 沪指涨0.52%",
+                    "三大指数集体高开，沪指涨0.52%，创业板指涨0.8%"},
+            {"人民币对美元中间价调升102个基点 报7.0998",
+                    "人民币兑美元中间价上调102个基点，报7.0998"},
+            {"北向资金全天净买入超百亿元",
+                    "北向资金今日全天净买入逾100亿元"},
+            {"工信部：加快推进人形机器人产业创新发展",
+                    "工信部：将加快推进人形机器人产业创新发展 培育新质生产力"},
+            {"商务部新闻发言人就美方对华加征关税答记者问",
+                    "商务部新闻发言人就美对华加征关税措施答记者问"},
+    };
+
+    // 措辞相近但不是同一事件
+    private static final String[][] DIFFERENT_EVENT = {
+            {"央行：下调存款准备金率0.5个百分点 释放长期流动性约1万亿元",
+                    "央行：7天逆回购操作利率由1.7%调整为1.5%"},
+            {"沪指收涨1.15% 两市成交额突破1.5万亿元",
+                    "沪指收跌0.82% 两市成交额不足8000亿元"},
+            {"美联储宣布降息50个基点 为四年来首次降息",
+                    "欧洲央行宣布降息25个基点"},
+            {"国家统计局：9月份CPI同比上涨0.4% PPI同比下降2.8%",
+                    "国家统计局：9月份规模以上工业增加值同比增长5.4%"},
+            {"证监会发布《上市公司监管指引第10号——市值管理》",
+                    "证监会发布《关于深化上市公司并购重组市场改革的意见》"},
+            {"A股三大指数集体高开 沪指涨0.52%",
+                    "A股三大指数集体低开 创业板指跌1.02%"},
+            {"北向资金全天净买入超百亿元",
+                    "南向资金全天净卖出超50亿港元"},
+            {"财政部：拟一次性增加较大规模债务限额 置换地方政府存量隐性债务",
+                    "财政部：发行特别国债支持国有大型商业银行补充核心一级资本"},
+            {"人民币对美元中间价调升102个基点 报7.0998",
+                    "离岸人民币对美元跌破7.2关口"},
+            {"工信部：加快推进人形机器人产业创新发展",
+                    "工信部：推动低空经济产业高质量发展"},
+            {"国务院关税税则委员会：对原产于美国的进口商品加征34%关税",
+                    "国务院关税税则委员会：对部分美国进口商品免除加征关税"},
+            {"中共中央政治局召开会议 分析研究当前经济形势和经济工作",
+                    "国务院常务会议研究部署稳就业工作"},
+            {"商务部新闻发言人就美方对华加征关税答记者问",
+                    "外交部发言人就美方对华芯片出口管制答记者问"},
+            {"美联储宣布降息50个基点 为四年来首次降息",
+                    "日本央行宣布维持利率不变"},
+    };
+
+    @Test
+    public void defaultThresholdNeverMergesDifferentEvents() {
+        int[] counts = evaluate(NewsDeduplicator.DEFAULT_THRESHOLD);
+        int truePositive = counts[0];
+        int falsePositive = counts[1];
+
+        assertEquals("精确率应为100%", 0, falsePositive);
+        assertTrue(truePositive > 0);
+    }
+
+    @Test
+    public void defaultThresholdRecall() {
+        int[] counts = evaluate(NewsDeduplicator.DEFAULT_THRESHOLD);
+        double recall = (double) counts[0] / SAME_EVENT.length;
+
+        // 改写幅度大的标题（如“降准”与“下调存款准备金率”）相似度不足0.5，由高水位和AI评估兜底
+        assertTrue("召回率 " + recall, recall >= 0.7);
+    }
+
+    @Test
+    public void lowerThresholdStartsMergingDifferentEvents() {
+        // 阈值降到0.4可多召回几条改写标题，但“加征关税/免除加征关税”会被误判为同一事件
+        int[] counts = evaluate(0.4);
+
+        assertTrue(counts[0] > evaluate(NewsDeduplicator.DEFAULT_THRESHOLD)[0]);
+        assertTrue(counts[1] > 0);
+    }
+
+    @Test
+    public void indexMatchesExactSimilarity() {
+        // LSH只负责找候选，候选漏检会让结果和精确Jaccard不一致
+        for (String[] pair : SAME_EVENT) {
+            NewsDeduplicator deduplicator = new NewsDeduplicator();
+            deduplicator.add(pair[0]);
+            boolean expected = NewsDeduplicator.similarity(pair[0], pair[1]) >= NewsDeduplicator.DEFAULT_THRESHOLD;
+            assertEquals(pair[1], expected, deduplicator.isDuplicate(pair[1]));
+        }
+    }
+
+    @Test
+    public void punctuationAndSpacingAreIgnored() {
+        NewsDeduplicator deduplicator = new NewsDeduplicator();
+
+        assertTrue(deduplicator.addIfNovel("财政部：拟一次性增加较大规模债务限额 置换地方政府存量隐性债务"));
+        assertFalse(deduplicator.addIfNovel("财政部拟一次性增加较大规模债务限额，置换地方政府存量隐性债务"));
+        assertEquals(1, deduplicator.size());
+    }
+
+    @Test
+    public void oldestTitlesAreEvictedBeyondCapacity() {
+        NewsDeduplicator deduplicator = new NewsDeduplicator(NewsDeduplicator.DEFAULT_THRESHOLD, 2);
+        deduplicator.add(SAME_EVENT[0][0]);
+        deduplicator.add(SAME_EVENT[2][0]);
+        deduplicator.add(SAME_EVENT[3][0]);
+
+        assertEquals(2, deduplicator.size());
+        assertFalse(deduplicator.isDuplicate(SAME_EVENT[0][0]));
+        assertTrue(deduplicator.isDuplicate(SAME_EVENT[3][0]));
+    }
+
+    @Test
+    public void blankTitleIsNotIndexed() {
+        NewsDeduplicator deduplicator = new NewsDeduplicator();
+
+        assertFalse(deduplicator.addIfNovel(" ，。"));
+        assertEquals(0, deduplicator.size());
+    }
+
+    /**
+     * @return {判为重复的正样本数, 判为重复的负样本数}
+     */
+    private static int[] evaluate(double threshold) {
+        int truePositive = 0;
+        int falsePositive = 0;
+        for (String[] pair : SAME_EVENT) {
+            if (isDuplicatePair(pair, threshold)) truePositive++;
+        }
+        for (String[] pair : DIFFERENT_EVENT) {
+            if (isDuplicatePair(pair, threshold)) falsePositive++;
+        }
+        return new int[]{truePositive, falsePositive};
+    }
+
+    private static boolean isDuplicatePair(String[] pair, double threshold) {
+        NewsDeduplicator deduplicator = new NewsDeduplicator(threshold, NewsDeduplicator.DEFAULT_CAPACITY);
+        deduplicator.add(pair[0]);
+        return deduplicator.isDuplicate(pair[1]);
+    }
+}
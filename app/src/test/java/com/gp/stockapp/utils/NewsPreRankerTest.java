@@ -0,0 +1,121 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.gp.stockapp.model.StockNews;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NewsPreRankerTest {
+
+    private static final String[] MAJOR_TITLES = {
+            "央行宣布降准0.5个百分点",
+            "美联储宣布降息50个基点",
+            "国务院常务会议部署稳增长政策",
+            "证监会发布资本市场改革意见",
+            "国家统计局：CPI同比上涨0.4%",
+    };
+
+    private static final String[] MINOR_TITLES = {
+            "贵州茅台(600519)发布年报",
+            "宁德时代(300750)股东减持公告",
+            "五粮液(000858)获机构评级上调",
+            "招商银行(600036)董事会决议公告",
+            "比亚迪(002594)回购进展公告",
+    };
+
+    @Test
+    public void passesEverythingBeforeTraining() {
+        NewsPreRanker ranker = new NewsPreRanker(null);
+        List<StockNews> batch = news(MINOR_TITLES, 0);
+
+        NewsPreRanker.Selection selection = ranker.select(batch);
+
+        assertFalse(ranker.isTrained());
+        assertEquals(batch.size(), selection.getSelected().size());
+    }
+
+    @Test
+    public void everyTrainingPositivePassesAfterTraining() {
+        NewsPreRanker ranker = new NewsPreRanker(null);
+        List<StockNews> positives = new ArrayList<>();
+        for (int round = 0; round < 12; round++) {
+            List<StockNews> batch = new ArrayList<>(news(MAJOR_TITLES, 4));
+            batch.addAll(news(MINOR_TITLES, 1));
+            if (round == 0) {
+                // 只出现一次、看起来像个股新闻的重大新闻：按正样本得分分位数取阈值时会被漏掉
+                batch.add(news("中芯国际(688981)获国家大基金增持", 4));
+            }
+            for (StockNews item : batch) {
+                if (item.getImportance() >= 3) positives.add(item);
+            }
+            ranker.recordLabels(ranker.select(batch));
+        }
+        assertTrue(ranker.isTrained());
+
+        for (StockNews positive : positives) {
+            assertEquals(positive.getTitle(), 1, ranker.select(List.of(positive)).getSelected().size());
+        }
+    }
+
+    @Test
+    public void recordLabelsReturnsOnlyNewSamples() {
+        NewsPreRanker ranker = new NewsPreRanker(null);
+        List<StockNews> batch = news(MAJOR_TITLES, 4);
+        batch.get(0).setImportance(0);   // AI未返回评估
+
+        List<NewsPreRanker.Sample> added = ranker.recordLabels(ranker.select(batch));
+
+        assertEquals(MAJOR_TITLES.length - 1, added.size());
+        assertTrue(ranker.recordLabels(ranker.select(new ArrayList<>())).isEmpty());
+    }
+
+    @Test
+    public void serializedStateExcludesSamples() {
+        NewsPreRanker ranker = new NewsPreRanker(null);
+        ranker.recordLabels(ranker.select(news(MAJOR_TITLES, 4)));
+
+        String json = new Gson().toJson(ranker.snapshotState());
+
+        assertFalse(json, json.contains("samples\""));
+        assertTrue(json.contains("samples_since_training"));
+    }
+
+    @Test
+    public void restoredSamplesAreCappedAtMaxSamples() {
+        NewsPreRanker source = new NewsPreRanker(null);
+        List<NewsPreRanker.Sample> samples = new ArrayList<>();
+        while (samples.size() <= NewsPreRanker.MAX_SAMPLES) {
+            samples.addAll(source.recordLabels(source.select(news(MINOR_TITLES, 1))));
+        }
+        NewsPreRanker.State state = new NewsPreRanker.State();
+        state.setSamples(samples);
+
+        new NewsPreRanker(state);
+
+        assertEquals(NewsPreRanker.MAX_SAMPLES, state.samples.size());
+    }
+
+    private static List<StockNews> news(String[] titles, int importance) {
+        List<StockNews> list = new ArrayList<>();
+        for (String title : titles) {
+            list.add(news(title, importance));
+        }
+        return list;
+    }
+
+    private static StockNews news(String title, int importance) {
+        StockNews news = new StockNews();
+        news.setTitle(title);
+        news.setNewsType("财经快讯");
+        news.setPublishTime(System.currentTimeMillis());
+        news.setImportance(importance);
+        return news;
+    }
+}
@@ -0,0 +1,66 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PromptTemplateTest {
+
+    @Test
+    public void rendersPlaceholdersInOrder() {
+        PromptTemplate template = PromptTemplate.compile("日期 {{date}}，指数 {{ index }}。{{date}}结束");
+        Map<String, String> values = new HashMap<>();
+        values.put("date", "20251009");
+        values.put("index", "上证3300");
+
+        assertEquals("日期 20251009，指数 上证3300。20251009结束", template.render(values));
+        assertEquals(List.of("date", "index"), List.copyOf(template.getPlaceholderNames()));
+    }
+
+    @Test
+    public void missingValuesRenderAsEmpty() {
+        PromptTemplate template = PromptTemplate.compile("A{{x}}B{{y}}C");
+
+        assertEquals("AB2C", template.render(Map.of("y", "2")));
+        assertEquals("ABC", template.render(null));
+    }
+
+    @Test
+    public void unclosedAndEmptyBracesStayLiteral() {
+        assertEquals("a{{}}b", PromptTemplate.compile("a{{}}b").render(Map.of()));
+        assertEquals("a{{x", PromptTemplate.compile("a{{x").render(Map.of("x", "1")));
+    }
+
+    @Test
+    public void literalLengthExcludesPlaceholders() {
+        PromptTemplate template = PromptTemplate.compile("ab{{x}}cd{{y}}");
+
+        assertEquals(4, template.getLiteralLength());
+        assertTrue(template.hasPlaceholder("x"));
+        assertFalse(template.hasPlaceholder("z"));
+        assertEquals("ab{{x}}cd{{y}}", template.getSource());
+    }
+
+    @Test
+    public void renderToAppendsToExistingBuffer() {
+        StringBuilder sb = new StringBuilder("前缀:");
+        PromptTemplate.compile("{{v}}!").renderTo(sb, Map.of("v", new StringBuilder("值")));
+
+        assertEquals("前缀:值!", sb.toString());
+    }
+
+    @Test
+    public void noPlaceholdersReturnsSource() {
+        PromptTemplate template = PromptTemplate.compile("纯文本");
+
+        assertEquals("纯文本", template.render(Map.of()));
+        assertTrue(template.getPlaceholderNames().isEmpty());
+        assertEquals("", PromptTemplate.compile(null).render(Map.of()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.db.SectorDayStatsEntity;
+import com.gp.stockapp.model.HotStockData;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SectorAggregatorTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void groupsByConceptAndScores() {
+        List<SectorAggregator.SectorStat> stats = SectorAggregator.aggregate(sampleData());
+
+        assertEquals(2, stats.size());
+        SectorAggregator.SectorStat ai = stats.get(0);
+        assertEquals("AI", ai.getSector());
+        assertEquals(1, ai.getRank());
+        assertEquals(3, ai.getLimitUpCount());      // 连板池和涨停池里重复的代码只算一次
+        assertEquals(2, ai.getContinuousCount());
+        assertEquals(3, ai.getLadderHeight());
+        assertEquals(1, ai.getDragonTigerCount());
+        assertEquals(6000, ai.getNetBuy(), EPS);     // 两个上榜原因，净买入只计一次
+        assertEquals(10, ai.getAmountShare(), EPS);  // 未归类的活跃股也计入总成交额
+        // 3×3 + 2×2 + (3-1)×2 + 6000/5000 + 10/5
+        assertEquals(20.2, ai.getScore(), EPS);
+
+        SectorAggregator.SectorStat medicine = stats.get(1);
+        assertEquals("医药", medicine.getSector());
+        assertEquals(2, medicine.getRank());
+        assertEquals(1, medicine.getLimitUpCount());
+        assertEquals(1, medicine.getLadderHeight());
+        // 1×3 + 30/5
+        assertEquals(9.0, medicine.getScore(), EPS);
+    }
+
+    @Test
+    public void netBuyPointsAreCapped() {
+        HotStockData data = new HotStockData();
+        data.setLimitUpList(List.of(limitUp("600001", "甲", "AI")));
+        HotStockData.DragonTigerItem item = dragonTiger("600001", -40000);
+        data.setDragonTigerList(List.of(item));
+
+        // 3 - 5（净卖出封顶扣5分）
+        assertEquals(-2.0, SectorAggregator.aggregate(data).get(0).getScore(), EPS);
+    }
+
+    @Test
+    public void tiesBreakByLimitUpThenName() {
+        HotStockData data = new HotStockData();
+        data.setLimitUpList(List.of(limitUp("600001", "甲", "B板块"), limitUp("600002", "乙", "A板块")));
+        // C板块只有成交占比：15%/5 = 3分，与一个涨停同分
+        List<HotStockData.TopGainerItem> gainers = new ArrayList<>();
+        gainers.add(gainer("600003", "丙", "C板块", 150));
+        gainers.add(gainer("600004", "丁", null, 850));
+        data.setTopGainers(gainers);
+
+        List<SectorAggregator.SectorStat> stats = SectorAggregator.aggregate(data);
+
+        assertEquals(3, stats.size());
+        assertEquals(3.0, stats.get(0).getScore(), EPS);
+        assertEquals(3.0, stats.get(2).getScore(), EPS);
+        assertEquals("A板块", stats.get(0).getSector());
+        assertEquals("B板块", stats.get(1).getSector());
+        assertEquals("C板块", stats.get(2).getSector());
+    }
+
+    @Test
+    public void leadersAreHighestBoardsFirstAndLimited() {
+        HotStockData data = new HotStockData();
+        data.setContinuousLimitList(List.of(continuous("600001", "二板", "AI", 2),
+                continuous("600002", "四板", "AI", 4), continuous("600003", "三板", "AI", 3)));
+        data.setLimitUpList(List.of(limitUp("600004", "首板甲", "AI"), limitUp("600005", "首板乙", "AI"),
+                limitUp("600006", "首板丙", "AI"), limitUp("600007", "首板丁", "AI")));
+
+        String row = SectorAggregator.aggregate(data).get(0).toPromptRow();
+
+        assertTrue(row, row.endsWith("| 四板(4板)、三板(3板)、二板(2板)、首板甲、首板乙 |"));
+    }
+
+    @Test
+    public void changeTextComparesWithPreviousDay() {
+        List<SectorAggregator.SectorStat> stats = SectorAggregator.aggregate(sampleData());
+        SectorDayStatsEntity previousAi = stats.get(0).toEntity("20251009", 0);
+        previousAi.setRank(3);
+        previousAi.setLimitUpCount(1);
+
+        SectorAggregator.attachPrevious(stats, List.of(previousAi));
+
+        assertEquals("排名↑2 涨停+2", stats.get(0).getChangeText());
+        assertNull(stats.get(1).getPrevious());
+        assertEquals("新进", stats.get(1).getChangeText());
+
+        SectorAggregator.attachPrevious(stats, List.of(stats.get(0).toEntity("20251009", 0)));
+        assertEquals("持平", stats.get(0).getChangeText());
+    }
+
+    @Test
+    public void primaryLabelTakesFirstConcept() {
+        assertEquals("AI", SectorAggregator.primaryLabel(" AI，芯片 "));
+        assertEquals("医药", SectorAggregator.primaryLabel("医药+创新药"));
+        assertNull(SectorAggregator.primaryLabel(" - "));
+        assertNull(SectorAggregator.primaryLabel(""));
+        assertNull(SectorAggregator.primaryLabel(null));
+    }
+
+    @Test
+    public void emptyDataGivesEmptyTable() {
+        assertTrue(SectorAggregator.aggregate(null).isEmpty());
+        assertEquals("", SectorAggregator.buildPromptTable(SectorAggregator.aggregate(new HotStockData()), 10, null));
+    }
+
+    /**
+     * AI：两只连板(3板、2板)+一只首板、龙虎榜一只；医药：一只首板、活跃股成交占30%
+     */
+    private static HotStockData sampleData() {
+        HotStockData data = new HotStockData();
+        data.setContinuousLimitList(List.of(continuous("600001", "AI龙头", "AI", 3),
+                continuous("600002", "AI二号", "AI,芯片", 2)));
+        data.setLimitUpList(List.of(limitUp("600001", "AI龙头", "AI"), limitUp("600003", "AI首板", "AI"),
+                limitUp("600004", "医药首板", "医药")));
+        data.setDragonTigerList(List.of(dragonTiger("600001", 6000), dragonTiger("600001", 6000),
+                dragonTiger("600005", 3000)));
+        List<HotStockData.TopGainerItem> gainers = new ArrayList<>();
+        gainers.add(gainer("600006", "医药活跃", "医药", 300));
+        gainers.add(gainer("600001", "AI龙头", null, 100));
+        gainers.add(gainer("600007", "无板块", "-", 600));
+        data.setTopGainers(gainers);
+        return data;
+    }
+
+    private static HotStockData.ContinuousLimitItem continuous(String code, String name, String concept, int boards) {
+        HotStockData.ContinuousLimitItem item = new HotStockData.ContinuousLimitItem();
+        item.setCode(code);
+        item.setName(name);
+        item.setConcept(concept);
+        item.setContinuousCount(boards);
+        return item;
+    }
+
+    private static HotStockData.LimitUpItem limitUp(String code, String name, String concept) {
+        HotStockData.LimitUpItem item = new HotStockData.LimitUpItem();
+        item.setCode(code);
+        item.setName(name);
+        item.setConcept(concept);
+        return item;
+    }
+
+    private static HotStockData.DragonTigerItem dragonTiger(String code, double netBuy) {
+        HotStockData.DragonTigerItem item = new HotStockData.DragonTigerItem();
+        item.setCode(code);
+        item.setNetBuy(netBuy);
+        return item;
+    }
+
+    private static HotStockData.TopGainerItem gainer(String code, String name, String concept, double amount) {
+        HotStockData.TopGainerItem item = new HotStockData.TopGainerItem();
+        item.setCode(code);
+        item.setName(name);
+        item.setConcept(concept);
+        item.setAmount(amount);
+        return item;
+    }
+}
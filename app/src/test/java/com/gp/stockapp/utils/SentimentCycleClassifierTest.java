@@ -0,0 +1,197 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.gp.stockapp.model.SentimentCycle;
+
+import org.junit.Test;
+
+public class SentimentCycleClassifierTest {
+
+    @Test
+    public void freezingOnLimitDownBoundary() {
+        assertEquals(SentimentCycle.STAGE_FREEZING, stage(neutral().limitDown(30), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().limitDown(29), null));
+    }
+
+    @Test
+    public void freezingOnAdvanceRatioBoundary() {
+        assertEquals(SentimentCycle.STAGE_FREEZING, stage(neutral().ratio(19.9), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().ratio(20), null));
+    }
+
+    @Test
+    public void freezingOnFollowThroughLoss() {
+        assertEquals(SentimentCycle.STAGE_FREEZING, stage(neutral().follow(-4, 0), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().follow(-3.9, 0), null));
+    }
+
+    @Test
+    public void freezingWhenLimitDownCatchesUpInWeakMarket() {
+        assertEquals(SentimentCycle.STAGE_FREEZING, stage(neutral().limitUp(20).limitDown(20).ratio(34), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().limitUp(20).limitDown(20).ratio(35), null));
+    }
+
+    @Test
+    public void freezingTakesPrecedenceOverClimax() {
+        // 涨停潮但同时大面积跌停，先匹配冰点
+        assertEquals(SentimentCycle.STAGE_FREEZING, stage(climax().limitDown(30), null));
+    }
+
+    @Test
+    public void climaxRequiresAllConditions() {
+        assertEquals(SentimentCycle.STAGE_CLIMAX, stage(climax(), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(climax().limitUp(79), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(climax().ratio(64.9), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(climax().limitDown(6), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(climax().follow(1.9, 10), null));
+    }
+
+    @Test
+    public void climaxNeedsLadderHeightNotDown() {
+        assertEquals(SentimentCycle.STAGE_CLIMAX, stage(climax().height(5, 5), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(climax().height(4, 5), null));
+    }
+
+    @Test
+    public void climaxWithoutFollowThroughIgnoresFollowCondition() {
+        assertEquals(SentimentCycle.STAGE_CLIMAX, stage(climax().noFollow(), null));
+    }
+
+    @Test
+    public void ebbOnLosingFollowThroughAndHeightDown() {
+        SentimentCycle cycle = neutral().follow(-1.5, 10).height(3, 5).build();
+
+        SentimentCycleClassifier.classify(cycle, null);
+
+        assertEquals(SentimentCycle.STAGE_EBB, cycle.getStage());
+        assertTrue(cycle.getReasons().toString(), cycle.getReasons().contains("最高板 5 → 3 板"));
+    }
+
+    @Test
+    public void losingFollowThroughAloneIsNotEbb() {
+        // 接力亏钱但高度未降、跌停不多、宽度尚可
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().follow(-1.5, 10).height(5, 5), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().follow(-1.4, 29).height(3, 5), null));
+    }
+
+    @Test
+    public void ebbOnBrokenRateWithLimitDownOrWeakBreadth() {
+        assertEquals(SentimentCycle.STAGE_EBB, stage(neutral().follow(0, 30).limitDown(10), null));
+        assertEquals(SentimentCycle.STAGE_EBB, stage(neutral().follow(0, 30).ratio(39.9), null));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().follow(0, 30).limitDown(9), null));
+    }
+
+    @Test
+    public void heightDownNeedsKnownPreviousHeight() {
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().follow(-2, 10).height(0, 0), null));
+    }
+
+    @Test
+    public void recoveryOnlyAfterFreezingOrEbb() {
+        SentimentCycleBuilder recovering = neutral().ratio(45).follow(0.5, 5);
+
+        assertEquals(SentimentCycle.STAGE_RECOVERY, stage(recovering, SentimentCycle.STAGE_FREEZING));
+        assertEquals(SentimentCycle.STAGE_RECOVERY, stage(recovering, SentimentCycle.STAGE_EBB));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(recovering, SentimentCycle.STAGE_DIVERGENCE));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(recovering, null));
+    }
+
+    @Test
+    public void recoveryBoundaries() {
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().ratio(44.9), SentimentCycle.STAGE_EBB));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().ratio(50).limitDown(10), SentimentCycle.STAGE_EBB));
+        assertEquals(SentimentCycle.STAGE_DIVERGENCE, stage(neutral().ratio(50).follow(0, 5), SentimentCycle.STAGE_EBB));
+        assertEquals(SentimentCycle.STAGE_RECOVERY, stage(neutral().ratio(50).noFollow(), SentimentCycle.STAGE_EBB));
+    }
+
+    @Test
+    public void scoreIsClampedAndPenalizesLimitDown() {
+        SentimentCycle hot = climax().ratio(100).limitUp(200).limitDown(0).height(10, 10).follow(10, 0).build();
+        SentimentCycleClassifier.classify(hot, null);
+        assertEquals(100, hot.getScore());
+
+        SentimentCycle cold = neutral().ratio(0).limitUp(0).limitDown(100).height(0, 0).follow(-10, 100).build();
+        SentimentCycleClassifier.classify(cold, null);
+        assertEquals(0, cold.getScore());
+
+        SentimentCycle calm = neutral().build();
+        SentimentCycle falling = neutral().limitDown(20).build();
+        SentimentCycleClassifier.classify(calm, null);
+        SentimentCycleClassifier.classify(falling, null);
+        assertTrue(falling.getScore() < calm.getScore());
+    }
+
+    @Test
+    public void scoreReweightsWithoutFollowThrough() {
+        // 接力数据缺失时只按宽度、涨停家数、连板高度加权：宽度50分、涨停50家为50分、高度0板为0分
+        SentimentCycle cycle = neutral().ratio(50).limitUp(50).limitDown(0).height(0, 0).noFollow().build();
+        SentimentCycleClassifier.classify(cycle, null);
+        double expected = (50 * 0.35 + 50 * 0.2) / (0.35 + 0.2 + 0.15);
+        assertEquals(Math.round(expected), cycle.getScore());
+    }
+
+    private static String stage(SentimentCycleBuilder builder, String prevStage) {
+        return SentimentCycleClassifier.classify(builder.build(), prevStage).getStage();
+    }
+
+    /**
+     * 不满足任何特定阶段条件的普通交易日（落到分化）
+     */
+    private static SentimentCycleBuilder neutral() {
+        return new SentimentCycleBuilder().ratio(50).limitUp(40).limitDown(3).height(4, 4).follow(1, 10);
+    }
+
+    private static SentimentCycleBuilder climax() {
+        return new SentimentCycleBuilder().ratio(70).limitUp(100).limitDown(2).height(6, 5).follow(3, 5);
+    }
+
+    private static final class SentimentCycleBuilder {
+        private double ratio;
+        private int limitUp;
+        private int limitDown;
+        private int height;
+        private int prevHeight;
+        private int followCount;
+        private double followAvg;
+        private double brokenRate;
+
+        SentimentCycleBuilder ratio(double value) { ratio = value; return this; }
+        SentimentCycleBuilder limitUp(int value) { limitUp = value; return this; }
+        SentimentCycleBuilder limitDown(int value) { limitDown = value; return this; }
+
+        SentimentCycleBuilder height(int today, int previous) {
+            height = today;
+            prevHeight = previous;
+            return this;
+        }
+
+        SentimentCycleBuilder follow(double avgChange, double broken) {
+            followCount = 20;
+            followAvg = avgChange;
+            brokenRate = broken;
+            return this;
+        }
+
+        SentimentCycleBuilder noFollow() {
+            followCount = 0;
+            followAvg = 0;
+            brokenRate = 0;
+            return this;
+        }
+
+        SentimentCycle build() {
+            SentimentCycle cycle = new SentimentCycle();
+            cycle.setAdvanceRatio(ratio);
+            cycle.setLimitUpCount(limitUp);
+            cycle.setLimitDownCount(limitDown);
+            cycle.setLadderHeight(height);
+            cycle.setPrevLadderHeight(prevHeight);
+            cycle.setFollowCount(followCount);
+            cycle.setFollowAvgChange(followAvg);
+            cycle.setFollowBrokenRate(brokenRate);
+            return cycle;
+        }
+    }
+}
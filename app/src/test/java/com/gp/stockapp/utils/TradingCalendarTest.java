@@ -0,0 +1,134 @@
+package com.gp.stockapp.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class TradingCalendarTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // 2025 国庆：10/1~10/8 休市，9/28（周日）、10/11（周六）调休上班但A股不开市
+    private static final Set<Integer> HOLIDAYS = Set.of(
+            20251001, 20251002, 20251003, 20251006, 20251007, 20251008);
+
+    private static TradingCalendar calendar() {
+        return new TradingCalendar(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                HOLIDAYS, Set.of(2025));
+    }
+
+    @Test
+    public void weekendMakeUpWorkdaysAreClosed() {
+        TradingCalendar calendar = calendar();
+
+        assertFalse(calendar.isTradingDay(20250928));
+        assertFalse(calendar.isTradingDay(20251011));
+        assertTrue(calendar.isTradingDay(20250929));
+    }
+
+    @Test
+    public void holidaysAreSkippedByNextAndPrevious() {
+        TradingCalendar calendar = calendar();
+
+        assertEquals(20251009, calendar.next(20250930));
+        assertEquals(20250930, calendar.previous(20251009));
+        assertEquals(20250930, calendar.onOrBefore(20251005));
+        assertEquals(20251009, calendar.onOrBefore(20251009));
+    }
+
+    @Test
+    public void offsetAndRangeCountTradingDaysOnly() {
+        TradingCalendar calendar = calendar();
+
+        assertEquals(20251010, calendar.offset(20250930, 2));
+        assertEquals(20250926, calendar.offset(20251009, -3));
+        assertArrayEquals(new int[]{20250929, 20250930, 20251009, 20251010},
+                calendar.range(20250927, 20251012));
+        assertArrayEquals(new int[]{20251010, 20251009, 20250930}, calendar.recent(20251011, 3));
+    }
+
+    @Test
+    public void walksAcrossRangeBoundaryWithWeekdayRule() {
+        TradingCalendar calendar = calendar();
+
+        // 2025-12-31 周三，2026-01-01 不在索引内，按周一至周五推算
+        assertEquals(20260101, calendar.next(20251231));
+        assertEquals(20241231, calendar.previous(20250101));
+        assertFalse(calendar.hasDataFor(2026));
+        assertFalse(calendar.isTradingDay(20260103));
+    }
+
+    @Test
+    public void weekdaysOnlyHasNoDataYears() {
+        TradingCalendar calendar = TradingCalendar.weekdaysOnly();
+
+        assertTrue(calendar.getDataYears().isEmpty());
+        assertEquals(20251006, calendar.next(20251003));
+    }
+
+    @Test
+    public void loaderRejectsMakeUpWorkdayOnWeekday() {
+        String json = "{\"year\":2025,\"version\":1,"
+                + "\"holidays\":[{\"name\":\"国庆节\",\"dates\":[\"20251001\"]}],"
+                + "\"workdaysOnWeekend\":[{\"name\":\"国庆调休\",\"dates\":[\"20250929\"]}]}";
+
+        assertThrows(IllegalArgumentException.class, () -> TradingCalendarLoader.parse(json));
+    }
+
+    @Test
+    public void loaderRejectsDateOutsideYear() {
+        String json = "{\"year\":2025,\"version\":1,"
+                + "\"holidays\":[{\"name\":\"元旦\",\"dates\":[\"20260101\"]}]}";
+
+        assertThrows(IllegalArgumentException.class, () -> TradingCalendarLoader.parse(json));
+    }
+
+    @Test
+    public void refreshedFileOverridesOlderBundledVersion() throws Exception {
+        File dir = folder.newFolder("calendar");
+        Map<Integer, TradingCalendarLoader.YearFile> years = new TreeMap<>();
+        years.put(2025, TradingCalendarLoader.parse(yearJson(1, "20251001")));
+
+        assertNotNull(TradingCalendarLoader.saveUpdate(dir, yearJson(2, "20251001\",\"20251002")));
+        TradingCalendarLoader.mergeRefreshed(years, dir);
+
+        assertEquals(2, years.get(2025).version);
+        assertEquals(2, years.get(2025).holidays.get(0).dates.size());
+    }
+
+    @Test
+    public void updateIsSavedOnlyWhenVersionIsHigher() throws Exception {
+        File dir = folder.newFolder("calendar");
+
+        assertNotNull(TradingCalendarLoader.saveUpdate(dir, yearJson(2, "20251001")));
+        assertNull(TradingCalendarLoader.saveUpdate(dir, yearJson(2, "20251002")));
+        assertNull(TradingCalendarLoader.saveUpdate(dir, yearJson(1, "20251002")));
+        assertNull(TradingCalendarLoader.saveUpdate(dir, "{\"year\":2025,\"version\":3}"));
+
+        Map<Integer, TradingCalendarLoader.YearFile> years = new TreeMap<>();
+        TradingCalendarLoader.mergeRefreshed(years, dir);
+        assertEquals(2, years.get(2025).version);
+        assertEquals("20251001", years.get(2025).holidays.get(0).dates.get(0));
+        assertFalse(new File(dir, "2025.json.tmp").exists());
+    }
+
+    private static String yearJson(int version, String dates) {
+        return "{\"year\":2025,\"version\":" + version + ","
+                + "\"holidays\":[{\"name\":\"国庆节\",\"dates\":[\"" + dates + "\"]}]}";
+    }
+}